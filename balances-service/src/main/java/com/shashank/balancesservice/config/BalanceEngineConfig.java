@@ -0,0 +1,124 @@
+package com.shashank.balancesservice.config;
+
+import com.shashank.balancesservice.service.AccountTable;
+import com.shashank.balancesservice.service.BalanceChangeFeed;
+import com.shashank.balancesservice.service.BalanceChangeLog;
+import com.shashank.balancesservice.service.BalanceEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Assembles the {@link BalanceEngine} from the {@code balances.engine.*} properties and opens the seed
+ * accounts before the service starts taking requests. Accounts are kept in direct memory unless
+ * {@code balances.engine.file} names a file to map them from. Every balance change is also appended to
+ * the {@link BalanceChangeLog} that {@code GET /api/balances/changes} streams from.
+ */
+@Configuration
+public class BalanceEngineConfig {
+
+    private static final Logger log = LogManager.getLogger(BalanceEngineConfig.class);
+
+    @Value("${balances.engine.max-accounts:1048576}")
+    private int maxAccounts;
+
+    @Value("${balances.engine.file:}")
+    private String file;
+
+    @Value("${balances.engine.stripes:1024}")
+    private int stripes;
+
+    @Value("${balances.engine.seed.accounts:1000}")
+    private int seedAccounts;
+
+    @Value("${balances.engine.seed.prefix:account-}")
+    private String seedPrefix;
+
+    @Value("${balances.feed.retention:65536}")
+    private int feedRetention;
+
+    @Value("${balances.feed.heartbeat-interval:1s}")
+    private Duration feedHeartbeatInterval;
+
+    @Value("${balances.feed.timeout:10m}")
+    private Duration feedTimeout;
+
+    @Value("${balances.feed.max-subscribers:64}")
+    private int feedMaxSubscribers;
+
+    @Bean
+    public BalanceChangeLog balanceChangeLog(MeterRegistry meterRegistry) {
+        BalanceChangeLog changeLog = new BalanceChangeLog(feedRetention);
+        FunctionCounter.builder("balances.feed.changes", changeLog, BalanceChangeLog::getAppended)
+                .description("Balance changes appended to the change feed")
+                .register(meterRegistry);
+        return changeLog;
+    }
+
+    @Bean(destroyMethod = "close")
+    public BalanceChangeFeed balanceChangeFeed(BalanceChangeLog balanceChangeLog, MeterRegistry meterRegistry) {
+        BalanceChangeFeed feed = new BalanceChangeFeed(balanceChangeLog, feedHeartbeatInterval, feedTimeout,
+                feedMaxSubscribers);
+        Gauge.builder("balances.feed.subscribers", feed, BalanceChangeFeed::getSubscribers)
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.feed.events", feed, BalanceChangeFeed::getEventsSent)
+                .description("Balance change events sent, summed over subscribers")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.feed.resets", feed, BalanceChangeFeed::getResets)
+                .description("Streams started over from the latest change because the changes after the "
+                        + "subscriber's last event were no longer retained")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.feed.rejected", feed, BalanceChangeFeed::getRejected)
+                .description("Subscriptions refused because max-subscribers streams were already open")
+                .register(meterRegistry);
+        return feed;
+    }
+
+    @Bean
+    public BalanceEngine balanceEngine(BalanceChangeLog balanceChangeLog, MeterRegistry meterRegistry) {
+        long opening = System.nanoTime();
+        AccountTable table = file.isBlank() ? AccountTable.inMemory(maxAccounts)
+                : AccountTable.mapped(Path.of(file), maxAccounts);
+        if (!file.isBlank()) {
+            log.info("Mapped {} with {} of {} accounts in {} ms", file, table.size(), table.capacity(),
+                    (System.nanoTime() - opening) / 1_000_000);
+        }
+        BalanceEngine engine = new BalanceEngine(table, balanceChangeLog, stripes);
+        if (seedAccounts > 0) {
+            long start = System.nanoTime();
+            int opened = engine.seed(seedPrefix, seedAccounts);
+            log.info("Seeded {} accounts {}0..{}{} in {} ms", opened, seedPrefix, seedPrefix, seedAccounts - 1,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        operations(meterRegistry, engine, "credit", BalanceEngine::getCredits);
+        operations(meterRegistry, engine, "debit", BalanceEngine::getDebits);
+        operations(meterRegistry, engine, "hold", BalanceEngine::getHoldsPlaced);
+        operations(meterRegistry, engine, "capture", BalanceEngine::getHoldsCaptured);
+        operations(meterRegistry, engine, "release", BalanceEngine::getHoldsReleased);
+        FunctionCounter.builder("balances.engine.insufficient-funds", engine, BalanceEngine::getInsufficientFunds)
+                .description("Debits and holds refused for lack of available balance")
+                .register(meterRegistry);
+        Gauge.builder("balances.engine.accounts", engine, BalanceEngine::getAccounts)
+                .register(meterRegistry);
+        Gauge.builder("balances.engine.holds.open", engine, BalanceEngine::getOpenHolds)
+                .register(meterRegistry);
+        return engine;
+    }
+
+    private static void operations(MeterRegistry meterRegistry, BalanceEngine engine, String type,
+                                   ToDoubleFunction<BalanceEngine> count) {
+        FunctionCounter.builder("balances.engine.operations", engine, count)
+                .tag("type", type)
+                .description("Balance updates applied, by operation")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.shashank.balancesservice.config;
+
+import com.shashank.balancesservice.logging.RingBufferAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the queue depth and overflow counts of the {@link RingBufferAppender}s in the Log4j
+ * configuration, tagged with the appender name.
+ */
+@Configuration
+public class LoggingMetricsConfig {
+
+    @Bean
+    public MeterBinder ringBufferAppenderMetrics() {
+        return meterRegistry -> {
+            LoggerContext context = (LoggerContext) LogManager.getContext(false);
+            context.getConfiguration().getAppenders().values().stream()
+                    .filter(RingBufferAppender.class::isInstance)
+                    .map(RingBufferAppender.class::cast)
+                    .forEach(appender -> {
+                        Gauge.builder("logging.queue.depth", appender, RingBufferAppender::getQueueDepth)
+                                .tag("appender", appender.getName())
+                                .description("Log events waiting to be written")
+                                .register(meterRegistry);
+                        Gauge.builder("logging.queue.capacity", appender, RingBufferAppender::getCapacity)
+                                .tag("appender", appender.getName())
+                                .register(meterRegistry);
+                        FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::getDropped)
+                                .tag("appender", appender.getName())
+                                .description("Log events discarded because the queue was full")
+                                .register(meterRegistry);
+                        FunctionCounter.builder("logging.events.blocked", appender, RingBufferAppender::getBlocked)
+                                .tag("appender", appender.getName())
+                                .description("Log events that waited for room in the queue")
+                                .register(meterRegistry);
+                    });
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.shashank.balancesservice.config;
+
+import com.shashank.balancesservice.tracing.AdaptiveTraceSampler;
+import com.shashank.balancesservice.tracing.ExemplarSpanContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Installs the {@link AdaptiveTraceSampler} in the OpenTelemetry SDK from the {@code tracing.sampler.*}
+ * properties, in place of {@code otel.traces.sampler}; with {@code tracing.sampler.enabled=false} the SDK
+ * keeps its configured sampler. Also decides which spans the Prometheus registry uses as exemplars.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Value("${tracing.sampler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.sampler.traces-per-second:1}")
+    private double tracesPerSecond;
+
+    @Value("${tracing.sampler.burst:5}")
+    private int burst;
+
+    @Value("${tracing.sampler.keep-exceptions:com.shashank.balancesservice.exception.InsufficientFundsException}")
+    private List<String> keepExceptions;
+
+    @Value("${tracing.sampler.latency-percentile:0.99}")
+    private double latencyPercentile;
+
+    @Value("${tracing.sampler.min-latency-threshold:100ms}")
+    private Duration minLatencyThreshold;
+
+    @Value("${tracing.sampler.window:1000}")
+    private int window;
+
+    @Value("${tracing.sampler.max-endpoints:200}")
+    private int maxEndpoints;
+
+    @Value("${tracing.sampler.max-pending-traces:10000}")
+    private int maxPendingTraces;
+
+    @Value("${tracing.sampler.pending-timeout:30s}")
+    private Duration pendingTimeout;
+
+    @Bean
+    public AdaptiveTraceSampler adaptiveTraceSampler() {
+        return new AdaptiveTraceSampler(tracesPerSecond, burst, latencyPercentile, minLatencyThreshold, window,
+                maxEndpoints, maxPendingTraces, pendingTimeout, keepExceptions);
+    }
+
+    // Picked up by the OpenTelemetry starter when it builds the SDK
+    @Bean
+    public AutoConfigurationCustomizerProvider adaptiveTraceSamplerCustomizer(AdaptiveTraceSampler sampler) {
+        return customizer -> {
+            if (enabled) {
+                customizer.addSamplerCustomizer((configured, config) -> sampler)
+                        .addSpanProcessorCustomizer((processor, config) -> sampler.wrap(processor));
+            }
+        };
+    }
+
+    // Replaces Spring Boot's, which only offers spans sampled up front
+    @Bean
+    public SpanContext exemplarSpanContext() {
+        return new ExemplarSpanContext();
+    }
+
+    // A binder rather than a MeterRegistry parameter, since the registry itself depends on the SDK
+    @Bean
+    public MeterBinder adaptiveTraceSamplerMetrics(AdaptiveTraceSampler sampler) {
+        return meterRegistry -> {
+            decisions(meterRegistry, sampler, "rate", AdaptiveTraceSampler::getSampledByRate);
+            decisions(meterRegistry, sampler, "parent", AdaptiveTraceSampler::getSampledByParent);
+            decisions(meterRegistry, sampler, "server_error", AdaptiveTraceSampler::getKeptServerError);
+            decisions(meterRegistry, sampler, "exception", AdaptiveTraceSampler::getKeptException);
+            decisions(meterRegistry, sampler, "slow", AdaptiveTraceSampler::getKeptSlow);
+            decisions(meterRegistry, sampler, "exemplar", AdaptiveTraceSampler::getKeptExemplar);
+            decisions(meterRegistry, sampler, "discarded", AdaptiveTraceSampler::getDiscarded);
+            FunctionCounter.builder("tracing.sampler.deferred", sampler, AdaptiveTraceSampler::getDeferred)
+                    .description("Traces recorded without being sampled, kept or discarded once they end")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tracing.sampler.spans.unbuffered", sampler,
+                            AdaptiveTraceSampler::getUnbuffered)
+                    .description("Spans of unsampled traces dropped because too many traces were held")
+                    .register(meterRegistry);
+            Gauge.builder("tracing.sampler.pending", sampler, AdaptiveTraceSampler::getPendingTraces)
+                    .register(meterRegistry);
+            Gauge.builder("tracing.sampler.endpoints", sampler, AdaptiveTraceSampler::getEndpoints)
+                    .register(meterRegistry);
+        };
+    }
+
+    private static void decisions(MeterRegistry meterRegistry, AdaptiveTraceSampler sampler, String reason,
+                                  ToDoubleFunction<AdaptiveTraceSampler> count) {
+        FunctionCounter.builder("tracing.sampler.traces", sampler, count)
+                .tag("reason", reason)
+                .description("Traces exported, by why they were kept, and traces discarded")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.shashank.balancesservice.controller;
+
+import com.shashank.balancesservice.exception.TooManySubscribersException;
+import com.shashank.balancesservice.service.BalanceChangeFeed;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/balances")
+public class BalanceChangeController {
+
+    private static final Logger log = LogManager.getLogger(BalanceChangeController.class);
+
+    private final BalanceChangeFeed balanceChangeFeed;
+
+    public BalanceChangeController(BalanceChangeFeed balanceChangeFeed) {
+        this.balanceChangeFeed = balanceChangeFeed;
+    }
+
+    // Resumes after the Last-Event-ID header an SSE client sends on reconnect, or after the `after` parameter.
+    // Refusals carry no body: an error response could not be written as an event stream
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(name = "after", required = false) Long after) {
+        try {
+            return ResponseEntity.ok(balanceChangeFeed.subscribe(lastEventId != null ? lastEventId : after));
+        } catch (TooManySubscribersException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,49 +1,139 @@
 package com.shashank.balancesservice.controller;
 
+import com.shashank.balancesservice.dto.AmountRequest;
+import com.shashank.balancesservice.dto.HoldResponse;
+import com.shashank.balancesservice.dto.OpenAccountRequest;
 import com.shashank.balancesservice.model.AccountBalance;
+import com.shashank.balancesservice.service.BalanceEngine;
+import com.shashank.balancesservice.service.BalanceSnapshot;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/balances")
 public class BalanceController {
 
-    private final Random random = new Random();
+    private final BalanceEngine balanceEngine;
+
+    @Value("${balances.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    @Value("${balances.simulated-latency:0ms}")
+    private Duration simulatedLatency = Duration.ZERO;
+
+    public BalanceController(BalanceEngine balanceEngine) {
+        this.balanceEngine = balanceEngine;
+    }
 
     @GetMapping("/{accountNumber}")
     public ResponseEntity<AccountBalance> getAccountBalance(@PathVariable String accountNumber) {
-        // Generate a random balance greater than $10,000
-        BigDecimal availableBalance = generateRandomBalanceAbove10000();
-        
-        // Current balance is slightly higher than available balance
-        BigDecimal currentBalance = availableBalance.add(
-                new BigDecimal(random.nextInt(1000)).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP)
-        );
-        
-        AccountBalance balance = AccountBalance.builder()
-                .accountNumber(accountNumber)
-                .availableBalance(availableBalance)
-                .currentBalance(currentBalance)
-                .currency("USD")
-                .lastUpdated(LocalDateTime.now())
+        simulateLatency();
+        return ResponseEntity.ok(toAccountBalance(balanceEngine.getBalance(accountNumber)));
+    }
+
+    /**
+     * Opens {@code accountNumber} with the requested opening balance and answers 201, or answers 200 with
+     * its current balance if it is already open. Lookups and updates of accounts not opened here or by
+     * seeding answer 404.
+     */
+    @PutMapping("/{accountNumber}")
+    public ResponseEntity<AccountBalance> openAccount(@PathVariable String accountNumber,
+                                                      @Valid @RequestBody(required = false) OpenAccountRequest request) {
+        BigDecimal openingBalance = request != null && request.getOpeningBalance() != null
+                ? request.getOpeningBalance() : BalanceEngine.openingBalance(accountNumber);
+        boolean opened = balanceEngine.open(accountNumber, openingBalance);
+        AccountBalance balance = toAccountBalance(balanceEngine.getBalance(accountNumber));
+        return new ResponseEntity<>(balance, opened ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    // Returns one balance per requested account number, in request order; unknown accounts are left out
+    @PostMapping("/batch")
+    public ResponseEntity<List<AccountBalance>> getAccountBalances(@RequestBody List<String> accountNumbers) {
+        if (accountNumbers.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        simulateLatency();
+        List<AccountBalance> balances = accountNumbers.stream()
+                .map(balanceEngine::findBalance)
+                .filter(Objects::nonNull)
+                .map(BalanceController::toAccountBalance)
+                .toList();
+        return ResponseEntity.ok(balances);
+    }
+
+    @PostMapping("/{accountNumber}/credits")
+    public ResponseEntity<AccountBalance> credit(@PathVariable String accountNumber,
+                                                 @Valid @RequestBody AmountRequest request) {
+        return ResponseEntity.ok(toAccountBalance(balanceEngine.credit(accountNumber, request.getAmount())));
+    }
+
+    @PostMapping("/{accountNumber}/debits")
+    public ResponseEntity<AccountBalance> debit(@PathVariable String accountNumber,
+                                                @Valid @RequestBody AmountRequest request) {
+        return ResponseEntity.ok(toAccountBalance(balanceEngine.debit(accountNumber, request.getAmount())));
+    }
+
+    @PostMapping("/{accountNumber}/holds")
+    public ResponseEntity<HoldResponse> placeHold(@PathVariable String accountNumber,
+                                                  @Valid @RequestBody AmountRequest request) {
+        BalanceEngine.Hold hold = balanceEngine.placeHold(accountNumber, request.getAmount());
+        HoldResponse response = HoldResponse.builder()
+                .holdId(hold.id())
+                .accountNumber(hold.accountNumber())
+                .amount(hold.amount())
+                .currency(BalanceEngine.CURRENCY)
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds/{holdId}/capture")
+    public ResponseEntity<AccountBalance> captureHold(@PathVariable long holdId) {
+        return ResponseEntity.ok(toAccountBalance(balanceEngine.captureHold(holdId)));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<AccountBalance> releaseHold(@PathVariable long holdId) {
+        return ResponseEntity.ok(toAccountBalance(balanceEngine.releaseHold(holdId)));
+    }
+
+    // One simulated round trip per request, so batched lookups pay it once
+    private void simulateLatency() {
+        if (simulatedLatency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Balances stay in cents inside the engine; the response objects are built only here
+    private static AccountBalance toAccountBalance(BalanceSnapshot snapshot) {
+        return AccountBalance.builder()
+                .accountNumber(snapshot.accountNumber())
+                .availableBalance(snapshot.availableBalance())
+                .currentBalance(snapshot.currentBalance())
+                .currency(BalanceEngine.CURRENCY)
+                .lastUpdated(LocalDateTime.ofInstant(snapshot.updatedAt(), ZoneId.systemDefault()))
+                .version(snapshot.version())
                 .build();
-        
-        return ResponseEntity.ok(balance);
-    }
-    
-    private BigDecimal generateRandomBalanceAbove10000() {
-        // Generate a random balance between $10,000 and $100,000
-        double randomValue = 10000 + (random.nextDouble() * 90000);
-        
-        // Format to 2 decimal places
-        return new BigDecimal(randomValue).setScale(2, RoundingMode.HALF_UP);
     }
 }
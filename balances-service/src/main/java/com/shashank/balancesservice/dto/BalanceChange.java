@@ -0,0 +1,29 @@
+package com.shashank.balancesservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data of a balance change feed event. A {@code balance} event carries the account's balances and record
+ * version after the change, and the time of the change. {@code heartbeat} and {@code reset} events carry
+ * only the sequence the stream has reached and the time of the latest change up to it, which is left out
+ * of heartbeats on a resumed stream until a change has been sent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceChange {
+    private long sequence;
+    private String accountNumber;
+    private BigDecimal availableBalance;
+    private BigDecimal currentBalance;
+    private String currency;
+    private LocalDateTime timestamp;
+    private Long version;
+}
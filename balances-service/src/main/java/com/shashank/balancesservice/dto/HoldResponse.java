@@ -0,0 +1,19 @@
+package com.shashank.balancesservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponse {
+    private long holdId;
+    private String accountNumber;
+    private BigDecimal amount;
+    private String currency;
+}
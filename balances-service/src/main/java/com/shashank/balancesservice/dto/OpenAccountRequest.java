@@ -0,0 +1,21 @@
+package com.shashank.balancesservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenAccountRequest {
+    // Left out, the account opens with the balance derived from its number
+    @PositiveOrZero(message = "Opening balance must not be negative")
+    @Digits(integer = 16, fraction = 2, message = "Opening balance must have at most 2 decimal places")
+    private BigDecimal openingBalance;
+}
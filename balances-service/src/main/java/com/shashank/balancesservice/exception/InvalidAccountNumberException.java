@@ -0,0 +1,7 @@
+package com.shashank.balancesservice.exception;
+
+public class InvalidAccountNumberException extends RuntimeException {
+    public InvalidAccountNumberException(String message) {
+        super(message);
+    }
+}
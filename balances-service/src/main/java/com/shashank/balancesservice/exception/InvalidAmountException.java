@@ -0,0 +1,7 @@
+package com.shashank.balancesservice.exception;
+
+public class InvalidAmountException extends RuntimeException {
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,153 @@
+package com.shashank.balancesservice.logging;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes each event as one line of JSON, with the field names {@code JsonLayout} uses, without creating
+ * garbage: the line is built in a reused {@link StringBuilder}, messages that can format themselves into it
+ * do, and JSON escaping is done in place. Only events with an exception allocate, to render its stack trace.
+ * <p>
+ * {@code {"instant":{"epochSecond":..,"nanoOfSecond":..},"level":..,"thread":..,"threadId":..,
+ * "loggerName":..,"message":..,"thrown":{..},"contextMap":{..},"service.name":..}}
+ */
+@Plugin(name = "StructuredJsonLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class StructuredJsonLayout extends AbstractStringLayout {
+
+    private static final TriConsumer<String, Object, StringBuilder> WRITE_CONTEXT = (key, value, text) -> {
+        if (text.charAt(text.length() - 1) != '{') {
+            text.append(',');
+        }
+        appendString(text, key);
+        text.append(':');
+        if (value == null) {
+            text.append("null");
+        } else {
+            int start = text.append('"').length();
+            StringBuilders.appendValue(text, value);
+            StringBuilders.escapeJson(text, start);
+            text.append('"');
+        }
+    };
+
+    private final String serviceName;
+
+    StructuredJsonLayout(Configuration configuration, Charset charset, String serviceName) {
+        super(configuration, charset, null, null);
+        this.serviceName = serviceName;
+    }
+
+    @PluginFactory
+    public static StructuredJsonLayout createLayout(
+            @PluginConfiguration Configuration configuration,
+            @PluginAttribute(value = "charset", defaultString = "UTF-8") Charset charset,
+            @PluginAttribute("serviceName") String serviceName) {
+        return new StructuredJsonLayout(configuration, charset != null ? charset : StandardCharsets.UTF_8,
+                serviceName);
+    }
+
+    @Override
+    public String toSerializable(LogEvent event) {
+        StringBuilder text = getStringBuilder();
+        format(event, text);
+        return text.toString();
+    }
+
+    @Override
+    public void encode(LogEvent event, ByteBufferDestination destination) {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            super.encode(event, destination);
+            return;
+        }
+        StringBuilder text = getStringBuilder();
+        format(event, text);
+        getStringBuilderEncoder().encode(text, destination);
+        trimToMaxSize(text);
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json; charset=" + getCharset();
+    }
+
+    void format(LogEvent event, StringBuilder text) {
+        text.append("{\"instant\":{\"epochSecond\":").append(event.getInstant().getEpochSecond())
+                .append(",\"nanoOfSecond\":").append(event.getInstant().getNanoOfSecond())
+                .append("},\"level\":\"").append(event.getLevel().name())
+                .append("\",\"thread\":");
+        appendString(text, event.getThreadName());
+        text.append(",\"threadId\":").append(event.getThreadId())
+                .append(",\"loggerName\":");
+        appendString(text, event.getLoggerName());
+        text.append(",\"message\":");
+        appendMessage(text, event.getMessage());
+        Throwable thrown = event.getThrown();
+        if (thrown != null) {
+            appendThrown(text, thrown);
+        }
+        text.append(",\"contextMap\":{");
+        event.getContextData().forEach(WRITE_CONTEXT, text);
+        text.append('}');
+        if (serviceName != null) {
+            text.append(",\"service.name\":");
+            appendString(text, serviceName);
+        }
+        text.append("}\n");
+    }
+
+    private static void appendMessage(StringBuilder text, Message message) {
+        if (message == null) {
+            text.append("null");
+            return;
+        }
+        int start = text.append('"').length();
+        if (message instanceof StringBuilderFormattable formattable) {
+            formattable.formatTo(text);
+        } else {
+            text.append(message.getFormattedMessage());
+        }
+        StringBuilders.escapeJson(text, start);
+        text.append('"');
+    }
+
+    private static void appendThrown(StringBuilder text, Throwable thrown) {
+        StringWriter stackTrace = new StringWriter();
+        thrown.printStackTrace(new PrintWriter(stackTrace));
+        text.append(",\"thrown\":{\"name\":");
+        appendString(text, thrown.getClass().getName());
+        text.append(",\"message\":");
+        appendString(text, thrown.getMessage());
+        text.append(",\"extendedStackTrace\":");
+        appendString(text, stackTrace.toString());
+        text.append('}');
+    }
+
+    private static void appendString(StringBuilder text, String value) {
+        if (value == null) {
+            text.append("null");
+            return;
+        }
+        int start = text.append('"').length();
+        text.append(value);
+        StringBuilders.escapeJson(text, start);
+        text.append('"');
+    }
+}
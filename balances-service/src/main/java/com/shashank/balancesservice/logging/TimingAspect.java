@@ -0,0 +1,119 @@
+package com.shashank.balancesservice.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every call into the beans {@link LoggingAspect} logs, as a {@code method.duration} timer tagged with
+ * the class, method and outcome ({@code success} or {@code error}).
+ * <p>
+ * Timers are created on a method's first call and cached by {@link Method}, so after that a timed call adds
+ * a map lookup, two clock reads and a histogram update. It is not allocation-free: Spring AOP builds a join
+ * point and its signature for every intercepted call. At most {@code max-methods} methods get timers of their
+ * own; calls to any further ones are recorded under {@code class=other, method=other}. Percentiles are
+ * computed in-process over Micrometer's HdrHistogram-based sliding window.
+ * <p>
+ * This aspect runs inside the logging aspect, so logging is not counted. Reactive methods are timed until
+ * they return their {@code Mono} or {@code Flux}, not until it completes.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TimingAspect {
+
+    static final String METER_NAME = "method.duration";
+    static final String OVERFLOW = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, CallSite> callSites = new ConcurrentHashMap<>();
+    private final AtomicInteger timedMethods = new AtomicInteger();
+    private volatile CallSite overflow;
+
+    @Value("${metrics.methods.percentiles:0.5,0.95,0.99}")
+    private double[] percentiles = {0.5, 0.95, 0.99};
+
+    @Value("${metrics.methods.slo:5ms,25ms,100ms,500ms}")
+    private Duration[] slo = {Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100),
+            Duration.ofMillis(500)};
+
+    @Value("${metrics.methods.percentile-histogram:false}")
+    private boolean percentileHistogram;
+
+    @Value("${metrics.methods.max-methods:500}")
+    private int maxMethods = 500;
+
+    public TimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("com.shashank.balancesservice.logging.LoggingAspect.applicationPackagePointcut()" +
+            " && com.shashank.balancesservice.logging.LoggingAspect.springBeanPointcut()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        CallSite site = callSite(joinPoint);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            site.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            site.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private CallSite callSite(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CallSite site = callSites.get(method);
+        return site != null ? site : callSites.computeIfAbsent(method, this::register);
+    }
+
+    private CallSite register(Method method) {
+        if (timedMethods.incrementAndGet() > maxMethods) {
+            timedMethods.decrementAndGet();
+            CallSite shared = overflow;
+            if (shared == null) {
+                shared = new CallSite(timer(OVERFLOW, OVERFLOW, "success"), timer(OVERFLOW, OVERFLOW, "error"));
+                overflow = shared;
+            }
+            return shared;
+        }
+        String className = method.getDeclaringClass().getSimpleName();
+        return new CallSite(timer(className, method.getName(), "success"),
+                timer(className, method.getName(), "error"));
+    }
+
+    // Registering the same name and tags again returns the existing timer, so overloads share one
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder(METER_NAME)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .description("Time spent in application bean methods")
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(percentileHistogram)
+                .serviceLevelObjectives(slo)
+                .register(meterRegistry);
+    }
+
+    public int getTimedMethods() {
+        return timedMethods.get();
+    }
+
+    private record CallSite(Timer success, Timer error) {
+    }
+}
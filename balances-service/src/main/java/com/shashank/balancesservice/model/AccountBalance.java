@@ -18,4 +18,6 @@ public class AccountBalance {
     private BigDecimal currentBalance;
     private String currency;
     private LocalDateTime lastUpdated;
+    // Grows with every change to the account, so a higher version reflects all changes in a lower one
+    private Long version;
 }
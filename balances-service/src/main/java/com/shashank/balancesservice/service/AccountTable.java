@@ -0,0 +1,319 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.exception.InvalidAccountNumberException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-width account records in one off-heap buffer, memory-mapped from a file when one is given so that
+ * balances survive restarts and reopening costs no more than mapping the file.
+ * <p>
+ * The buffer holds a header, an open-addressing index of account number to slot sized to at least twice
+ * {@code capacity}, and {@code capacity} records of {@value #RECORD_SIZE} bytes:
+ * <pre>
+ *  0 version     long   odd while a write is in progress; see below
+ *  8 ledger      long   cents
+ * 16 held        long   cents, counted only while heldEpoch matches the table's epoch
+ * 24 heldEpoch   int
+ * 28 length      int    bytes of the account number
+ * 32 account     up to 32 bytes of UTF-8
+ * </pre>
+ * Lookups and reads take no locks: a record is written before its index entry is published, and
+ * {@link #read} retries until it sees the same even version before and after copying the balances.
+ * Writers to one record must be serialized by the caller; new accounts are serialized here.
+ * <p>
+ * Between writes a record's version is twice the time of its last write in microseconds since the epoch,
+ * or two more than the version before it if the clock has not moved past that: it increases with every
+ * write even when the clock steps back, survives a reopen, and still tells when the balances last changed.
+ * <p>
+ * Holds are not persisted, so every reopen starts a new epoch and amounts held before it no longer count.
+ * Writes reach the file through the page cache and survive the process; {@link #close} forces them to
+ * disk but a machine crash can lose recent updates.
+ */
+public class AccountTable implements AutoCloseable {
+
+    static final int RECORD_SIZE = 64;
+    public static final int MAX_ACCOUNT_NUMBER_BYTES = 32;
+
+    private static final long MAGIC = 0x42414C414E434531L;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_INDEX_SIZE = 12;
+    private static final int HEADER_COUNT = 16;
+    private static final int HEADER_EPOCH = 20;
+
+    private static final int VERSION = 0;
+    private static final int LEDGER = 8;
+    private static final int HELD = 16;
+    private static final int HELD_EPOCH = 24;
+    private static final int LENGTH = 28;
+    private static final int ACCOUNT = 32;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    private final int capacity;
+    private final int indexMask;
+    private final int recordsBase;
+    private final int epoch;
+    private final LongSupplier currentMicros;
+    private final ReentrantLock insertLock = new ReentrantLock();
+
+    private AccountTable(ByteBuffer buffer, FileChannel channel, LongSupplier currentMicros) {
+        this.buffer = buffer;
+        this.channel = channel;
+        this.currentMicros = currentMicros;
+        this.capacity = buffer.getInt(HEADER_CAPACITY);
+        int indexSize = buffer.getInt(HEADER_INDEX_SIZE);
+        this.indexMask = indexSize - 1;
+        this.recordsBase = HEADER_SIZE + indexSize * Integer.BYTES;
+        this.epoch = buffer.getInt(HEADER_EPOCH) + 1;
+        buffer.putInt(HEADER_EPOCH, epoch);
+    }
+
+    /**
+     * A table in direct memory that lasts as long as the process.
+     */
+    public static AccountTable inMemory(int capacity) {
+        return inMemory(capacity, AccountTable::currentMicros);
+    }
+
+    static AccountTable inMemory(int capacity, LongSupplier currentMicros) {
+        int size = size(capacity);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size + RECORD_SIZE).alignedSlice(RECORD_SIZE)
+                .order(ByteOrder.nativeOrder());
+        format(buffer, capacity);
+        return new AccountTable(buffer, null, currentMicros);
+    }
+
+    /**
+     * Maps {@code file}, creating it for {@code capacity} accounts if it does not exist yet. An existing
+     * file keeps the capacity it was created with.
+     */
+    public static AccountTable mapped(Path file, int capacity) {
+        try {
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                int size = exists ? (int) Math.min(channel.size(), Integer.MAX_VALUE) : size(capacity);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.nativeOrder());
+                if (!exists) {
+                    format(buffer, capacity);
+                } else if (buffer.getLong(HEADER_MAGIC) != MAGIC) {
+                    throw new IllegalStateException(file + " is not an account table");
+                }
+                return new AccountTable(buffer, channel, AccountTable::currentMicros);
+            } catch (RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map account table " + file, e);
+        }
+    }
+
+    private static int size(int capacity) {
+        long size = HEADER_SIZE + (long) indexSize(capacity) * Integer.BYTES + (long) capacity * RECORD_SIZE;
+        if (capacity <= 0 || size > Integer.MAX_VALUE - RECORD_SIZE) {
+            throw new IllegalArgumentException("Account table capacity must be between 1 and about 25 million: "
+                    + capacity);
+        }
+        return (int) size;
+    }
+
+    // At most half full, so probes stay short
+    private static int indexSize(int capacity) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1);
+    }
+
+    private static void format(ByteBuffer buffer, int capacity) {
+        buffer.putInt(HEADER_CAPACITY, capacity);
+        buffer.putInt(HEADER_INDEX_SIZE, indexSize(capacity));
+        buffer.putInt(HEADER_COUNT, 0);
+        buffer.putInt(HEADER_EPOCH, 0);
+        buffer.putLong(HEADER_MAGIC, MAGIC);
+    }
+
+    /**
+     * The slot of {@code accountNumber}, or -1 if it has none.
+     */
+    public int find(String accountNumber) {
+        byte[] key = encode(accountNumber);
+        for (int position = hash(key) & indexMask; ; position = (position + 1) & indexMask) {
+            int entry = (int) INTS.getAcquire(buffer, indexOffset(position));
+            if (entry == 0) {
+                return -1;
+            }
+            if (matches(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * The slot of {@code accountNumber}, giving it a new one with {@code ledgerCents} if it has none.
+     *
+     * @throws IllegalStateException if the table is full
+     */
+    public int insert(String accountNumber, long ledgerCents) {
+        byte[] key = encode(accountNumber);
+        insertLock.lock();
+        try {
+            int position = hash(key) & indexMask;
+            for (; ; position = (position + 1) & indexMask) {
+                int entry = (int) INTS.getAcquire(buffer, indexOffset(position));
+                if (entry == 0) {
+                    break;
+                }
+                if (matches(entry - 1, key)) {
+                    return entry - 1;
+                }
+            }
+            int slot = buffer.getInt(HEADER_COUNT);
+            if (slot >= capacity) {
+                throw new IllegalStateException("Account table is full: " + capacity + " accounts");
+            }
+            int record = recordOffset(slot);
+            buffer.putLong(record + VERSION, nextVersion(0));
+            buffer.putLong(record + LEDGER, ledgerCents);
+            buffer.putLong(record + HELD, 0);
+            buffer.putInt(record + HELD_EPOCH, epoch);
+            buffer.putInt(record + LENGTH, key.length);
+            buffer.put(record + ACCOUNT, key);
+            INTS.setRelease(buffer, HEADER_COUNT, slot + 1);
+            INTS.setRelease(buffer, indexOffset(position), slot + 1);
+            return slot;
+        } finally {
+            insertLock.unlock();
+        }
+    }
+
+    /**
+     * A consistent copy of the slot's balances, taken without locking.
+     */
+    public BalanceSnapshot read(String accountNumber, int slot) {
+        int record = recordOffset(slot);
+        while (true) {
+            long version = (long) LONGS.getAcquire(buffer, record + VERSION);
+            if ((version & 1) == 0) {
+                long ledger = (long) LONGS.getOpaque(buffer, record + LEDGER);
+                long held = (long) LONGS.getOpaque(buffer, record + HELD);
+                int heldEpoch = (int) INTS.getOpaque(buffer, record + HELD_EPOCH);
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getOpaque(buffer, record + VERSION) == version) {
+                    return new BalanceSnapshot(accountNumber, ledger, heldEpoch == epoch ? held : 0, version);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Replaces the slot's balances. Callers must not write one slot concurrently.
+     *
+     * @return the record's new version
+     */
+    public long write(int slot, long ledgerCents, long heldCents) {
+        int record = recordOffset(slot);
+        long version = (long) LONGS.getOpaque(buffer, record + VERSION);
+        long next = nextVersion(version);
+        LONGS.setOpaque(buffer, record + VERSION, version + 1);
+        VarHandle.storeStoreFence();
+        LONGS.setOpaque(buffer, record + LEDGER, ledgerCents);
+        LONGS.setOpaque(buffer, record + HELD, heldCents);
+        INTS.setOpaque(buffer, record + HELD_EPOCH, epoch);
+        LONGS.setRelease(buffer, record + VERSION, next);
+        return next;
+    }
+
+    private long nextVersion(long version) {
+        return Math.max(version + 2, currentMicros.getAsLong() << 1);
+    }
+
+    private static long currentMicros() {
+        return System.currentTimeMillis() * 1_000;
+    }
+
+    public int size() {
+        return (int) INTS.getAcquire(buffer, HEADER_COUNT);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Starts at 1 when the table is created and grows by one on every reopen
+    public int epoch() {
+        return epoch;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            ((MappedByteBuffer) buffer).force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close account table", e);
+        }
+    }
+
+    private boolean matches(int slot, byte[] key) {
+        int record = recordOffset(slot);
+        if (buffer.getInt(record + LENGTH) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(record + ACCOUNT + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(String accountNumber) {
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || key.length > MAX_ACCOUNT_NUMBER_BYTES) {
+            throw new InvalidAccountNumberException("Account number must be 1 to " + MAX_ACCOUNT_NUMBER_BYTES
+                    + " bytes: " + accountNumber);
+        }
+        return key;
+    }
+
+    private static int hash(byte[] key) {
+        int hash = 0;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int indexOffset(int position) {
+        return HEADER_SIZE + position * Integer.BYTES;
+    }
+
+    private int recordOffset(int slot) {
+        return recordsBase + slot * RECORD_SIZE;
+    }
+}
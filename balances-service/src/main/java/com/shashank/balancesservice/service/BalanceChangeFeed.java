@@ -0,0 +1,194 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.dto.BalanceChange;
+import com.shashank.balancesservice.exception.TooManySubscribersException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams the {@link BalanceChangeLog} to subscribers as Server-Sent Events.
+ * <p>
+ * Each change is a {@code balance} event whose id is its sequence. A subscriber that reconnects with the
+ * last id it saw continues right after it; if changes it missed are no longer retained, or it sends no
+ * id, it first gets a {@code reset} event and continues from the latest change. When no change arrives
+ * for {@code heartbeatInterval} a {@code heartbeat} event reports how far the stream has got, so a
+ * subscriber can tell an idle stream from a dead one. Resets and heartbeats are dated by the latest change
+ * they cover, not by when they are sent, so a subscriber never takes its copy to be newer than the log's.
+ * Streams end after {@code timeout} and are expected to be resumed.
+ * <p>
+ * Each subscriber is served by a thread of its own, so at most {@code maxSubscribers} are served at once;
+ * {@link #subscribe} refuses any more with {@link TooManySubscribersException}.
+ */
+public class BalanceChangeFeed implements AutoCloseable {
+
+    static final String BALANCE = "balance";
+    static final String HEARTBEAT = "heartbeat";
+    static final String RESET = "reset";
+
+    private static final Logger log = LogManager.getLogger(BalanceChangeFeed.class);
+    private static final int MAX_BATCH = 256;
+
+    private final BalanceChangeLog changeLog;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final ThreadPoolExecutor streams;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public BalanceChangeFeed(BalanceChangeLog changeLog, Duration heartbeatInterval, Duration timeout,
+                             int maxSubscribers) {
+        this.changeLog = changeLog;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+        AtomicInteger streamIds = new AtomicInteger();
+        this.streams = new ThreadPoolExecutor(0, this.maxSubscribers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "balance-feed-" + streamIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts a stream of the changes after {@code lastEventId}, or of new changes if it is null.
+     *
+     * @throws TooManySubscribersException if {@code maxSubscribers} streams are already being served
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            rejected.increment();
+            throw new TooManySubscribersException("Balance change feed is serving its limit of " + maxSubscribers
+                    + " subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+        try {
+            streams.execute(() -> stream(emitter, lastEventId, open));
+        } catch (RejectedExecutionException e) {
+            // A stream that just ended has given up its place but not yet its thread
+            subscribers.decrementAndGet();
+            rejected.increment();
+            throw new TooManySubscribersException("Balance change feed is serving its limit of " + maxSubscribers
+                    + " subscribers");
+        }
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, Long lastEventId, AtomicBoolean open) {
+        try {
+            long cursor;
+            // When the latest change sent was made; unknown on a resumed stream until one is sent
+            Instant applied = null;
+            if (lastEventId != null && changeLog.canResumeAfter(lastEventId)) {
+                cursor = lastEventId;
+            } else {
+                applied = changeLog.lastApplied();
+                cursor = changeLog.head();
+                send(emitter, RESET, cursor, marker(cursor, applied));
+                resets.increment();
+            }
+            while (open.get()) {
+                List<BalanceChangeLog.Change> changes = changeLog.read(cursor, MAX_BATCH, heartbeatNanos);
+                if (changes == null) {
+                    applied = changeLog.lastApplied();
+                    cursor = changeLog.head();
+                    send(emitter, RESET, cursor, marker(cursor, applied));
+                    resets.increment();
+                } else if (changes.isEmpty()) {
+                    send(emitter, HEARTBEAT, null, marker(cursor, applied));
+                } else {
+                    for (BalanceChangeLog.Change change : changes) {
+                        send(emitter, BALANCE, change.sequence(), toBalanceChange(change));
+                        cursor = change.sequence();
+                        if (applied == null || change.updatedAt().isAfter(applied)) {
+                            applied = change.updatedAt();
+                        }
+                    }
+                    eventsSent.add(changes.size());
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The subscriber went away or the stream timed out
+            log.debug("Balance change stream ended: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private static void send(SseEmitter emitter, String name, Long id, BalanceChange data) throws IOException {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        if (id != null) {
+            event.id(Long.toString(id));
+        }
+        emitter.send(event);
+    }
+
+    private static BalanceChange marker(long sequence, Instant applied) {
+        return BalanceChange.builder()
+                .sequence(sequence)
+                .timestamp(applied != null ? LocalDateTime.ofInstant(applied, ZoneId.systemDefault()) : null)
+                .build();
+    }
+
+    private static BalanceChange toBalanceChange(BalanceChangeLog.Change change) {
+        return BalanceChange.builder()
+                .sequence(change.sequence())
+                .accountNumber(change.accountNumber())
+                .availableBalance(BigDecimal.valueOf(change.ledgerCents() - change.heldCents(), BalanceEngine.SCALE))
+                .currentBalance(BigDecimal.valueOf(change.ledgerCents(), BalanceEngine.SCALE))
+                .currency(BalanceEngine.CURRENCY)
+                .timestamp(LocalDateTime.ofInstant(change.updatedAt(), ZoneId.systemDefault()))
+                .version(change.version())
+                .build();
+    }
+
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    public long getEventsSent() {
+        return eventsSent.sum();
+    }
+
+    public long getResets() {
+        return resets.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        streams.shutdownNow();
+    }
+}
@@ -0,0 +1,163 @@
+package com.shashank.balancesservice.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent {@code retention} balance changes, numbered by a sequence that readers resume from.
+ * <p>
+ * Appending claims the next sequence and stores the change in a ring without locking; a reader takes a
+ * slot's change only once it carries the sequence the reader expects, so changes published out of order
+ * by concurrent writers are still read in sequence order. A reader that falls more than {@code retention}
+ * changes behind has lost some and must start over from {@link #head()}.
+ * <p>
+ * Sequences start from the startup time in milliseconds shifted left by 20 bits, so a sequence from an
+ * earlier run of the service is always older than anything this run retains.
+ * <p>
+ * Each change carries the account's record version, which also dates it (see {@link AccountTable}), and
+ * the log keeps the latest such time as {@link #lastApplied()}: the balances it holds are as of then,
+ * however long ago that was.
+ */
+public class BalanceChangeLog {
+
+    private final AtomicReferenceArray<Change> ring;
+    private final int mask;
+    private final long start;
+    private final AtomicLong head;
+    private final AtomicLong lastAppliedMicros;
+
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition appended = waitLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public BalanceChangeLog(int retention) {
+        this(retention, System.currentTimeMillis() << 20);
+    }
+
+    BalanceChangeLog(int retention, long start) {
+        int size = Integer.highestOneBit(Math.max(1, retention - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.start = start;
+        this.head = new AtomicLong(start);
+        this.lastAppliedMicros = new AtomicLong((start >>> 20) * 1_000);
+    }
+
+    /**
+     * Records the balances {@code accountNumber} was left with at record {@code version}. Changes to one
+     * account must be appended in the order they were made.
+     */
+    public void append(String accountNumber, long ledgerCents, long heldCents, long version) {
+        long sequence = head.incrementAndGet();
+        Change change = new Change(sequence, accountNumber, ledgerCents, heldCents, version);
+        ring.set((int) (sequence & mask), change);
+        lastAppliedMicros.accumulateAndGet(version >>> 1, Math::max);
+        if (waiters.get() > 0) {
+            waitLock.lock();
+            try {
+                appended.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The sequence of the latest change, or the starting sequence if there has been none.
+     */
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * The time of the latest change appended, or the startup time if there has been none. Read before
+     * {@link #head()}, it is no later than the latest change up to the head.
+     */
+    public Instant lastApplied() {
+        return Instant.EPOCH.plus(lastAppliedMicros.get(), ChronoUnit.MICROS);
+    }
+
+    /**
+     * Whether every change after {@code sequence} is still retained.
+     */
+    public boolean canResumeAfter(long sequence) {
+        long latest = head.get();
+        return sequence >= start && sequence <= latest && latest - sequence <= ring.length();
+    }
+
+    /**
+     * Up to {@code max} changes following {@code after}, in sequence order, waiting up to {@code timeoutNanos}
+     * for the first one.
+     *
+     * @return the changes, empty if none arrived in time, or null if changes after {@code after} have
+     * already been overwritten
+     */
+    public List<Change> read(long after, int max, long timeoutNanos) throws InterruptedException {
+        long next = after + 1;
+        Change first = await(next, timeoutNanos);
+        if (first == null) {
+            return List.of();
+        }
+        if (first.sequence() != next) {
+            return null;
+        }
+        List<Change> changes = new ArrayList<>(Math.min(max, 64));
+        changes.add(first);
+        for (long sequence = next + 1; changes.size() < max; sequence++) {
+            Change change = ring.get((int) (sequence & mask));
+            if (change == null || change.sequence() != sequence) {
+                break;
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    // The change in sequence's slot once it is sequence or newer, or null on timeout
+    private Change await(long sequence, long timeoutNanos) throws InterruptedException {
+        Change change = ring.get((int) (sequence & mask));
+        if (change != null && change.sequence() >= sequence) {
+            return change;
+        }
+        waiters.incrementAndGet();
+        waitLock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (true) {
+                change = ring.get((int) (sequence & mask));
+                if (change != null && change.sequence() >= sequence) {
+                    return change;
+                }
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = appended.awaitNanos(remaining);
+            }
+        } finally {
+            waitLock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    public long getAppended() {
+        return head.get() - start;
+    }
+
+    public int getRetention() {
+        return ring.length();
+    }
+
+    public record Change(long sequence, String accountNumber, long ledgerCents, long heldCents, long version) {
+
+        public Instant updatedAt() {
+            return Instant.EPOCH.plus(version >>> 1, ChronoUnit.MICROS);
+        }
+    }
+}
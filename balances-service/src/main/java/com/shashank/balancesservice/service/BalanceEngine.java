@@ -0,0 +1,302 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.exception.AccountNotFoundException;
+import com.shashank.balancesservice.exception.HoldNotFoundException;
+import com.shashank.balancesservice.exception.InsufficientFundsException;
+import com.shashank.balancesservice.exception.InvalidAmountException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Account balances with credit, debit and hold operations over an {@link AccountTable}.
+ * <p>
+ * Each account has a ledger balance and the total of its open holds, in cents; the available balance is
+ * the ledger balance less holds. Updates to an account are serialized by one of {@code stripes} locks
+ * chosen by its slot, so operations on different accounts rarely contend; lookups take no lock.
+ * <p>
+ * Accounts are only opened by {@link #open} and {@link #seed}; every other operation on an account that is
+ * not open fails with {@link AccountNotFoundException}, so lookups cannot use up the table's fixed
+ * capacity. Open holds live on the heap and do not survive a restart; see {@link AccountTable}.
+ * <p>
+ * Every credit, debit and hold change is appended to the optional {@link BalanceChangeLog} while the
+ * account's lock is held, so one account's changes are logged in the order they were made. Opening an
+ * account is not logged.
+ */
+public class BalanceEngine implements AutoCloseable {
+
+    public static final int SCALE = 2;
+    public static final String CURRENCY = "USD";
+
+    private static final long MIN_OPENING_CENTS = 1_000_000;
+    private static final long MAX_OPENING_CENTS = 10_000_000;
+
+    private final AccountTable table;
+    private final BalanceChangeLog changeLog;
+    private final ReentrantLock[] locks;
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong holdIds;
+
+    private final LongAdder credits = new LongAdder();
+    private final LongAdder debits = new LongAdder();
+    private final LongAdder holdsPlaced = new LongAdder();
+    private final LongAdder holdsCaptured = new LongAdder();
+    private final LongAdder holdsReleased = new LongAdder();
+    private final LongAdder insufficientFunds = new LongAdder();
+
+    public BalanceEngine(AccountTable table, int stripes) {
+        this(table, null, stripes);
+    }
+
+    public BalanceEngine(AccountTable table, BalanceChangeLog changeLog, int stripes) {
+        this.table = table;
+        this.changeLog = changeLog;
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // Ids from an earlier run never name a hold of this one
+        this.holdIds = new AtomicLong((long) table.epoch() << 40);
+    }
+
+    /**
+     * Opens {@code accountNumber} with {@code balance} unless it is already open.
+     *
+     * @return whether the account was opened
+     */
+    public boolean open(String accountNumber, BigDecimal balance) {
+        long cents = toCents(balance, true);
+        if (table.find(accountNumber) >= 0) {
+            return false;
+        }
+        int size = table.size();
+        table.insert(accountNumber, cents);
+        return table.size() > size;
+    }
+
+    /**
+     * Opens {@code prefix + i} for every {@code i} below {@code count} with the balance derived from its
+     * number, skipping accounts already open.
+     *
+     * @return the number of accounts opened
+     */
+    public int seed(String prefix, int count) {
+        int before = table.size();
+        for (int i = 0; i < count; i++) {
+            String accountNumber = prefix + i;
+            table.insert(accountNumber, openingCents(accountNumber));
+        }
+        return table.size() - before;
+    }
+
+    public BalanceSnapshot getBalance(String accountNumber) {
+        return table.read(accountNumber, slot(accountNumber));
+    }
+
+    /**
+     * The balance of {@code accountNumber}, or null if it is not open.
+     */
+    public BalanceSnapshot findBalance(String accountNumber) {
+        int slot = table.find(accountNumber);
+        return slot < 0 ? null : table.read(accountNumber, slot);
+    }
+
+    public BalanceSnapshot credit(String accountNumber, BigDecimal amount) {
+        long cents = toCents(amount, false);
+        int slot = slot(accountNumber);
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            BalanceSnapshot current = table.read(accountNumber, slot);
+            long ledger;
+            try {
+                ledger = Math.addExact(current.ledgerCents(), cents);
+            } catch (ArithmeticException e) {
+                throw new InvalidAmountException("Credit of " + amount + " would overflow account " + accountNumber);
+            }
+            long version = write(accountNumber, slot, ledger, current.heldCents());
+            credits.increment();
+            return new BalanceSnapshot(accountNumber, ledger, current.heldCents(), version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BalanceSnapshot debit(String accountNumber, BigDecimal amount) {
+        long cents = toCents(amount, false);
+        int slot = slot(accountNumber);
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            BalanceSnapshot current = table.read(accountNumber, slot);
+            requireAvailable(current, cents, amount);
+            long ledger = current.ledgerCents() - cents;
+            long version = write(accountNumber, slot, ledger, current.heldCents());
+            debits.increment();
+            return new BalanceSnapshot(accountNumber, ledger, current.heldCents(), version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves {@code amount} of the available balance until the hold is captured or released.
+     */
+    public Hold placeHold(String accountNumber, BigDecimal amount) {
+        long cents = toCents(amount, false);
+        int slot = slot(accountNumber);
+        ReentrantLock lock = lock(slot);
+        lock.lock();
+        try {
+            BalanceSnapshot current = table.read(accountNumber, slot);
+            requireAvailable(current, cents, amount);
+            write(accountNumber, slot, current.ledgerCents(), current.heldCents() + cents);
+            Hold hold = new Hold(holdIds.incrementAndGet(), accountNumber, slot, cents);
+            holds.put(hold.id(), hold);
+            holdsPlaced.increment();
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Debits the held amount and closes the hold
+    public BalanceSnapshot captureHold(long holdId) {
+        return closeHold(holdId, true);
+    }
+
+    // Returns the held amount to the available balance and closes the hold
+    public BalanceSnapshot releaseHold(long holdId) {
+        return closeHold(holdId, false);
+    }
+
+    private BalanceSnapshot closeHold(long holdId, boolean capture) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new HoldNotFoundException("Hold not found: " + holdId);
+        }
+        ReentrantLock lock = lock(hold.slot());
+        lock.lock();
+        try {
+            BalanceSnapshot current = table.read(hold.accountNumber(), hold.slot());
+            long ledger = capture ? current.ledgerCents() - hold.cents() : current.ledgerCents();
+            long held = current.heldCents() - hold.cents();
+            long version = write(hold.accountNumber(), hold.slot(), ledger, held);
+            if (capture) {
+                holdsCaptured.increment();
+            } else {
+                holdsReleased.increment();
+            }
+            return new BalanceSnapshot(hold.accountNumber(), ledger, held, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the slot's lock
+    private long write(String accountNumber, int slot, long ledgerCents, long heldCents) {
+        long version = table.write(slot, ledgerCents, heldCents);
+        if (changeLog != null) {
+            changeLog.append(accountNumber, ledgerCents, heldCents, version);
+        }
+        return version;
+    }
+
+    private void requireAvailable(BalanceSnapshot current, long cents, BigDecimal amount) {
+        if (current.availableCents() < cents) {
+            insufficientFunds.increment();
+            throw new InsufficientFundsException("Insufficient funds in account " + current.accountNumber()
+                    + ". Available balance: " + current.availableBalance() + " " + CURRENCY
+                    + ", requested: " + amount + " " + CURRENCY);
+        }
+    }
+
+    private int slot(String accountNumber) {
+        int slot = table.find(accountNumber);
+        if (slot < 0) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+        return slot;
+    }
+
+    private ReentrantLock lock(int slot) {
+        return locks[slot & (locks.length - 1)];
+    }
+
+    /**
+     * The balance a seeded account, or one opened without a balance, starts with: between 10,000.00 and
+     * 100,000.00, fixed by its number.
+     */
+    public static BigDecimal openingBalance(String accountNumber) {
+        return BigDecimal.valueOf(openingCents(accountNumber), SCALE);
+    }
+
+    private static long openingCents(String accountNumber) {
+        long mixed = accountNumber.hashCode() * 0x9E3779B97F4A7C15L;
+        return MIN_OPENING_CENTS + Math.floorMod(mixed >>> 17, MAX_OPENING_CENTS - MIN_OPENING_CENTS + 1);
+    }
+
+    private static long toCents(BigDecimal amount, boolean allowZero) {
+        if (amount == null || amount.signum() < 0 || (!allowZero && amount.signum() == 0)) {
+            throw new InvalidAmountException("Amount must be positive: " + amount);
+        }
+        try {
+            return amount.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("Amount must have at most " + SCALE + " decimal places and fit "
+                    + "the balance range: " + amount);
+        }
+    }
+
+    public int getAccounts() {
+        return table.size();
+    }
+
+    public int getCapacity() {
+        return table.capacity();
+    }
+
+    public int getOpenHolds() {
+        return holds.size();
+    }
+
+    public long getCredits() {
+        return credits.sum();
+    }
+
+    public long getDebits() {
+        return debits.sum();
+    }
+
+    public long getHoldsPlaced() {
+        return holdsPlaced.sum();
+    }
+
+    public long getHoldsCaptured() {
+        return holdsCaptured.sum();
+    }
+
+    public long getHoldsReleased() {
+        return holdsReleased.sum();
+    }
+
+    public long getInsufficientFunds() {
+        return insufficientFunds.sum();
+    }
+
+    @Override
+    public void close() {
+        table.close();
+    }
+
+    public record Hold(long id, String accountNumber, int slot, long cents) {
+        public BigDecimal amount() {
+            return BigDecimal.valueOf(cents, SCALE);
+        }
+    }
+}
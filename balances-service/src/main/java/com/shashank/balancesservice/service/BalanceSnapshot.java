@@ -0,0 +1,31 @@
+package com.shashank.balancesservice.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * An account's balances at one moment, in cents, with the version of its record they were read from.
+ * <p>
+ * Versions only grow, so a snapshot with a higher version reflects every change in one with a lower
+ * version; see {@link AccountTable} for how they also carry the time of the change.
+ */
+public record BalanceSnapshot(String accountNumber, long ledgerCents, long heldCents, long version) {
+
+    public long availableCents() {
+        return ledgerCents - heldCents;
+    }
+
+    public BigDecimal availableBalance() {
+        return BigDecimal.valueOf(availableCents(), BalanceEngine.SCALE);
+    }
+
+    public BigDecimal currentBalance() {
+        return BigDecimal.valueOf(ledgerCents, BalanceEngine.SCALE);
+    }
+
+    // When the balances last changed
+    public Instant updatedAt() {
+        return Instant.EPOCH.plus(version >>> 1, ChronoUnit.MICROS);
+    }
+}
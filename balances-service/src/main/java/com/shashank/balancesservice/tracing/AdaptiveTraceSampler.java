@@ -0,0 +1,511 @@
+package com.shashank.balancesservice.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.ExceptionEventData;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples at most {@code tracesPerSecond} baseline traces per endpoint, and also keeps every trace that
+ * ends in a 5xx response, records one of the {@code keptExceptions}, is slower than most recent
+ * requests to its endpoint, or was picked as a metrics exemplar by {@link ExemplarSpanContext}.
+ * <p>
+ * Whether a trace failed or was slow is only known once it ends, so this works in two halves. As a
+ * {@link Sampler} it samples traces that start here within their endpoint's rate, follows the caller's
+ * decision for the rest, and records without sampling whatever it does not sample. {@link #wrap} puts a
+ * span processor in front of the exporting one that holds a trace's recorded spans until its local root
+ * span ends, then passes them on as sampled if the trace is kept and drops them otherwise. A trace is slow
+ * when its root took longer than {@code latencyPercentile} of the last {@code window} roots of its
+ * endpoint, and than {@code minLatencyThreshold}; no trace is slow until 50 roots of its endpoint ended.
+ * <p>
+ * Endpoints are keyed by HTTP method and path, with path segments containing a digit folded into
+ * {@code {id}}; at most {@code maxEndpoints} get a rate and latency window of their own, and the rest
+ * share one. At most {@code maxPendingTraces} unsampled traces are held at a time, and one whose root has
+ * not ended within {@code pendingTimeout} is given up. Only the part of a trace in this service is kept;
+ * other services decide about theirs on their own.
+ */
+public class AdaptiveTraceSampler implements Sampler {
+
+    private static final AttributeKey<Long> STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> REQUEST_METHOD = AttributeKey.stringKey("http.request.method");
+    private static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+    private static final AttributeKey<String> EXCEPTION_TYPE = AttributeKey.stringKey("exception.type");
+    // Prometheus' convention for asking a tracer to keep a trace its metrics point to
+    static final AttributeKey<String> EXEMPLAR = AttributeKey.stringKey(
+            io.prometheus.metrics.tracer.common.SpanContext.EXEMPLAR_ATTRIBUTE_NAME);
+    static final String EXEMPLAR_VALUE = io.prometheus.metrics.tracer.common.SpanContext.EXEMPLAR_ATTRIBUTE_VALUE;
+    // Roots seen before an endpoint's percentile is trusted
+    private static final int MIN_SAMPLES = 50;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final int MAX_CAUSES = 8;
+
+    // In order of precedence, for traces with more than one
+    enum Reason {
+        SERVER_ERROR, EXCEPTION, SLOW, EXEMPLAR
+    }
+
+    private final long rateIntervalNanos;
+    private final long burstNanos;
+    private final double latencyPercentile;
+    private final long minLatencyThresholdNanos;
+    private final int window;
+    private final int maxEndpoints;
+    private final int maxPendingTraces;
+    private final long pendingTimeoutNanos;
+    private final Set<String> keptExceptions;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger endpointCount = new AtomicInteger();
+    private final Endpoint overflow;
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder sampledByRate = new LongAdder();
+    private final LongAdder sampledByParent = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder keptServerError = new LongAdder();
+    private final LongAdder keptException = new LongAdder();
+    private final LongAdder keptSlow = new LongAdder();
+    private final LongAdder keptExemplar = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder unbuffered = new LongAdder();
+
+    public AdaptiveTraceSampler(double tracesPerSecond, int burst, double latencyPercentile,
+                                Duration minLatencyThreshold, int window, int maxEndpoints, int maxPendingTraces,
+                                Duration pendingTimeout, Collection<String> keptExceptions) {
+        this(tracesPerSecond, burst, latencyPercentile, minLatencyThreshold, window, maxEndpoints,
+                maxPendingTraces, pendingTimeout, keptExceptions, System::nanoTime);
+    }
+
+    AdaptiveTraceSampler(double tracesPerSecond, int burst, double latencyPercentile, Duration minLatencyThreshold,
+                         int window, int maxEndpoints, int maxPendingTraces, Duration pendingTimeout,
+                         Collection<String> keptExceptions, LongSupplier nanoTime) {
+        this.rateIntervalNanos = tracesPerSecond > 0 ? Math.round(1e9 / tracesPerSecond) : Long.MAX_VALUE;
+        this.burstNanos = tracesPerSecond > 0 ? rateIntervalNanos * (Math.max(1, burst) - 1) : 0;
+        this.latencyPercentile = latencyPercentile;
+        this.minLatencyThresholdNanos = minLatencyThreshold.toNanos();
+        this.window = Math.max(MIN_SAMPLES, window);
+        this.maxEndpoints = maxEndpoints;
+        this.maxPendingTraces = maxPendingTraces;
+        this.pendingTimeoutNanos = pendingTimeout.toNanos();
+        this.keptExceptions = Set.copyOf(keptExceptions);
+        this.nanoTime = nanoTime;
+        this.overflow = new Endpoint(nanoTime.getAsLong());
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (parent.isValid()) {
+            if (parent.isRemote()) {
+                (parent.isSampled() ? sampledByParent : deferred).increment();
+            }
+            return parent.isSampled() ? SamplingResult.recordAndSample() : SamplingResult.recordOnly();
+        }
+        if (endpoint(endpointKey(name, attributes.get(REQUEST_METHOD), attributes.get(URL_PATH)))
+                .tryAcquire(nanoTime.getAsLong())) {
+            sampledByRate.increment();
+            return SamplingResult.recordAndSample();
+        }
+        deferred.increment();
+        return SamplingResult.recordOnly();
+    }
+
+    @Override
+    public String getDescription() {
+        return "AdaptiveTraceSampler{rateIntervalNanos=" + rateIntervalNanos + ", latencyPercentile="
+                + latencyPercentile + "}";
+    }
+
+    /**
+     * The span processor to use in place of {@code exporting}, which only receives sampled spans: those
+     * sampled from the start, and those of unsampled traces this sampler decides to keep once they end.
+     */
+    public SpanProcessor wrap(SpanProcessor exporting) {
+        return new DeferredTraces(exporting);
+    }
+
+    private void onEnd(ReadableSpan span, SpanProcessor exporting) {
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+        boolean slow = false;
+        if (localRoot) {
+            Endpoint endpoint = endpoint(endpointKey(span.getName(), span.getAttribute(REQUEST_METHOD),
+                    span.getAttribute(URL_PATH)));
+            slow = span.getLatencyNanos() > endpoint.latencyThreshold();
+            endpoint.record(span.getLatencyNanos());
+        }
+        if (span.getSpanContext().isSampled()) {
+            exporting.onEnd(span);
+            return;
+        }
+        String traceId = span.getSpanContext().getTraceId();
+        Reason reason = reason(span);
+        if (!localRoot) {
+            PendingTrace trace = pendingTrace(traceId);
+            if (trace == null) {
+                unbuffered.increment();
+            } else {
+                trace.add(span, reason);
+            }
+            return;
+        }
+        PendingTrace trace = pending.remove(traceId);
+        if (trace != null) {
+            reason = first(reason, trace.reason);
+        }
+        if (slow) {
+            reason = first(reason, Reason.SLOW);
+        }
+        if (reason == null) {
+            discarded.increment();
+            return;
+        }
+        switch (reason) {
+            case SERVER_ERROR -> keptServerError.increment();
+            case EXCEPTION -> keptException.increment();
+            case SLOW -> keptSlow.increment();
+            case EXEMPLAR -> keptExemplar.increment();
+        }
+        if (trace != null) {
+            for (ReadableSpan held : trace.spans) {
+                exporting.onEnd(new SampledSpan(held));
+            }
+        }
+        exporting.onEnd(new SampledSpan(span));
+    }
+
+    private PendingTrace pendingTrace(String traceId) {
+        PendingTrace trace = pending.get(traceId);
+        if (trace != null) {
+            return trace;
+        }
+        long now = nanoTime.getAsLong();
+        if (pending.size() >= maxPendingTraces) {
+            // Roots that never end here, or spans ending after their root, leave traces behind
+            pending.values().removeIf(held -> now - held.startedNanos > pendingTimeoutNanos);
+            if (pending.size() >= maxPendingTraces) {
+                return null;
+            }
+        }
+        return pending.computeIfAbsent(traceId, id -> new PendingTrace(now));
+    }
+
+    Reason reason(ReadableSpan span) {
+        Long status = span.getAttribute(STATUS_CODE);
+        if (status != null && status >= 500) {
+            return Reason.SERVER_ERROR;
+        }
+        for (EventData event : span.toSpanData().getEvents()) {
+            if (event instanceof ExceptionEventData exception ? isKept(exception.getException())
+                    : keptExceptions.contains(event.getAttributes().get(EXCEPTION_TYPE))) {
+                return Reason.EXCEPTION;
+            }
+        }
+        return EXEMPLAR_VALUE.equals(span.getAttribute(EXEMPLAR)) ? Reason.EXEMPLAR : null;
+    }
+
+    static Reason first(Reason a, Reason b) {
+        return a == null || (b != null && b.ordinal() < a.ordinal()) ? b : a;
+    }
+
+    private boolean isKept(Throwable exception) {
+        Throwable current = exception;
+        for (int depth = 0; current != null && depth < MAX_CAUSES; depth++, current = current.getCause()) {
+            for (Class<?> type = current.getClass(); type != null; type = type.getSuperclass()) {
+                if (keptExceptions.contains(type.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Endpoint endpoint(String key) {
+        Endpoint endpoint = endpoints.get(key);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpointCount.get() >= maxEndpoints) {
+            return overflow;
+        }
+        return endpoints.computeIfAbsent(key, k -> {
+            endpointCount.incrementAndGet();
+            return new Endpoint(nanoTime.getAsLong());
+        });
+    }
+
+    static String endpointKey(String spanName, String method, String path) {
+        if (path == null) {
+            return spanName;
+        }
+        StringBuilder key = new StringBuilder();
+        if (method != null) {
+            key.append(method).append(' ');
+        }
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                key.append('/').append(segment.chars().anyMatch(Character::isDigit) ? "{id}" : segment);
+            }
+        }
+        return path.endsWith("/") ? key.append('/').toString() : key.toString();
+    }
+
+    public long getSampledByRate() {
+        return sampledByRate.sum();
+    }
+
+    public long getSampledByParent() {
+        return sampledByParent.sum();
+    }
+
+    // Traces recorded without being sampled, for their outcome to decide
+    public long getDeferred() {
+        return deferred.sum();
+    }
+
+    public long getKeptServerError() {
+        return keptServerError.sum();
+    }
+
+    public long getKeptException() {
+        return keptException.sum();
+    }
+
+    public long getKeptSlow() {
+        return keptSlow.sum();
+    }
+
+    public long getKeptExemplar() {
+        return keptExemplar.sum();
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    // Spans of unsampled traces dropped because too many traces were already held
+    public long getUnbuffered() {
+        return unbuffered.sum();
+    }
+
+    public int getPendingTraces() {
+        return pending.size();
+    }
+
+    public int getEndpoints() {
+        return endpointCount.get();
+    }
+
+    private final class Endpoint {
+
+        // Generic cell rate algorithm: the time the next trace is due, allowed up to burstNanos early
+        private final AtomicLong dueNanos;
+
+        private final ReentrantLock samplesLock = new ReentrantLock();
+        private final long[] samples = new long[window];
+        private int samplePosition;
+        private int sampleCount;
+        private int sinceRecompute;
+        private volatile long thresholdNanos = -1;
+
+        Endpoint(long now) {
+            this.dueNanos = new AtomicLong(now);
+        }
+
+        boolean tryAcquire(long now) {
+            while (true) {
+                long due = dueNanos.get();
+                if (now < due - burstNanos || rateIntervalNanos == Long.MAX_VALUE) {
+                    return false;
+                }
+                if (dueNanos.compareAndSet(due, Math.max(due, now) + rateIntervalNanos)) {
+                    return true;
+                }
+            }
+        }
+
+        long latencyThreshold() {
+            long threshold = thresholdNanos;
+            return threshold < 0 ? Long.MAX_VALUE : Math.max(minLatencyThresholdNanos, threshold);
+        }
+
+        void record(long latencyNanos) {
+            samplesLock.lock();
+            try {
+                samples[samplePosition] = latencyNanos;
+                samplePosition = (samplePosition + 1) % samples.length;
+                sampleCount = Math.min(sampleCount + 1, samples.length);
+                if (sampleCount >= MIN_SAMPLES && (thresholdNanos < 0 || ++sinceRecompute >= RECOMPUTE_INTERVAL)) {
+                    sinceRecompute = 0;
+                    long[] sorted = Arrays.copyOf(samples, sampleCount);
+                    Arrays.sort(sorted);
+                    int index = (int) Math.ceil(latencyPercentile * sorted.length) - 1;
+                    thresholdNanos = sorted[Math.max(0, index)];
+                }
+            } finally {
+                samplesLock.unlock();
+            }
+        }
+    }
+
+    private static final class PendingTrace {
+
+        final long startedNanos;
+        final Queue<ReadableSpan> spans = new ConcurrentLinkedQueue<>();
+        volatile Reason reason;
+
+        PendingTrace(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        void add(ReadableSpan span, Reason spanReason) {
+            spans.add(span);
+            if (spanReason != null) {
+                // Only decides which counter the trace is kept under, so a lost race does not matter
+                reason = first(reason, spanReason);
+            }
+        }
+    }
+
+    private final class DeferredTraces implements SpanProcessor {
+
+        private final SpanProcessor exporting;
+
+        DeferredTraces(SpanProcessor exporting) {
+            this.exporting = exporting;
+        }
+
+        @Override
+        public void onStart(Context parentContext, ReadWriteSpan span) {
+            exporting.onStart(parentContext, span);
+        }
+
+        @Override
+        public boolean isStartRequired() {
+            return exporting.isStartRequired();
+        }
+
+        @Override
+        public void onEnd(ReadableSpan span) {
+            AdaptiveTraceSampler.this.onEnd(span, exporting);
+        }
+
+        @Override
+        public boolean isEndRequired() {
+            return true;
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return exporting.shutdown();
+        }
+
+        @Override
+        public CompletableResultCode forceFlush() {
+            return exporting.forceFlush();
+        }
+    }
+
+    // A recorded span presented as sampled, so the exporting processor passes it on
+    private record SampledSpan(ReadableSpan span, SpanContext sampledContext) implements ReadableSpan {
+
+        SampledSpan(ReadableSpan span) {
+            this(span, SpanContext.create(span.getSpanContext().getTraceId(), span.getSpanContext().getSpanId(),
+                    TraceFlags.getSampled(), span.getSpanContext().getTraceState()));
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return sampledContext;
+        }
+
+        @Override
+        public SpanContext getParentSpanContext() {
+            return span.getParentSpanContext();
+        }
+
+        @Override
+        public String getName() {
+            return span.getName();
+        }
+
+        @Override
+        public SpanData toSpanData() {
+            return new DelegatingSpanData(span.toSpanData()) {
+                @Override
+                public SpanContext getSpanContext() {
+                    return sampledContext;
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+            return span.getInstrumentationLibraryInfo();
+        }
+
+        @Override
+        public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+            return span.getInstrumentationScopeInfo();
+        }
+
+        @Override
+        public boolean hasEnded() {
+            return span.hasEnded();
+        }
+
+        @Override
+        public long getLatencyNanos() {
+            return span.getLatencyNanos();
+        }
+
+        @Override
+        public SpanKind getKind() {
+            return span.getKind();
+        }
+
+        @Override
+        public <T> T getAttribute(AttributeKey<T> key) {
+            return span.getAttribute(key);
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return span.getAttributes();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.shashank.balancesservice.benchmark;
+
+import com.shashank.balancesservice.exception.InsufficientFundsException;
+import com.shashank.balancesservice.service.AccountTable;
+import com.shashank.balancesservice.service.BalanceEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds a memory-mapped {@link BalanceEngine} with each of {@code benchmark.accounts} accounts, reopens it
+ * as a restart would, and measures lookup and mixed lookup/debit/credit throughput over the seeded accounts
+ * as threads are added, along with heap and resident set size.
+ * <p>
+ * Surefire skips this class by name; run it explicitly:
+ * {@code mvn test -Dtest=BalanceEngineBenchmark -Dbenchmark.accounts=1000000,10000000 -Dbenchmark.threads=1,2,4,8}
+ */
+public class BalanceEngineBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Test
+    void seedReopenAndOperate() throws Exception {
+        int operations = Integer.getInteger("benchmark.operations", 2_000_000);
+        List<Integer> threadCounts = sizes("benchmark.threads", "1,2,4");
+        for (int accounts : sizes("benchmark.accounts", "1000000,10000000")) {
+            Path file = Files.createTempFile("accounts", ".dat");
+            Files.delete(file);
+            try {
+                long start = System.nanoTime();
+                try (BalanceEngine engine = new BalanceEngine(AccountTable.mapped(file, accounts), 1024)) {
+                    engine.seed("account-", accounts);
+                }
+                double seedSeconds = (System.nanoTime() - start) / 1e9;
+
+                long heapBefore = usedHeapBytes();
+                start = System.nanoTime();
+                try (BalanceEngine engine = new BalanceEngine(AccountTable.mapped(file, accounts), 1024)) {
+                    double reopenMillis = (System.nanoTime() - start) / 1e6;
+                    report("accounts=%,d file=%,d MB seed=%.2fs (%,.0f accounts/s) reopen=%.1fms",
+                            accounts, Files.size(file) >> 20, seedSeconds, accounts / seedSeconds, reopenMillis);
+                    for (int threads : threadCounts) {
+                        double lookups = run(engine, accounts, threads, operations, false);
+                        double mixed = run(engine, accounts, threads, operations, true);
+                        report("accounts=%,d threads=%-2d lookups=%,10.0f/s mixed=%,10.0f ops/s (80%% lookup, 10%% debit, 10%% credit)",
+                                accounts, threads, lookups, mixed);
+                    }
+                    report("accounts=%,d heap=%,d MB rss=%,d MB",
+                            accounts, (usedHeapBytes() - heapBefore) >> 20, residentSetKilobytes() >> 10);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * @return operations per second
+     */
+    private static double run(BalanceEngine engine, int accounts, int threads, int operations, boolean updates)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        int perThread = operations / threads;
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                go.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    String accountNumber = "account-" + random.nextInt(accounts);
+                    int choice = updates ? random.nextInt(10) : 9;
+                    if (choice == 0) {
+                        try {
+                            engine.debit(accountNumber, AMOUNT);
+                        } catch (InsufficientFundsException e) {
+                            // Seeded balances make this rare
+                        }
+                    } else if (choice == 1) {
+                        engine.credit(accountNumber, AMOUNT);
+                    } else {
+                        engine.getBalance(accountNumber);
+                    }
+                }
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        return perThread * threads / seconds;
+    }
+
+    private static List<Integer> sizes(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+    }
+
+    private static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // From /proc on Linux, -1 elsewhere
+    private static long residentSetKilobytes() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static void report(String format, Object... args) {
+        System.out.printf("[BalanceEngineBenchmark] " + format + "%n", args);
+    }
+}
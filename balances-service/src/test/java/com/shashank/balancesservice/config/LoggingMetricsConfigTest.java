@@ -0,0 +1,26 @@
+package com.shashank.balancesservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggingMetricsConfigTest {
+
+    @Test
+    void ringBufferAppenderMetrics_RegistersMetersPerRingBufferAppender() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        new LoggingMetricsConfig().ringBufferAppenderMetrics().bindTo(registry);
+
+        // Assert
+        Gauge capacity = registry.get("logging.queue.capacity").tag("appender", "Async").gauge();
+        assertEquals(8192, capacity.value());
+        assertNotNull(registry.get("logging.queue.depth").tag("appender", "Async").gauge());
+        assertNotNull(registry.get("logging.events.dropped").tag("appender", "Async").functionCounter());
+        assertNotNull(registry.get("logging.events.blocked").tag("appender", "Async").functionCounter());
+    }
+}
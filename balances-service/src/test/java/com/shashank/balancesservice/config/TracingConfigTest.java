@@ -0,0 +1,40 @@
+package com.shashank.balancesservice.config;
+
+import com.shashank.balancesservice.tracing.AdaptiveTraceSampler;
+import com.shashank.balancesservice.tracing.ExemplarSpanContext;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TracingConfigTest {
+
+    @Autowired
+    private OpenTelemetry openTelemetry;
+
+    @Autowired
+    private AdaptiveTraceSampler sampler;
+
+    @Autowired
+    private SpanContext spanContext;
+
+    @Test
+    void openTelemetry_UsesAdaptiveTraceSampler() {
+        // Act
+        OpenTelemetrySdk sdk = assertInstanceOf(OpenTelemetrySdk.class, openTelemetry);
+
+        // Assert
+        assertSame(sampler, sdk.getSdkTracerProvider().getSampler());
+    }
+
+    @Test
+    void exemplarSpanContext_ReplacesSpringBootDefault() {
+        // Assert
+        assertInstanceOf(ExemplarSpanContext.class, spanContext);
+    }
+}
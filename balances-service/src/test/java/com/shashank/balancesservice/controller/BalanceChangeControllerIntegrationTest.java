@@ -0,0 +1,181 @@
+package com.shashank.balancesservice.controller;
+
+import com.shashank.balancesservice.dto.AmountRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "balances.feed.heartbeat-interval=100ms")
+public class BalanceChangeControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    public void testStreamStartsWithResetAndDeliversChanges() throws Exception {
+        // Arrange
+        String accountNumber = "feed-1";
+        openAccount(accountNumber);
+        BufferedReader stream = open(null);
+        List<String> reset = nextEvent(stream);
+        long resetId = Long.parseLong(field(reset, "id:"));
+
+        // Act
+        credit(accountNumber, "12.34");
+
+        // Assert
+        assertEquals("reset", field(reset, "event:"));
+        List<String> change = nextEventNamed(stream, "balance");
+        assertTrue(Long.parseLong(field(change, "id:")) > resetId);
+        assertTrue(field(change, "data:").contains("\"accountNumber\":\"" + accountNumber + "\""));
+        stream.close();
+    }
+
+    @Test
+    public void testStreamResumesAfterLastEventId() throws Exception {
+        // Arrange
+        openAccount("feed-2");
+        openAccount("feed-3");
+        BufferedReader first = open(null);
+        long resetId = Long.parseLong(field(nextEvent(first), "id:"));
+        first.close();
+        credit("feed-2", "1.00");
+        credit("feed-3", "1.00");
+
+        // Act
+        BufferedReader resumed = open(resetId);
+
+        // Assert
+        List<String> accounts = new ArrayList<>();
+        while (accounts.size() < 2) {
+            String data = field(nextEventNamed(resumed, "balance"), "data:");
+            if (data.contains("feed-2")) {
+                accounts.add("feed-2");
+            } else if (data.contains("feed-3")) {
+                accounts.add("feed-3");
+            }
+        }
+        assertEquals(List.of("feed-2", "feed-3"), accounts);
+        resumed.close();
+    }
+
+    @Test
+    public void testIdleStreamSendsHeartbeats() throws Exception {
+        // Arrange
+        BufferedReader stream = open(null);
+        nextEvent(stream);
+
+        // Act
+        List<String> event = nextEventNamed(stream, "heartbeat");
+
+        // Assert
+        assertNull(field(event, "id:"));
+        assertTrue(field(event, "data:").contains("\"sequence\""));
+        stream.close();
+    }
+
+    @Test
+    public void testHeartbeatIsDatedByLatestChange() throws Exception {
+        // Arrange
+        openAccount("feed-4");
+        BufferedReader stream = open(null);
+        nextEvent(stream);
+        credit("feed-4", "1.00");
+        String change = field(nextEventNamed(stream, "balance"), "data:");
+        Thread.sleep(20);
+
+        // Act
+        String heartbeat = field(nextEventNamed(stream, "heartbeat"), "data:");
+
+        // Assert
+        assertNotNull(timestamp(change));
+        assertEquals(timestamp(change), timestamp(heartbeat));
+        stream.close();
+    }
+
+    private void openAccount(String accountNumber) {
+        restTemplate.put("http://localhost:" + port + "/api/balances/" + accountNumber, null);
+    }
+
+    private void credit(String accountNumber, String amount) {
+        String url = "http://localhost:" + port + "/api/balances/" + accountNumber + "/credits";
+        restTemplate.postForEntity(url, new AmountRequest(new BigDecimal(amount)), String.class);
+    }
+
+    private BufferedReader open(Long lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/balances/changes"))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", Long.toString(lastEventId));
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    private static List<String> nextEventNamed(BufferedReader stream, String name) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            List<String> event = nextEvent(stream);
+            if (name.equals(field(event, "event:"))) {
+                return event;
+            }
+        }
+        throw new AssertionError("No " + name + " event");
+    }
+
+    // The lines of the next event, up to the blank line ending it
+    private static List<String> nextEvent(BufferedReader stream) throws Exception {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = stream.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!lines.isEmpty()) {
+                    return lines;
+                }
+            } else {
+                lines.add(line);
+            }
+        }
+        throw new AssertionError("Stream ended");
+    }
+
+    private static String timestamp(String data) {
+        Matcher matcher = Pattern.compile("\"timestamp\":\"([^\"]+)\"").matcher(data);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String field(List<String> event, String prefix) {
+        return event.stream()
+                .filter(line -> line.startsWith(prefix))
+                .map(line -> line.substring(prefix.length()))
+                .findFirst()
+                .orElse(null);
+    }
+}
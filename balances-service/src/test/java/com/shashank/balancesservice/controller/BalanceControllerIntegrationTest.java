@@ -1,15 +1,20 @@
 package com.shashank.balancesservice.controller;
 
+import com.shashank.balancesservice.dto.AmountRequest;
+import com.shashank.balancesservice.dto.HoldResponse;
 import com.shashank.balancesservice.model.AccountBalance;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +27,13 @@ public class BalanceControllerIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @BeforeEach
+    public void openAccounts() {
+        for (String accountNumber : List.of("12345678", "87654321", "55555555")) {
+            restTemplate.put("http://localhost:" + port + "/api/balances/" + accountNumber, null);
+        }
+    }
+
     @Test
     public void testGetAccountBalance() {
         // Arrange
@@ -78,4 +90,59 @@ public class BalanceControllerIntegrationTest {
         assertTrue(balance1.getCurrentBalance().compareTo(balance1.getAvailableBalance()) >= 0);
         assertTrue(balance2.getCurrentBalance().compareTo(balance2.getAvailableBalance()) >= 0);
     }
+
+    @Test
+    public void testGetUnknownAccountBalance_ReturnsNotFound() {
+        // Arrange
+        String url = "http://localhost:" + port + "/api/balances/";
+
+        // Act
+        ResponseEntity<String> first = restTemplate.getForEntity(url + "00000404", String.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(url + "00000404", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, second.getStatusCode());
+    }
+
+    @Test
+    public void testGetAccountBalancesBatch() {
+        // Arrange
+        String url = "http://localhost:" + port + "/api/balances/batch";
+        List<String> accountNumbers = List.of("12345678", "87654321");
+
+        // Act
+        ResponseEntity<AccountBalance[]> response = restTemplate.postForEntity(url, accountNumbers, AccountBalance[].class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        AccountBalance[] balances = response.getBody();
+        assertNotNull(balances);
+        assertEquals(2, balances.length);
+        assertEquals("12345678", balances[0].getAccountNumber());
+        assertEquals("87654321", balances[1].getAccountNumber());
+    }
+
+    @Test
+    public void testHoldAndReleaseRoundTrip() {
+        // Arrange
+        String base = "http://localhost:" + port + "/api/balances/";
+        String accountNumber = "55555555";
+        AccountBalance before = restTemplate.getForObject(base + accountNumber, AccountBalance.class);
+        AmountRequest amount = AmountRequest.builder().amount(new BigDecimal("25.00")).build();
+
+        // Act
+        ResponseEntity<HoldResponse> hold = restTemplate.postForEntity(base + accountNumber + "/holds", amount, HoldResponse.class);
+        AccountBalance held = restTemplate.getForObject(base + accountNumber, AccountBalance.class);
+        ResponseEntity<AccountBalance> released = restTemplate.exchange(base + "holds/" + hold.getBody().getHoldId(),
+                HttpMethod.DELETE, null, AccountBalance.class);
+        ResponseEntity<String> releasedAgain = restTemplate.exchange(base + "holds/" + hold.getBody().getHoldId(),
+                HttpMethod.DELETE, null, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, hold.getStatusCode());
+        assertEquals(before.getAvailableBalance().subtract(new BigDecimal("25.00")), held.getAvailableBalance());
+        assertEquals(before.getAvailableBalance(), released.getBody().getAvailableBalance());
+        assertEquals(HttpStatus.NOT_FOUND, releasedAgain.getStatusCode());
+    }
 }
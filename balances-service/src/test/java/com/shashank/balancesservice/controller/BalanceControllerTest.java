@@ -1,29 +1,40 @@
 package com.shashank.balancesservice.controller;
 
+import com.shashank.balancesservice.dto.AmountRequest;
+import com.shashank.balancesservice.dto.HoldResponse;
+import com.shashank.balancesservice.dto.OpenAccountRequest;
+import com.shashank.balancesservice.exception.AccountNotFoundException;
+import com.shashank.balancesservice.exception.InsufficientFundsException;
 import com.shashank.balancesservice.model.AccountBalance;
+import com.shashank.balancesservice.service.AccountTable;
+import com.shashank.balancesservice.service.BalanceEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
 public class BalanceControllerTest {
 
-    @InjectMocks
+    private BalanceEngine balanceEngine;
+
     private BalanceController balanceController;
 
     @BeforeEach
     public void setup() {
-        MockitoAnnotations.openMocks(this);
+        balanceEngine = new BalanceEngine(AccountTable.inMemory(1_000), 16);
+        balanceController = new BalanceController(balanceEngine);
+        balanceController.openAccount("12345678", null);
+        balanceController.openAccount("87654321", null);
     }
 
     @Test
@@ -156,27 +167,144 @@ public class BalanceControllerTest {
     }
 
     @Test
-    public void testGenerateRandomBalanceAbove10000() {
+    public void testGetAccountBalances_ReturnsOneBalancePerAccountInOrder() {
         // Arrange
-        BalanceController controller = new BalanceController();
-        
+        List<String> accountNumbers = List.of("12345678", "87654321", "12345678");
+
         // Act
-        // Using reflection to access private method
-        BigDecimal balance = null;
-        try {
-            java.lang.reflect.Method method = BalanceController.class.getDeclaredMethod("generateRandomBalanceAbove10000");
-            method.setAccessible(true);
-            balance = (BigDecimal) method.invoke(controller);
-        } catch (Exception e) {
-            fail("Failed to invoke private method: " + e.getMessage());
-        }
-        
+        ResponseEntity<List<AccountBalance>> response = balanceController.getAccountBalances(accountNumbers);
+
         // Assert
-        assertNotNull(balance);
-        assertTrue(balance.compareTo(new BigDecimal("10000.00")) >= 0, 
-                "Generated balance should be greater than or equal to $10,000");
-        assertTrue(balance.compareTo(new BigDecimal("100000.00")) <= 0, 
-                "Generated balance should be less than or equal to $100,000");
-        assertEquals(2, balance.scale(), "Generated balance should have 2 decimal places");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(accountNumbers, response.getBody().stream().map(AccountBalance::getAccountNumber).toList());
+        response.getBody().forEach(balance ->
+                assertTrue(balance.getCurrentBalance().compareTo(balance.getAvailableBalance()) >= 0));
+    }
+
+    @Test
+    public void testGetAccountBalances_TooManyAccounts_ReturnsBadRequest() {
+        // Arrange
+        List<String> accountNumbers = Collections.nCopies(1001, "12345678");
+
+        // Act
+        ResponseEntity<List<AccountBalance>> response = balanceController.getAccountBalances(accountNumbers);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetAccountBalance_SameAccountReturnsSameBalance() {
+        // Arrange
+        String accountNumber = "12345678";
+
+        // Act
+        AccountBalance first = balanceController.getAccountBalance(accountNumber).getBody();
+        BalanceController other = new BalanceController(new BalanceEngine(AccountTable.inMemory(1_000), 16));
+        other.openAccount(accountNumber, null);
+        AccountBalance second = other.getAccountBalance(accountNumber).getBody();
+
+        // Assert
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(first.getAvailableBalance(), second.getAvailableBalance());
+        assertEquals(BalanceEngine.openingBalance(accountNumber), first.getAvailableBalance());
+    }
+
+    @Test
+    public void testGetAccountBalances_UnknownAccountsLeftOut() {
+        // Act
+        ResponseEntity<List<AccountBalance>> response =
+                balanceController.getAccountBalances(List.of("12345678", "99999999"));
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(List.of("12345678"), response.getBody().stream().map(AccountBalance::getAccountNumber).toList());
+        assertEquals(2, balanceEngine.getAccounts());
+    }
+
+    @Test
+    public void testGetAccountBalance_UnknownAccount_ThrowsWithoutOpeningIt() {
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> balanceController.getAccountBalance("99999999"));
+        assertEquals(2, balanceEngine.getAccounts());
+    }
+
+    @Test
+    public void testOpenAccount_CreatesOnceThenReturnsExistingBalance() {
+        // Arrange
+        OpenAccountRequest request = OpenAccountRequest.builder().openingBalance(new BigDecimal("250.00")).build();
+
+        // Act
+        ResponseEntity<AccountBalance> opened = balanceController.openAccount("55555555", request);
+        ResponseEntity<AccountBalance> reopened = balanceController.openAccount("55555555", null);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, opened.getStatusCode());
+        assertEquals(new BigDecimal("250.00"), opened.getBody().getAvailableBalance());
+        assertEquals(HttpStatus.OK, reopened.getStatusCode());
+        assertEquals(new BigDecimal("250.00"), reopened.getBody().getAvailableBalance());
+    }
+
+    @Test
+    public void testGetAccountBalance_ReportsTimeAndVersionOfLastChange() throws Exception {
+        // Arrange
+        AccountBalance credited = balanceController.credit("12345678", amount("1.00")).getBody();
+        Thread.sleep(5);
+
+        // Act
+        AccountBalance read = balanceController.getAccountBalance("12345678").getBody();
+
+        // Assert
+        assertNotNull(credited);
+        assertNotNull(read);
+        assertEquals(credited.getVersion(), read.getVersion());
+        assertEquals(credited.getLastUpdated(), read.getLastUpdated());
+    }
+
+    @Test
+    public void testDebit_ReducesBothBalances() {
+        // Arrange
+        balanceEngine.open("11112222", new BigDecimal("500.00"));
+
+        // Act
+        ResponseEntity<AccountBalance> response = balanceController.debit("11112222", amount("120.50"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new BigDecimal("379.50"), response.getBody().getAvailableBalance());
+        assertEquals(new BigDecimal("379.50"), response.getBody().getCurrentBalance());
+    }
+
+    @Test
+    public void testDebit_InsufficientFunds_Throws() {
+        // Arrange
+        balanceEngine.open("11112222", new BigDecimal("100.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> balanceController.debit("11112222", amount("100.01")));
+    }
+
+    @Test
+    public void testPlaceHold_ReducesAvailableBalanceUntilCaptured() {
+        // Arrange
+        balanceEngine.open("11112222", new BigDecimal("500.00"));
+
+        // Act
+        ResponseEntity<HoldResponse> hold = balanceController.placeHold("11112222", amount("200.00"));
+        AccountBalance held = balanceController.getAccountBalance("11112222").getBody();
+        AccountBalance captured = balanceController.captureHold(hold.getBody().getHoldId()).getBody();
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, hold.getStatusCode());
+        assertEquals(new BigDecimal("300.00"), held.getAvailableBalance());
+        assertEquals(new BigDecimal("500.00"), held.getCurrentBalance());
+        assertEquals(new BigDecimal("300.00"), captured.getAvailableBalance());
+        assertEquals(new BigDecimal("300.00"), captured.getCurrentBalance());
+    }
+
+    private static AmountRequest amount(String amount) {
+        return AmountRequest.builder().amount(new BigDecimal(amount)).build();
     }
 }
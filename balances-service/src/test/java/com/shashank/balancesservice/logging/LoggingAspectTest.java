@@ -0,0 +1,152 @@
+package com.shashank.balancesservice.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LoggingAspectTest {
+
+    private final Logger aspectLogger = (Logger) LogManager.getLogger(LoggingAspect.class);
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final AbstractAppender capture = new AbstractAppender("capture", null, null, true, Property.EMPTY_ARRAY) {
+        @Override
+        public void append(LogEvent event) {
+            messages.add(event.getMessage().getFormattedMessage());
+        }
+    };
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        capture.start();
+        previousLevel = aspectLogger.getLevel();
+        aspectLogger.addAppender(capture);
+        aspectLogger.setLevel(Level.DEBUG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aspectLogger.removeAppender(capture);
+        aspectLogger.setLevel(previousLevel);
+        capture.stop();
+    }
+
+    @Test
+    void render_LongValue_IsCapped() {
+        // Act
+        String rendered = LoggingAspect.render("x".repeat(1_000), 10);
+
+        // Assert
+        assertEquals("xxxxxxxxxx...(1000 chars)", rendered);
+    }
+
+    @Test
+    void render_CollectionsAndArrays_RenderSizeOnly() {
+        // Act & Assert
+        assertEquals("ResponseEntity[200 OK, body=ListN[size=3]]",
+                LoggingAspect.render(ResponseEntity.ok(List.of("a", "b", "c")), 256));
+        assertEquals("int[4]", LoggingAspect.render(new int[4], 256));
+        assertEquals("[null, 7]", LoggingAspect.renderArguments(new Object[]{null, 7}, 256));
+    }
+
+    @Test
+    void logAround_Verbose_LogsEveryCallAndHonoursLogged() throws Throwable {
+        // Arrange
+        LoggingAspect aspect = aspect(LoggingAspect.Mode.VERBOSE, 0);
+
+        // Act
+        aspect.logAround(joinPoint("echo", "hello"));
+        aspect.logAround(joinPoint("secret", "password"));
+        aspect.logAround(joinPoint("quiet"));
+
+        // Assert
+        String name = SampleService.class.getName();
+        assertEquals(List.of(
+                "Enter: " + name + ".echo() with arguments = [hello]",
+                "Exit: " + name + ".echo() with result = hello",
+                "Enter: " + name + ".secret() with arguments = [not logged]",
+                "Exit: " + name + ".secret() with result = [not logged]"), messages);
+    }
+
+    @Test
+    void logAround_ProductionWithZeroSampleRate_LogsNothing() throws Throwable {
+        // Arrange
+        LoggingAspect aspect = aspect(LoggingAspect.Mode.PRODUCTION, 0);
+
+        // Act
+        Object result = aspect.logAround(joinPoint("echo", "hello"));
+
+        // Assert
+        assertEquals("hello", result);
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    void logAfterThrowing_LogsExceptionRegardlessOfSampling() throws Throwable {
+        // Arrange
+        LoggingAspect aspect = aspect(LoggingAspect.Mode.PRODUCTION, 0);
+
+        // Act
+        aspect.logAfterThrowing(joinPoint("quiet"), new IllegalStateException("failed"));
+
+        // Assert
+        assertEquals("Exception in " + SampleService.class.getName() + ".quiet() with cause = NULL", messages.get(0));
+    }
+
+    private static LoggingAspect aspect(LoggingAspect.Mode mode, double sampleRate) {
+        LoggingAspect aspect = new LoggingAspect();
+        ReflectionTestUtils.setField(aspect, "mode", mode);
+        ReflectionTestUtils.setField(aspect, "sampleRate", sampleRate);
+        return aspect;
+    }
+
+    // A join point for calling SampleService.methodName that proceeds as the method would
+    private static ProceedingJoinPoint joinPoint(String methodName, String... args) throws Throwable {
+        SampleService target = new SampleService();
+        Class<?>[] parameterTypes = new Class<?>[args.length];
+        Arrays.fill(parameterTypes, String.class);
+        Method method = SampleService.class.getMethod(methodName, parameterTypes);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenAnswer(invocation -> method.invoke(target, (Object[]) args));
+        return joinPoint;
+    }
+
+    public static class SampleService {
+
+        public String echo(String value) {
+            return value;
+        }
+
+        @Logged(arguments = false, result = false)
+        public String secret(String value) {
+            return value;
+        }
+
+        @Logged(false)
+        public void quiet() {
+        }
+    }
+}
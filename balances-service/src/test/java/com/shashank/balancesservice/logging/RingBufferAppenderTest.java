@@ -0,0 +1,151 @@
+package com.shashank.balancesservice.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferAppenderTest {
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<Boolean> endOfBatch = new CopyOnWriteArrayList<>();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean gated;
+    private final AbstractAppender target = new AbstractAppender("target", null, null, true, Property.EMPTY_ARRAY) {
+        @Override
+        public void append(LogEvent event) {
+            if (gated) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // The event is reused once this returns, so copy out what the assertions need
+            messages.add(event.getMessage().getFormattedMessage());
+            endOfBatch.add(event.isEndOfBatch());
+        }
+    };
+    private RingBufferAppender ring;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (ring != null) {
+            ring.stop(1, TimeUnit.SECONDS);
+        }
+        target.stop();
+    }
+
+    @Test
+    void append_PassesEventsOnInOrderAndMarksEndOfBatch() {
+        // Arrange
+        ring = ring(8, RingBufferAppender.OverflowPolicy.BLOCK);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            ring.append(event(Level.INFO, "message " + i));
+        }
+        ring.stop(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(20, messages.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("message " + i, messages.get(i));
+        }
+        assertTrue(endOfBatch.get(19));
+        assertEquals(0, ring.getQueueDepth());
+        assertEquals(0, ring.getDropped());
+    }
+
+    @Test
+    void append_Drop_DiscardsEventsWhileFull() throws Exception {
+        // Arrange
+        ring = ring(4, RingBufferAppender.OverflowPolicy.DROP);
+        gated = true;
+        // Holds its slot until released
+        ring.append(event(Level.INFO, "in flight"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            ring.append(event(Level.ERROR, "queued " + i));
+        }
+
+        // Assert
+        assertEquals(4, ring.getQueueDepth());
+        assertEquals(7, ring.getDropped());
+        release.countDown();
+        ring.stop(1, TimeUnit.SECONDS);
+        assertEquals(List.of("in flight", "queued 0", "queued 1", "queued 2"), messages);
+    }
+
+    @Test
+    void append_DropByLevel_KeepsSevereEventsByWaiting() throws Exception {
+        // Arrange
+        ring = ring(4, RingBufferAppender.OverflowPolicy.DROP_BY_LEVEL);
+        gated = true;
+        // Holds its slot until released
+        ring.append(event(Level.INFO, "in flight"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            ring.append(event(Level.DEBUG, "queued " + i));
+        }
+
+        // Act
+        ring.append(event(Level.INFO, "dropped"));
+        Thread producer = new Thread(() -> ring.append(event(Level.WARN, "kept")));
+        producer.start();
+        while (ring.getBlocked() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        producer.join(5_000);
+
+        // Assert
+        assertEquals(1, ring.getDropped());
+        assertEquals(1, ring.getBlocked());
+        ring.stop(1, TimeUnit.SECONDS);
+        assertEquals("kept", messages.get(messages.size() - 1));
+        assertFalse(messages.contains("dropped"));
+    }
+
+    private RingBufferAppender ring(int size, RingBufferAppender.OverflowPolicy policy) {
+        DefaultConfiguration configuration = new DefaultConfiguration();
+        target.start();
+        configuration.addAppender(target);
+        RingBufferAppender appender = RingBufferAppender.newBuilder()
+                .setName("ring")
+                .setConfiguration(configuration)
+                .setAppenderRefs(AppenderRef.createAppenderRef("target", null, null))
+                .setSize(size)
+                .setOverflowPolicy(policy)
+                .setDiscardThreshold(Level.INFO)
+                .build();
+        appender.start();
+        return appender;
+    }
+
+    private static LogEvent event(Level level, String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("test")
+                .setLevel(level)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.shashank.balancesservice.logging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredJsonLayoutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StructuredJsonLayout layout =
+            StructuredJsonLayout.createLayout(null, StandardCharsets.UTF_8, "balances-service");
+
+    @Test
+    void toSerializable_WritesOneLineOfJsonWithEscapedFields() throws Exception {
+        // Arrange
+        SortedArrayStringMap context = new SortedArrayStringMap();
+        context.putValue("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        context.putValue("quote", "say \"hi\"");
+        LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("com.shashank.Test")
+                .setLevel(Level.WARN)
+                .setThreadName("http-nio-8080-exec-1")
+                .setTimeMillis(1_700_000_000_123L)
+                .setContextData(context)
+                .setMessage(new ParameterizedMessage("Account {} has\n{} pending\t\"holds\"", "ACC-1", 3))
+                .build();
+
+        // Act
+        String line = layout.toSerializable(event);
+
+        // Assert
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.split("\n").length);
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals(1_700_000_000L, json.get("instant").get("epochSecond").asLong());
+        assertEquals(123_000_000, json.get("instant").get("nanoOfSecond").asInt());
+        assertEquals("WARN", json.get("level").asText());
+        assertEquals("http-nio-8080-exec-1", json.get("thread").asText());
+        assertEquals("com.shashank.Test", json.get("loggerName").asText());
+        assertEquals("Account ACC-1 has\n3 pending\t\"holds\"", json.get("message").asText());
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", json.get("contextMap").get("traceId").asText());
+        assertEquals("say \"hi\"", json.get("contextMap").get("quote").asText());
+        assertEquals("balances-service", json.get("service.name").asText());
+        assertNull(json.get("thrown"));
+    }
+
+    @Test
+    void toSerializable_WithException_WritesStackTrace() throws Exception {
+        // Arrange
+        LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("com.shashank.Test")
+                .setLevel(Level.ERROR)
+                .setMessage(new ParameterizedMessage("failed"))
+                .setThrown(new IllegalStateException("broken \"state\""))
+                .build();
+
+        // Act
+        JsonNode json = objectMapper.readTree(layout.toSerializable(event));
+
+        // Assert
+        JsonNode thrown = json.get("thrown");
+        assertEquals("java.lang.IllegalStateException", thrown.get("name").asText());
+        assertEquals("broken \"state\"", thrown.get("message").asText());
+        assertTrue(thrown.get("extendedStackTrace").asText()
+                .contains("at com.shashank.balancesservice.logging.StructuredJsonLayoutTest"));
+        assertTrue(json.get("contextMap").isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.shashank.balancesservice.logging;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TimingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimingAspect aspect = new TimingAspect(meterRegistry);
+
+    @Test
+    void time_RecordsEachCallUnderItsMethod() throws Throwable {
+        // Act
+        aspect.time(joinPoint("first"));
+        aspect.time(joinPoint("first"));
+        aspect.time(joinPoint("second"));
+
+        // Assert
+        assertEquals(2, timer("first", "success").count());
+        assertEquals(1, timer("second", "success").count());
+        assertEquals(2, aspect.getTimedMethods());
+    }
+
+    @Test
+    void time_Failure_IsRecordedAsErrorAndRethrown() throws Throwable {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> aspect.time(joinPoint("fail")));
+        assertEquals(1, timer("fail", "error").count());
+        assertEquals(0, timer("fail", "success").count());
+    }
+
+    @Test
+    void time_BeyondMaxMethods_RecordsUnderOverflowTimer() throws Throwable {
+        // Arrange
+        ReflectionTestUtils.setField(aspect, "maxMethods", 1);
+
+        // Act
+        aspect.time(joinPoint("first"));
+        aspect.time(joinPoint("second"));
+        assertThrows(IllegalStateException.class, () -> aspect.time(joinPoint("fail")));
+
+        // Assert
+        assertEquals(1, timer("first", "success").count());
+        assertEquals(1, meterRegistry.get(TimingAspect.METER_NAME)
+                .tag("class", TimingAspect.OVERFLOW).tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(TimingAspect.METER_NAME)
+                .tag("class", TimingAspect.OVERFLOW).tag("outcome", "error").timer().count());
+        assertNull(meterRegistry.find(TimingAspect.METER_NAME).tag("method", "second").timer());
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.get(TimingAspect.METER_NAME)
+                .tag("class", SampleService.class.getSimpleName())
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName) throws Throwable {
+        SampleService target = new SampleService();
+        Method method = SampleService.class.getMethod(methodName);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            try {
+                return method.invoke(target);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+        return joinPoint;
+    }
+
+    public static class SampleService {
+
+        public String first() {
+            return "first";
+        }
+
+        public String second() {
+            return "second";
+        }
+
+        public String fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
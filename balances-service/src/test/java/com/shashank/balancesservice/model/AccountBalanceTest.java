@@ -59,7 +59,7 @@ public class AccountBalanceTest {
 
         // Act
         AccountBalance accountBalance = new AccountBalance(
-                accountNumber, availableBalance, currentBalance, currency, lastUpdated);
+                accountNumber, availableBalance, currentBalance, currency, lastUpdated, 42L);
 
         // Assert
         assertEquals(accountNumber, accountBalance.getAccountNumber());
@@ -67,6 +67,7 @@ public class AccountBalanceTest {
         assertEquals(currentBalance, accountBalance.getCurrentBalance());
         assertEquals(currency, accountBalance.getCurrency());
         assertEquals(lastUpdated, accountBalance.getLastUpdated());
+        assertEquals(42L, accountBalance.getVersion());
     }
 
     @Test
@@ -0,0 +1,121 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.exception.InvalidAccountNumberException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void find_AfterInsert_ReturnsSameSlot() {
+        // Arrange
+        AccountTable table = AccountTable.inMemory(100);
+
+        // Act
+        int first = table.insert("12345678", 100);
+        int second = table.insert("87654321", 200);
+
+        // Assert
+        assertEquals(first, table.find("12345678"));
+        assertEquals(second, table.find("87654321"));
+        assertEquals(first, table.insert("12345678", 999));
+        assertEquals(-1, table.find("00000000"));
+        assertEquals(100, table.read("12345678", first).ledgerCents());
+    }
+
+    @Test
+    void insert_AccountNumberLongerThan32Bytes_IsRejected() {
+        // Arrange
+        AccountTable table = AccountTable.inMemory(10);
+
+        // Act & Assert
+        assertThrows(InvalidAccountNumberException.class, () -> table.insert("x".repeat(33), 0));
+        assertThrows(InvalidAccountNumberException.class, () -> table.find(""));
+    }
+
+    @Test
+    void mapped_Reopened_KeepsBalancesButNotHolds() {
+        // Arrange
+        Path file = directory.resolve("accounts.dat");
+        try (BalanceEngine engine = new BalanceEngine(AccountTable.mapped(file, 1_000), 16)) {
+            engine.seed("account-", 500);
+            engine.debit("account-7", new BigDecimal("10.00"));
+            engine.placeHold("account-7", new BigDecimal("5.00"));
+        }
+
+        // Act
+        try (BalanceEngine reopened = new BalanceEngine(AccountTable.mapped(file, 10), 16)) {
+            BalanceSnapshot balance = reopened.getBalance("account-7");
+
+            // Assert
+            assertEquals(500, reopened.getAccounts());
+            assertEquals(1_000, reopened.getCapacity());
+            assertEquals(BalanceEngine.openingBalance("account-7").subtract(new BigDecimal("10.00")),
+                    balance.currentBalance());
+            assertEquals(balance.currentBalance(), balance.availableBalance());
+            assertEquals(BalanceEngine.openingBalance("account-499"),
+                    reopened.getBalance("account-499").availableBalance());
+        }
+    }
+
+    @Test
+    void write_ClockSteppedBack_VersionStillGrows() {
+        // Arrange
+        AtomicLong micros = new AtomicLong(1_000_000);
+        AccountTable table = AccountTable.inMemory(10, micros::get);
+        int slot = table.insert("12345678", 0);
+        long inserted = table.read("12345678", slot).version();
+
+        // Act
+        micros.set(5_000_000);
+        long later = table.write(slot, 1, 0);
+        micros.set(2_000_000);
+        long steppedBack = table.write(slot, 2, 0);
+
+        // Assert
+        assertEquals(2_000_000, inserted);
+        assertEquals(10_000_000, later);
+        assertEquals(later + 2, steppedBack);
+        assertEquals(steppedBack, table.read("12345678", slot).version());
+        assertEquals(Instant.ofEpochSecond(5, 1_000), table.read("12345678", slot).updatedAt());
+    }
+
+    @Test
+    void read_ConcurrentWithWrites_NeverSeesTornRecord() throws Exception {
+        // Arrange
+        AccountTable table = AccountTable.inMemory(10);
+        int slot = table.insert("12345678", 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                BalanceSnapshot snapshot = table.read("12345678", slot);
+                if (snapshot.ledgerCents() != snapshot.heldCents()) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        // Act
+        for (long i = 1; i <= 2_000_000; i++) {
+            table.write(slot, i, i);
+        }
+        running.set(false);
+        reader.join();
+
+        // Assert
+        assertEquals(0, torn.get());
+    }
+}
@@ -0,0 +1,28 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.exception.TooManySubscribersException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceChangeFeedTest {
+
+    @Test
+    void subscribe_BeyondMaxSubscribers_IsRefused() {
+        // Arrange
+        BalanceChangeFeed feed = new BalanceChangeFeed(new BalanceChangeLog(16), Duration.ofMillis(50),
+                Duration.ofMinutes(1), 2);
+        feed.subscribe(null);
+        feed.subscribe(null);
+
+        // Act & Assert
+        try {
+            assertThrows(TooManySubscribersException.class, () -> feed.subscribe(null));
+            assertEquals(1, feed.getRejected());
+        } finally {
+            feed.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.shashank.balancesservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceChangeLogTest {
+
+    private static final long START = 1_000L << 20;
+    // Written at 2s after the epoch
+    private static final long VERSION = 4_000_000;
+
+    private final BalanceChangeLog changeLog = new BalanceChangeLog(8, START);
+
+    @Test
+    void read_ReturnsChangesAfterSequenceInOrder() throws Exception {
+        // Arrange
+        changeLog.append("a", 100, 0, VERSION);
+        changeLog.append("b", 200, 50, VERSION);
+        changeLog.append("a", 90, 0, VERSION);
+
+        // Act
+        List<BalanceChangeLog.Change> changes = changeLog.read(START + 1, 10, 0);
+
+        // Assert
+        assertEquals(2, changes.size());
+        assertEquals(START + 2, changes.get(0).sequence());
+        assertEquals("b", changes.get(0).accountNumber());
+        assertEquals(50, changes.get(0).heldCents());
+        assertEquals(START + 3, changes.get(1).sequence());
+        assertEquals(90, changes.get(1).ledgerCents());
+        assertEquals(3, changeLog.getAppended());
+    }
+
+    @Test
+    void read_NothingNewBeforeTimeout_ReturnsEmpty() throws Exception {
+        // Arrange
+        changeLog.append("a", 100, 0, VERSION);
+
+        // Act
+        List<BalanceChangeLog.Change> changes = changeLog.read(changeLog.head(), 10, TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Assert
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void read_WaitsForNextAppend() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<List<BalanceChangeLog.Change>> reader = executor.submit(() -> {
+            waiting.countDown();
+            return changeLog.read(START, 10, TimeUnit.SECONDS.toNanos(10));
+        });
+        waiting.await();
+
+        // Act
+        changeLog.append("a", 100, 0, VERSION);
+
+        // Assert
+        List<BalanceChangeLog.Change> changes = reader.get(10, TimeUnit.SECONDS);
+        assertEquals(1, changes.size());
+        assertEquals(START + 1, changes.get(0).sequence());
+        executor.shutdown();
+    }
+
+    @Test
+    void read_AfterOverwrittenChanges_ReturnsNull() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            changeLog.append("a", i, 0, VERSION);
+        }
+
+        // Act & Assert
+        assertNull(changeLog.read(START, 10, 0));
+        assertFalse(changeLog.canResumeAfter(START));
+        assertTrue(changeLog.canResumeAfter(changeLog.head() - changeLog.getRetention()));
+    }
+
+    @Test
+    void canResumeAfter_SequenceFromAnotherRun_IsFalse() {
+        // Arrange
+        changeLog.append("a", 100, 0, VERSION);
+
+        // Act & Assert
+        assertFalse(changeLog.canResumeAfter(START - 1));
+        assertFalse(changeLog.canResumeAfter(changeLog.head() + 1));
+        assertTrue(changeLog.canResumeAfter(START));
+    }
+
+    @Test
+    void lastApplied_IsTimeOfLatestChange() throws Exception {
+        // Arrange
+        Instant started = changeLog.lastApplied();
+
+        // Act
+        changeLog.append("a", 100, 0, 6_000_000);
+        changeLog.append("b", 100, 0, VERSION);
+
+        // Assert
+        assertEquals(Instant.ofEpochSecond(1), started);
+        assertEquals(Instant.ofEpochSecond(3), changeLog.lastApplied());
+        assertEquals(Instant.ofEpochSecond(2), changeLog.read(START + 1, 1, 0).get(0).updatedAt());
+    }
+}
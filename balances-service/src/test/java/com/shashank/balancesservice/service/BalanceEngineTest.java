@@ -0,0 +1,208 @@
+package com.shashank.balancesservice.service;
+
+import com.shashank.balancesservice.exception.AccountNotFoundException;
+import com.shashank.balancesservice.exception.HoldNotFoundException;
+import com.shashank.balancesservice.exception.InsufficientFundsException;
+import com.shashank.balancesservice.exception.InvalidAmountException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceEngineTest {
+
+    private static final String ACCOUNT = "12345678";
+
+    private final BalanceEngine engine = new BalanceEngine(AccountTable.inMemory(200_000), 16);
+
+    @Test
+    void credit_AddsToBothBalances() {
+        // Arrange
+        engine.open(ACCOUNT, new BigDecimal("100.00"));
+
+        // Act
+        BalanceSnapshot balance = engine.credit(ACCOUNT, new BigDecimal("0.05"));
+
+        // Assert
+        assertEquals(new BigDecimal("100.05"), balance.availableBalance());
+        assertEquals(new BigDecimal("100.05"), balance.currentBalance());
+        assertEquals(1, engine.getCredits());
+    }
+
+    @Test
+    void debit_MoreThanAvailable_LeavesBalanceUnchanged() {
+        // Arrange
+        engine.open(ACCOUNT, new BigDecimal("100.00"));
+        engine.placeHold(ACCOUNT, new BigDecimal("60.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> engine.debit(ACCOUNT, new BigDecimal("40.01")));
+        assertEquals(new BigDecimal("40.00"), engine.getBalance(ACCOUNT).availableBalance());
+        assertEquals(new BigDecimal("100.00"), engine.getBalance(ACCOUNT).currentBalance());
+        assertEquals(1, engine.getInsufficientFunds());
+    }
+
+    @Test
+    void releaseHold_RestoresAvailableBalance() {
+        // Arrange
+        engine.open(ACCOUNT, new BigDecimal("100.00"));
+        BalanceEngine.Hold hold = engine.placeHold(ACCOUNT, new BigDecimal("60.00"));
+
+        // Act
+        BalanceSnapshot balance = engine.releaseHold(hold.id());
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), balance.availableBalance());
+        assertEquals(0, engine.getOpenHolds());
+        assertThrows(HoldNotFoundException.class, () -> engine.captureHold(hold.id()));
+    }
+
+    @Test
+    void captureHold_DebitsHeldAmount() {
+        // Arrange
+        engine.open(ACCOUNT, new BigDecimal("100.00"));
+        BalanceEngine.Hold hold = engine.placeHold(ACCOUNT, new BigDecimal("60.00"));
+
+        // Act
+        BalanceSnapshot balance = engine.captureHold(hold.id());
+
+        // Assert
+        assertEquals(new BigDecimal("40.00"), balance.availableBalance());
+        assertEquals(new BigDecimal("40.00"), balance.currentBalance());
+    }
+
+    @Test
+    void credit_MoreThanTwoDecimalPlaces_IsRejected() {
+        // Act & Assert
+        assertThrows(InvalidAmountException.class, () -> engine.credit(ACCOUNT, new BigDecimal("1.001")));
+        assertThrows(InvalidAmountException.class, () -> engine.credit(ACCOUNT, BigDecimal.ZERO));
+    }
+
+    @Test
+    void getBalance_UnknownAccount_ThrowsWithoutOpeningIt() {
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> engine.getBalance(ACCOUNT));
+        assertNull(engine.findBalance(ACCOUNT));
+        assertThrows(AccountNotFoundException.class, () -> engine.credit(ACCOUNT, BigDecimal.ONE));
+        assertEquals(0, engine.getAccounts());
+    }
+
+    @Test
+    void updates_ReturnIncreasingVersions() {
+        // Arrange
+        engine.open(ACCOUNT, new BigDecimal("100.00"));
+        long opened = engine.getBalance(ACCOUNT).version();
+
+        // Act
+        BalanceSnapshot credited = engine.credit(ACCOUNT, new BigDecimal("1.00"));
+        BalanceSnapshot debited = engine.debit(ACCOUNT, new BigDecimal("1.00"));
+
+        // Assert
+        assertTrue(credited.version() > opened);
+        assertTrue(debited.version() > credited.version());
+        assertEquals(debited.version(), engine.getBalance(ACCOUNT).version());
+        assertEquals(debited.updatedAt(), engine.getBalance(ACCOUNT).updatedAt());
+    }
+
+    @Test
+    void open_BeyondMaxAccounts_Throws() {
+        // Arrange
+        BalanceEngine small = new BalanceEngine(AccountTable.inMemory(1), 16);
+        small.open("first", BigDecimal.TEN);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> small.open("second", BigDecimal.TEN));
+        assertEquals(1, small.getAccounts());
+    }
+
+    @Test
+    void seed_OpensAccountsWithOpeningBalances() {
+        // Act
+        int opened = engine.seed("account-", 150_000);
+        int reopened = engine.seed("account-", 150_000);
+
+        // Assert
+        assertEquals(150_000, opened);
+        assertEquals(0, reopened);
+        assertEquals(BalanceEngine.openingBalance("account-149999"),
+                engine.getBalance("account-149999").availableBalance());
+    }
+
+    @Test
+    void updates_AreAppendedToChangeLog() throws Exception {
+        // Arrange
+        BalanceChangeLog changeLog = new BalanceChangeLog(16);
+        BalanceEngine logged = new BalanceEngine(AccountTable.inMemory(10), changeLog, 16);
+        logged.open(ACCOUNT, new BigDecimal("100.00"));
+        long before = changeLog.head();
+
+        // Act
+        logged.credit(ACCOUNT, new BigDecimal("5.00"));
+        BalanceEngine.Hold hold = logged.placeHold(ACCOUNT, new BigDecimal("30.00"));
+        logged.captureHold(hold.id());
+
+        // Assert
+        List<BalanceChangeLog.Change> changes = changeLog.read(before, 10, 0);
+        assertEquals(3, changes.size());
+        assertEquals(10_500, changes.get(0).ledgerCents());
+        assertEquals(3_000, changes.get(1).heldCents());
+        assertEquals(7_500, changes.get(2).ledgerCents());
+        assertEquals(0, changes.get(2).heldCents());
+    }
+
+    @Test
+    void openingBalance_IsWithinDocumentedRange() {
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal balance = BalanceEngine.openingBalance("account-" + i);
+            assertTrue(balance.compareTo(new BigDecimal("10000.00")) >= 0);
+            assertTrue(balance.compareTo(new BigDecimal("100000.00")) <= 0);
+            assertEquals(2, balance.scale());
+        }
+    }
+
+    @Test
+    void debit_ConcurrentOnOneAccount_NeverOverdrawsOrLosesUpdates() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 1_000;
+        engine.open(ACCOUNT, new BigDecimal("5000.00"));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        engine.debit(ACCOUNT, new BigDecimal("1.00"));
+                        succeeded.incrementAndGet();
+                    } catch (InsufficientFundsException e) {
+                        // Expected once the balance runs out
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(5_000, succeeded.get());
+        assertEquals(new BigDecimal("0.00"), engine.getBalance(ACCOUNT).availableBalance());
+    }
+}
@@ -15,16 +15,6 @@ start /B cmd /c "cd transaction-service && mvnw.cmd spring-boot:run > transactio
 echo Waiting for services to start up...
 timeout /t 30 /nobreak > nul
 
-:: Function to generate random characters
-:generateRandom
-set "characters=abcdefghijklmnopqrstuvwxyz0123456789"
-set "result="
-for /L %%i in (1,1,8) do (
-    set /a rand=!random! %% 36
-    for %%j in (!rand!) do set "result=!result!!characters:~%%j,1!"
-)
-exit /b
-
 :: Function to generate random currency
 :generateCurrency
 set /a currIndex=!random! %% 3
@@ -64,8 +54,8 @@ exit /b
 
 :: Function to send random transaction
 :sendTransaction
-call :generateRandom
-set "accountId=acc_%result%"
+set /a accountNumber=!random! %% 1000
+set "accountId=account-!accountNumber!"
 
 set /a amount=!random! %% 1000 + 1
 
@@ -44,17 +44,9 @@ start_service() {
     echo "$service_name started"
 }
 
-# Function to generate a random account ID (compatible with macOS, Linux, and Windows with proper tools)
+# Function to pick one of the accounts balances-service seeds at startup (balances.engine.seed.*)
 generate_account_id() {
-    if [ "$(uname)" = "Darwin" ]; then
-        # macOS approach
-        echo "acc_$(LC_ALL=C tr -dc 'a-z0-9' < /dev/urandom | head -c 8)"
-    else
-        # Linux and Windows with proper tools approach
-        echo "acc_$(cat /dev/urandom 2>/dev/null | tr -dc 'a-z0-9' | fold -w 8 | head -n 1 2>/dev/null || 
-              LC_ALL=C tr -dc 'a-z0-9' < /dev/urandom | head -c 8 || 
-              echo "$(date +%s)_$(($RANDOM % 1000))")"
-    fi
+    echo "account-$((RANDOM % 1000))"
 }
 
 # Function to generate a random amount between 1 and 100000
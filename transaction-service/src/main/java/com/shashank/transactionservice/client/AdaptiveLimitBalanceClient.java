@@ -0,0 +1,158 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Limits calls in flight to balances-service to a concurrency the service is currently able to absorb,
+ * learned from measured latency, and rejects calls above it at once instead of queueing them.
+ * <p>
+ * The limit follows a gradient: each call's round trip is compared with a long-term exponential average.
+ * While round trips stay within {@code rttTolerance} times that average the limit grows by about its square
+ * root, which leaves room to probe for more; once they exceed it the limit shrinks in proportion, down to
+ * half per adjustment. Timeouts and I/O errors cut the limit by {@code backoffRatio}. Samples taken while
+ * fewer than half the permitted calls are in flight are ignored, since latency then says nothing about
+ * the limit. Adjustments are smoothed and kept within {@code [minLimit, maxLimit]}.
+ */
+public class AdaptiveLimitBalanceClient implements BalanceClient {
+
+    private static final AttributeKey<Long> LIMIT = AttributeKey.longKey("balances.limit");
+
+    // Samples averaged into the long-term round trip
+    private static final int LONG_WINDOW = 600;
+
+    private final BalanceClient delegate;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final double smoothing;
+    private final LongSupplier nanoTime;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private volatile int limit;
+    private double longRttNanos;
+    private long samples;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveLimitBalanceClient(BalanceClient delegate, int initialLimit, int minLimit, int maxLimit,
+                                      double rttTolerance, double backoffRatio, double smoothing) {
+        this(delegate, initialLimit, minLimit, maxLimit, rttTolerance, backoffRatio, smoothing, System::nanoTime);
+    }
+
+    AdaptiveLimitBalanceClient(BalanceClient delegate, int initialLimit, int minLimit, int maxLimit,
+                               double rttTolerance, double backoffRatio, double smoothing, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.smoothing = smoothing;
+        this.nanoTime = nanoTime;
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        return call(() -> delegate.getBalance(accountId));
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        return call(() -> delegate.getBalances(accountIds));
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.debit(accountId, amount));
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.credit(accountId, amount));
+    }
+
+    private <T> T call(Supplier<T> lookup) {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            Span.current().addEvent("balances.limit.rejected", Attributes.of(LIMIT, (long) limit));
+            throw new BalanceCallRejectedException(BalanceCallRejectedException.Reason.LIMIT_EXCEEDED,
+                    "Concurrency limit of " + limit + " balances-service calls reached");
+        }
+        long start = nanoTime.getAsLong();
+        try {
+            T result = lookup.get();
+            onSample(nanoTime.getAsLong() - start, current, false);
+            return result;
+        } catch (BalanceCallRejectedException e) {
+            throw e;
+        } catch (ResourceAccessException e) {
+            onSample(nanoTime.getAsLong() - start, current, true);
+            throw e;
+        } catch (RuntimeException e) {
+            onSample(nanoTime.getAsLong() - start, current, false);
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        double rtt = Math.max(1, rttNanos);
+        lock.lock();
+        try {
+            samples++;
+            double weight = samples < LONG_WINDOW ? 1.0 / samples : 2.0 / (LONG_WINDOW + 1);
+            longRttNanos = longRttNanos * (1 - weight) + rtt * weight;
+            // After a slow period the average lags far behind; let it catch up with the faster service
+            if (longRttNanos / rtt > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            double newLimit;
+            if (dropped) {
+                newLimit = estimatedLimit * backoffRatio;
+            } else if (inFlightAtStart < estimatedLimit / 2) {
+                return;
+            } else {
+                double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rtt));
+                newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            }
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+            estimatedLimit = Math.max(minLimit, Math.min(newLimit, maxLimit));
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package com.shashank.transactionservice.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without contacting balances-service when a resilience decorator refuses the call. It is a
+ * {@link RestClientException} so callers treat it like any other unavailable balances-service.
+ */
+public class BalanceCallRejectedException extends RestClientException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL,
+        LIMIT_EXCEEDED
+    }
+
+    private final Reason reason;
+
+    public BalanceCallRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,44 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Looks up account balances in balances-service, and posts debits and credits to them. Failures surface as
+ * {@link org.springframework.web.client.RestClientException}s whichever transport is in use.
+ */
+public interface BalanceClient {
+    AccountBalance getBalance(String accountId);
+
+    /**
+     * Balances for several accounts, keyed by account id. Accounts balances-service does not know are
+     * absent from the result. Transports without a bulk call look the accounts up one by one.
+     */
+    default Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        Map<String, AccountBalance> balances = new LinkedHashMap<>();
+        for (String accountId : accountIds) {
+            AccountBalance balance = getBalance(accountId);
+            if (balance != null) {
+                balances.put(accountId, balance);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Takes {@code amount} from the account's available balance and returns its balances after the debit.
+     *
+     * @throws org.springframework.web.client.HttpClientErrorException.BadRequest if balances-service refuses
+     * the debit, which it does when the available balance does not cover it
+     */
+    AccountBalance debit(String accountId, BigDecimal amount);
+
+    /**
+     * Adds {@code amount} to the account's balances and returns them after the credit.
+     */
+    AccountBalance credit(String accountId, BigDecimal amount);
+}
@@ -0,0 +1,179 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.context.Context;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gathers concurrent single-account lookups into bulk requests to another {@link BalanceClient}.
+ * <p>
+ * A dispatcher thread opens a batch with the first queued lookup and closes it after {@code maxWait} or
+ * once it holds {@code maxBatchSize} distinct accounts, whichever comes first. Batches are sent on a small
+ * pool so that one slow request does not hold up the next batch. Each caller therefore waits at most
+ * {@code maxWait} longer than an unbatched lookup, in exchange for far fewer requests under load.
+ * <p>
+ * An account missing from the bulk reply fails its lookups with the 404 a single lookup would get. A batch
+ * is sent in the trace context of the lookup that opened it.
+ */
+public class BatchingBalanceClient implements BalanceClient, AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(BatchingBalanceClient.class);
+
+    private final BalanceClient delegate;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Lookup> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedAccounts = new LongAdder();
+
+    public BatchingBalanceClient(BalanceClient delegate, Duration maxWait, int maxBatchSize, int concurrency) {
+        this.delegate = delegate;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        AtomicInteger senderIds = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "balance-batch-sender-" + senderIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "balance-batch-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        if (closed) {
+            throw new IllegalStateException("Balance client is closed");
+        }
+        Lookup lookup = new Lookup(accountId, Context.current(), new CompletableFuture<>());
+        queue.add(lookup);
+        try {
+            return lookup.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Bulk lookups are already batched, so they go straight to the delegate.
+     */
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        return delegate.getBalances(accountIds);
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return delegate.debit(accountId, amount);
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return delegate.credit(accountId, amount);
+    }
+
+    private void dispatch() {
+        while (!closed) {
+            try {
+                Lookup first = queue.take();
+                Map<String, List<Lookup>> batch = new LinkedHashMap<>();
+                add(batch, first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    Lookup next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    add(batch, next);
+                }
+                senders.execute(first.context.wrap(() -> send(batch)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Balance batch dispatch failed", e);
+            }
+        }
+    }
+
+    private static void add(Map<String, List<Lookup>> batch, Lookup lookup) {
+        batch.computeIfAbsent(lookup.accountId, accountId -> new ArrayList<>(1)).add(lookup);
+    }
+
+    private void send(Map<String, List<Lookup>> batch) {
+        batches.increment();
+        batchedAccounts.add(batch.size());
+        try {
+            Map<String, AccountBalance> balances = delegate.getBalances(batch.keySet());
+            batch.forEach((accountId, lookups) -> {
+                AccountBalance balance = balances.get(accountId);
+                if (balance == null) {
+                    RuntimeException notFound = HttpClientErrorException.create("Account " + accountId +
+                            " missing from batch reply", HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+                    lookups.forEach(lookup -> lookup.result.completeExceptionally(notFound));
+                } else {
+                    lookups.forEach(lookup -> lookup.result.complete(balance));
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.values().forEach(lookups -> lookups.forEach(lookup -> lookup.result.completeExceptionally(e)));
+        }
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getBatchedAccounts() {
+        return batchedAccounts.sum();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+        IllegalStateException closedException = new IllegalStateException("Balance client is closed");
+        Lookup pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(closedException);
+        }
+    }
+
+    private record Lookup(String accountId, Context context, CompletableFuture<AccountBalance> result) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.context.Context;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Serves reactive lookups from a blocking {@link BalanceClient} on {@code scheduler}, so that they go through
+ * the same circuit breaker, limits, bulkhead, cache and replica as blocking ones and share their state. The
+ * lookup holds a scheduler thread while it waits, which a bounded scheduler caps. It runs in the caller's
+ * trace context.
+ */
+public class BlockingReactiveBalanceClient implements ReactiveBalanceClient {
+
+    private final BalanceClient delegate;
+
+    private final Scheduler scheduler;
+
+    public BlockingReactiveBalanceClient(BalanceClient delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<AccountBalance> getBalance(String accountId) {
+        Context context = Context.current();
+        return Mono.fromCallable(context.wrap(() -> delegate.getBalance(accountId)))
+                .subscribeOn(scheduler);
+    }
+}
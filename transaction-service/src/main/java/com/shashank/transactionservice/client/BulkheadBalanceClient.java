@@ -0,0 +1,92 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.api.trace.Span;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of calls to balances-service in flight at once, so a slow balances-service can hold at
+ * most {@code maxConcurrentCalls} request threads. A call that cannot get a slot within {@code maxWait} is
+ * rejected, and the rejection is recorded as an event on the current span.
+ */
+public class BulkheadBalanceClient implements BalanceClient {
+
+    private final BalanceClient delegate;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public BulkheadBalanceClient(BalanceClient delegate, int maxConcurrentCalls, Duration maxWait) {
+        this.delegate = delegate;
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(this.maxConcurrentCalls, true);
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        return call(() -> delegate.getBalance(accountId));
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        return call(() -> delegate.getBalances(accountIds));
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.debit(accountId, amount));
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.credit(accountId, amount));
+    }
+
+    private <T> T call(Supplier<T> lookup) {
+        if (!acquire()) {
+            rejected.increment();
+            Span.current().addEvent("balances.bulkhead.rejected");
+            throw new BalanceCallRejectedException(BalanceCallRejectedException.Reason.BULKHEAD_FULL,
+                    "All " + maxConcurrentCalls + " balances-service call slots are busy");
+        }
+        try {
+            return lookup.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return maxWaitNanos <= 0
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,175 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches balances for a short TTL in front of another {@link BalanceClient}.
+ * <p>
+ * The cache holds at most {@code maxEntries} accounts and evicts the oldest insertions first. Concurrent
+ * misses for the same account are coalesced: the first caller performs the lookup and the others wait
+ * for its result (single-flight), so a burst on a hot account costs one request. Failed lookups are not
+ * cached; every caller that was waiting on one sees the same exception. Debits and credits drop the
+ * account's cached balance.
+ */
+public class CachingBalanceClient implements BalanceClient {
+
+    private final BalanceClient delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, CompletableFuture<AccountBalance>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingBalanceClient(BalanceClient delegate, Duration ttl, int maxEntries) {
+        this(delegate, ttl, maxEntries, System::nanoTime);
+    }
+
+    CachingBalanceClient(BalanceClient delegate, Duration ttl, int maxEntries, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        Entry cached = fresh(accountId);
+        if (cached != null) {
+            hits.increment();
+            return cached.balance;
+        }
+
+        CompletableFuture<AccountBalance> lookup = new CompletableFuture<>();
+        CompletableFuture<AccountBalance> existing = inFlight.putIfAbsent(accountId, lookup);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        try {
+            // A lookup may have completed between the cache check and claiming the flight
+            cached = fresh(accountId);
+            if (cached != null) {
+                hits.increment();
+                lookup.complete(cached.balance);
+                return cached.balance;
+            }
+            misses.increment();
+            AccountBalance balance = delegate.getBalance(accountId);
+            if (balance != null) {
+                put(accountId, balance);
+            }
+            lookup.complete(balance);
+            return balance;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(accountId, lookup);
+        }
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        try {
+            return delegate.debit(accountId, amount);
+        } finally {
+            entries.remove(accountId);
+        }
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        try {
+            return delegate.credit(accountId, amount);
+        } finally {
+            entries.remove(accountId);
+        }
+    }
+
+    private Entry fresh(String accountId) {
+        Entry entry = entries.get(accountId);
+        return entry != null && entry.expiresAt - nanoTime.getAsLong() > 0 ? entry : null;
+    }
+
+    private void put(String accountId, AccountBalance balance) {
+        Entry entry = new Entry(accountId, balance, nanoTime.getAsLong() + ttlNanos);
+        entries.put(accountId, entry);
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        // Refreshed accounts leave superseded entries in the queue; trim those as well as the overflow
+        while (entries.size() > maxEntries || queued.get() > 2 * maxEntries) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(oldest.accountId, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static AccountBalance await(CompletableFuture<AccountBalance> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    // Compared by identity, so eviction never removes a newer entry for the same account
+    private static final class Entry {
+        private final String accountId;
+        private final AccountBalance balance;
+        private final long expiresAt;
+
+        private Entry(String accountId, AccountBalance balance, long expiresAt) {
+            this.accountId = accountId;
+            this.balance = balance;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
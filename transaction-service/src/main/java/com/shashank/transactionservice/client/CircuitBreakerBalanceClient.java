@@ -0,0 +1,228 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling balances-service while it is failing.
+ * <p>
+ * While CLOSED the outcomes of the last {@code windowSize} calls are kept; once at least
+ * {@code minimumCalls} have been seen and the share of failures reaches {@code failureRateThreshold} the
+ * breaker OPENs and rejects every call for {@code openDuration}. It then lets {@code halfOpenCalls} trial
+ * calls through (HALF_OPEN): if all of them succeed it closes again, and the first failure reopens it.
+ * Server errors, I/O errors and calls slower than {@code slowCallDuration} count as failures; 4xx responses
+ * mean balances-service answered and count as successes. Calls rejected further down the chain are not
+ * counted at all.
+ * <p>
+ * Every state change is recorded as an event on the current span.
+ */
+public class CircuitBreakerBalanceClient implements BalanceClient {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private static final AttributeKey<String> FROM_STATE = AttributeKey.stringKey("balances.circuit.from");
+    private static final AttributeKey<String> TO_STATE = AttributeKey.stringKey("balances.circuit.to");
+
+    private final BalanceClient delegate;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ring buffer of recent outcomes, true for a failure
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCalls;
+    private int windowFailures;
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreakerBalanceClient(BalanceClient delegate, double failureRateThreshold, int windowSize,
+                                       int minimumCalls, Duration slowCallDuration, Duration openDuration,
+                                       int halfOpenCalls) {
+        this(delegate, failureRateThreshold, windowSize, minimumCalls, slowCallDuration, openDuration, halfOpenCalls,
+                System::nanoTime);
+    }
+
+    CircuitBreakerBalanceClient(BalanceClient delegate, double failureRateThreshold, int windowSize,
+                                int minimumCalls, Duration slowCallDuration, Duration openDuration,
+                                int halfOpenCalls, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoTime = nanoTime;
+        for (State value : State.values()) {
+            transitions.put(value, new LongAdder());
+        }
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        return call(() -> delegate.getBalance(accountId));
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        return call(() -> delegate.getBalances(accountIds));
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.debit(accountId, amount));
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return call(() -> delegate.credit(accountId, amount));
+    }
+
+    private <T> T call(Supplier<T> lookup) {
+        acquirePermission();
+        long start = nanoTime.getAsLong();
+        try {
+            T result = lookup.get();
+            onOutcome(nanoTime.getAsLong() - start > slowCallNanos);
+            return result;
+        } catch (BalanceCallRejectedException e) {
+            releasePermission();
+            throw e;
+        } catch (HttpClientErrorException e) {
+            onOutcome(false);
+            throw e;
+        } catch (RuntimeException e) {
+            onOutcome(true);
+            throw e;
+        }
+    }
+
+    private void acquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && trialPermits == 0)) {
+                rejected.increment();
+                throw new BalanceCallRejectedException(BalanceCallRejectedException.Reason.CIRCUIT_OPEN,
+                        "Circuit breaker is " + state + " for balances-service");
+            }
+            if (state == State.HALF_OPEN) {
+                trialPermits--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A trial call that never reached balances-service gives its permit back
+    private void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                trialPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onOutcome(boolean failure) {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> record(failure);
+                case HALF_OPEN -> {
+                    if (failure) {
+                        transitionTo(State.OPEN);
+                    } else if (++trialSuccesses == halfOpenCalls) {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // A call admitted before the breaker opened; the window was already discarded
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+        if (windowCalls >= minimumCalls && windowFailures >= failureRateThreshold * windowCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        switch (next) {
+            case OPEN -> openedAt = nanoTime.getAsLong();
+            case HALF_OPEN -> {
+                trialPermits = halfOpenCalls;
+                trialSuccesses = 0;
+            }
+            case CLOSED -> {
+                windowPosition = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+            }
+        }
+        transitions.get(next).increment();
+        Span.current().addEvent("balances.circuit.state_change",
+                Attributes.of(FROM_STATE, previous.name(), TO_STATE, next.name()));
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getTransitions(State to) {
+        return transitions.get(to).sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
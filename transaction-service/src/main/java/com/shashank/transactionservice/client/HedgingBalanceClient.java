@@ -0,0 +1,278 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import org.springframework.web.client.RestClientException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends a second, hedged request for a single-account lookup that has not answered within the
+ * {@code percentile} of recently observed lookup latency, and returns whichever answers first.
+ * <p>
+ * Latency is taken from the last {@code window} successful attempts; until enough have been seen, and never
+ * below {@code minDelay}, no hedge is sent. Hedges are paid for from a budget that every lookup tops up
+ * by {@code budgetRatio} and that holds at most {@code budgetBurst}, so hedging adds at most that share of
+ * extra load to balances-service even when it slows down as a whole. The attempt that loses the race is
+ * cancelled by interrupting its thread; whether that aborts the request in flight depends on the HTTP
+ * client. If both attempts fail the lookup fails with the later error. Attempts run on a pool of their
+ * own with the caller's trace context, so both appear under the caller's span. The pool runs at most
+ * {@code maxAttempts} at once; a lookup that finds it full is made on the caller's thread, and one whose
+ * hedge finds it full waits for the primary.
+ * <p>
+ * Bulk lookups are passed straight through: their latency follows the batch size, not the service. So are
+ * debits and credits, which a second attempt would apply twice.
+ */
+public class HedgingBalanceClient implements BalanceClient, AutoCloseable {
+
+    // Lookups seen before the percentile is trusted
+    private static final int MIN_SAMPLES = 50;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final long TOKEN = 1_000;
+
+    private final BalanceClient delegate;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetDeposit;
+    private final long budgetMax;
+    private final LongSupplier nanoTime;
+    private final ExecutorService attempts;
+
+    private final ReentrantLock samplesLock = new ReentrantLock();
+    private final long[] samples;
+    private int samplePosition;
+    private int sampleCount;
+    private int sinceRecompute;
+    private volatile long hedgeDelayNanos = -1;
+
+    private final AtomicLong budget;
+
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder poolFull = new LongAdder();
+
+    public HedgingBalanceClient(BalanceClient delegate, double percentile, Duration minDelay, int window,
+                                double budgetRatio, int budgetBurst, int maxAttempts) {
+        this(delegate, percentile, minDelay, window, budgetRatio, budgetBurst, maxAttempts, System::nanoTime);
+    }
+
+    HedgingBalanceClient(BalanceClient delegate, double percentile, Duration minDelay, int window,
+                         double budgetRatio, int budgetBurst, int maxAttempts, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.samples = new long[Math.max(MIN_SAMPLES, window)];
+        this.budgetDeposit = Math.round(budgetRatio * TOKEN);
+        this.budgetMax = Math.max(1, budgetBurst) * TOKEN;
+        this.budget = new AtomicLong(budgetMax);
+        this.nanoTime = nanoTime;
+        AtomicInteger attemptIds = new AtomicInteger();
+        this.attempts = new ThreadPoolExecutor(0, Math.max(2, maxAttempts), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "balance-hedge-" + attemptIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        deposit();
+        Attempt primary = attempt(accountId);
+        if (primary == null) {
+            poolFull.increment();
+            long start = nanoTime.getAsLong();
+            AccountBalance balance = delegate.getBalance(accountId);
+            record(nanoTime.getAsLong() - start);
+            return balance;
+        }
+        long delay = hedgeDelayNanos;
+        try {
+            if (delay < 0) {
+                return primary.result.get();
+            }
+            try {
+                return primary.result.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!withdraw()) {
+                    budgetExhausted.increment();
+                    return primary.result.get();
+                }
+            }
+            Attempt hedge = attempt(accountId);
+            if (hedge == null) {
+                poolFull.increment();
+                return primary.result.get();
+            }
+            hedgesSent.increment();
+            Span.current().addEvent("balances.hedge.sent");
+            return race(primary, hedge);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RestClientException("Balance lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            primary.cancel();
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for balances-service", e);
+        }
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        return delegate.getBalances(accountIds);
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return delegate.debit(accountId, amount);
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return delegate.credit(accountId, amount);
+    }
+
+    private AccountBalance race(Attempt primary, Attempt hedge) throws ExecutionException, InterruptedException {
+        CompletableFuture<AccountBalance> winner = new CompletableFuture<>();
+        AtomicBoolean won = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        primary.result.whenComplete((balance, error) -> settle(winner, won, failures, balance, error, false));
+        hedge.result.whenComplete((balance, error) -> settle(winner, won, failures, balance, error, true));
+        try {
+            return winner.get();
+        } finally {
+            primary.cancel();
+            hedge.cancel();
+        }
+    }
+
+    // Completes the race with the first success, or with the second failure. A winning hedge is counted
+    // before the caller is released, so the count already includes it when the lookup returns
+    private void settle(CompletableFuture<AccountBalance> winner, AtomicBoolean won, AtomicInteger failures,
+                        AccountBalance balance, Throwable error, boolean hedge) {
+        if (error == null) {
+            if (won.compareAndSet(false, true)) {
+                if (hedge) {
+                    hedgesWon.increment();
+                    Span.current().addEvent("balances.hedge.won");
+                }
+                winner.complete(balance);
+            }
+            return;
+        }
+        if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    // Returns null if the pool is already running maxAttempts
+    private Attempt attempt(String accountId) {
+        CompletableFuture<AccountBalance> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = attempts.submit(Context.current().wrap(() -> {
+                long start = nanoTime.getAsLong();
+                try {
+                    AccountBalance balance = delegate.getBalance(accountId);
+                    record(nanoTime.getAsLong() - start);
+                    result.complete(balance);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return new Attempt(result, task);
+    }
+
+    private void record(long latencyNanos) {
+        samplesLock.lock();
+        try {
+            samples[samplePosition] = latencyNanos;
+            samplePosition = (samplePosition + 1) % samples.length;
+            sampleCount = Math.min(sampleCount + 1, samples.length);
+            if (sampleCount >= MIN_SAMPLES && (hedgeDelayNanos < 0 || ++sinceRecompute >= RECOMPUTE_INTERVAL)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * sorted.length) - 1;
+                hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        } finally {
+            samplesLock.unlock();
+        }
+    }
+
+    private void deposit() {
+        budget.accumulateAndGet(budgetDeposit, (tokens, deposit) -> Math.min(budgetMax, tokens + deposit));
+    }
+
+    private boolean withdraw() {
+        long tokens;
+        do {
+            tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long getBudgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    public long getPoolFull() {
+        return poolFull.sum();
+    }
+
+    public double getHedgeDelayMillis() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? Double.NaN : delay / 1e6;
+    }
+
+    @Override
+    public void close() {
+        attempts.shutdownNow();
+    }
+
+    private record Attempt(CompletableFuture<AccountBalance> result, Future<?> task) {
+        void cancel() {
+            if (!result.isDone()) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link BalanceClient}. The returned {@link Mono} is empty when balances-service
+ * returns no body, and fails with a {@link org.springframework.web.client.RestClientException} when the
+ * lookup fails.
+ */
+public interface ReactiveBalanceClient {
+    Mono<AccountBalance> getBalance(String accountId);
+}
@@ -0,0 +1,289 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.BalanceChange;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Answers balance lookups from a local replica kept up to date by the balances-service change feed
+ * ({@code GET /api/balances/changes}), falling back to another {@link BalanceClient} when the replica
+ * cannot be trusted.
+ * <p>
+ * The feed carries an account's balances after every change, and a heartbeat while nothing changes. An
+ * account is added to the replica by the first lookup that misses it, or by a change to it, up to
+ * {@code maxEntries} accounts. The replica is fresh while some event has arrived within
+ * {@code maxStaleness}; while it is not, every lookup goes to the delegate, and nothing is added.
+ * Balances answered from the replica carry the time of the latest change the feed has reported as
+ * {@code lastUpdated}, since every change up to then has been applied; it is the time balances-service
+ * made that change, not when the event was sent, so an idle feed does not make the replica look newer.
+ * <p>
+ * Debits and credits go to the delegate; the replica learns of them from the feed like of any other change.
+ * <p>
+ * After a disconnect the feed is resumed from the last sequence seen. If balances-service no longer has
+ * the changes in between, it sends a {@code reset} and the replica is emptied and refilled by lookups.
+ */
+public class ReplicaBalanceClient implements BalanceClient, AutoCloseable {
+
+    static final String BALANCE = "balance";
+    static final String HEARTBEAT = "heartbeat";
+    static final String RESET = "reset";
+
+    private static final Logger log = LogManager.getLogger(ReplicaBalanceClient.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<BalanceChange>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final BalanceClient delegate;
+    private final long maxStalenessNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, AccountBalance> replica = new ConcurrentHashMap<>();
+    // Bumped by every reset, so a lookup that started before one does not add a balance from before it
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean synced;
+    private volatile long lastSequence = -1;
+    private volatile long lastHeardNanos;
+    private volatile LocalDateTime watermark;
+    private volatile Disposable subscription;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+
+    public ReplicaBalanceClient(BalanceClient delegate, Duration maxStaleness, int maxEntries) {
+        this(delegate, maxStaleness, maxEntries, System::nanoTime);
+    }
+
+    ReplicaBalanceClient(BalanceClient delegate, Duration maxStaleness, int maxEntries, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Follows the change feed at {@code url} until {@link #close()}, reconnecting after {@code reconnectDelay}
+     * whenever the stream ends or fails.
+     */
+    public void subscribe(WebClient webClient, String url, Duration reconnectDelay) {
+        Flux<ServerSentEvent<BalanceChange>> stream = Flux.defer(() -> webClient.get()
+                .uri(url)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (lastSequence >= 0) {
+                        headers.set("Last-Event-ID", Long.toString(lastSequence));
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE));
+        subscription = stream
+                .doOnNext(this::onEvent)
+                .doOnTerminate(disconnects::increment)
+                .doOnError(e -> log.warn("Balance change feed at {} failed, reconnecting in {}: {}",
+                        url, reconnectDelay, e.toString()))
+                .repeatWhen(completions -> completions.delayElements(reconnectDelay))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, reconnectDelay))
+                .subscribe(event -> {
+                }, e -> log.error("Balance change feed at {} stopped", url, e));
+    }
+
+    void onEvent(ServerSentEvent<BalanceChange> event) {
+        BalanceChange change = event.data();
+        if (change == null) {
+            return;
+        }
+        if (RESET.equals(event.event())) {
+            generation.incrementAndGet();
+            replica.clear();
+            resets.increment();
+            synced = true;
+            lastSequence = change.getSequence();
+        } else if (BALANCE.equals(event.event()) && change.getAccountNumber() != null) {
+            String accountId = change.getAccountNumber();
+            if (replica.containsKey(accountId) || replica.size() < maxEntries) {
+                replica.put(accountId, AccountBalance.builder()
+                        .accountNumber(accountId)
+                        .availableBalance(change.getAvailableBalance())
+                        .currentBalance(change.getCurrentBalance())
+                        .currency(change.getCurrency())
+                        .lastUpdated(change.getTimestamp())
+                        .version(change.getVersion())
+                        .build());
+            }
+            changes.increment();
+            lastSequence = change.getSequence();
+        } else if (!HEARTBEAT.equals(event.event())) {
+            return;
+        }
+        LocalDateTime applied = change.getTimestamp();
+        if (applied != null && (watermark == null || applied.isAfter(watermark))) {
+            watermark = applied;
+        }
+        // Written last, so a lookup that sees the replica as fresh also sees this event applied
+        lastHeardNanos = nanoTime.getAsLong();
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        if (!isFresh()) {
+            stale.increment();
+            return delegate.getBalance(accountId);
+        }
+        long seenGeneration = generation.get();
+        AccountBalance replicated = replica.get(accountId);
+        if (replicated != null) {
+            hits.increment();
+            return asOfWatermark(replicated);
+        }
+        misses.increment();
+        AccountBalance balance = delegate.getBalance(accountId);
+        if (balance != null) {
+            remember(accountId, balance, seenGeneration);
+        }
+        return balance;
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        if (!isFresh()) {
+            stale.add(accountIds.size());
+            return delegate.getBalances(accountIds);
+        }
+        long seenGeneration = generation.get();
+        Map<String, AccountBalance> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String accountId : accountIds) {
+            AccountBalance replicated = replica.get(accountId);
+            if (replicated != null) {
+                found.put(accountId, asOfWatermark(replicated));
+            } else {
+                missing.add(accountId);
+            }
+        }
+        hits.add(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        misses.add(missing.size());
+        Map<String, AccountBalance> fetched = delegate.getBalances(missing);
+        fetched.forEach((accountId, balance) -> remember(accountId, balance, seenGeneration));
+        // Keep the order the accounts were asked for in
+        Map<String, AccountBalance> balances = new LinkedHashMap<>();
+        for (String accountId : accountIds) {
+            AccountBalance balance = found.containsKey(accountId) ? found.get(accountId) : fetched.get(accountId);
+            if (balance != null) {
+                balances.put(accountId, balance);
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return delegate.debit(accountId, amount);
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return delegate.credit(accountId, amount);
+    }
+
+    // A change that arrived while the lookup was in flight is newer than the looked-up balance, so it wins
+    private void remember(String accountId, AccountBalance balance, long seenGeneration) {
+        if (!isFresh() || generation.get() != seenGeneration || replica.size() >= maxEntries) {
+            return;
+        }
+        AccountBalance copy = copy(balance, balance.getLastUpdated());
+        if (replica.putIfAbsent(accountId, copy) == null && generation.get() != seenGeneration) {
+            replica.remove(accountId, copy);
+        }
+    }
+
+    private boolean isFresh() {
+        return synced && nanoTime.getAsLong() - lastHeardNanos <= maxStalenessNanos;
+    }
+
+    private AccountBalance asOfWatermark(AccountBalance balance) {
+        LocalDateTime asOf = watermark;
+        return copy(balance, asOf != null ? asOf : balance.getLastUpdated());
+    }
+
+    private static AccountBalance copy(AccountBalance balance, LocalDateTime lastUpdated) {
+        return AccountBalance.builder()
+                .accountNumber(balance.getAccountNumber())
+                .availableBalance(balance.getAvailableBalance())
+                .currentBalance(balance.getCurrentBalance())
+                .currency(balance.getCurrency())
+                .lastUpdated(lastUpdated)
+                .version(balance.getVersion())
+                .build();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStale() {
+        return stale.sum();
+    }
+
+    public long getChanges() {
+        return changes.sum();
+    }
+
+    public long getResets() {
+        return resets.sum();
+    }
+
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    public int getSize() {
+        return replica.size();
+    }
+
+    /**
+     * Seconds since the last feed event, or -1 before the first.
+     */
+    public double getStalenessSeconds() {
+        return synced ? (nanoTime.getAsLong() - lastHeardNanos) / 1e9 : -1;
+    }
+
+    @Override
+    public void close() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+}
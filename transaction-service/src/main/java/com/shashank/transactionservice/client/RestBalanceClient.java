@@ -0,0 +1,56 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One {@code GET /api/balances/{accountNumber}} per lookup, or one {@code POST /api/balances/batch} for a
+ * bulk lookup. Debits and credits are a {@code POST} to the account's {@code /debits} or {@code /credits}.
+ */
+public class RestBalanceClient implements BalanceClient {
+
+    private final RestTemplate restTemplate;
+
+    private final String balancesServiceUrl;
+
+    public RestBalanceClient(RestTemplate restTemplate, String balancesServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.balancesServiceUrl = balancesServiceUrl;
+    }
+
+    @Override
+    public AccountBalance getBalance(String accountId) {
+        String balanceUrl = balancesServiceUrl + "/" + accountId;
+        return restTemplate.getForObject(balanceUrl, AccountBalance.class);
+    }
+
+    @Override
+    public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+        AccountBalance[] response = restTemplate.postForObject(balancesServiceUrl + "/batch", accountIds,
+                AccountBalance[].class);
+        Map<String, AccountBalance> balances = new LinkedHashMap<>();
+        if (response != null) {
+            for (AccountBalance balance : response) {
+                balances.put(balance.getAccountNumber(), balance);
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public AccountBalance debit(String accountId, BigDecimal amount) {
+        return restTemplate.postForObject(balancesServiceUrl + "/" + accountId + "/debits", Map.of("amount", amount),
+                AccountBalance.class);
+    }
+
+    @Override
+    public AccountBalance credit(String accountId, BigDecimal amount) {
+        return restTemplate.postForObject(balancesServiceUrl + "/" + accountId + "/credits", Map.of("amount", amount),
+                AccountBalance.class);
+    }
+}
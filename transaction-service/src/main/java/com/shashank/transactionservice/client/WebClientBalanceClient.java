@@ -0,0 +1,45 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+/**
+ * One {@code GET /api/balances/{accountNumber}} per lookup over a non-blocking {@link WebClient}.
+ * <p>
+ * The tracing filter on the client starts its span from the OpenTelemetry context that is current when the
+ * request is subscribed, which in a reactive pipeline may be a different thread from the one that asked for
+ * the balance. The caller's context is therefore captured when {@link #getBalance} is called and made current
+ * for the subscription, so the outbound span stays a child of the incoming request.
+ */
+public class WebClientBalanceClient implements ReactiveBalanceClient {
+
+    private final WebClient webClient;
+
+    private final String balancesServiceUrl;
+
+    public WebClientBalanceClient(WebClient webClient, String balancesServiceUrl) {
+        this.webClient = webClient;
+        this.balancesServiceUrl = balancesServiceUrl;
+    }
+
+    @Override
+    public Mono<AccountBalance> getBalance(String accountId) {
+        String balanceUrl = balancesServiceUrl + "/" + accountId;
+        Mono<AccountBalance> lookup = webClient.get()
+                .uri(balanceUrl)
+                .retrieve()
+                .bodyToMono(AccountBalance.class)
+                .onErrorMap(WebClientException.class, e -> new RestClientException(e.getMessage(), e));
+        Context context = Context.current();
+        return Mono.from(subscriber -> {
+            try (Scope ignored = context.makeCurrent()) {
+                lookup.subscribe(subscriber);
+            }
+        });
+    }
+}
@@ -1,17 +1,150 @@
 package com.shashank.transactionservice.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.shashank.transactionservice.client.TimedPoolingConnectionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.util.Collections;
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
 
+    public enum HttpClientMode {
+        // JDK HttpURLConnection, one connection per request unless the JDK keeps it alive
+        SIMPLE,
+        // Apache HttpClient 5 with a bounded, instrumented keep-alive pool
+        POOLED,
+        // JDK HttpClient negotiating HTTP/2, multiplexing requests over a single connection
+        HTTP2
+    }
+
+    @Value("${balances.client.http.mode:simple}")
+    private HttpClientMode httpClientMode;
+
+    @Value("${balances.client.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${balances.client.http.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${balances.client.http.pool.max-total:200}")
+    private int poolMaxTotal;
+
+    @Value("${balances.client.http.pool.max-per-route:50}")
+    private int poolMaxPerRoute;
+
+    @Value("${balances.client.http.pool.acquire-timeout:1s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${balances.client.http.pool.idle-timeout:30s}")
+    private Duration poolIdleTimeout;
+
+    @Value("${balances.client.http.pool.time-to-live:5m}")
+    private Duration poolTimeToLive;
+
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory balancesRequestFactory) {
+        return new RestTemplate(balancesRequestFactory);
+    }
+
+    // A bean of its own so that Spring closes the underlying client and its pool on shutdown
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public ClientHttpRequestFactory balancesRequestFactory(MeterRegistry meterRegistry) {
+        return switch (httpClientMode) {
+            case SIMPLE -> simpleRequestFactory();
+            case POOLED -> pooledRequestFactory(meterRegistry);
+            case HTTP2 -> http2RequestFactory();
+        };
+    }
+
+    // Shares the pool limits of the blocking client; a bean of its own so its connections are released on shutdown
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider balancesConnectionProvider() {
+        return ConnectionProvider.builder("balances-service")
+                .maxConnections(poolMaxTotal)
+                .pendingAcquireTimeout(poolAcquireTimeout)
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(poolIdleTimeout)
+                .maxLifeTime(poolTimeToLive)
+                .build();
+    }
+
+    // Exposed as a bean so the OpenTelemetry starter adds its tracing filter, as it does for the RestTemplate
+    @Bean
+    public WebClient balancesWebClient(ConnectionProvider balancesConnectionProvider) {
+        reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient
+                .create(balancesConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private ClientHttpRequestFactory simpleRequestFactory() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeout);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    private ClientHttpRequestFactory pooledRequestFactory(MeterRegistry meterRegistry) {
+        Timer acquireTimer = Timer.builder("httpcomponents.httpclient.pool.acquire")
+                .tag("httpclient", "balances-service")
+                .description("Time spent waiting to lease a pooled connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        TimedPoolingConnectionManager connectionManager = new TimedPoolingConnectionManager(acquireTimer);
+        connectionManager.setMaxTotal(poolMaxTotal);
+        connectionManager.setDefaultMaxPerRoute(poolMaxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.of(poolTimeToLive))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "balances-service")
+                .bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(poolIdleTimeout))
+                .evictExpiredConnections()
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory http2RequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeout);
+        return factory;
     }
 }
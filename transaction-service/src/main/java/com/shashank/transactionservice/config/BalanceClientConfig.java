@@ -0,0 +1,363 @@
+package com.shashank.transactionservice.config;
+
+import com.shashank.transactionservice.client.AdaptiveLimitBalanceClient;
+import com.shashank.transactionservice.client.BalanceCallRejectedException;
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.client.BatchingBalanceClient;
+import com.shashank.transactionservice.client.BlockingReactiveBalanceClient;
+import com.shashank.transactionservice.client.BulkheadBalanceClient;
+import com.shashank.transactionservice.client.CachingBalanceClient;
+import com.shashank.transactionservice.client.CircuitBreakerBalanceClient;
+import com.shashank.transactionservice.client.HedgingBalanceClient;
+import com.shashank.transactionservice.client.ReactiveBalanceClient;
+import com.shashank.transactionservice.client.ReplicaBalanceClient;
+import com.shashank.transactionservice.client.RestBalanceClient;
+import com.shashank.transactionservice.client.WebClientBalanceClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Assembles the {@link BalanceClient} and {@link ReactiveBalanceClient} from the {@code balances.*} properties.
+ * <p>
+ * Decorators that own threads or connections are closed with this configuration, outermost first, so that
+ * none is left calling a layer that has already shut down.
+ */
+@Configuration
+public class BalanceClientConfig implements DisposableBean {
+
+    private static final Logger log = LogManager.getLogger(BalanceClientConfig.class);
+
+    // In the order they were applied, innermost first
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @Value("${balances.service.url:http://localhost:8081/api/balances}")
+    private String balancesServiceUrl;
+
+    @Value("${balances.client.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${balances.client.cache.ttl:2s}")
+    private Duration cacheTtl;
+
+    @Value("${balances.client.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${balances.client.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${balances.client.batch.max-wait:2ms}")
+    private Duration batchMaxWait;
+
+    @Value("${balances.client.batch.max-size:100}")
+    private int batchMaxSize;
+
+    @Value("${balances.client.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    @Value("${balances.client.resilience.bulkhead.enabled:false}")
+    private boolean bulkheadEnabled;
+
+    @Value("${balances.client.resilience.bulkhead.max-concurrent-calls:100}")
+    private int bulkheadMaxConcurrentCalls;
+
+    @Value("${balances.client.resilience.bulkhead.max-wait:0ms}")
+    private Duration bulkheadMaxWait;
+
+    @Value("${balances.client.resilience.limit.enabled:false}")
+    private boolean limitEnabled;
+
+    @Value("${balances.client.resilience.limit.initial:20}")
+    private int limitInitial;
+
+    @Value("${balances.client.resilience.limit.min:4}")
+    private int limitMin;
+
+    @Value("${balances.client.resilience.limit.max:200}")
+    private int limitMax;
+
+    @Value("${balances.client.resilience.limit.rtt-tolerance:1.5}")
+    private double limitRttTolerance;
+
+    @Value("${balances.client.resilience.limit.backoff-ratio:0.9}")
+    private double limitBackoffRatio;
+
+    @Value("${balances.client.resilience.limit.smoothing:0.2}")
+    private double limitSmoothing;
+
+    @Value("${balances.client.resilience.circuit-breaker.enabled:false}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${balances.client.resilience.circuit-breaker.failure-rate-threshold:0.5}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${balances.client.resilience.circuit-breaker.window-size:100}")
+    private int circuitWindowSize;
+
+    @Value("${balances.client.resilience.circuit-breaker.minimum-calls:20}")
+    private int circuitMinimumCalls;
+
+    @Value("${balances.client.resilience.circuit-breaker.slow-call-duration:2s}")
+    private Duration circuitSlowCallDuration;
+
+    @Value("${balances.client.resilience.circuit-breaker.open-duration:10s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${balances.client.resilience.circuit-breaker.half-open-calls:5}")
+    private int circuitHalfOpenCalls;
+
+    @Value("${balances.client.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${balances.client.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${balances.client.hedge.min-delay:5ms}")
+    private Duration hedgeMinDelay;
+
+    @Value("${balances.client.hedge.window:1000}")
+    private int hedgeWindow;
+
+    @Value("${balances.client.hedge.budget-ratio:0.1}")
+    private double hedgeBudgetRatio;
+
+    @Value("${balances.client.hedge.budget-burst:10}")
+    private int hedgeBudgetBurst;
+
+    @Value("${balances.client.hedge.max-attempts:200}")
+    private int hedgeMaxAttempts;
+
+    @Value("${balances.client.replica.enabled:false}")
+    private boolean replicaEnabled;
+
+    @Value("${balances.client.replica.url:${balances.service.url:http://localhost:8081/api/balances}/changes}")
+    private String replicaUrl;
+
+    @Value("${balances.client.replica.max-staleness:3s}")
+    private Duration replicaMaxStaleness;
+
+    @Value("${balances.client.replica.max-entries:1000000}")
+    private int replicaMaxEntries;
+
+    @Value("${balances.client.replica.reconnect-delay:1s}")
+    private Duration replicaReconnectDelay;
+
+    // Decorators are applied inside out. The resilience layers guard the remote call itself, so a
+    // rejection fails a whole batch at once and hedges count against the limits. Hedging only applies
+    // to single lookups, which batching turns into bulk ones; batching groups what the cache could not answer.
+    // The replica sits outermost: while the change feed keeps it fresh, most lookups never leave the process
+    @Bean(destroyMethod = "")
+    public BalanceClient balanceClient(RestTemplate restTemplate, WebClient balancesWebClient,
+                                       MeterRegistry meterRegistry) {
+        BalanceClient client = new RestBalanceClient(restTemplate, balancesServiceUrl);
+        if (bulkheadEnabled) {
+            client = bulkheaded(client, meterRegistry);
+        }
+        if (limitEnabled) {
+            client = limited(client, meterRegistry);
+        }
+        if (circuitBreakerEnabled) {
+            client = circuitBroken(client, meterRegistry);
+        }
+        if (hedgeEnabled) {
+            client = hedged(client, meterRegistry);
+        }
+        if (batchEnabled) {
+            client = batched(client, meterRegistry);
+        }
+        if (cacheEnabled) {
+            client = cached(client, meterRegistry);
+        }
+        if (replicaEnabled) {
+            client = replicated(client, balancesWebClient, meterRegistry);
+        }
+        return client;
+    }
+
+    // Used by the reactive endpoints. The decorators are blocking, so once any is enabled reactive lookups
+    // go through the blocking client on the bounded elastic scheduler rather than around its protections
+    @Bean
+    public ReactiveBalanceClient reactiveBalanceClient(BalanceClient balanceClient, WebClient balancesWebClient) {
+        if (balanceClient instanceof RestBalanceClient) {
+            return new WebClientBalanceClient(balancesWebClient, balancesServiceUrl);
+        }
+        return new BlockingReactiveBalanceClient(balanceClient, Schedulers.boundedElastic());
+    }
+
+    @Override
+    public void destroy() {
+        for (int i = closeables.size() - 1; i >= 0; i--) {
+            AutoCloseable closeable = closeables.get(i);
+            try {
+                closeable.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Could not close {}", closeable.getClass().getSimpleName(), e);
+            }
+        }
+        closeables.clear();
+    }
+
+    private BalanceClient bulkheaded(BalanceClient delegate, MeterRegistry meterRegistry) {
+        BulkheadBalanceClient client = new BulkheadBalanceClient(delegate, bulkheadMaxConcurrentCalls, bulkheadMaxWait);
+        registerRejections(meterRegistry, client, BulkheadBalanceClient::getRejected,
+                BalanceCallRejectedException.Reason.BULKHEAD_FULL);
+        Gauge.builder("balances.client.bulkhead.available", client, BulkheadBalanceClient::getAvailable)
+                .description("Free balances-service call slots")
+                .register(meterRegistry);
+        Gauge.builder("balances.client.bulkhead.max", client, BulkheadBalanceClient::getMaxConcurrentCalls)
+                .register(meterRegistry);
+        return client;
+    }
+
+    private BalanceClient limited(BalanceClient delegate, MeterRegistry meterRegistry) {
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient(delegate, limitInitial, limitMin, limitMax,
+                limitRttTolerance, limitBackoffRatio, limitSmoothing);
+        registerRejections(meterRegistry, client, AdaptiveLimitBalanceClient::getRejected,
+                BalanceCallRejectedException.Reason.LIMIT_EXCEEDED);
+        Gauge.builder("balances.client.limit", client, AdaptiveLimitBalanceClient::getLimit)
+                .description("Balances-service calls currently allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("balances.client.limit.inflight", client, AdaptiveLimitBalanceClient::getInFlight)
+                .register(meterRegistry);
+        return client;
+    }
+
+    private BalanceClient circuitBroken(BalanceClient delegate, MeterRegistry meterRegistry) {
+        CircuitBreakerBalanceClient client = new CircuitBreakerBalanceClient(delegate, circuitFailureRateThreshold,
+                circuitWindowSize, circuitMinimumCalls, circuitSlowCallDuration, circuitOpenDuration,
+                circuitHalfOpenCalls);
+        registerRejections(meterRegistry, client, CircuitBreakerBalanceClient::getRejected,
+                BalanceCallRejectedException.Reason.CIRCUIT_OPEN);
+        for (CircuitBreakerBalanceClient.State state : CircuitBreakerBalanceClient.State.values()) {
+            String stateTag = state.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("balances.client.circuit.state", client, breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("state", stateTag)
+                    .description("1 for the state the balances-service circuit breaker is in")
+                    .register(meterRegistry);
+            FunctionCounter.builder("balances.client.circuit.transitions", client,
+                            breaker -> breaker.getTransitions(state))
+                    .tag("state", stateTag)
+                    .description("Circuit breaker transitions by the state entered")
+                    .register(meterRegistry);
+        }
+        return client;
+    }
+
+    private BalanceClient hedged(BalanceClient delegate, MeterRegistry meterRegistry) {
+        HedgingBalanceClient client = new HedgingBalanceClient(delegate, hedgePercentile, hedgeMinDelay, hedgeWindow,
+                hedgeBudgetRatio, hedgeBudgetBurst, hedgeMaxAttempts);
+        closeables.add(client);
+        FunctionCounter.builder("balances.client.hedge.sent", client, HedgingBalanceClient::getHedgesSent)
+                .description("Hedged balance requests sent after the primary request was slow")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.hedge.won", client, HedgingBalanceClient::getHedgesWon)
+                .description("Hedged balance requests that answered before the primary")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.hedge.budget.exhausted", client,
+                        HedgingBalanceClient::getBudgetExhausted)
+                .description("Slow lookups that were not hedged because the budget was spent")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.hedge.pool.full", client, HedgingBalanceClient::getPoolFull)
+                .description("Lookups made or left unhedged because the attempt pool was full")
+                .register(meterRegistry);
+        Gauge.builder("balances.client.hedge.delay", client, HedgingBalanceClient::getHedgeDelayMillis)
+                .baseUnit("milliseconds")
+                .description("Current wait before a lookup is hedged")
+                .register(meterRegistry);
+        return client;
+    }
+
+    private static <T> void registerRejections(MeterRegistry meterRegistry, T client, ToDoubleFunction<T> rejected,
+                                               BalanceCallRejectedException.Reason reason) {
+        FunctionCounter.builder("balances.client.rejected", client, rejected)
+                .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                .description("Balance lookups rejected without calling balances-service")
+                .register(meterRegistry);
+    }
+
+    private BalanceClient batched(BalanceClient delegate, MeterRegistry meterRegistry) {
+        BatchingBalanceClient client = new BatchingBalanceClient(delegate, batchMaxWait, batchMaxSize, batchConcurrency);
+        closeables.add(client);
+        FunctionCounter.builder("balances.client.batch.requests", client, BatchingBalanceClient::getBatches)
+                .description("Bulk balance requests sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.batch.accounts", client, BatchingBalanceClient::getBatchedAccounts)
+                .description("Distinct accounts looked up through bulk requests")
+                .register(meterRegistry);
+        Gauge.builder("balances.client.batch.queued", client, BatchingBalanceClient::getQueued)
+                .description("Lookups waiting for the next batch")
+                .register(meterRegistry);
+        return client;
+    }
+
+    private BalanceClient cached(BalanceClient delegate, MeterRegistry meterRegistry) {
+        CachingBalanceClient client = new CachingBalanceClient(delegate, cacheTtl, cacheMaxEntries);
+        FunctionCounter.builder("balances.client.cache.requests", client, CachingBalanceClient::getHits)
+                .tag("result", "hit")
+                .description("Balance lookups by how the cache answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.cache.requests", client, CachingBalanceClient::getMisses)
+                .tag("result", "miss")
+                .description("Balance lookups by how the cache answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.cache.requests", client, CachingBalanceClient::getCoalesced)
+                .tag("result", "coalesced")
+                .description("Balance lookups by how the cache answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.cache.evictions", client, CachingBalanceClient::getEvictions)
+                .register(meterRegistry);
+        Gauge.builder("balances.client.cache.size", client, CachingBalanceClient::getSize)
+                .register(meterRegistry);
+        return client;
+    }
+
+    private BalanceClient replicated(BalanceClient delegate, WebClient balancesWebClient, MeterRegistry meterRegistry) {
+        ReplicaBalanceClient client = new ReplicaBalanceClient(delegate, replicaMaxStaleness, replicaMaxEntries);
+        closeables.add(client);
+        client.subscribe(balancesWebClient, replicaUrl, replicaReconnectDelay);
+        FunctionCounter.builder("balances.client.replica.lookups", client, ReplicaBalanceClient::getHits)
+                .tag("result", "hit")
+                .description("Balance lookups by how the replica answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.replica.lookups", client, ReplicaBalanceClient::getMisses)
+                .tag("result", "miss")
+                .description("Balance lookups by how the replica answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.replica.lookups", client, ReplicaBalanceClient::getStale)
+                .tag("result", "stale")
+                .description("Balance lookups by how the replica answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.replica.changes", client, ReplicaBalanceClient::getChanges)
+                .description("Balance changes received from the balances-service feed")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.replica.resets", client, ReplicaBalanceClient::getResets)
+                .description("Times the replica was emptied because the feed could not be resumed")
+                .register(meterRegistry);
+        FunctionCounter.builder("balances.client.replica.disconnects", client, ReplicaBalanceClient::getDisconnects)
+                .register(meterRegistry);
+        Gauge.builder("balances.client.replica.size", client, ReplicaBalanceClient::getSize)
+                .register(meterRegistry);
+        Gauge.builder("balances.client.replica.staleness", client, ReplicaBalanceClient::getStalenessSeconds)
+                .baseUnit("seconds")
+                .description("Time since the last feed event")
+                .register(meterRegistry);
+        return client;
+    }
+}
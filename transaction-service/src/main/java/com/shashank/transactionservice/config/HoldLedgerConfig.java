@@ -0,0 +1,32 @@
+package com.shashank.transactionservice.config;
+
+import com.shashank.transactionservice.service.HoldLedger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Assembles the {@link HoldLedger} from the {@code transactions.holds.*} properties.
+ */
+@Configuration
+public class HoldLedgerConfig {
+
+    @Value("${transactions.holds.stripes:256}")
+    private int stripes;
+
+    @Value("${transactions.holds.max-age:5m}")
+    private Duration maxAge;
+
+    @Bean
+    public HoldLedger holdLedger(MeterRegistry meterRegistry) {
+        HoldLedger ledger = new HoldLedger(stripes, maxAge);
+        Gauge.builder("transactions.holds.outstanding", ledger, HoldLedger::getOutstanding)
+                .description("Debits held against accounts until balances-service reflects them")
+                .register(meterRegistry);
+        return ledger;
+    }
+}
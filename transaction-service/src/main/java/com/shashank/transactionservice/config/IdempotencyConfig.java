@@ -0,0 +1,46 @@
+package com.shashank.transactionservice.config;
+
+import com.shashank.transactionservice.service.IdempotencyStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Assembles the {@link IdempotencyStore} from the {@code transactions.idempotency.*} properties.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${transactions.idempotency.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${transactions.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Bean
+    public IdempotencyStore idempotencyStore(MeterRegistry meterRegistry) {
+        IdempotencyStore store = new IdempotencyStore(ttl, maxEntries);
+        FunctionCounter.builder("transactions.idempotency.requests", store, IdempotencyStore::getExecuted)
+                .tag("result", "executed")
+                .description("Keyed transaction requests by how they were answered")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.idempotency.requests", store, IdempotencyStore::getReplayed)
+                .tag("result", "replayed")
+                .description("Keyed transaction requests by how they were answered")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.idempotency.requests", store, IdempotencyStore::getCoalesced)
+                .tag("result", "coalesced")
+                .description("Keyed transaction requests by how they were answered")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.idempotency.evictions", store, IdempotencyStore::getEvictions)
+                .register(meterRegistry);
+        Gauge.builder("transactions.idempotency.keys", store, IdempotencyStore::getSize)
+                .register(meterRegistry);
+        return store;
+    }
+}
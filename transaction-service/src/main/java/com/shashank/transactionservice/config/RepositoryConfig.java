@@ -0,0 +1,196 @@
+package com.shashank.transactionservice.config;
+
+import com.shashank.transactionservice.repository.EvictableTransactionRepository;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.repository.TransactionRepository;
+import com.shashank.transactionservice.repository.compact.CompactTransactionRepository;
+import com.shashank.transactionservice.repository.journal.JournalingTransactionRepository;
+import com.shashank.transactionservice.repository.journal.RecoveryResult;
+import com.shashank.transactionservice.repository.journal.TransactionJournal;
+import com.shashank.transactionservice.repository.tiered.RetentionPolicy;
+import com.shashank.transactionservice.repository.tiered.TieredTransactionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles the {@link TransactionRepository} from the {@code transactions.*} storage properties.
+ */
+@Configuration
+public class RepositoryConfig {
+
+    public enum StoreMode {
+        // Transaction objects in concurrent maps
+        HEAP,
+        // Fixed-width encoded records in heap or off-heap slabs
+        COMPACT
+    }
+
+    @Value("${transactions.store.mode:heap}")
+    private StoreMode storeMode;
+
+    @Value("${transactions.store.compact.off-heap:false}")
+    private boolean compactOffHeap;
+
+    @Value("${transactions.store.compact.records-per-slab:65536}")
+    private int compactRecordsPerSlab;
+
+    @Value("${transactions.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${transactions.journal.directory:./data/journal}")
+    private String journalDirectory;
+
+    @Value("${transactions.journal.segment-size:64MB}")
+    private DataSize journalSegmentSize;
+
+    @Value("${transactions.journal.fsync-interval:10ms}")
+    private Duration journalFsyncInterval;
+
+    @Value("${transactions.journal.fsync-batch-size:256}")
+    private int journalFsyncBatchSize;
+
+    @Value("${transactions.journal.sync-writes:false}")
+    private boolean journalSyncWrites;
+
+    @Value("${transactions.journal.replay-threads:0}")
+    private int journalReplayThreads;
+
+    @Value("${transactions.retention.enabled:false}")
+    private boolean retentionEnabled;
+
+    @Value("${transactions.retention.directory:./data/cold}")
+    private String retentionDirectory;
+
+    @Value("${transactions.retention.hot-max-count:1000000}")
+    private long retentionHotMaxCount;
+
+    @Value("${transactions.retention.hot-max-age:0s}")
+    private Duration retentionHotMaxAge;
+
+    @Value("${transactions.retention.segment-records:20000}")
+    private int retentionSegmentRecords;
+
+    @Value("${transactions.retention.segment-cache-size:8}")
+    private int retentionSegmentCacheSize;
+
+    @Value("${transactions.retention.eviction-interval:30s}")
+    private Duration retentionEvictionInterval;
+
+    @Value("${transactions.retention.heap-pressure-threshold:0.8}")
+    private double retentionHeapPressureThreshold;
+
+    @Value("${transactions.retention.pressure-evict-fraction:0.25}")
+    private double retentionPressureEvictFraction;
+
+    @Bean
+    public TransactionRepository transactionRepository(MeterRegistry meterRegistry) {
+        EvictableTransactionRepository store = storeMode == StoreMode.COMPACT
+                ? compact(meterRegistry)
+                : new InMemoryTransactionRepository();
+        TransactionRepository repository = store;
+        TieredTransactionRepository tiered = null;
+        if (retentionEnabled) {
+            tiered = tiered(store, meterRegistry);
+            repository = tiered;
+        }
+        if (journalEnabled) {
+            JournalingTransactionRepository journaled = journaled(repository, meterRegistry);
+            if (tiered != null) {
+                // Archived transactions are durable in cold segments, so their journal segments can go
+                journaled.startCheckpoints(retentionEvictionInterval, tiered::isArchivedThrough);
+            }
+            repository = journaled;
+        }
+        return repository;
+    }
+
+    private CompactTransactionRepository compact(MeterRegistry meterRegistry) {
+        CompactTransactionRepository repository = new CompactTransactionRepository(compactOffHeap, compactRecordsPerSlab);
+        Gauge.builder("transactions.store.records", repository, CompactTransactionRepository::getRecordCount)
+                .description("Transactions held by the compact store")
+                .register(meterRegistry);
+        Gauge.builder("transactions.store.slab.bytes", repository, CompactTransactionRepository::getSlabBytes)
+                .baseUnit("bytes")
+                .tag("off-heap", String.valueOf(repository.isOffHeap()))
+                .description("Memory allocated to compact record slabs")
+                .register(meterRegistry);
+        return repository;
+    }
+
+    private TieredTransactionRepository tiered(EvictableTransactionRepository hot, MeterRegistry meterRegistry) {
+        RetentionPolicy policy = new RetentionPolicy(retentionHotMaxCount, retentionHotMaxAge,
+                retentionSegmentRecords, retentionHeapPressureThreshold, retentionPressureEvictFraction);
+        TieredTransactionRepository repository = new TieredTransactionRepository(hot,
+                Path.of(retentionDirectory), policy, retentionSegmentCacheSize);
+        repository.startEviction(retentionEvictionInterval);
+
+        FunctionCounter.builder("transactions.tier.lookups", repository, TieredTransactionRepository::getHotHits)
+                .tag("result", "hot")
+                .description("Lookups by id, by the tier that answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.tier.lookups", repository, TieredTransactionRepository::getColdHits)
+                .tag("result", "cold")
+                .description("Lookups by id, by the tier that answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.tier.lookups", repository, TieredTransactionRepository::getMisses)
+                .tag("result", "miss")
+                .description("Lookups by id, by the tier that answered them")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.tier.evicted", repository, TieredTransactionRepository::getEvicted)
+                .description("Transactions moved from memory to cold segments")
+                .register(meterRegistry);
+        Gauge.builder("transactions.tier.records", repository, TieredTransactionRepository::getHotCount)
+                .tag("tier", "hot")
+                .register(meterRegistry);
+        Gauge.builder("transactions.tier.records", repository, TieredTransactionRepository::getColdCount)
+                .tag("tier", "cold")
+                .register(meterRegistry);
+        Gauge.builder("transactions.tier.segments", repository, TieredTransactionRepository::getSegmentCount)
+                .description("Cold segments on disk")
+                .register(meterRegistry);
+        Gauge.builder("transactions.tier.segment.bytes", repository, TieredTransactionRepository::getSegmentBytes)
+                .baseUnit("bytes")
+                .description("Total size of cold segments on disk")
+                .register(meterRegistry);
+        return repository;
+    }
+
+    private JournalingTransactionRepository journaled(TransactionRepository delegate, MeterRegistry meterRegistry) {
+        TransactionJournal journal = new TransactionJournal(Path.of(journalDirectory),
+                Math.toIntExact(journalSegmentSize.toBytes()), journalFsyncInterval, journalFsyncBatchSize,
+                journalSyncWrites, journalReplayThreads);
+        JournalingTransactionRepository repository = new JournalingTransactionRepository(delegate, journal);
+        RecoveryResult recovery = repository.recover();
+
+        TimeGauge.builder("transactions.journal.recovery.duration", recovery, TimeUnit.NANOSECONDS,
+                        r -> r.duration().toNanos())
+                .description("Time spent replaying the journal on startup")
+                .register(meterRegistry);
+        Gauge.builder("transactions.journal.recovery.records", recovery, RecoveryResult::records)
+                .description("Transactions replayed from the journal on startup")
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.journal.appended", journal, TransactionJournal::getAppendedSequence)
+                .description("Records appended to the journal, including recovered ones")
+                .register(meterRegistry);
+        Gauge.builder("transactions.journal.unflushed", journal,
+                        j -> j.getAppendedSequence() - j.getDurableSequence())
+                .description("Records appended but not yet forced to disk")
+                .register(meterRegistry);
+        Gauge.builder("transactions.journal.segments", journal, TransactionJournal::getSegmentCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("transactions.journal.truncated", journal, TransactionJournal::getTruncatedSegments)
+                .description("Journal segments deleted because their transactions were archived")
+                .register(meterRegistry);
+        return repository;
+    }
+}
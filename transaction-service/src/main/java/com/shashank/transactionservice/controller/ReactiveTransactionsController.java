@@ -0,0 +1,56 @@
+package com.shashank.transactionservice.controller;
+
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.service.ReactiveTransactionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mirrors {@link TransactionsController} over {@link ReactiveTransactionService}. The servlet thread is
+ * released as soon as the pipeline is assembled and the response is written when it completes. List
+ * endpoints answer with a JSON array, or one document per line when {@code application/x-ndjson} is accepted.
+ */
+@RestController
+@RequestMapping("/api/reactive/transactions")
+public class ReactiveTransactionsController {
+
+    private final ReactiveTransactionService transactionService;
+
+    @Autowired
+    public ReactiveTransactionsController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<TransactionResponse>> createTransaction(@Valid @RequestBody TransactionRequest request) {
+        return transactionService.createTransaction(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TransactionResponse>> getTransactionById(@PathVariable String id) {
+        return transactionService.getTransactionById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Flux<TransactionResponse> getAllTransactions() {
+        return transactionService.getAllTransactions();
+    }
+
+    @GetMapping("/account/{accountId}")
+    public Flux<TransactionResponse> getTransactionsByAccountId(@PathVariable String accountId) {
+        return transactionService.getTransactionsByAccountId(accountId);
+    }
+
+    @GetMapping("/account/{accountId}/summary")
+    public Mono<ResponseEntity<AccountSummary>> getAccountSummary(@PathVariable String accountId) {
+        return transactionService.getAccountSummary(accountId).map(ResponseEntity::ok);
+    }
+}
@@ -1,33 +1,76 @@
 package com.shashank.transactionservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionPage;
 import com.shashank.transactionservice.dto.TransactionRequest;
 import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.InvalidBatchException;
+import com.shashank.transactionservice.exception.InvalidRangeException;
+import com.shashank.transactionservice.logging.Logged;
 import com.shashank.transactionservice.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionsController {
     
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+
     private final TransactionService transactionService;
 
+    private final ObjectMapper objectMapper;
+
+    @Value("${transactions.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
     @Autowired
-    public TransactionsController(TransactionService transactionService) {
+    public TransactionsController(TransactionService transactionService, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
-        TransactionResponse response = transactionService.createTransaction(request);
+    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request,
+                                                                 @RequestHeader(value = "Idempotency-Key", required = false)
+                                                                 String idempotencyKey) {
+        TransactionResponse response = idempotencyKey == null
+                ? transactionService.createTransaction(request)
+                : transactionService.createTransaction(idempotencyKey, request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Logged(result = false)
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransactionBatchResponse> createTransactions(InputStream body) throws IOException {
+        TransactionBatchResponse response = transactionService.createTransactions(readBatch(body));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable String id) {
         TransactionResponse response = transactionService.getTransactionById(id);
@@ -40,9 +83,117 @@ public class TransactionsController {
         return ResponseEntity.ok(responses);
     }
 
+    // from is inclusive, to is exclusive; without a limit, pages are as large as transactions.page.max-size allows
+    @GetMapping(params = {"from", "to"})
+    public ResponseEntity<TransactionPage> getTransactionsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(transactionService.getTransactionsBetween(from, to, accountId, after,
+                limit == null ? Integer.MAX_VALUE : limit));
+    }
+
+    // A range needs both ends; a request with only one would otherwise fall through to the full listing
+    @GetMapping(params = {"from", "!to"})
+    public ResponseEntity<TransactionPage> getTransactionsFrom() {
+        throw halfOpenRange("to");
+    }
+
+    @GetMapping(params = {"!from", "to"})
+    public ResponseEntity<TransactionPage> getTransactionsTo() {
+        throw halfOpenRange("from");
+    }
+
     @GetMapping("/account/{accountId}")
     public ResponseEntity<List<TransactionResponse>> getTransactionsByAccountId(@PathVariable String accountId) {
         List<TransactionResponse> responses = transactionService.getTransactionsByAccountId(accountId);
         return ResponseEntity.ok(responses);
     }
+
+    @GetMapping("/account/{accountId}/summary")
+    public ResponseEntity<AccountSummary> getAccountSummary(@PathVariable String accountId) {
+        return ResponseEntity.ok(transactionService.getAccountSummary(accountId));
+    }
+
+    @Logged(result = false)
+    @GetMapping(params = "limit")
+    public ResponseEntity<TransactionPage> getTransactionsPage(@RequestParam int limit,
+                                                               @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(transactionService.getTransactionsPage(after, limit));
+    }
+
+    @Logged(result = false)
+    @GetMapping(value = "/account/{accountId}", params = "limit")
+    public ResponseEntity<TransactionPage> getTransactionsByAccountIdPage(@PathVariable String accountId,
+                                                                          @RequestParam int limit,
+                                                                          @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(transactionService.getTransactionsByAccountIdPage(accountId, after, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(@RequestParam(required = false) String after) {
+        Stream<TransactionResponse> transactions = transactionService.streamTransactions(after);
+        return streamingResponse(transactions);
+    }
+
+    @GetMapping(value = "/account/{accountId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactionsByAccountId(@PathVariable String accountId,
+                                                                               @RequestParam(required = false) String after) {
+        Stream<TransactionResponse> transactions = transactionService.streamTransactionsByAccountId(accountId, after);
+        return streamingResponse(transactions);
+    }
+
+    private static InvalidRangeException halfOpenRange(String missing) {
+        return new InvalidRangeException("Range is missing its '" + missing + "' parameter");
+    }
+
+    // Reads the JSON array one element at a time, so a large batch is never held as a document tree
+    private List<TransactionRequest> readBatch(InputStream body) throws IOException {
+        List<TransactionRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidBatchException("Batch must be a JSON array of transactions");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidBatchException("Batch ended before the closing bracket");
+                }
+                if (requests.size() == maxBatchSize) {
+                    throw new InvalidBatchException("Batch exceeds the maximum of " + maxBatchSize + " transactions");
+                }
+                requests.add(objectMapper.readValue(parser, TransactionRequest.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidBatchException("Malformed batch at item " + requests.size() + ": "
+                    + e.getOriginalMessage(), e);
+        }
+        return requests;
+    }
+
+    // Writes one JSON document per line as the stream is consumed, so only the current record is held in memory
+    private ResponseEntity<StreamingResponseBody> streamingResponse(Stream<TransactionResponse> transactions) {
+        StreamingResponseBody body = outputStream -> writeNdjson(transactions, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeNdjson(Stream<TransactionResponse> transactions, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (transactions; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<TransactionResponse> iterator = transactions.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.shashank.transactionservice.dto;
+
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountAggregate {
+    private TransactionType type;
+    private TransactionStatus status;
+    private String currency;
+    private long count;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,19 @@
+package com.shashank.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummary {
+    private String accountId;
+    private long transactionCount;
+    // One entry per type/status/currency combination the account has used
+    private List<AccountAggregate> aggregates;
+}
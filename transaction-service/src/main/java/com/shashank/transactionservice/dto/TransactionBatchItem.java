@@ -0,0 +1,28 @@
+package com.shashank.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItem {
+
+    public enum Status {
+        // Recorded as a completed transaction
+        COMPLETED,
+        // Recorded as a failed transaction, e.g. for insufficient funds
+        FAILED,
+        // Not recorded: the item was invalid or its balance could not be checked
+        REJECTED
+    }
+
+    // Position of the item in the submitted batch
+    private int index;
+    private Status status;
+    private TransactionResponse transaction;
+    private String error;
+}
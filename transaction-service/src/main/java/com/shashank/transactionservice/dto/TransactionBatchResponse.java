@@ -0,0 +1,20 @@
+package com.shashank.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchResponse {
+    private int completed;
+    private int failed;
+    private int rejected;
+    // One result per submitted item, in submission order
+    private List<TransactionBatchItem> items;
+}
@@ -0,0 +1,18 @@
+package com.shashank.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+    private List<TransactionResponse> items;
+    // Opaque keyset cursor to pass as "after" for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,7 @@
+package com.shashank.transactionservice.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
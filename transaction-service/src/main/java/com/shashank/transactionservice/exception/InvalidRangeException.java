@@ -0,0 +1,7 @@
+package com.shashank.transactionservice.exception;
+
+public class InvalidRangeException extends RuntimeException {
+    public InvalidRangeException(String message) {
+        super(message);
+    }
+}
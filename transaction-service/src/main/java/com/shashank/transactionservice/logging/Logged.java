@@ -0,0 +1,33 @@
+package com.shashank.transactionservice.logging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controls how {@link LoggingAspect} logs calls to a bean method, or to every method of a bean class. An
+ * annotation on the method takes precedence over one on its class; without either, calls are logged with
+ * their arguments and result.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Logged {
+
+    /**
+     * Whether entering and leaving the method is logged at all. Exceptions are logged either way.
+     */
+    boolean value() default true;
+
+    /**
+     * Whether the arguments are rendered into the log line.
+     */
+    boolean arguments() default true;
+
+    /**
+     * Whether the result is rendered into the log line; worth turning off for methods returning large objects.
+     */
+    boolean result() default true;
+}
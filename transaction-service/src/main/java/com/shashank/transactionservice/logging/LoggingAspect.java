@@ -8,15 +8,50 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Logs entering and leaving application beans at debug level, and the exceptions they throw.
+ * <p>
+ * The name and {@link Logged} settings of each method are worked out on its first call and cached. In
+ * {@code production} mode only a {@code sample-rate} fraction of calls is logged; {@code verbose} logs every
+ * call. Arguments and results are rendered at most {@code max-length} characters each, and collections, maps
+ * and arrays as their type and size only, so logging a call never walks a large result.
+ */
 @Aspect
 @Component
+// Outside TimingAspect, so method timings do not include logging
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class LoggingAspect {
     private final Logger log = LogManager.getLogger(this.getClass());
 
+    private final Map<Method, CallSite> callSites = new ConcurrentHashMap<>();
+
+    @Value("${logging.aspect.mode:production}")
+    private Mode mode = Mode.PRODUCTION;
+
+    @Value("${logging.aspect.sample-rate:0.01}")
+    private double sampleRate = 0.01;
+
+    @Value("${logging.aspect.max-length:256}")
+    private int maxLength = 256;
+
+    public enum Mode {
+        PRODUCTION, VERBOSE
+    }
+
     @Pointcut("within(@org.springframework.stereotype.Repository *)" +
             " || within(@org.springframework.stereotype.Service *)" +
             " || within(@org.springframework.web.bind.annotation.RestController *)" +
@@ -33,30 +68,88 @@ public class LoggingAspect {
 
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}.{}() with arguments = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        CallSite site = log.isDebugEnabled() && sampled() ? callSite(joinPoint) : null;
+        if (site != null && site.logged()) {
+            log.debug("Enter: {}() with arguments = {}", site.name(),
+                    site.arguments() ? renderArguments(joinPoint.getArgs(), maxLength) : "[not logged]");
         }
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                        joinPoint.getSignature().getName(), result);
+            if (site != null && site.logged()) {
+                log.debug("Exit: {}() with result = {}", site.name(),
+                        site.result() ? render(result, maxLength) : "[not logged]");
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(joinPoint.getArgs()),
-                    joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}()", renderArguments(joinPoint.getArgs(), maxLength),
+                    callSite(joinPoint).name());
             throw e;
         }
     }
 
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        log.error("Exception in {}.{}() with cause = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), e.getCause() != null ? e.getCause() : "NULL");
+        log.error("Exception in {}() with cause = {}", callSite(joinPoint).name(),
+                e.getCause() != null ? e.getCause() : "NULL");
         if (log.isDebugEnabled()) {
             log.debug("Exception: ", e);
         }
     }
+
+    private boolean sampled() {
+        return mode == Mode.VERBOSE || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private CallSite callSite(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return callSites.computeIfAbsent(method, CallSite::of);
+    }
+
+    static String renderArguments(Object[] args, int maxLength) {
+        StringBuilder rendered = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                rendered.append(", ");
+            }
+            rendered.append(render(args[i], maxLength));
+        }
+        return rendered.append(']').toString();
+    }
+
+    static String render(Object value, int maxLength) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        if (value instanceof ResponseEntity<?> response) {
+            return "ResponseEntity[" + response.getStatusCode() + ", body="
+                    + render(response.getBody(), maxLength) + "]";
+        }
+        String text = String.valueOf(value);
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength) + "...(" + text.length() + " chars)";
+    }
+
+    private record CallSite(String name, boolean logged, boolean arguments, boolean result) {
+
+        static CallSite of(Method method) {
+            Logged logged = method.getAnnotation(Logged.class);
+            if (logged == null) {
+                logged = method.getDeclaringClass().getAnnotation(Logged.class);
+            }
+            String name = method.getDeclaringClass().getName() + "." + method.getName();
+            return logged == null ? new CallSite(name, true, true, true)
+                    : new CallSite(name, logged.value(), logged.arguments(), logged.result());
+        }
+    }
 }
@@ -0,0 +1,297 @@
+package com.shashank.transactionservice.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands log events to other appenders on a background thread through a fixed ring of reusable events, so
+ * logging threads never do I/O and, in steady state, never allocate.
+ * <p>
+ * A logging thread claims the next slot, copies the event into the {@link MutableLogEvent} preallocated
+ * there and publishes it; the appender's thread passes published events to the referenced appenders in
+ * order and marks the last one it finds as the end of a batch, so file appenders with
+ * {@code immediateFlush="false"} flush once per batch rather than once per event.
+ * <p>
+ * When the ring is full the {@code overflowPolicy} decides: {@code BLOCK} waits for a free slot, {@code DROP}
+ * discards the event, and {@code DROP_BY_LEVEL} discards events at {@code discardThreshold} or less severe
+ * and waits for the rest. Events logged by the appender's own thread, say by a failing file appender, are
+ * passed on directly. As with Log4j's {@code Async} appender, the caller's location is only captured with
+ * {@code includeLocation="true"}.
+ */
+@Plugin(name = "RingBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class RingBufferAppender extends AbstractAppender {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP, DROP_BY_LEVEL
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long DEFAULT_STOP_MILLIS = 1000;
+
+    private final Configuration configuration;
+    private final AppenderRef[] appenderRefs;
+    private final OverflowPolicy overflowPolicy;
+    private final Level discardThreshold;
+    private final boolean includeLocation;
+
+    private final MutableLogEvent[] slots;
+    private final int mask;
+    // Slot i holds a published event once published[i] equals that event's sequence
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+
+    private volatile List<AppenderControl> appenders = List.of();
+    private volatile boolean consumerParked;
+    private volatile Thread consumer;
+
+    RingBufferAppender(String name, Filter filter, Configuration configuration, AppenderRef[] appenderRefs,
+                       int size, OverflowPolicy overflowPolicy, Level discardThreshold, boolean includeLocation,
+                       boolean ignoreExceptions, Property[] properties) {
+        super(name, filter, null, ignoreExceptions, properties);
+        this.configuration = configuration;
+        this.appenderRefs = appenderRefs;
+        this.overflowPolicy = overflowPolicy;
+        this.discardThreshold = discardThreshold;
+        this.includeLocation = includeLocation;
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.slots = new MutableLogEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new MutableLogEvent();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public void start() {
+        List<AppenderControl> controls = new ArrayList<>();
+        for (AppenderRef ref : appenderRefs) {
+            Appender appender = configuration.getAppender(ref.getRef());
+            if (appender == null) {
+                LOGGER.error("No appender named {} was found for RingBuffer appender {}", ref.getRef(), getName());
+            } else {
+                controls.add(new AppenderControl(appender, ref.getLevel(), ref.getFilter()));
+            }
+        }
+        appenders = List.copyOf(controls);
+        Thread thread = new Thread(this::consume, "log-ring-" + getName());
+        thread.setDaemon(true);
+        consumer = thread;
+        super.start();
+        thread.start();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (Thread.currentThread() == consumer || !isStarted()) {
+            callAppenders(event);
+            return;
+        }
+        long sequence = claim(event.getLevel());
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        int slot = (int) (sequence & mask);
+        if (event.isIncludeLocation() && !includeLocation) {
+            // Copying the event would otherwise walk the stack to find the caller
+            event.setIncludeLocation(false);
+            slots[slot].initFrom(event);
+            event.setIncludeLocation(true);
+        } else {
+            slots[slot].initFrom(event);
+        }
+        published.set(slot, sequence);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // The claimed sequence, or -1 if the ring is full and the event is to be dropped
+    private long claim(Level level) {
+        boolean waited = false;
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed.get() > slots.length) {
+                if (overflowPolicy == OverflowPolicy.DROP
+                        || (overflowPolicy == OverflowPolicy.DROP_BY_LEVEL && level.isLessSpecificThan(discardThreshold))
+                        || !isStarted()) {
+                    return -1;
+                }
+                if (!waited) {
+                    blocked.increment();
+                    waited = true;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void consume() {
+        long next = consumed.get() + 1;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) == next) {
+                MutableLogEvent event = slots[slot];
+                event.setEndOfBatch(published.get((int) ((next + 1) & mask)) != next + 1);
+                callAppenders(event);
+                event.clear();
+                consumed.set(next);
+                next++;
+            } else if (!isStarted() && claimed.get() < next) {
+                return;
+            } else {
+                consumerParked = true;
+                if (published.get(slot) != next) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerParked = false;
+            }
+        }
+    }
+
+    private void callAppenders(LogEvent event) {
+        for (AppenderControl control : appenders) {
+            try {
+                control.callAppender(event);
+            } catch (RuntimeException e) {
+                // A failing appender must not stop the others, or this thread
+                error("RingBuffer appender " + getName() + " could not pass an event to "
+                        + control.getAppenderName(), event, e);
+            }
+        }
+    }
+
+    /**
+     * Stops taking events and waits up to {@code timeout}, or a second if none is given, for those already
+     * queued to be appended. Log4j stops its loggers before any appender, so by the time a configuration stops
+     * its appenders the ring has normally drained; unlike its own {@code Async} appender, this one is not
+     * guaranteed to be stopped before the appenders it refers to.
+     */
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        setStopping();
+        super.stop(timeout, timeUnit, false);
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(timeout > 0 ? Math.max(1, timeUnit.toMillis(timeout)) : DEFAULT_STOP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        setStopped();
+        return true;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getQueueDepth() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    // Appends that had to wait for a free slot
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public static final class Builder extends AbstractAppender.Builder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<RingBufferAppender> {
+
+        @PluginElement("AppenderRef")
+        @Required(message = "No appender references provided to RingBuffer")
+        private AppenderRef[] appenderRefs;
+
+        @PluginBuilderAttribute
+        private int size = 8192;
+
+        @PluginBuilderAttribute
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BY_LEVEL;
+
+        @PluginBuilderAttribute
+        private Level discardThreshold = Level.INFO;
+
+        @PluginBuilderAttribute
+        private boolean includeLocation;
+
+        public Builder setAppenderRefs(AppenderRef... appenderRefs) {
+            this.appenderRefs = appenderRefs;
+            return this;
+        }
+
+        public Builder setSize(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder setDiscardThreshold(Level discardThreshold) {
+            this.discardThreshold = discardThreshold;
+            return this;
+        }
+
+        public Builder setIncludeLocation(boolean includeLocation) {
+            this.includeLocation = includeLocation;
+            return this;
+        }
+
+        @Override
+        public RingBufferAppender build() {
+            return new RingBufferAppender(getName(), getFilter(), getConfiguration(), appenderRefs, size,
+                    overflowPolicy, discardThreshold, includeLocation, isIgnoreExceptions(), getPropertyArray());
+        }
+    }
+}
@@ -18,4 +18,6 @@ public class AccountBalance {
     private BigDecimal currentBalance;
     private String currency;
     private LocalDateTime lastUpdated;
+    // The account's record version in balances-service; it grows with every change to the account
+    private Long version;
 }
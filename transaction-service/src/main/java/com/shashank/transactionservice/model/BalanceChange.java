@@ -0,0 +1,29 @@
+package com.shashank.transactionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data of an event on the balances-service change feed. {@code balance} events carry an account's
+ * balances and record version after a change, and when it was made; {@code heartbeat} and {@code reset}
+ * events carry only the sequence the feed has reached and when the latest change up to it was made, if
+ * known.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceChange {
+    private long sequence;
+    private String accountNumber;
+    private BigDecimal availableBalance;
+    private BigDecimal currentBalance;
+    private String currency;
+    private LocalDateTime timestamp;
+    private Long version;
+}
@@ -0,0 +1,14 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+
+import java.util.Optional;
+
+/**
+ * In-memory transaction storage that transactions can be removed from again, such as the hot tier that
+ * {@link com.shashank.transactionservice.repository.tiered.TieredTransactionRepository} archives out of.
+ * Durable repositories do not offer removal, so it is not part of {@link TransactionRepository}.
+ */
+public interface EvictableTransactionRepository extends TransactionRepository {
+    Optional<Transaction> deleteById(String id);
+}
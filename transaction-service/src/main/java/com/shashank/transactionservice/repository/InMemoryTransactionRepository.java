@@ -0,0 +1,139 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Heap-backed transaction store.
+ * <p>
+ * Besides the primary id map it keeps a global timeline and a per-account index, both ordered by
+ * {@link TransactionKey}. Reading an account's history costs O(k) in that account's transactions, and
+ * keyset pages and creation-time ranges are a seek plus a walk of the entries returned. Streams iterate the skip lists directly,
+ * so they are weakly consistent and never copy the store.
+ */
+public class InMemoryTransactionRepository implements EvictableTransactionRepository {
+
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<TransactionKey, Transaction> timeline = new ConcurrentSkipListMap<>();
+
+    private final Map<String, ConcurrentSkipListMap<TransactionKey, Transaction>> accountIndex = new ConcurrentHashMap<>();
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        Transaction previous = transactions.put(transaction.getId(), transaction);
+        if (previous != null) {
+            unindex(previous);
+        }
+        TransactionKey key = TransactionKey.of(transaction);
+        timeline.put(key, transaction);
+        accountIndex.computeIfAbsent(transaction.getAccountId(), accountId -> new ConcurrentSkipListMap<>())
+                .put(key, transaction);
+        return transaction;
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        return Optional.ofNullable(transactions.get(id));
+    }
+
+    @Override
+    public Optional<Transaction> deleteById(String id) {
+        Transaction removed = transactions.remove(id);
+        if (removed != null) {
+            unindex(removed);
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    @Override
+    public long count() {
+        return transactions.size();
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return new ArrayList<>(timeline.values());
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(String accountId) {
+        ConcurrentSkipListMap<TransactionKey, Transaction> accountTransactions = accountIndex.get(accountId);
+        if (accountTransactions == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(accountTransactions.values());
+    }
+
+    @Override
+    public List<Transaction> findAfter(TransactionKey after, int limit) {
+        return streamAfter(after).limit(limit).toList();
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdAfter(String accountId, TransactionKey after, int limit) {
+        return streamByAccountIdAfter(accountId, after).limit(limit).toList();
+    }
+
+    @Override
+    public Stream<Transaction> streamAfter(TransactionKey after) {
+        return tail(timeline, after).values().stream();
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountIdAfter(String accountId, TransactionKey after) {
+        ConcurrentSkipListMap<TransactionKey, Transaction> accountTransactions = accountIndex.get(accountId);
+        if (accountTransactions == null) {
+            return Stream.empty();
+        }
+        return tail(accountTransactions, after).values().stream();
+    }
+
+    @Override
+    public List<Transaction> findBetween(LocalDateTime from, LocalDateTime to, TransactionKey after, int limit) {
+        return range(timeline, from, to, after, limit);
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdBetween(String accountId, LocalDateTime from, LocalDateTime to,
+                                                    TransactionKey after, int limit) {
+        ConcurrentSkipListMap<TransactionKey, Transaction> accountTransactions = accountIndex.get(accountId);
+        if (accountTransactions == null) {
+            return new ArrayList<>();
+        }
+        return range(accountTransactions, from, to, after, limit);
+    }
+
+    private static List<Transaction> range(ConcurrentSkipListMap<TransactionKey, Transaction> index,
+                                           LocalDateTime from, LocalDateTime to, TransactionKey after, int limit) {
+        TransactionKey start = TransactionKey.startOf(from, after);
+        TransactionKey end = TransactionKey.startOf(to);
+        if (start.compareTo(end) >= 0) {
+            return new ArrayList<>();
+        }
+        return index.subMap(start, false, end, false).values().stream().limit(limit).toList();
+    }
+
+    private static NavigableMap<TransactionKey, Transaction> tail(ConcurrentSkipListMap<TransactionKey, Transaction> index,
+                                                                  TransactionKey after) {
+        return after == null ? index : index.tailMap(after, false);
+    }
+
+    private void unindex(Transaction transaction) {
+        TransactionKey key = TransactionKey.of(transaction);
+        timeline.remove(key);
+        ConcurrentSkipListMap<TransactionKey, Transaction> accountTransactions = accountIndex.get(transaction.getAccountId());
+        if (accountTransactions != null) {
+            accountTransactions.remove(key);
+        }
+    }
+}
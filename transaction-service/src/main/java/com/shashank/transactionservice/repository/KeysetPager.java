@@ -0,0 +1,59 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns a keyset page loader into a lazy stream, for stores whose indexes cannot be iterated without a lock.
+ * Each page is fetched after the key of the last transaction handed out, so the stream is weakly
+ * consistent and holds at most one page in memory.
+ */
+public final class KeysetPager {
+
+    private KeysetPager() {
+    }
+
+    public static Stream<Transaction> stream(TransactionKey after, int pageSize,
+                                             BiFunction<TransactionKey, Integer, List<Transaction>> pageLoader) {
+        Iterator<Transaction> iterator = new Iterator<>() {
+            private TransactionKey last = after;
+            private List<Transaction> page = List.of();
+            private int position;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = pageLoader.apply(last, pageSize);
+                position = 0;
+                exhausted = page.size() < pageSize;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction transaction = page.get(position++);
+                last = TransactionKey.of(transaction);
+                return transaction;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
@@ -0,0 +1,146 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of a {@link Transaction} used by the on-disk stores.
+ * <p>
+ * Strings are length-prefixed UTF-8 (length {@code -1} for null), amounts are written as a scale plus
+ * either a long or, when it does not fit, the two's-complement bytes of the unscaled value, enums as
+ * ordinals and timestamps as UTC epoch seconds plus nanos.
+ */
+public final class TransactionCodec {
+
+    private static final byte AMOUNT_LONG = 0;
+    private static final byte AMOUNT_BIG = 1;
+    private static final byte AMOUNT_NULL = 2;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private TransactionCodec() {
+    }
+
+    public static byte[] encode(Transaction transaction) {
+        byte[] id = bytes(transaction.getId());
+        byte[] accountId = bytes(transaction.getAccountId());
+        byte[] currency = bytes(transaction.getCurrency());
+        byte[] description = bytes(transaction.getDescription());
+        BigDecimal amount = transaction.getAmount();
+        byte[] bigAmount = amount != null && amount.unscaledValue().bitLength() >= Long.SIZE
+                ? amount.unscaledValue().toByteArray()
+                : null;
+
+        int size = stringSize(id) + stringSize(accountId) + stringSize(currency) + stringSize(description)
+                + 1 + (amount == null ? 0 : Integer.BYTES + (bigAmount == null ? Long.BYTES : stringSize(bigAmount)))
+                + 2 + 2 * (Long.BYTES + Integer.BYTES);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        putString(buffer, id);
+        putString(buffer, accountId);
+        putString(buffer, currency);
+        putString(buffer, description);
+        if (amount == null) {
+            buffer.put(AMOUNT_NULL);
+        } else if (bigAmount == null) {
+            buffer.put(AMOUNT_LONG).putInt(amount.scale()).putLong(amount.unscaledValue().longValue());
+        } else {
+            buffer.put(AMOUNT_BIG).putInt(amount.scale());
+            putString(buffer, bigAmount);
+        }
+        buffer.put(ordinal(transaction.getType()));
+        buffer.put(ordinal(transaction.getStatus()));
+        putTimestamp(buffer, transaction.getCreatedAt());
+        putTimestamp(buffer, transaction.getUpdatedAt());
+        return buffer.array();
+    }
+
+    public static Transaction decode(ByteBuffer buffer) {
+        String id = getString(buffer);
+        String accountId = getString(buffer);
+        String currency = getString(buffer);
+        String description = getString(buffer);
+        BigDecimal amount = switch (buffer.get()) {
+            case AMOUNT_LONG -> {
+                int scale = buffer.getInt();
+                yield BigDecimal.valueOf(buffer.getLong(), scale);
+            }
+            case AMOUNT_BIG -> {
+                int scale = buffer.getInt();
+                yield new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+            }
+            default -> null;
+        };
+        byte type = buffer.get();
+        byte status = buffer.get();
+        return Transaction.builder()
+                .id(id)
+                .accountId(accountId)
+                .amount(amount)
+                .currency(currency)
+                .description(description)
+                .type(type < 0 ? null : TYPES[type])
+                .status(status < 0 ? null : STATUSES[status])
+                .createdAt(getTimestamp(buffer))
+                .updatedAt(getTimestamp(buffer))
+                .build();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] value = getBytes(buffer);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(Long.MIN_VALUE).putInt(0);
+        } else {
+            buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC)).putInt(timestamp.getNano());
+        }
+    }
+
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return epochSecond == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
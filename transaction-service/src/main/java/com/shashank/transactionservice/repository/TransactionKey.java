@@ -0,0 +1,39 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ordering key for transaction indexes: creation time first, id as a tie-breaker so that
+ * transactions created within the same clock tick still get a stable, total order.
+ */
+public record TransactionKey(LocalDateTime createdAt, String id) implements Comparable<TransactionKey> {
+
+    public static TransactionKey of(Transaction transaction) {
+        return new TransactionKey(transaction.getCreatedAt(), transaction.getId());
+    }
+
+    /**
+     * A key that sorts before every transaction created at {@code createdAt}, for use as an exclusive
+     * lower bound when a range should include that instant.
+     */
+    public static TransactionKey startOf(LocalDateTime createdAt) {
+        return new TransactionKey(createdAt, "");
+    }
+
+    /**
+     * The exclusive lower bound for reading a range that includes {@code createdAt}, resuming past
+     * {@code after} when a previous page already got further.
+     */
+    public static TransactionKey startOf(LocalDateTime createdAt, TransactionKey after) {
+        TransactionKey start = startOf(createdAt);
+        return after == null || after.compareTo(start) < 0 ? start : after;
+    }
+
+    @Override
+    public int compareTo(TransactionKey other) {
+        int byTime = createdAt.compareTo(other.createdAt);
+        return byTime != 0 ? byTime : id.compareTo(other.id);
+    }
+}
@@ -0,0 +1,39 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Transaction storage. Listing methods return transactions in {@link TransactionKey} order; the
+ * {@code after} arguments are exclusive lower bounds and may be {@code null} to start from the beginning.
+ * Creation-time ranges include {@code from} and exclude {@code to}, and are read a page at a time like the
+ * other listings.
+ */
+public interface TransactionRepository {
+    Transaction save(Transaction transaction);
+    Optional<Transaction> findById(String id);
+    long count();
+    List<Transaction> findAll();
+    List<Transaction> findByAccountId(String accountId);
+    List<Transaction> findAfter(TransactionKey after, int limit);
+    List<Transaction> findByAccountIdAfter(String accountId, TransactionKey after, int limit);
+    Stream<Transaction> streamAfter(TransactionKey after);
+    Stream<Transaction> streamByAccountIdAfter(String accountId, TransactionKey after);
+
+    default List<Transaction> findBetween(LocalDateTime from, LocalDateTime to, TransactionKey after, int limit) {
+        try (Stream<Transaction> tail = streamAfter(TransactionKey.startOf(from, after))) {
+            return tail.takeWhile(transaction -> transaction.getCreatedAt().isBefore(to)).limit(limit).toList();
+        }
+    }
+
+    default List<Transaction> findByAccountIdBetween(String accountId, LocalDateTime from, LocalDateTime to,
+                                                     TransactionKey after, int limit) {
+        try (Stream<Transaction> tail = streamByAccountIdAfter(accountId, TransactionKey.startOf(from, after))) {
+            return tail.takeWhile(transaction -> transaction.getCreatedAt().isBefore(to)).limit(limit).toList();
+        }
+    }
+}
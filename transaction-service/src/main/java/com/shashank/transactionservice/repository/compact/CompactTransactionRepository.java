@@ -0,0 +1,485 @@
+package com.shashank.transactionservice.repository.compact;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.EvictableTransactionRepository;
+import com.shashank.transactionservice.repository.KeysetPager;
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Low-heap transaction store that keeps each transaction as a 52-byte fixed-width record in
+ * {@link RecordSlabs} instead of an object graph.
+ * <p>
+ * Canonical UUID ids are stored as two longs, amounts as an unscaled long plus scale, timestamps as UTC
+ * epoch micros, enums as ordinals, and account ids and currencies as codes into {@link StringDictionary}s.
+ * Descriptions are mostly unique, and a dictionary never frees a code, so they are kept on the heap next
+ * to their slot instead and dropped with it. The id lookup is an open-addressing table of slots, and the timeline and
+ * per-account indexes are sorted slot arrays, so the whole index costs roughly 16 bytes per transaction.
+ * {@link Transaction} objects are only materialised when a record is read.
+ * <p>
+ * Timestamps keep microsecond precision. Writes take a single write lock; reads take the read lock only
+ * long enough to locate and decode records.
+ */
+public class CompactTransactionRepository implements EvictableTransactionRepository {
+
+    static final int RECORD_BYTES = 52;
+
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int CREATED_AT = 16;
+    private static final int UPDATED_AT = 24;
+    private static final int AMOUNT = 32;
+    private static final int ACCOUNT = 40;
+    private static final int CURRENCY = 44;
+    private static final int SCALE = 48;
+    private static final int TYPE = 49;
+    private static final int STATUS = 50;
+    private static final int FLAGS = 51;
+
+    private static final byte FLAG_DICTIONARY_ID = 1;
+    private static final byte FLAG_WIDE_AMOUNT = 2;
+    private static final byte FLAG_NULL_AMOUNT = 4;
+
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int STREAM_PAGE_SIZE = 512;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RecordSlabs records;
+    private final StringDictionary ids = new StringDictionary();
+    private final StringDictionary accounts = new StringDictionary();
+    private final StringDictionary currencies = new StringDictionary();
+    // Descriptions by slot
+    private String[] descriptions = new String[1 << 10];
+    // Amounts that do not fit an unscaled long with a byte-sized scale, by slot
+    private final Map<Integer, BigDecimal> wideAmounts = new HashMap<>();
+
+    // Open-addressing id -> slot table holding slot + 1, 0 marks an empty bucket
+    private int[] idTable = new int[1 << 10];
+    private int idCount;
+
+    private final SlotList timeline = new SlotList(1 << 10);
+    // Indexed by account dictionary code
+    private final List<SlotList> accountSlots = new ArrayList<>();
+
+    public CompactTransactionRepository(boolean offHeap, int recordsPerSlab) {
+        this.records = new RecordSlabs(RECORD_BYTES, recordsPerSlab, offHeap);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        IdKey idKey = IdKey.forWrite(transaction.getId(), ids);
+        lock.writeLock().lock();
+        try {
+            int bucket = findBucket(idKey);
+            if (idTable[bucket] != 0) {
+                unindex(idTable[bucket] - 1);
+            } else if (++idCount * 2 > idTable.length) {
+                resizeIdTable();
+                bucket = findBucket(idKey);
+            }
+            int slot = records.allocate();
+            write(slot, idKey, transaction);
+            idTable[bucket] = slot + 1;
+            insertSorted(timeline, slot);
+            insertSorted(accountList(readInt(slot, ACCOUNT)), slot);
+            return transaction;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        IdKey idKey = IdKey.forRead(id, ids);
+        if (idKey == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int entry = idTable[findBucket(idKey)];
+            return entry == 0 ? Optional.empty() : Optional.of(decode(entry - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> deleteById(String id) {
+        IdKey idKey = IdKey.forRead(id, ids);
+        if (idKey == null) {
+            return Optional.empty();
+        }
+        lock.writeLock().lock();
+        try {
+            int bucket = findBucket(idKey);
+            if (idTable[bucket] == 0) {
+                return Optional.empty();
+            }
+            int slot = idTable[bucket] - 1;
+            Transaction removed = decode(slot);
+            unindex(slot);
+            removeBucket(bucket);
+            return Optional.of(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return getRecordCount();
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return findAfter(null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(String accountId) {
+        return findByAccountIdAfter(accountId, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> findAfter(TransactionKey after, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(timeline, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdAfter(String accountId, TransactionKey after, int limit) {
+        int account = accounts.find(accountId);
+        lock.readLock().lock();
+        try {
+            if (account == StringDictionary.NULL_CODE || account >= accountSlots.size()) {
+                return new ArrayList<>();
+            }
+            return page(accountSlots.get(account), after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Transaction> streamAfter(TransactionKey after) {
+        return KeysetPager.stream(after, STREAM_PAGE_SIZE, this::findAfter);
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountIdAfter(String accountId, TransactionKey after) {
+        return KeysetPager.stream(after, STREAM_PAGE_SIZE,
+                (key, limit) -> findByAccountIdAfter(accountId, key, limit));
+    }
+
+    public int getRecordCount() {
+        lock.readLock().lock();
+        try {
+            return idCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getSlabBytes() {
+        lock.readLock().lock();
+        try {
+            return records.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isOffHeap() {
+        return records.isOffHeap();
+    }
+
+    private List<Transaction> page(SlotList slots, TransactionKey after, int limit) {
+        int from = after == null ? 0 : upperBound(slots, toMicros(after.createdAt()), after.id());
+        int count = Math.min(limit, slots.size() - from);
+        List<Transaction> transactions = new ArrayList<>(Math.max(0, count));
+        for (int i = 0; i < count; i++) {
+            transactions.add(decode(slots.get(from + i)));
+        }
+        return transactions;
+    }
+
+    private void write(int slot, IdKey idKey, Transaction transaction) {
+        ByteBuffer slab = records.slab(slot);
+        int offset = records.offset(slot);
+        byte flags = idKey.dictionary() ? FLAG_DICTIONARY_ID : 0;
+
+        BigDecimal amount = transaction.getAmount();
+        long unscaled = 0;
+        byte scale = 0;
+        if (amount == null) {
+            flags |= FLAG_NULL_AMOUNT;
+        } else if (amount.unscaledValue().bitLength() < Long.SIZE && amount.scale() == (byte) amount.scale()) {
+            unscaled = amount.unscaledValue().longValue();
+            scale = (byte) amount.scale();
+        } else {
+            flags |= FLAG_WIDE_AMOUNT;
+            wideAmounts.put(slot, amount);
+        }
+        if (slot >= descriptions.length) {
+            descriptions = Arrays.copyOf(descriptions, Math.max(slot + 1, descriptions.length * 2));
+        }
+        descriptions[slot] = transaction.getDescription();
+
+        slab.putLong(offset + ID_HIGH, idKey.high())
+                .putLong(offset + ID_LOW, idKey.low())
+                .putLong(offset + CREATED_AT, toMicros(transaction.getCreatedAt()))
+                .putLong(offset + UPDATED_AT, toMicros(transaction.getUpdatedAt()))
+                .putLong(offset + AMOUNT, unscaled)
+                .putInt(offset + ACCOUNT, accounts.encode(transaction.getAccountId()))
+                .putInt(offset + CURRENCY, currencies.encode(transaction.getCurrency()))
+                .put(offset + SCALE, scale)
+                .put(offset + TYPE, ordinal(transaction.getType()))
+                .put(offset + STATUS, ordinal(transaction.getStatus()))
+                .put(offset + FLAGS, flags);
+    }
+
+    private Transaction decode(int slot) {
+        ByteBuffer slab = records.slab(slot);
+        int offset = records.offset(slot);
+        byte flags = slab.get(offset + FLAGS);
+        BigDecimal amount;
+        if ((flags & FLAG_NULL_AMOUNT) != 0) {
+            amount = null;
+        } else if ((flags & FLAG_WIDE_AMOUNT) != 0) {
+            amount = wideAmounts.get(slot);
+        } else {
+            amount = BigDecimal.valueOf(slab.getLong(offset + AMOUNT), slab.get(offset + SCALE));
+        }
+        byte type = slab.get(offset + TYPE);
+        byte status = slab.get(offset + STATUS);
+        return Transaction.builder()
+                .id(idOf(slot))
+                .accountId(accounts.decode(slab.getInt(offset + ACCOUNT)))
+                .amount(amount)
+                .currency(currencies.decode(slab.getInt(offset + CURRENCY)))
+                .description(descriptions[slot])
+                .type(type < 0 ? null : TYPES[type])
+                .status(status < 0 ? null : STATUSES[status])
+                .createdAt(fromMicros(slab.getLong(offset + CREATED_AT)))
+                .updatedAt(fromMicros(slab.getLong(offset + UPDATED_AT)))
+                .build();
+    }
+
+    private String idOf(int slot) {
+        ByteBuffer slab = records.slab(slot);
+        int offset = records.offset(slot);
+        if ((slab.get(offset + FLAGS) & FLAG_DICTIONARY_ID) != 0) {
+            return ids.decode((int) slab.getLong(offset + ID_LOW));
+        }
+        return new UUID(slab.getLong(offset + ID_HIGH), slab.getLong(offset + ID_LOW)).toString();
+    }
+
+    private int findBucket(IdKey idKey) {
+        int mask = idTable.length - 1;
+        int bucket = idKey.hash() & mask;
+        while (idTable[bucket] != 0 && !idKey.matches(this, idTable[bucket] - 1)) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    private void resizeIdTable() {
+        int[] previous = idTable;
+        idTable = new int[previous.length * 2];
+        int mask = idTable.length - 1;
+        for (int entry : previous) {
+            if (entry != 0) {
+                int bucket = IdKey.ofSlot(this, entry - 1).hash() & mask;
+                while (idTable[bucket] != 0) {
+                    bucket = (bucket + 1) & mask;
+                }
+                idTable[bucket] = entry;
+            }
+        }
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void removeBucket(int bucket) {
+        int mask = idTable.length - 1;
+        int hole = bucket;
+        idTable[hole] = 0;
+        for (int i = (hole + 1) & mask; idTable[i] != 0; i = (i + 1) & mask) {
+            int home = IdKey.ofSlot(this, idTable[i] - 1).hash() & mask;
+            boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                idTable[hole] = idTable[i];
+                idTable[i] = 0;
+                hole = i;
+            }
+        }
+        idCount--;
+    }
+
+    private SlotList accountList(int account) {
+        while (accountSlots.size() <= account) {
+            accountSlots.add(null);
+        }
+        SlotList slots = accountSlots.get(account);
+        if (slots == null) {
+            slots = new SlotList(4);
+            accountSlots.set(account, slots);
+        }
+        return slots;
+    }
+
+    private void unindex(int slot) {
+        removeSorted(timeline, slot);
+        removeSorted(accountSlots.get(readInt(slot, ACCOUNT)), slot);
+        wideAmounts.remove(slot);
+        descriptions[slot] = null;
+        records.release(slot);
+    }
+
+    // Transactions mostly arrive in time order, so the common case is an append at the end
+    private void insertSorted(SlotList slots, int slot) {
+        long micros = readLong(slot, CREATED_AT);
+        int size = slots.size();
+        if (size == 0 || compare(slots.get(size - 1), micros, slot) <= 0) {
+            slots.insert(size, slot);
+        } else {
+            slots.insert(upperBound(slots, micros, idOf(slot)), slot);
+        }
+    }
+
+    private void removeSorted(SlotList slots, int slot) {
+        int index = upperBound(slots, readLong(slot, CREATED_AT), idOf(slot)) - 1;
+        while (index >= 0 && slots.get(index) != slot) {
+            index--;
+        }
+        if (index >= 0) {
+            slots.remove(index);
+        }
+    }
+
+    // First position whose key is strictly greater than (micros, id)
+    private int upperBound(SlotList slots, long micros, String id) {
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long midMicros = readLong(slots.get(mid), CREATED_AT);
+            int comparison = midMicros != micros ? Long.compare(midMicros, micros) : idOf(slots.get(mid)).compareTo(id);
+            if (comparison <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int slot, long micros, int otherSlot) {
+        long slotMicros = readLong(slot, CREATED_AT);
+        return slotMicros != micros ? Long.compare(slotMicros, micros) : idOf(slot).compareTo(idOf(otherSlot));
+    }
+
+    private long readLong(int slot, int field) {
+        return records.slab(slot).getLong(records.offset(slot) + field);
+    }
+
+    private int readInt(int slot, int field) {
+        return records.slab(slot).getInt(records.offset(slot) + field);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NULL_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Lookup form of a transaction id: a canonical UUID's two halves, or a dictionary code for anything else.
+     */
+    private record IdKey(boolean dictionary, long high, long low) {
+
+        static IdKey forWrite(String id, StringDictionary ids) {
+            IdKey uuid = parseUuid(id);
+            return uuid != null ? uuid : new IdKey(true, 0, ids.encode(id));
+        }
+
+        static IdKey forRead(String id, StringDictionary ids) {
+            IdKey uuid = parseUuid(id);
+            if (uuid != null) {
+                return uuid;
+            }
+            int code = ids.find(id);
+            return code == StringDictionary.NULL_CODE ? null : new IdKey(true, 0, code);
+        }
+
+        static IdKey ofSlot(CompactTransactionRepository repository, int slot) {
+            boolean dictionary = (repository.records.slab(slot).get(repository.records.offset(slot) + FLAGS)
+                    & FLAG_DICTIONARY_ID) != 0;
+            return new IdKey(dictionary, repository.readLong(slot, ID_HIGH), repository.readLong(slot, ID_LOW));
+        }
+
+        private static IdKey parseUuid(String id) {
+            if (id == null || id.length() != 36) {
+                return null;
+            }
+            try {
+                UUID uuid = UUID.fromString(id);
+                // Only canonical (lower-case) text round-trips through two longs
+                return uuid.toString().equals(id)
+                        ? new IdKey(false, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())
+                        : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        int hash() {
+            long h = (high * 0x9E3779B97F4A7C15L) ^ low ^ (dictionary ? 0x5DEECE66DL : 0);
+            h ^= (h >>> 32);
+            h *= 0xC2B2AE3D27D4EB4FL;
+            return (int) (h ^ (h >>> 29));
+        }
+
+        boolean matches(CompactTransactionRepository repository, int slot) {
+            ByteBuffer slab = repository.records.slab(slot);
+            int offset = repository.records.offset(slot);
+            return slab.getLong(offset + ID_LOW) == low
+                    && slab.getLong(offset + ID_HIGH) == high
+                    && ((slab.get(offset + FLAGS) & FLAG_DICTIONARY_ID) != 0) == dictionary;
+        }
+    }
+}
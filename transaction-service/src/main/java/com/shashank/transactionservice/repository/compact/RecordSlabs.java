@@ -0,0 +1,74 @@
+package com.shashank.transactionservice.repository.compact;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-width records packed into equally sized {@link ByteBuffer} slabs, either on the heap or
+ * off-heap (direct). Released slots are handed out again before the slabs grow. Not thread-safe for
+ * writes; callers hold the repository write lock, and a slot is only read after it has been published.
+ */
+final class RecordSlabs {
+
+    private final int recordBytes;
+    private final int slabShift;
+    private final int slabMask;
+    private final boolean offHeap;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private volatile ByteBuffer[] published = new ByteBuffer[0];
+    private int nextSlot;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    RecordSlabs(int recordBytes, int recordsPerSlab, boolean offHeap) {
+        if (Integer.bitCount(recordsPerSlab) != 1) {
+            throw new IllegalArgumentException("recordsPerSlab must be a power of two");
+        }
+        this.recordBytes = recordBytes;
+        this.slabShift = Integer.numberOfTrailingZeros(recordsPerSlab);
+        this.slabMask = recordsPerSlab - 1;
+        this.offHeap = offHeap;
+    }
+
+    int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = nextSlot++;
+        if ((slot >>> slabShift) == slabs.size()) {
+            int bytes = (slabMask + 1) * recordBytes;
+            slabs.add(offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes));
+            published = slabs.toArray(new ByteBuffer[0]);
+        }
+        return slot;
+    }
+
+    void release(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    ByteBuffer slab(int slot) {
+        return published[slot >>> slabShift];
+    }
+
+    int offset(int slot) {
+        return (slot & slabMask) * recordBytes;
+    }
+
+    int size() {
+        return nextSlot - freeCount;
+    }
+
+    long allocatedBytes() {
+        return (long) slabs.size() * (slabMask + 1) * recordBytes;
+    }
+
+    boolean isOffHeap() {
+        return offHeap;
+    }
+}
@@ -0,0 +1,38 @@
+package com.shashank.transactionservice.repository.compact;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of record slots kept in key order. Not thread-safe; callers hold the repository lock.
+ */
+final class SlotList {
+
+    private int[] slots;
+    private int size;
+
+    SlotList(int initialCapacity) {
+        slots = new int[Math.max(1, initialCapacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return slots[index];
+    }
+
+    void insert(int index, int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+        }
+        System.arraycopy(slots, index, slots, index + 1, size - index);
+        slots[index] = slot;
+        size++;
+    }
+
+    void remove(int index) {
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        size--;
+    }
+}
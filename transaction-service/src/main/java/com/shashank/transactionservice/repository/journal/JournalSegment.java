@@ -0,0 +1,92 @@
+package com.shashank.transactionservice.repository.journal;
+
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One preallocated, memory-mapped journal file. Records are laid out back to back as
+ * {@code [int length][int crc32c][payload]}; a zero length marks the end of written data.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final long index;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // Guarded by the journal's append lock
+    int writePosition;
+    // Only touched by the flusher, or under the append lock when rolling
+    int forcedPosition;
+    // Highest key written, null while empty; set by replay, then guarded by the append lock
+    TransactionKey maxKey;
+
+    private JournalSegment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(long index, Path path, int capacity) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = channel.size();
+            int mappedSize = size > 0 ? (int) Math.min(size, Integer.MAX_VALUE) : capacity;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            return new JournalSegment(index, path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal segment " + path, e);
+        }
+    }
+
+    long index() {
+        return index;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    boolean hasRoomFor(int recordBytes) {
+        return writePosition + recordBytes <= buffer.capacity();
+    }
+
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    void include(TransactionKey key) {
+        if (maxKey == null || key.compareTo(maxKey) > 0) {
+            maxKey = key;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close journal segment " + path, e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.shashank.transactionservice.repository.journal;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.TransactionKey;
+import com.shashank.transactionservice.repository.TransactionRepository;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Makes another repository durable by writing every save to a {@link TransactionJournal} first.
+ * Reads are served by the delegate, which is rebuilt from the journal by {@link #recover()}.
+ * <p>
+ * When the delegate archives transactions durably itself, {@link #checkpoint(Predicate)} deletes the
+ * journal segments it no longer needs, which keeps recovery proportional to what is not archived yet.
+ */
+public class JournalingTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(JournalingTransactionRepository.class);
+
+    private final TransactionRepository delegate;
+    private final TransactionJournal journal;
+    // Saves share it; a checkpoint takes it alone so that no save is between journal and delegate
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService checkpointer;
+
+    public JournalingTransactionRepository(TransactionRepository delegate, TransactionJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    public RecoveryResult recover() {
+        return journal.recover(delegate::save);
+    }
+
+    /**
+     * Deletes the journal segments whose transactions all satisfy {@code archivedThrough}, which must
+     * only hold for a key once every transaction the delegate was given at or below it is stored durably,
+     * as {@link com.shashank.transactionservice.repository.tiered.TieredTransactionRepository#isArchivedThrough}
+     * does. Saves wait until it returns.
+     *
+     * @return the number of segments deleted
+     */
+    public int checkpoint(Predicate<TransactionKey> archivedThrough) {
+        checkpointLock.writeLock().lock();
+        try {
+            return journal.truncate(archivedThrough);
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@link #checkpoint(Predicate)} in the background every {@code interval}.
+     */
+    public void startCheckpoints(Duration interval, Predicate<TransactionKey> archivedThrough) {
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-journal-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint(archivedThrough);
+            } catch (RuntimeException e) {
+                log.error("Journal checkpoint failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        checkpointLock.readLock().lock();
+        try {
+            journal.append(transaction);
+            return delegate.save(transaction);
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(String accountId) {
+        return delegate.findByAccountId(accountId);
+    }
+
+    @Override
+    public List<Transaction> findAfter(TransactionKey after, int limit) {
+        return delegate.findAfter(after, limit);
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdAfter(String accountId, TransactionKey after, int limit) {
+        return delegate.findByAccountIdAfter(accountId, after, limit);
+    }
+
+    @Override
+    public List<Transaction> findBetween(LocalDateTime from, LocalDateTime to, TransactionKey after, int limit) {
+        return delegate.findBetween(from, to, after, limit);
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdBetween(String accountId, LocalDateTime from, LocalDateTime to,
+                                                    TransactionKey after, int limit) {
+        return delegate.findByAccountIdBetween(accountId, from, to, after, limit);
+    }
+
+    @Override
+    public Stream<Transaction> streamAfter(TransactionKey after) {
+        return delegate.streamAfter(after);
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountIdAfter(String accountId, TransactionKey after) {
+        return delegate.streamByAccountIdAfter(accountId, after);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+            checkpointer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        journal.close();
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.shashank.transactionservice.repository.journal;
+
+import java.time.Duration;
+
+/**
+ * Outcome of replaying the journal on startup.
+ *
+ * @param records         records successfully replayed
+ * @param segments        segment files scanned
+ * @param corruptSegments segments whose replay stopped early on a bad length or checksum
+ * @param duration        wall-clock replay time
+ */
+public record RecoveryResult(long records, int segments, int corruptSegments, Duration duration) {
+}
@@ -0,0 +1,435 @@
+package com.shashank.transactionservice.repository.journal;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.TransactionCodec;
+import com.shashank.transactionservice.repository.TransactionKey;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only transaction journal made of preallocated, memory-mapped segment files.
+ * <p>
+ * Appends copy a checksummed record into the active segment under a short lock and return; a single
+ * flusher thread forces dirty pages to disk every {@code fsyncInterval}, or sooner once
+ * {@code fsyncBatchSize} records are pending. With {@code syncWrites} enabled an append waits for the
+ * flush that covers it, so concurrent writers share one fsync (group commit). Without it the data is safe
+ * from process crashes as soon as it is in the mapping, and an OS crash loses at most one interval.
+ * <p>
+ * {@link #recover(Consumer)} must be called once before the first append. It replays segments in
+ * parallel, so the consumer has to be thread-safe and must not rely on replay order.
+ * <p>
+ * Segments whose transactions are stored durably elsewhere can be deleted with {@link #truncate(Predicate)},
+ * so that recovery only replays what exists nowhere else.
+ */
+public class TransactionJournal implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(TransactionJournal.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalNanos;
+    private final int fsyncBatchSize;
+    private final boolean syncWrites;
+    private final int replayThreads;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushRequested = flushLock.newCondition();
+    private final Condition flushed = flushLock.newCondition();
+
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private JournalSegment active;
+    private long appendedSequence;
+    private volatile long durableSequence;
+    private long truncatedSegments;
+    private boolean flushPending;
+    private volatile boolean closed;
+    private Thread flusher;
+
+    public TransactionJournal(Path directory, int segmentSize, Duration fsyncInterval, int fsyncBatchSize,
+                              boolean syncWrites, int replayThreads) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.fsyncBatchSize = Math.max(1, fsyncBatchSize);
+        this.syncWrites = syncWrites;
+        this.replayThreads = replayThreads > 0 ? replayThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Replays every intact record into {@code consumer} and positions the writer after the last one.
+     */
+    public RecoveryResult recover(Consumer<Transaction> consumer) {
+        if (active != null) {
+            throw new IllegalStateException("Journal has already been recovered");
+        }
+        long start = System.nanoTime();
+        openExistingSegments();
+
+        List<SegmentReplay> replays = replayAll(consumer);
+        long records = replays.stream().mapToLong(SegmentReplay::records).sum();
+        int corrupt = (int) replays.stream().filter(SegmentReplay::corrupt).count();
+
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.get(segments.size() - 1);
+            SegmentReplay tail = replays.get(replays.size() - 1);
+            active.writePosition = tail.endPosition();
+            active.forcedPosition = tail.endPosition();
+            if (tail.corrupt()) {
+                // A torn tail is expected after a crash; clear it so later appends cannot be misread
+                zero(active, tail.endPosition());
+            }
+        }
+        appendedSequence = records;
+        durableSequence = records;
+        startFlusher();
+
+        RecoveryResult result = new RecoveryResult(records, segments.size(), corrupt,
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Recovered {} transactions from {} journal segments in {} ms ({} corrupt)", result.records(),
+                result.segments(), result.duration().toMillis(), result.corruptSegments());
+        return result;
+    }
+
+    public void append(Transaction transaction) {
+        byte[] payload = TransactionCodec.encode(transaction);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int recordBytes = JournalSegment.HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("Transaction " + transaction.getId() + " does not fit in a journal segment");
+        }
+
+        long sequence;
+        appendLock.lock();
+        try {
+            if (active == null || closed) {
+                throw new IllegalStateException("Journal is not open for appends");
+            }
+            if (!active.hasRoomFor(recordBytes)) {
+                roll();
+            }
+            ByteBuffer buffer = active.buffer();
+            int position = active.writePosition;
+            active.include(TransactionKey.of(transaction));
+            buffer.put(position + JournalSegment.HEADER_BYTES, payload);
+            buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            // Length goes last: a reader never sees a non-zero length in front of a half-written record
+            buffer.putInt(position, payload.length);
+            active.writePosition = position + recordBytes;
+            sequence = ++appendedSequence;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (syncWrites) {
+            awaitDurable(sequence);
+        } else if (sequence - durableSequence >= fsyncBatchSize) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments, short of the active one, for as long as {@code archivedThrough} holds
+     * for the highest key in each, and so for every transaction in it.
+     *
+     * @return the number of segments deleted
+     */
+    public int truncate(Predicate<TransactionKey> archivedThrough) {
+        appendLock.lock();
+        try {
+            if (active == null || closed) {
+                throw new IllegalStateException("Journal is not open");
+            }
+            int deleted = 0;
+            while (segments.get(0) != active) {
+                JournalSegment oldest = segments.get(0);
+                if (oldest.maxKey != null && !archivedThrough.test(oldest.maxKey)) {
+                    break;
+                }
+                segments.remove(0);
+                oldest.close();
+                Files.deleteIfExists(oldest.path());
+                deleted++;
+            }
+            truncatedSegments += deleted;
+            if (deleted > 0) {
+                log.info("Truncated {} archived journal segments", deleted);
+            }
+            return deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete journal segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getTruncatedSegments() {
+        appendLock.lock();
+        try {
+            return truncatedSegments;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getAppendedSequence() {
+        appendLock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public int getSegmentCount() {
+        appendLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        requestFlush();
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        appendLock.lock();
+        try {
+            segments.forEach(JournalSegment::close);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void openExistingSegments() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                                && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .forEach(path -> segments.add(JournalSegment.open(segmentIndex(path), path, segmentSize)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal directory " + directory, e);
+        }
+    }
+
+    private List<SegmentReplay> replayAll(Consumer<Transaction> consumer) {
+        if (segments.isEmpty()) {
+            return List.of();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(replayThreads, segments.size()));
+        try {
+            List<Future<SegmentReplay>> futures = new ArrayList<>();
+            for (JournalSegment segment : segments) {
+                futures.add(executor.submit(() -> replay(segment, consumer)));
+            }
+            List<SegmentReplay> replays = new ArrayList<>();
+            for (Future<SegmentReplay> future : futures) {
+                replays.add(future.get());
+            }
+            return replays;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying journal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal replay failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SegmentReplay replay(JournalSegment segment, Consumer<Transaction> consumer) {
+        ByteBuffer buffer = segment.buffer().duplicate();
+        int capacity = segment.capacity();
+        int position = 0;
+        long records = 0;
+        boolean corrupt = false;
+        CRC32C crc = new CRC32C();
+        while (position + JournalSegment.HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + JournalSegment.HEADER_BYTES + length > capacity) {
+                corrupt = true;
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + JournalSegment.HEADER_BYTES, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                corrupt = true;
+                break;
+            }
+            Transaction transaction = TransactionCodec.decode(payload);
+            segment.include(TransactionKey.of(transaction));
+            consumer.accept(transaction);
+            position += JournalSegment.HEADER_BYTES + length;
+            records++;
+        }
+        if (corrupt) {
+            log.warn("Journal segment {} is corrupt at offset {}; {} records before it were recovered",
+                    segment.path(), position, records);
+        }
+        return new SegmentReplay(records, position, corrupt);
+    }
+
+    // Called with the append lock held
+    private void roll() {
+        JournalSegment previous = active;
+        previous.force(previous.forcedPosition, previous.writePosition);
+        previous.forcedPosition = previous.writePosition;
+        active = createSegment(previous.index() + 1);
+    }
+
+    private JournalSegment createSegment(long index) {
+        JournalSegment segment = JournalSegment.open(index,
+                directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX)), segmentSize);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void startFlusher() {
+        flusher = new Thread(this::runFlusher, "transaction-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void runFlusher() {
+        while (!closed) {
+            flushLock.lock();
+            try {
+                if (!flushPending) {
+                    flushRequested.awaitNanos(fsyncIntervalNanos);
+                }
+                flushPending = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                flushLock.unlock();
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Journal flush failed", e);
+            }
+        }
+    }
+
+    private void flush() {
+        JournalSegment segment;
+        long sequence;
+        int from;
+        int to;
+        appendLock.lock();
+        try {
+            if (active == null) {
+                return;
+            }
+            segment = active;
+            sequence = appendedSequence;
+            from = segment.forcedPosition;
+            to = segment.writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+        segment.force(from, to);
+        segment.forcedPosition = Math.max(segment.forcedPosition, to);
+
+        flushLock.lock();
+        try {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void requestFlush() {
+        flushLock.lock();
+        try {
+            flushPending = true;
+            flushRequested.signal();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        flushLock.lock();
+        try {
+            flushPending = true;
+            flushRequested.signal();
+            while (durableSequence < sequence && !closed) {
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal flush", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static void zero(JournalSegment segment, int from) {
+        ByteBuffer buffer = segment.buffer();
+        for (int position = from; position < segment.capacity(); position++) {
+            buffer.put(position, (byte) 0);
+        }
+    }
+
+    private static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record SegmentReplay(long records, int endPosition, boolean corrupt) {
+    }
+}
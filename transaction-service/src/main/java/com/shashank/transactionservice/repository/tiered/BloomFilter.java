@@ -0,0 +1,71 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over strings, used to skip cold segments that cannot contain an id or account.
+ */
+final class BloomFilter {
+
+    private static final int HASHES = 4;
+
+    private final long[] bits;
+
+    private BloomFilter(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Sized for roughly a 1-2% false-positive rate at {@code expectedEntries}.
+     */
+    static BloomFilter create(int expectedEntries) {
+        int bitCount = Math.max(64, expectedEntries * 10);
+        return new BloomFilter(new long[(bitCount + 63) / 64]);
+    }
+
+    static BloomFilter of(long[] bits) {
+        return new BloomFilter(bits);
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length * 64;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length * 64;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long[] bits() {
+        return bits;
+    }
+
+    // 64-bit FNV-1a followed by a murmur-style finaliser
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,217 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.TransactionCodec;
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable, deflate-compressed file of transactions sorted by {@link TransactionKey}.
+ * <p>
+ * The uncompressed header carries the record count, the key range and Bloom filters over ids and
+ * account ids, so segments can be opened and skipped without touching the compressed body.
+ */
+final class ColdSegment {
+
+    private static final int MAGIC = 0x54584353; // "TXCS"
+    private static final int VERSION = 1;
+
+    private final long index;
+    private final Path path;
+    private final int recordCount;
+    private final TransactionKey minKey;
+    private final TransactionKey maxKey;
+    private final BloomFilter ids;
+    private final BloomFilter accounts;
+    private final long fileBytes;
+
+    private ColdSegment(long index, Path path, int recordCount, TransactionKey minKey, TransactionKey maxKey,
+                        BloomFilter ids, BloomFilter accounts, long fileBytes) {
+        this.index = index;
+        this.path = path;
+        this.recordCount = recordCount;
+        this.minKey = minKey;
+        this.maxKey = maxKey;
+        this.ids = ids;
+        this.accounts = accounts;
+        this.fileBytes = fileBytes;
+    }
+
+    /**
+     * Writes {@code transactions}, which must already be in key order, to a new segment file. The file is
+     * written under a temporary name and moved into place, so a crash never leaves a partial segment.
+     */
+    static ColdSegment write(long index, Path path, List<Transaction> transactions) {
+        BloomFilter ids = BloomFilter.create(transactions.size());
+        BloomFilter accounts = BloomFilter.create(transactions.size());
+        transactions.forEach(transaction -> {
+            ids.add(transaction.getId());
+            accounts.add(transaction.getAccountId());
+        });
+        TransactionKey minKey = TransactionKey.of(transactions.get(0));
+        TransactionKey maxKey = TransactionKey.of(transactions.get(transactions.size() - 1));
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(transactions.size());
+                writeKey(out, minKey);
+                writeKey(out, maxKey);
+                writeBits(out, ids.bits());
+                writeBits(out, accounts.bits());
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    DeflaterOutputStream deflating = new DeflaterOutputStream(out, deflater, 64 * 1024);
+                    DataOutputStream body = new DataOutputStream(deflating);
+                    for (Transaction transaction : transactions) {
+                        byte[] record = TransactionCodec.encode(transaction);
+                        body.writeInt(record.length);
+                        body.write(record);
+                    }
+                    body.flush();
+                    deflating.finish();
+                } finally {
+                    deflater.end();
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            return new ColdSegment(index, path, transactions.size(), minKey, maxKey, ids, accounts, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write cold segment " + path, e);
+        }
+    }
+
+    /**
+     * Reads only the header of an existing segment.
+     */
+    static ColdSegment open(long index, Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a cold segment file");
+            }
+            int recordCount = in.readInt();
+            TransactionKey minKey = readKey(in);
+            TransactionKey maxKey = readKey(in);
+            BloomFilter ids = BloomFilter.of(readBits(in));
+            BloomFilter accounts = BloomFilter.of(readBits(in));
+            return new ColdSegment(index, path, recordCount, minKey, maxKey, ids, accounts, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open cold segment " + path, e);
+        }
+    }
+
+    /**
+     * Decompresses the whole segment.
+     */
+    List<Transaction> load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            in.readInt();
+            in.readInt();
+            int count = in.readInt();
+            readKey(in);
+            readKey(in);
+            readBits(in);
+            readBits(in);
+            Inflater inflater = new Inflater();
+            try {
+                DataInputStream body = new DataInputStream(new InflaterInputStream(in, inflater, 64 * 1024));
+                List<Transaction> transactions = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    byte[] record = new byte[body.readInt()];
+                    body.readFully(record);
+                    transactions.add(TransactionCodec.decode(ByteBuffer.wrap(record)));
+                }
+                return transactions;
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read cold segment " + path, e);
+        }
+    }
+
+    long index() {
+        return index;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int recordCount() {
+        return recordCount;
+    }
+
+    TransactionKey minKey() {
+        return minKey;
+    }
+
+    TransactionKey maxKey() {
+        return maxKey;
+    }
+
+    long fileBytes() {
+        return fileBytes;
+    }
+
+    boolean mightContainId(String id) {
+        return ids.mightContain(id);
+    }
+
+    boolean mightContainAccount(String accountId) {
+        return accounts.mightContain(accountId);
+    }
+
+    private static void writeKey(DataOutputStream out, TransactionKey key) throws IOException {
+        out.writeLong(key.createdAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(key.createdAt().getNano());
+        out.writeUTF(key.id());
+    }
+
+    private static TransactionKey readKey(DataInputStream in) throws IOException {
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        return new TransactionKey(createdAt, in.readUTF());
+    }
+
+    private static void writeBits(DataOutputStream out, long[] bits) throws IOException {
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    private static long[] readBits(DataInputStream in) throws IOException {
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return bits;
+    }
+}
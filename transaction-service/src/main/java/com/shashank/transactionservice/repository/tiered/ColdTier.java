@@ -0,0 +1,154 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The on-disk side of {@link TieredTransactionRepository}: an ordered list of immutable
+ * {@link ColdSegment}s plus a small LRU cache of decompressed segments.
+ */
+final class ColdTier {
+
+    private static final String SEGMENT_PREFIX = "cold-";
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int cacheSegments;
+    private final List<ColdSegment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final Map<Long, LoadedSegment> cache;
+    private volatile TransactionKey watermark;
+    private long nextIndex;
+
+    ColdTier(Path directory, int cacheSegments) {
+        this.directory = directory;
+        this.cacheSegments = Math.max(1, cacheSegments);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        openExisting();
+    }
+
+    /**
+     * Archives transactions that are already sorted by key as a new segment.
+     */
+    ColdSegment append(List<Transaction> transactions) {
+        long index = nextIndex++;
+        ColdSegment segment = ColdSegment.write(index,
+                directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX)), transactions);
+        segments.add(segment);
+        advanceWatermark(segment.maxKey());
+        return segment;
+    }
+
+    Optional<Transaction> find(String id) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            ColdSegment segment = segments.get(i);
+            if (segment.mightContainId(id)) {
+                Transaction transaction = load(segment).byId().get(id);
+                if (transaction != null) {
+                    return Optional.of(transaction);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    List<ColdSegment> segments() {
+        return List.copyOf(segments);
+    }
+
+    List<Transaction> records(ColdSegment segment) {
+        return load(segment).records();
+    }
+
+    /**
+     * Highest key archived so far, or {@code null} while the tier is empty.
+     */
+    TransactionKey watermark() {
+        return watermark;
+    }
+
+    long recordCount() {
+        return segments.stream().mapToLong(ColdSegment::recordCount).sum();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long totalBytes() {
+        return segments.stream().mapToLong(ColdSegment::fileBytes).sum();
+    }
+
+    private LoadedSegment load(ColdSegment segment) {
+        cacheLock.lock();
+        try {
+            LoadedSegment loaded = cache.get(segment.index());
+            if (loaded != null) {
+                return loaded;
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        List<Transaction> records = segment.load();
+        LoadedSegment loaded = new LoadedSegment(records,
+                records.stream().collect(Collectors.toMap(Transaction::getId, Function.identity(), (a, b) -> b)));
+        cacheLock.lock();
+        try {
+            cache.put(segment.index(), loaded);
+            while (cache.size() > cacheSegments) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        return loaded;
+    }
+
+    private void openExisting() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                                && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .map(path -> ColdSegment.open(segmentIndex(path), path))
+                        .sorted(Comparator.comparingLong(ColdSegment::index))
+                        .forEach(segment -> {
+                            segments.add(segment);
+                            advanceWatermark(segment.maxKey());
+                            nextIndex = segment.index() + 1;
+                        });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open cold tier directory " + directory, e);
+        }
+    }
+
+    private void advanceWatermark(TransactionKey key) {
+        if (watermark == null || key.compareTo(watermark) > 0) {
+            watermark = key;
+        }
+    }
+
+    private static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record LoadedSegment(List<Transaction> records, Map<String, Transaction> byId) {
+    }
+}
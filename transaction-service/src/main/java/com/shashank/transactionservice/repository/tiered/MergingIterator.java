@@ -0,0 +1,95 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * K-way merge of key-ordered transaction iterators.
+ * <p>
+ * Lazy sources are queued under a lower-bound key and only opened when that bound reaches the head of
+ * the queue, so a scan does not decompress cold segments it has not got to yet. Adjacent duplicates
+ * (a transaction briefly present in both tiers while it is being evicted) are emitted once.
+ */
+final class MergingIterator implements Iterator<Transaction> {
+
+    private final PriorityQueue<Source> queue = new PriorityQueue<>(Comparator.comparing(source -> source.key));
+    private TransactionKey lastKey;
+    private Source ready;
+
+    void add(Iterator<Transaction> iterator) {
+        Source source = new Source(null);
+        source.iterator = iterator;
+        if (source.advance()) {
+            queue.add(source);
+        }
+    }
+
+    void addLazy(TransactionKey lowerBound, Supplier<Iterator<Transaction>> opener) {
+        Source source = new Source(opener);
+        source.key = lowerBound;
+        queue.add(source);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (ready == null && !queue.isEmpty()) {
+            Source source = queue.poll();
+            if (source.iterator == null) {
+                source.iterator = source.opener.get();
+                if (source.advance()) {
+                    queue.add(source);
+                }
+                continue;
+            }
+            if (lastKey != null && source.key.equals(lastKey)) {
+                if (source.advance()) {
+                    queue.add(source);
+                }
+                continue;
+            }
+            ready = source;
+        }
+        return ready != null;
+    }
+
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Source source = ready;
+        ready = null;
+        Transaction transaction = source.head;
+        lastKey = source.key;
+        if (source.advance()) {
+            queue.add(source);
+        }
+        return transaction;
+    }
+
+    private static final class Source {
+        private final Supplier<Iterator<Transaction>> opener;
+        private Iterator<Transaction> iterator;
+        private Transaction head;
+        private TransactionKey key;
+
+        private Source(Supplier<Iterator<Transaction>> opener) {
+            this.opener = opener;
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            head = iterator.next();
+            key = TransactionKey.of(head);
+            return true;
+        }
+    }
+}
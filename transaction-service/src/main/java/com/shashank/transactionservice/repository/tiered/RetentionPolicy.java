@@ -0,0 +1,26 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import java.time.Duration;
+
+/**
+ * When {@link TieredTransactionRepository} moves transactions from memory to cold segments.
+ *
+ * @param hotMaxCount           transactions kept in memory before the oldest are evicted; 0 disables
+ * @param hotMaxAge             age after which a transaction is evicted; {@code null} or zero disables
+ * @param segmentRecords        transactions per cold segment
+ * @param heapPressureThreshold post-GC heap occupancy (0..1) above which eviction is forced; 0 disables
+ * @param pressureEvictFraction share of the hot tier evicted when the heap pressure threshold is crossed
+ */
+public record RetentionPolicy(long hotMaxCount, Duration hotMaxAge, int segmentRecords,
+                              double heapPressureThreshold, double pressureEvictFraction) {
+
+    public RetentionPolicy {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("segmentRecords must be positive");
+        }
+    }
+
+    boolean hasMaxAge() {
+        return hotMaxAge != null && !hotMaxAge.isZero() && !hotMaxAge.isNegative();
+    }
+}
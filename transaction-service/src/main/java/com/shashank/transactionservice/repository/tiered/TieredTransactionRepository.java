@@ -0,0 +1,324 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.repository.EvictableTransactionRepository;
+import com.shashank.transactionservice.repository.TransactionKey;
+import com.shashank.transactionservice.repository.TransactionRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps a bounded hot window of transactions in another repository and archives older ones to
+ * compressed, immutable {@link ColdSegment}s on local disk.
+ * <p>
+ * Reads consult both tiers: lookups by id try the hot tier first, listings merge the two in key order.
+ * Eviction always archives the oldest hot transactions, and publishes a segment before removing its
+ * transactions from the hot tier so that a concurrent lookup by id never misses. Scans are weakly
+ * consistent with a concurrent eviction.
+ */
+public class TieredTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(TieredTransactionRepository.class);
+
+    private final EvictableTransactionRepository hot;
+    private final ColdTier cold;
+    private final RetentionPolicy policy;
+    private final Clock clock;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hotHits = new LongAdder();
+    private final LongAdder coldHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledExecutorService evictor;
+
+    public TieredTransactionRepository(EvictableTransactionRepository hot, Path directory, RetentionPolicy policy,
+                                       int cacheSegments) {
+        this(hot, directory, policy, cacheSegments, Clock.systemDefaultZone());
+    }
+
+    TieredTransactionRepository(EvictableTransactionRepository hot, Path directory, RetentionPolicy policy,
+                                int cacheSegments, Clock clock) {
+        this.hot = hot;
+        this.cold = new ColdTier(directory, cacheSegments);
+        this.policy = policy;
+        this.clock = clock;
+        log.info("Opened cold tier at {} with {} segments ({} transactions)", directory, cold.segmentCount(),
+                cold.recordCount());
+    }
+
+    /**
+     * Runs {@link #evict()} in the background every {@code interval}.
+     */
+    public void startEviction(Duration interval) {
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-tier-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            try {
+                evict();
+            } catch (RuntimeException e) {
+                log.error("Transaction eviction failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archives whatever the retention policy says no longer belongs in memory.
+     *
+     * @return the number of transactions moved to the cold tier
+     */
+    public long evict() {
+        evictionLock.lock();
+        try {
+            long remaining = evictionTarget();
+            long moved = 0;
+            while (remaining > 0) {
+                List<Transaction> batch = hot.findAfter(null, (int) Math.min(remaining, policy.segmentRecords()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                ColdSegment segment = cold.append(batch);
+                batch.forEach(transaction -> hot.deleteById(transaction.getId()));
+                remaining -= batch.size();
+                moved += batch.size();
+                log.debug("Archived {} transactions to {} ({} bytes)", segment.recordCount(), segment.path(),
+                        segment.fileBytes());
+            }
+            evicted.add(moved);
+            return moved;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private long evictionTarget() {
+        long hotCount = hot.count();
+        long target = policy.hotMaxCount() > 0 ? Math.max(0, hotCount - policy.hotMaxCount()) : 0;
+        if (policy.hasMaxAge()) {
+            LocalDateTime cutoff = LocalDateTime.now(clock).minus(policy.hotMaxAge());
+            try (Stream<Transaction> oldest = hot.streamAfter(null)) {
+                long expired = oldest.takeWhile(t -> t.getCreatedAt().isBefore(cutoff)).count();
+                target = Math.max(target, expired);
+            }
+        }
+        if (policy.heapPressureThreshold() > 0) {
+            double occupancy = heapOccupancyAfterGc();
+            if (occupancy > policy.heapPressureThreshold()) {
+                long pressured = (long) Math.ceil(hotCount * policy.pressureEvictFraction());
+                log.warn("Heap occupancy after GC is {}%; evicting {} hot transactions",
+                        Math.round(occupancy * 100), pressured);
+                target = Math.max(target, pressured);
+            }
+        }
+        return Math.min(target, hotCount);
+    }
+
+    /**
+     * Highest post-collection occupancy across the heap pools that report one (the old generation for
+     * generational collectors), so that garbage waiting to be collected does not count as pressure.
+     */
+    static double heapOccupancyAfterGc() {
+        double occupancy = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            long max = pool.getUsage().getMax();
+            if (afterGc != null && max > 0) {
+                occupancy = Math.max(occupancy, (double) afterGc.getUsed() / max);
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Whether every saved transaction at or below {@code key} is stored in a cold segment: the key is at
+     * or below the cold watermark and below every hot transaction. Saves still in progress are not seen,
+     * so a caller relying on the answer has to hold them off while it asks.
+     */
+    public boolean isArchivedThrough(TransactionKey key) {
+        evictionLock.lock();
+        try {
+            TransactionKey watermark = cold.watermark();
+            if (watermark == null || key.compareTo(watermark) > 0) {
+                return false;
+            }
+            List<Transaction> oldestHot = hot.findAfter(null, 1);
+            return oldestHot.isEmpty() || key.compareTo(TransactionKey.of(oldestHot.get(0))) < 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Transactions at or below the cold watermark that are already archived are not re-admitted to the
+     * hot tier, which keeps journal replay from resurrecting evicted transactions on every restart.
+     */
+    @Override
+    public Transaction save(Transaction transaction) {
+        TransactionKey watermark = cold.watermark();
+        if (watermark != null && TransactionKey.of(transaction).compareTo(watermark) <= 0
+                && cold.find(transaction.getId()).isPresent()) {
+            return transaction;
+        }
+        return hot.save(transaction);
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        Optional<Transaction> transaction = hot.findById(id);
+        if (transaction.isPresent()) {
+            hotHits.increment();
+            return transaction;
+        }
+        transaction = cold.find(id);
+        (transaction.isPresent() ? coldHits : misses).increment();
+        return transaction;
+    }
+
+    @Override
+    public long count() {
+        return hot.count() + cold.recordCount();
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        try (Stream<Transaction> all = streamAfter(null)) {
+            return all.toList();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(String accountId) {
+        try (Stream<Transaction> all = streamByAccountIdAfter(accountId, null)) {
+            return all.toList();
+        }
+    }
+
+    @Override
+    public List<Transaction> findAfter(TransactionKey after, int limit) {
+        try (Stream<Transaction> page = streamAfter(after)) {
+            return page.limit(limit).toList();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdAfter(String accountId, TransactionKey after, int limit) {
+        try (Stream<Transaction> page = streamByAccountIdAfter(accountId, after)) {
+            return page.limit(limit).toList();
+        }
+    }
+
+    @Override
+    public Stream<Transaction> streamAfter(TransactionKey after) {
+        return merged(null, after, hot.streamAfter(after));
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountIdAfter(String accountId, TransactionKey after) {
+        return merged(accountId, after, hot.streamByAccountIdAfter(accountId, after));
+    }
+
+    private Stream<Transaction> merged(String accountId, TransactionKey after, Stream<Transaction> hotStream) {
+        MergingIterator iterator = new MergingIterator();
+        for (ColdSegment segment : cold.segments()) {
+            if (after != null && segment.maxKey().compareTo(after) <= 0) {
+                continue;
+            }
+            if (accountId != null && !segment.mightContainAccount(accountId)) {
+                continue;
+            }
+            TransactionKey lowerBound = after != null && after.compareTo(segment.minKey()) > 0
+                    ? after
+                    : segment.minKey();
+            iterator.addLazy(lowerBound, () -> coldIterator(segment, accountId, after));
+        }
+        iterator.add(hotStream.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(hotStream::close);
+    }
+
+    private Iterator<Transaction> coldIterator(ColdSegment segment, String accountId, TransactionKey after) {
+        List<Transaction> records = cold.records(segment);
+        int start = 0;
+        if (after != null) {
+            int found = Collections.binarySearch(records, null,
+                    (record, ignored) -> TransactionKey.of(record).compareTo(after));
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+        Stream<Transaction> tail = records.subList(start, records.size()).stream();
+        if (accountId != null) {
+            tail = tail.filter(transaction -> accountId.equals(transaction.getAccountId()));
+        }
+        return tail.iterator();
+    }
+
+    public long getHotHits() {
+        return hotHits.sum();
+    }
+
+    public long getColdHits() {
+        return coldHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public long getHotCount() {
+        return hot.count();
+    }
+
+    public long getColdCount() {
+        return cold.recordCount();
+    }
+
+    public int getSegmentCount() {
+        return cold.segmentCount();
+    }
+
+    public long getSegmentBytes() {
+        return cold.totalBytes();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (hot instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.dto.AccountAggregate;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running per-account totals, updated as transactions are recorded so that a summary never has to
+ * revisit an account's history.
+ * <p>
+ * Counts and sums live in {@link LongAdder}s, which spread concurrent updates to a hot account over
+ * separate cells instead of contending on one. Sums are kept in fixed-point units of
+ * 10<sup>-{@value #SUM_SCALE}</sup>; amounts with a finer scale, or of ten billion and above, go to an
+ * exact {@link BigDecimal} remainder instead.
+ */
+class AccountAggregates {
+
+    private static final int SUM_SCALE = 4;
+
+    private static final Comparator<AccountAggregate> ORDER = Comparator
+            .comparing(AccountAggregate::getType, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AccountAggregate::getStatus, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AccountAggregate::getCurrency, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, Map<Key, Totals>> accounts = new ConcurrentHashMap<>();
+
+    void record(Transaction transaction) {
+        accounts.computeIfAbsent(transaction.getAccountId(), accountId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(new Key(transaction.getType(), transaction.getStatus(), transaction.getCurrency()),
+                        key -> new Totals())
+                .add(transaction.getAmount());
+    }
+
+    /**
+     * Cost depends on the number of type/status/currency combinations the account has used, which is
+     * bounded, not on how many transactions it has.
+     */
+    AccountSummary summarize(String accountId) {
+        Map<Key, Totals> totals = accounts.getOrDefault(accountId, Map.of());
+        List<AccountAggregate> aggregates = totals.entrySet().stream()
+                .map(entry -> entry.getValue().toAggregate(entry.getKey()))
+                .sorted(ORDER)
+                .toList();
+        return AccountSummary.builder()
+                .accountId(accountId)
+                .transactionCount(aggregates.stream().mapToLong(AccountAggregate::getCount).sum())
+                .aggregates(aggregates)
+                .build();
+    }
+
+    private record Key(TransactionType type, TransactionStatus status, String currency) {
+    }
+
+    private static final class Totals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder units = new LongAdder();
+        private final LongAccumulator maxScale = new LongAccumulator(Math::max, 0);
+        private final AtomicReference<BigDecimal> remainder = new AtomicReference<>(BigDecimal.ZERO);
+
+        private void add(BigDecimal amount) {
+            count.increment();
+            if (amount == null) {
+                return;
+            }
+            maxScale.accumulate(amount.scale());
+            if (amount.scale() <= SUM_SCALE && amount.precision() - amount.scale() < 18 - SUM_SCALE) {
+                units.add(amount.movePointRight(SUM_SCALE).longValueExact());
+            } else {
+                remainder.accumulateAndGet(amount, BigDecimal::add);
+            }
+        }
+
+        private AccountAggregate toAggregate(Key key) {
+            BigDecimal total = BigDecimal.valueOf(units.sum(), SUM_SCALE).add(remainder.get());
+            return AccountAggregate.builder()
+                    .type(key.type())
+                    .status(key.status())
+                    .currency(key.currency())
+                    .count(count.sum())
+                    .totalAmount(total.setScale((int) Math.max(0, maxScale.get())))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.model.AccountBalance;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local ledger of debits that a fetched balance may not reflect yet, so that concurrent payments and
+ * withdrawals against one account cannot all pass the funds check against the same fetched balance.
+ * <p>
+ * A debit takes a hold for its amount before it is posted to balances-service; the hold is granted only if
+ * the fetched available balance less the account's outstanding holds still covers it. A hold whose debit
+ * was not posted or not recorded is released at once. A committed one stays until a balance fetched later
+ * carries at least the version balances-service answered the debit with, and so includes it, or until
+ * {@code maxAge} has passed. Cached and replicated balances can be older than the debit for a while;
+ * versions only grow per account, so no clock needs to agree with balances-service's.
+ * <p>
+ * Accounts are spread over {@code stripes} locks by hash, so debits against different accounts rarely
+ * contend and only debits against the same account are serialized.
+ */
+public class HoldLedger {
+
+    private final ReentrantLock[] locks;
+    private final Map<String, AccountHolds>[] holdsByStripe;
+    private final long maxAgeNanos;
+    private final Clock clock;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    public HoldLedger(int stripes, Duration maxAge) {
+        this(stripes, maxAge, Clock.systemDefaultZone());
+    }
+
+    @SuppressWarnings("unchecked")
+    HoldLedger(int stripes, Duration maxAge, Clock clock) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.holdsByStripe = new Map[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            holdsByStripe[i] = new HashMap<>();
+        }
+        this.maxAgeNanos = maxAge.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Holds {@code amount} against the account, or returns null if {@code balance} less the outstanding
+     * holds does not cover it. Without a known available balance the hold is always granted.
+     */
+    public Hold tryHold(String accountId, AccountBalance balance, BigDecimal amount) {
+        int stripe = stripe(accountId);
+        locks[stripe].lock();
+        try {
+            AccountHolds holds = holdsByStripe[stripe].computeIfAbsent(accountId, id -> new AccountHolds());
+            prune(holds, balance);
+            BigDecimal available = availableBalance(balance);
+            if (available != null && available.subtract(holds.total).compareTo(amount) < 0) {
+                removeIfEmpty(stripe, accountId, holds);
+                return null;
+            }
+            Hold hold = new Hold(accountId, amount, LocalDateTime.now(clock));
+            holds.add(hold);
+            outstanding.incrementAndGet();
+            return hold;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * The available balance less outstanding holds, or null without a known available balance.
+     */
+    public BigDecimal remaining(String accountId, AccountBalance balance) {
+        BigDecimal available = availableBalance(balance);
+        if (available == null) {
+            return null;
+        }
+        int stripe = stripe(accountId);
+        locks[stripe].lock();
+        try {
+            AccountHolds holds = holdsByStripe[stripe].get(accountId);
+            return holds == null ? available : available.subtract(holds.total);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // The debit was posted and recorded; keep holding it until fetched balances include {@code debited}
+    public void commit(Hold hold, AccountBalance debited) {
+        int stripe = stripe(hold.accountId);
+        locks[stripe].lock();
+        try {
+            hold.debitVersion = debited != null ? debited.getVersion() : null;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // The debit was not recorded
+    public void release(Hold hold) {
+        int stripe = stripe(hold.accountId);
+        locks[stripe].lock();
+        try {
+            AccountHolds holds = holdsByStripe[stripe].get(hold.accountId);
+            if (holds != null && holds.remove(hold)) {
+                outstanding.decrementAndGet();
+                removeIfEmpty(stripe, hold.accountId, holds);
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    // A debit answered without a version is only dropped after maxAge
+    private void prune(AccountHolds holds, AccountBalance balance) {
+        Long version = balance != null ? balance.getVersion() : null;
+        LocalDateTime expiredBefore = LocalDateTime.now(clock).minusNanos(maxAgeNanos);
+        Iterator<Hold> iterator = holds.holds.iterator();
+        while (iterator.hasNext()) {
+            Hold hold = iterator.next();
+            boolean settled = hold.debitVersion != null && version != null && version >= hold.debitVersion;
+            if (settled || hold.createdAt.isBefore(expiredBefore)) {
+                iterator.remove();
+                holds.total = holds.total.subtract(hold.amount);
+                outstanding.decrementAndGet();
+            }
+        }
+    }
+
+    private void removeIfEmpty(int stripe, String accountId, AccountHolds holds) {
+        if (holds.holds.isEmpty()) {
+            holdsByStripe[stripe].remove(accountId);
+        }
+    }
+
+    private static BigDecimal availableBalance(AccountBalance balance) {
+        return balance != null ? balance.getAvailableBalance() : null;
+    }
+
+    private int stripe(String accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+
+    public static final class Hold {
+        private final String accountId;
+        private final BigDecimal amount;
+        private final LocalDateTime createdAt;
+        // Guarded by the account's stripe lock
+        private Long debitVersion;
+
+        private Hold(String accountId, BigDecimal amount, LocalDateTime createdAt) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class AccountHolds {
+        private final ArrayDeque<Hold> holds = new ArrayDeque<>();
+        private BigDecimal total = BigDecimal.ZERO;
+
+        private void add(Hold hold) {
+            holds.add(hold);
+            total = total.add(hold.amount);
+        }
+
+        private boolean remove(Hold hold) {
+            if (holds.remove(hold)) {
+                total = total.subtract(hold.amount);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.IdempotencyKeyConflictException;
+import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.exception.InvalidIdempotencyKeyException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of transaction requests by their {@code Idempotency-Key} so that a retried request
+ * gets the original answer instead of creating a second transaction.
+ * <p>
+ * The first request with a key runs; requests that arrive with the same key while it is in flight wait for
+ * it, and later ones replay its result for {@code ttl} after it completes. Outcomes that recorded a
+ * transaction are kept, including an insufficient-funds failure. Any other failure, such as balances-service
+ * being unavailable or an {@link Error}, frees the key so that a retry can try again. Reusing a key for a
+ * different request is rejected. The table holds at most {@code maxEntries} completed keys and drops the
+ * oldest first; keys whose request is still in flight are never dropped.
+ */
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyStore(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    IdempotencyStore(Duration ttl, int maxEntries, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoTime = nanoTime;
+    }
+
+    public TransactionResponse execute(String key, TransactionRequest request, Supplier<TransactionResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        while (true) {
+            Entry entry = new Entry(key, request);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                track(entry);
+                return run(entry, action);
+            }
+            if (existing.result.isDone() && existing.expiresAt - nanoTime.getAsLong() <= 0) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.request.equals(request)) {
+                throw new IdempotencyKeyConflictException(
+                        "Idempotency-Key " + key + " was already used for a different transaction");
+            }
+            if (existing.result.isDone()) {
+                replayed.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(existing.result);
+        }
+    }
+
+    private TransactionResponse run(Entry entry, Supplier<TransactionResponse> action) {
+        executed.increment();
+        try {
+            TransactionResponse response = action.get();
+            entry.expiresAt = nanoTime.getAsLong() + ttlNanos;
+            entry.result.complete(response);
+            return response;
+        } catch (InsufficientFundsException e) {
+            entry.expiresAt = nanoTime.getAsLong() + ttlNanos;
+            entry.result.completeExceptionally(e);
+            throw e;
+        } catch (Throwable e) {
+            // Waiters must not hang on a key that will never complete, whatever was thrown
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void track(Entry entry) {
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        // Expired and failed keys leave stale entries in the queue; trim those as well as the overflow
+        int skipped = 0;
+        while ((entries.size() > maxEntries || queued.get() > 2 * maxEntries) && skipped < queued.get()) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            // Dropping a key whose request is still running would let its retry run the request a second time
+            if (!oldest.result.isDone() && entries.get(oldest.key) == oldest) {
+                insertionOrder.add(oldest);
+                skipped++;
+                continue;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static TransactionResponse await(CompletableFuture<TransactionResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    public long getReplayed() {
+        return replayed.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final TransactionRequest request;
+        private final CompletableFuture<TransactionResponse> result = new CompletableFuture<>();
+        // Written before result completes, so whoever sees it done also sees when it expires
+        private volatile long expiresAt;
+
+        private Entry(String key, TransactionRequest request) {
+            this.key = key;
+            this.request = request;
+        }
+    }
+}
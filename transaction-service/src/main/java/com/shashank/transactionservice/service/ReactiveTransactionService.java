@@ -0,0 +1,15 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTransactionService {
+    Mono<TransactionResponse> createTransaction(TransactionRequest request);
+    Mono<TransactionResponse> getTransactionById(String id);
+    Flux<TransactionResponse> getAllTransactions();
+    Flux<TransactionResponse> getTransactionsByAccountId(String accountId);
+    Mono<AccountSummary> getAccountSummary(String accountId);
+}
@@ -0,0 +1,88 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.client.ReactiveBalanceClient;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.TransactionType;
+import io.opentelemetry.context.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Creates transactions without holding a request thread while balances-service answers: the balance lookup
+ * goes out over a {@link ReactiveBalanceClient} and the transaction is recorded once it completes. Recording
+ * and reads are delegated to {@link TransactionService}, so both variants share one repository and one set
+ * of account aggregates.
+ * <p>
+ * Recording posts the debit to balances-service and may wait for a journal group commit, neither of which
+ * may happen on an event-loop thread, so it always moves to the bounded elastic scheduler. It runs in the
+ * caller's trace context, so the debit and the journal write show up in the caller's trace.
+ */
+@Service
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private final TransactionService transactionService;
+
+    private final ReactiveBalanceClient balanceClient;
+
+    private final Scheduler recordScheduler;
+
+    @Autowired
+    public ReactiveTransactionServiceImpl(TransactionService transactionService, ReactiveBalanceClient balanceClient) {
+        this(transactionService, balanceClient, Schedulers.boundedElastic());
+    }
+
+    ReactiveTransactionServiceImpl(TransactionService transactionService, ReactiveBalanceClient balanceClient,
+                                   Scheduler recordScheduler) {
+        this.transactionService = transactionService;
+        this.balanceClient = balanceClient;
+        this.recordScheduler = recordScheduler;
+    }
+
+    @Override
+    public Mono<TransactionResponse> createTransaction(TransactionRequest request) {
+        // Only check balance for payment or withdrawal transactions
+        Mono<AccountBalance> accountBalance = isDebit(request.getType())
+                ? balanceClient.getBalance(request.getAccountId())
+                : Mono.empty();
+        Context context = Context.current();
+        return accountBalance
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .publishOn(recordScheduler)
+                .map(context.wrapFunction(balance ->
+                        transactionService.createTransaction(request, balance.orElse(null))));
+    }
+
+    @Override
+    public Mono<TransactionResponse> getTransactionById(String id) {
+        return Mono.fromCallable(() -> transactionService.getTransactionById(id));
+    }
+
+    @Override
+    public Flux<TransactionResponse> getAllTransactions() {
+        return Flux.fromStream(() -> transactionService.streamTransactions(null));
+    }
+
+    @Override
+    public Flux<TransactionResponse> getTransactionsByAccountId(String accountId) {
+        return Flux.fromStream(() -> transactionService.streamTransactionsByAccountId(accountId, null));
+    }
+
+    @Override
+    public Mono<AccountSummary> getAccountSummary(String accountId) {
+        return Mono.fromCallable(() -> transactionService.getAccountSummary(accountId));
+    }
+
+    private static boolean isDebit(TransactionType type) {
+        return type == TransactionType.PAYMENT || type == TransactionType.WITHDRAWAL;
+    }
+}
@@ -0,0 +1,41 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.exception.InvalidCursorException;
+import com.shashank.transactionservice.repository.TransactionKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes {@link TransactionKey}s as opaque, URL-safe keyset cursors.
+ */
+final class TransactionCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private TransactionCursor() {
+    }
+
+    static String encode(TransactionKey key) {
+        String raw = key.createdAt() + String.valueOf(SEPARATOR) + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionKey decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+            }
+            return new TransactionKey(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+}
@@ -1,13 +1,37 @@
 package com.shashank.transactionservice.service;
 
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionPage;
 import com.shashank.transactionservice.dto.TransactionRequest;
 import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.model.AccountBalance;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionService {
     TransactionResponse createTransaction(TransactionRequest request);
+
+    /**
+     * Applies {@code request} against a balance the caller has already looked up; {@code accountBalance} is
+     * null when no lookup was needed or balances-service did not know the account.
+     */
+    TransactionResponse createTransaction(TransactionRequest request, AccountBalance accountBalance);
+
+    /**
+     * Creates the transaction at most once per {@code idempotencyKey}; a repeat returns the original outcome.
+     */
+    TransactionResponse createTransaction(String idempotencyKey, TransactionRequest request);
+    TransactionBatchResponse createTransactions(List<TransactionRequest> requests);
     TransactionResponse getTransactionById(String id);
     List<TransactionResponse> getAllTransactions();
     List<TransactionResponse> getTransactionsByAccountId(String accountId);
+    AccountSummary getAccountSummary(String accountId);
+    TransactionPage getTransactionsBetween(LocalDateTime from, LocalDateTime to, String accountId, String after, int limit);
+    TransactionPage getTransactionsPage(String after, int limit);
+    TransactionPage getTransactionsByAccountIdPage(String accountId, String after, int limit);
+    Stream<TransactionResponse> streamTransactions(String after);
+    Stream<TransactionResponse> streamTransactionsByAccountId(String accountId, String after);
 }
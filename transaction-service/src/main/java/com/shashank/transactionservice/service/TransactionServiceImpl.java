@@ -1,78 +1,286 @@
 package com.shashank.transactionservice.service;
 
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionBatchItem;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionPage;
 import com.shashank.transactionservice.dto.TransactionRequest;
 import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.AccountNotFoundException;
 import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.exception.InvalidRangeException;
 import com.shashank.transactionservice.exception.TransactionNotFoundException;
+import com.shashank.transactionservice.logging.Logged;
 import com.shashank.transactionservice.model.AccountBalance;
 import com.shashank.transactionservice.model.Transaction;
 import com.shashank.transactionservice.model.TransactionStatus;
 import com.shashank.transactionservice.model.TransactionType;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.shashank.transactionservice.repository.TransactionKey;
+import com.shashank.transactionservice.repository.TransactionRepository;
+import io.opentelemetry.api.trace.Span;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
+
+    private static final Logger log = LogManager.getLogger(TransactionServiceImpl.class);
+
+    private final TransactionRepository transactionRepository;
+
+    private final BalanceClient balanceClient;
+
+    private final Validator validator;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final HoldLedger holdLedger;
+
+    private final AccountAggregates accountAggregates = new AccountAggregates();
     
-    // In-memory storage for transactions (replace with repository in production)
-    private final Map<String, Transaction> transactionStore = new ConcurrentHashMap<>();
-    
-    private final RestTemplate restTemplate;
-    
-    @Value("${balances.service.url:http://localhost:8081/api/balances}")
-    private String balancesServiceUrl;
+    @Value("${transactions.page.max-size:1000}")
+    private int maxPageSize = 1000;
     
-    @Autowired
-    public TransactionServiceImpl(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public TransactionServiceImpl(TransactionRepository transactionRepository, BalanceClient balanceClient,
+                                  Validator validator, IdempotencyStore idempotencyStore, HoldLedger holdLedger) {
+        this.transactionRepository = transactionRepository;
+        this.balanceClient = balanceClient;
+        this.validator = validator;
+        this.idempotencyStore = idempotencyStore;
+        this.holdLedger = holdLedger;
+        // Rebuild running totals for whatever the repository recovered on startup
+        try (Stream<Transaction> existing = transactionRepository.streamAfter(null)) {
+            existing.forEach(accountAggregates::record);
+        }
     }
 
     @Override
     public TransactionResponse createTransaction(TransactionRequest request) {
         // Only check balance for payment or withdrawal transactions
-        if (request.getType() == TransactionType.PAYMENT || 
-            request.getType() == TransactionType.WITHDRAWAL) {
-            
-            // Check if account has sufficient balance
-            AccountBalance accountBalance = checkAccountBalance(request.getAccountId());
-            
-            // Verify sufficient funds
-            if (accountBalance!=null && accountBalance.getAvailableBalance()!=null && accountBalance.getAvailableBalance().compareTo(request.getAmount()) < 0) {
-                // Create a failed transaction due to insufficient funds
-                Transaction failedTransaction = Transaction.builder()
-                        .id(UUID.randomUUID().toString())
-                        .accountId(request.getAccountId())
-                        .amount(request.getAmount())
-                        .currency(request.getCurrency())
-                        .description(request.getDescription())
-                        .type(request.getType())
-                        .status(TransactionStatus.FAILED)
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-                
-                transactionStore.put(failedTransaction.getId(), failedTransaction);
-                
-                // Throw exception with the failed transaction ID
-                throw new InsufficientFundsException(
-                        "Insufficient funds for transaction. Available balance: " + 
-                        accountBalance.getAvailableBalance() + " " + accountBalance.getCurrency() + 
-                        ", Transaction amount: " + request.getAmount() + " " + request.getCurrency() +
-                        ", Transaction ID: " + failedTransaction.getId());
+        AccountBalance accountBalance = isDebit(request.getType()) ? checkAccountBalance(request.getAccountId()) : null;
+        return createTransaction(request, accountBalance);
+    }
+
+    @Override
+    public TransactionResponse createTransaction(String idempotencyKey, TransactionRequest request) {
+        return idempotencyStore.execute(idempotencyKey, request, () -> createTransaction(request));
+    }
+
+    /**
+     * A payment or withdrawal is checked against the available balance less the holds of other debits on
+     * the account that the balance may not reflect yet, and holds its own amount from the check until
+     * fetched balances include it; see {@link HoldLedger}. It is then posted to balances-service, which
+     * has the final say on the funds, before it is recorded.
+     */
+    @Override
+    public TransactionResponse createTransaction(TransactionRequest request, AccountBalance accountBalance) {
+        if (!isDebit(request.getType())) {
+            return mapToTransactionResponse(recordTransaction(request, TransactionStatus.COMPLETED));
+        }
+        // Verify sufficient funds
+        HoldLedger.Hold hold = holdLedger.tryHold(request.getAccountId(), accountBalance, request.getAmount());
+        if (hold == null) {
+            // Create a failed transaction due to insufficient funds
+            Transaction failedTransaction = recordTransaction(request, TransactionStatus.FAILED);
+
+            // Throw exception with the failed transaction ID
+            throw new InsufficientFundsException(
+                    "Insufficient funds for transaction. Available balance: " +
+                    holdLedger.remaining(request.getAccountId(), accountBalance) + " " + accountBalance.getCurrency() +
+                    ", Transaction amount: " + request.getAmount() + " " + request.getCurrency() +
+                    ", Transaction ID: " + failedTransaction.getId());
+        }
+        Transaction transaction = recordDebit(request, hold);
+        if (transaction.getStatus() == TransactionStatus.FAILED) {
+            throw new InsufficientFundsException(
+                    "Insufficient funds for transaction. Balances service refused the debit" +
+                    ", Transaction amount: " + request.getAmount() + " " + request.getCurrency() +
+                    ", Transaction ID: " + transaction.getId());
+        }
+        return mapToTransactionResponse(transaction);
+    }
+
+    /**
+     * Items are validated individually and grouped by account. Each account's balance is looked up at
+     * most once, and only if it has a payment or withdrawal in the batch; its items are then applied in
+     * submission order against the remaining available balance, so a payment can be failed by the
+     * debits before it in the same batch or by holds of debits outside it.
+     */
+    @Logged(result = false)
+    @Override
+    public TransactionBatchResponse createTransactions(List<TransactionRequest> requests) {
+        TransactionBatchItem[] items = new TransactionBatchItem[requests.size()];
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String violations = validate(requests.get(i));
+            if (violations != null) {
+                items[i] = batchItem(i, TransactionBatchItem.Status.REJECTED, null, violations);
+            } else {
+                indexesByAccount.computeIfAbsent(requests.get(i).getAccountId(), accountId -> new ArrayList<>()).add(i);
+            }
+        }
+        indexesByAccount.forEach((accountId, indexes) -> applyAccountBatch(accountId, indexes, requests, items));
+
+        List<TransactionBatchItem> results = Arrays.asList(items);
+        return TransactionBatchResponse.builder()
+                .completed(countStatus(results, TransactionBatchItem.Status.COMPLETED))
+                .failed(countStatus(results, TransactionBatchItem.Status.FAILED))
+                .rejected(countStatus(results, TransactionBatchItem.Status.REJECTED))
+                .items(results)
+                .build();
+    }
+
+    private void applyAccountBatch(String accountId, List<Integer> indexes, List<TransactionRequest> requests,
+                                   TransactionBatchItem[] items) {
+        boolean hasDebits = indexes.stream().anyMatch(i -> isDebit(requests.get(i).getType()));
+        AccountBalance accountBalance = null;
+        String lookupError = null;
+        if (hasDebits) {
+            try {
+                accountBalance = checkAccountBalance(accountId);
+            } catch (AccountNotFoundException e) {
+                lookupError = e.getMessage();
+            } catch (RestClientException e) {
+                // Recorded so the trace is kept even though the batch itself succeeds
+                Span.current().recordException(e);
+                lookupError = "Balance service is currently unavailable: " + e.getMessage();
+            }
+        }
+        for (int index : indexes) {
+            TransactionRequest request = requests.get(index);
+            if (isDebit(request.getType())) {
+                if (lookupError != null) {
+                    items[index] = batchItem(index, TransactionBatchItem.Status.REJECTED, null, lookupError);
+                    continue;
+                }
+                HoldLedger.Hold hold = holdLedger.tryHold(accountId, accountBalance, request.getAmount());
+                if (hold == null) {
+                    Transaction failedTransaction = recordTransaction(request, TransactionStatus.FAILED);
+                    items[index] = batchItem(index, TransactionBatchItem.Status.FAILED, failedTransaction,
+                            "Insufficient funds for transaction. Remaining balance: "
+                                    + holdLedger.remaining(accountId, accountBalance));
+                    continue;
+                }
+                Transaction transaction;
+                try {
+                    transaction = recordDebit(request, hold);
+                } catch (AccountNotFoundException e) {
+                    items[index] = batchItem(index, TransactionBatchItem.Status.REJECTED, null, e.getMessage());
+                    continue;
+                } catch (RestClientException e) {
+                    Span.current().recordException(e);
+                    items[index] = batchItem(index, TransactionBatchItem.Status.REJECTED, null,
+                            "Balance service is currently unavailable: " + e.getMessage());
+                    continue;
+                }
+                items[index] = transaction.getStatus() == TransactionStatus.FAILED
+                        ? batchItem(index, TransactionBatchItem.Status.FAILED, transaction,
+                                "Insufficient funds for transaction. Balances service refused the debit")
+                        : batchItem(index, TransactionBatchItem.Status.COMPLETED, transaction, null);
+                continue;
             }
+            Transaction transaction = recordTransaction(request, TransactionStatus.COMPLETED);
+            items[index] = batchItem(index, TransactionBatchItem.Status.COMPLETED, transaction, null);
+        }
+    }
+
+    private String validate(TransactionRequest request) {
+        if (request == null) {
+            return "Transaction is required";
+        }
+        if (validator == null) {
+            return null;
+        }
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private TransactionBatchItem batchItem(int index, TransactionBatchItem.Status status, Transaction transaction,
+                                           String error) {
+        return TransactionBatchItem.builder()
+                .index(index)
+                .status(status)
+                .transaction(transaction != null ? mapToTransactionResponse(transaction) : null)
+                .error(error)
+                .build();
+    }
+
+    private static int countStatus(List<TransactionBatchItem> items, TransactionBatchItem.Status status) {
+        return (int) items.stream().filter(item -> item.getStatus() == status).count();
+    }
+
+    private static boolean isDebit(TransactionType type) {
+        return type == TransactionType.PAYMENT || type == TransactionType.WITHDRAWAL;
+    }
+
+    /**
+     * Posts the debit to balances-service and records it, as FAILED if balances-service refused it. A debit
+     * against an account balances-service does not know is not recorded and fails with
+     * {@link AccountNotFoundException}. The hold is kept until fetched balances include the debit, or
+     * released if the debit was not taken; a debit that was taken but could not be recorded is credited back.
+     */
+    private Transaction recordDebit(TransactionRequest request, HoldLedger.Hold hold) {
+        AccountBalance debited;
+        try {
+            debited = balanceClient.debit(request.getAccountId(), request.getAmount());
+        } catch (HttpClientErrorException.BadRequest e) {
+            holdLedger.release(hold);
+            return recordTransaction(request, TransactionStatus.FAILED);
+        } catch (HttpClientErrorException.NotFound e) {
+            holdLedger.release(hold);
+            throw accountNotFound(request.getAccountId());
+        } catch (RuntimeException e) {
+            holdLedger.release(hold);
+            throw e;
+        }
+        Transaction transaction;
+        try {
+            transaction = recordTransaction(request, TransactionStatus.COMPLETED);
+        } catch (RuntimeException e) {
+            creditBack(request, e);
+            holdLedger.release(hold);
+            throw e;
         }
-        
-        // Process the transaction if balance is sufficient or if it's a deposit/refund
+        holdLedger.commit(hold, debited);
+        return transaction;
+    }
+
+    private void creditBack(TransactionRequest request, RuntimeException cause) {
+        try {
+            balanceClient.credit(request.getAccountId(), request.getAmount());
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+            log.error("Could not credit back unrecorded debit of {} {} to account {}", request.getAmount(),
+                    request.getCurrency(), request.getAccountId(), e);
+        }
+    }
+
+    private Transaction recordTransaction(TransactionRequest request, TransactionStatus status) {
+        LocalDateTime now = LocalDateTime.now();
         Transaction transaction = Transaction.builder()
                 .id(UUID.randomUUID().toString())
                 .accountId(request.getAccountId())
@@ -80,47 +288,111 @@ public class TransactionServiceImpl implements TransactionService {
                 .currency(request.getCurrency())
                 .description(request.getDescription())
                 .type(request.getType())
-                .status(TransactionStatus.COMPLETED) // Mark as completed if we get here
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .status(status)
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
-        
-        transactionStore.put(transaction.getId(), transaction);
-        
-        return mapToTransactionResponse(transaction);
+        transactionRepository.save(transaction);
+        accountAggregates.record(transaction);
+        return transaction;
     }
-    
+
     private AccountBalance checkAccountBalance(String accountId) {
-        String balanceUrl = balancesServiceUrl + "/" + accountId;
-        return restTemplate.getForObject(balanceUrl, AccountBalance.class);
+        try {
+            return balanceClient.getBalance(accountId);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw accountNotFound(accountId);
+        }
+    }
+
+    private static AccountNotFoundException accountNotFound(String accountId) {
+        return new AccountNotFoundException("Account not found with id: " + accountId);
     }
 
     @Override
     public TransactionResponse getTransactionById(String id) {
-        Transaction transaction = transactionStore.get(id);
-        if (transaction == null) {
-            throw new TransactionNotFoundException("Transaction not found with id: " + id);
-        }
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found with id: " + id));
         return mapToTransactionResponse(transaction);
     }
 
     @Override
     public List<TransactionResponse> getAllTransactions() {
-        return transactionStore.values().stream()
+        return transactionRepository.findAll().stream()
                 .map(this::mapToTransactionResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<TransactionResponse> getTransactionsByAccountId(String accountId) {
-        return transactionStore.values().stream()
-                .filter(transaction -> transaction.getAccountId().equals(accountId))
+        return transactionRepository.findByAccountId(accountId).stream()
                 .map(this::mapToTransactionResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public AccountSummary getAccountSummary(String accountId) {
+        return accountAggregates.summarize(accountId);
+    }
+
+    @Logged(result = false)
+    @Override
+    public TransactionPage getTransactionsBetween(LocalDateTime from, LocalDateTime to, String accountId,
+                                                  String after, int limit) {
+        if (from.isAfter(to)) {
+            throw new InvalidRangeException("Range start " + from + " is after range end " + to);
+        }
+        int pageSize = clampPageSize(limit);
+        TransactionKey cursor = TransactionCursor.decode(after);
+        return toPage(accountId == null
+                ? transactionRepository.findBetween(from, to, cursor, pageSize + 1)
+                : transactionRepository.findByAccountIdBetween(accountId, from, to, cursor, pageSize + 1), pageSize);
+    }
+
+    @Logged(result = false)
+    @Override
+    public TransactionPage getTransactionsPage(String after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(transactionRepository.findAfter(TransactionCursor.decode(after), pageSize + 1), pageSize);
+    }
+
+    @Logged(result = false)
+    @Override
+    public TransactionPage getTransactionsByAccountIdPage(String accountId, String after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(transactionRepository.findByAccountIdAfter(accountId, TransactionCursor.decode(after), pageSize + 1),
+                pageSize);
+    }
+
+    @Override
+    public Stream<TransactionResponse> streamTransactions(String after) {
+        return transactionRepository.streamAfter(TransactionCursor.decode(after))
+                .map(this::mapToTransactionResponse);
+    }
+
+    @Override
+    public Stream<TransactionResponse> streamTransactionsByAccountId(String accountId, String after) {
+        return transactionRepository.streamByAccountIdAfter(accountId, TransactionCursor.decode(after))
+                .map(this::mapToTransactionResponse);
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    // The repository was asked for one extra row so we know whether another page exists
+    private TransactionPage toPage(List<Transaction> transactions, int pageSize) {
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> pageTransactions = hasMore ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = hasMore
+                ? TransactionCursor.encode(TransactionKey.of(pageTransactions.get(pageSize - 1)))
+                : null;
+        return TransactionPage.builder()
+                .items(pageTransactions.stream().map(this::mapToTransactionResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-    
     private TransactionResponse mapToTransactionResponse(Transaction transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
@@ -0,0 +1,42 @@
+package com.shashank.transactionservice.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.prometheus.metrics.tracer.common.SpanContext;
+
+/**
+ * Lets the Prometheus registry attach the current trace and span ids to histogram buckets as exemplars,
+ * and makes sure the traces they point to are exported.
+ * <p>
+ * Spring Boot's default only offers spans that are sampled when the measurement is taken, which under
+ * {@link AdaptiveTraceSampler} are just the baseline traces: the slow and failed ones a latency spike is
+ * made of are recorded unsampled and only kept once they end. This offers any span still recording, and
+ * marks the ones picked with the {@code exemplar} attribute, which the sampler keeps the trace for.
+ * <p>
+ * The Prometheus client asks at most once per sampling interval, 90ms by default, for each histogram, and
+ * replaces a bucket's exemplar at most once per retention period, 7s by default; every other observation
+ * costs a volatile read. That also bounds how many traces are kept as exemplars.
+ */
+public class ExemplarSpanContext implements SpanContext {
+
+    @Override
+    public String getCurrentTraceId() {
+        return Span.current().getSpanContext().getTraceId();
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        return Span.current().getSpanContext().getSpanId();
+    }
+
+    // Ended spans no longer record, so a trace whose fate is already decided is never offered
+    @Override
+    public boolean isCurrentSpanSampled() {
+        Span span = Span.current();
+        return span.getSpanContext().isSampled() || span.isRecording();
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        Span.current().setAttribute(AdaptiveTraceSampler.EXEMPLAR, AdaptiveTraceSampler.EXEMPLAR_VALUE);
+    }
+}
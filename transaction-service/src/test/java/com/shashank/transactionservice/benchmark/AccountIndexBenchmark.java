@@ -0,0 +1,67 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares per-account reads through the account index with the full scan the service used before.
+ * <p>
+ * {@code mvn test -Dtest=AccountIndexBenchmark -Dbenchmark.sizes=10000,100000,1000000,10000000 -DargLine=-Xmx12g}
+ */
+public class AccountIndexBenchmark {
+
+    private static final String TARGET_ACCOUNT = "target-account";
+    private static final int ACCOUNTS = 50_000;
+
+    @Test
+    void accountLookupLatencyStaysFlatAsStoreGrows() {
+        int iterations = BenchmarkSupport.intProperty("benchmark.iterations", 20_000);
+        for (int size : BenchmarkSupport.sizes("benchmark.sizes", "10000,100000,1000000")) {
+            InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+            List<Transaction> all = new ArrayList<>(size);
+            populate(repository, all, size);
+
+            double indexed = BenchmarkSupport.nanosPerOp(iterations, iterations,
+                    () -> repository.findByAccountId(TARGET_ACCOUNT));
+            int scanIterations = Math.max(1, iterations / Math.max(1, size / 10_000));
+            double scanned = BenchmarkSupport.nanosPerOp(scanIterations, scanIterations,
+                    () -> all.stream().filter(t -> t.getAccountId().equals(TARGET_ACCOUNT)).toList());
+
+            assertEquals(3, repository.findByAccountId(TARGET_ACCOUNT).size());
+            BenchmarkSupport.report("AccountIndexBenchmark", "store=%,d indexed=%,.0f ns/op fullScan=%,.0f ns/op",
+                    size, indexed, scanned);
+        }
+    }
+
+    private void populate(InMemoryTransactionRepository repository, List<Transaction> all, int size) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        int stride = size / 3;
+        for (int i = 0; i < size; i++) {
+            // three transactions for the target account, spread across the whole store
+            boolean target = i % stride == 0 && i / stride < 3;
+            String accountId = target ? TARGET_ACCOUNT : "account-" + (i % ACCOUNTS);
+            Transaction transaction = Transaction.builder()
+                    .id("tx-" + i)
+                    .accountId(accountId)
+                    .amount(BigDecimal.valueOf(i % 10_000, 2))
+                    .currency("USD")
+                    .type(TransactionType.DEPOSIT)
+                    .status(TransactionStatus.COMPLETED)
+                    .createdAt(base.plusNanos(i * 1_000L))
+                    .updatedAt(base.plusNanos(i * 1_000L))
+                    .build();
+            repository.save(transaction);
+            all.add(transaction);
+        }
+    }
+}
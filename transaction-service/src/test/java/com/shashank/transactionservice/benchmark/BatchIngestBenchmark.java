@@ -0,0 +1,114 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.client.RestBalanceClient;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.service.HoldLedger;
+import com.shashank.transactionservice.service.IdempotencyStore;
+import com.shashank.transactionservice.service.TransactionServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares ingesting a settlement file through {@code POST /api/transactions/batch} with posting each
+ * transaction individually. The balances-service round trip is simulated with a fixed latency.
+ * <p>
+ * {@code mvn test -Dtest=BatchIngestBenchmark -Dbenchmark.sizes=1000,10000 -Dbenchmark.accounts=100 -Dbenchmark.latencyMicros=1000}
+ */
+public class BatchIngestBenchmark {
+
+    private static final String BALANCES_URL = "http://localhost:8081/api/balances";
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void batchIngestThroughputBeatsSingleItemPath() {
+        int accounts = BenchmarkSupport.intProperty("benchmark.accounts", 100);
+        int latencyMicros = BenchmarkSupport.intProperty("benchmark.latencyMicros", 1_000);
+        for (int size : BenchmarkSupport.sizes("benchmark.sizes", "1000,10000")) {
+            List<TransactionRequest> requests = settlementFile(size, accounts);
+
+            SimulatedBalances singleBalances = new SimulatedBalances(latencyMicros);
+            TransactionServiceImpl single = newService(singleBalances);
+            long singleStart = System.nanoTime();
+            requests.forEach(single::createTransaction);
+            double singleSeconds = (System.nanoTime() - singleStart) / 1e9;
+
+            SimulatedBalances batchBalances = new SimulatedBalances(latencyMicros);
+            TransactionServiceImpl batch = newService(batchBalances);
+            long batchStart = System.nanoTime();
+            TransactionBatchResponse response = batch.createTransactions(requests);
+            double batchSeconds = (System.nanoTime() - batchStart) / 1e9;
+
+            assertEquals(size, response.getCompleted());
+            BenchmarkSupport.report("BatchIngestBenchmark",
+                    "items=%,d accounts=%d latency=%dus single=%,.0f tx/s (%,d lookups) batch=%,.0f tx/s (%,d lookups)",
+                    size, accounts, latencyMicros, size / singleSeconds, singleBalances.calls.get(),
+                    size / batchSeconds, batchBalances.calls.get());
+        }
+    }
+
+    private static TransactionServiceImpl newService(SimulatedBalances balances) {
+        return new TransactionServiceImpl(new InMemoryTransactionRepository(),
+                new RestBalanceClient(balances, BALANCES_URL), VALIDATOR,
+                new IdempotencyStore(Duration.ofMinutes(10), 10_000), new HoldLedger(256, Duration.ofMinutes(5)));
+    }
+
+    private static List<TransactionRequest> settlementFile(int size, int accounts) {
+        List<TransactionRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(TransactionRequest.builder()
+                    .accountId("account-" + (i % accounts))
+                    .amount(new BigDecimal("1.00"))
+                    .currency("USD")
+                    .type(i % 2 == 0 ? TransactionType.PAYMENT : TransactionType.DEPOSIT)
+                    .build());
+        }
+        return requests;
+    }
+
+    private static final class SimulatedBalances extends RestTemplate {
+        private final long latencyNanos;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private SimulatedBalances(int latencyMicros) {
+            this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+            calls.incrementAndGet();
+            spin();
+            return (T) AccountBalance.builder().availableBalance(new BigDecimal("1000000.00")).currency("USD").build();
+        }
+
+        // Debits are posted one by one in both modes, so they cost the same latency without being counted
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T postForObject(String url, Object request, Class<T> responseType, Object... uriVariables) {
+            spin();
+            return (T) AccountBalance.builder().availableBalance(new BigDecimal("1000000.00")).currency("USD").build();
+        }
+
+        private void spin() {
+            long deadline = System.nanoTime() + latencyNanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.shashank.transactionservice.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing helpers shared by the {@code *Benchmark} classes.
+ * <p>
+ * Benchmarks are plain JUnit classes that surefire skips by default because of their name; run one
+ * explicitly, for example {@code mvn test -Dtest=AccountIndexBenchmark}. Sizes and iteration counts are
+ * read from system properties so large runs can be requested together with a bigger heap
+ * ({@code -DargLine=-Xmx8g}).
+ */
+final class BenchmarkSupport {
+
+    private static volatile Object sink;
+
+    private BenchmarkSupport() {
+    }
+
+    static List<Integer> sizes(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+    }
+
+    static int intProperty(String property, int defaultValue) {
+        return Integer.getInteger(property, defaultValue);
+    }
+
+    /**
+     * Runs {@code operation} for {@code warmup} untimed iterations and then {@code iterations} timed ones.
+     *
+     * @return mean nanoseconds per operation
+     */
+    static double nanosPerOp(int warmup, int iterations, Supplier<?> operation) {
+        for (int i = 0; i < warmup; i++) {
+            sink = operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+    static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static void report(String benchmark, String format, Object... args) {
+        System.out.printf("[%s] " + format + "%n", prepend(benchmark, args));
+    }
+
+    private static Object[] prepend(Object first, Object[] rest) {
+        Object[] all = new Object[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
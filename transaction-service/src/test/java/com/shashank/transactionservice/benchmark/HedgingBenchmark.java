@@ -0,0 +1,77 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.client.HedgingBalanceClient;
+import com.shashank.transactionservice.client.LookupBalanceClient;
+import com.shashank.transactionservice.model.AccountBalance;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares balance lookup latency with and without hedging against a simulated balances-service that
+ * answers in {@code benchmark.fastMillis} but occasionally ({@code benchmark.slowPercent}) takes
+ * {@code benchmark.slowMillis}.
+ * <p>
+ * {@code mvn test -Dtest=HedgingBenchmark -Dbenchmark.lookups=2000 -Dbenchmark.slowPercent=3}
+ */
+public class HedgingBenchmark {
+
+    @Test
+    void hedgingCutsTailLatency() {
+        int lookups = BenchmarkSupport.intProperty("benchmark.lookups", 2_000);
+        int fastMillis = BenchmarkSupport.intProperty("benchmark.fastMillis", 2);
+        int slowMillis = BenchmarkSupport.intProperty("benchmark.slowMillis", 200);
+        int slowPercent = BenchmarkSupport.intProperty("benchmark.slowPercent", 3);
+        LookupBalanceClient service = accountId -> simulatedLookup(accountId, fastMillis, slowMillis, slowPercent);
+
+        long[] direct = measure(service, lookups);
+        try (HedgingBalanceClient hedging = new HedgingBalanceClient(service, 0.95, Duration.ofMillis(1), 1_000,
+                0.1, 10, 64)) {
+            measure(hedging, 200);
+            long[] hedged = measure(hedging, lookups);
+            report("direct", direct, 0, 0);
+            report("hedged", hedged, hedging.getHedgesSent(), hedging.getHedgesWon());
+        }
+    }
+
+    private static long[] measure(BalanceClient client, int lookups) {
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            client.getBalance("account-" + i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String mode, long[] sorted, long hedgesSent, long hedgesWon) {
+        BenchmarkSupport.report("HedgingBenchmark", "%s p50=%.1fms p99=%.1fms p99.9=%.1fms hedges sent=%d won=%d",
+                mode, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                hedgesSent, hedgesWon);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static AccountBalance simulatedLookup(String accountId, int fastMillis, int slowMillis, int slowPercent) {
+        int millis = ThreadLocalRandom.current().nextInt(100) < slowPercent ? slowMillis : fastMillis;
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.service.HoldLedger;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hold-and-settle throughput of {@link HoldLedger} as threads are added, with every thread debiting its
+ * own account or all of them debiting one. With one stripe every debit is serialized; with many, debits
+ * on distinct accounts should scale with the cores available while one hot account stays serialized.
+ * <p>
+ * {@code mvn test -Dtest=HoldLedgerBenchmark -Dbenchmark.threads=1,2,4,8 -Dbenchmark.operations=1000000}
+ */
+public class HoldLedgerBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    // Every fetched or debited balance is a later version, as when each debit is posted
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    @Test
+    void distinctAccountsScaleWithStripes() throws Exception {
+        int operations = BenchmarkSupport.intProperty("benchmark.operations", 1_000_000);
+        for (int stripes : new int[]{1, 256}) {
+            for (boolean sharedAccount : new boolean[]{false, true}) {
+                for (int threads : BenchmarkSupport.sizes("benchmark.threads", "1,2,4,8")) {
+                    double seconds = run(new HoldLedger(stripes, Duration.ofMinutes(5)), threads, operations,
+                            sharedAccount);
+                    BenchmarkSupport.report("HoldLedgerBenchmark",
+                            "stripes=%-4d accounts=%-9s threads=%-2d throughput=%,12.0f holds/s",
+                            stripes, sharedAccount ? "shared" : "distinct", threads, operations / seconds);
+                }
+            }
+        }
+    }
+
+    /**
+     * Each operation takes a hold, commits it and then settles it with a balance fetched afterwards, so
+     * the ledger stays small and the cost measured is the locking around the check.
+     */
+    private static double run(HoldLedger ledger, int threads, int operations, boolean sharedAccount)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        int perThread = operations / threads;
+        for (int t = 0; t < threads; t++) {
+            String accountId = sharedAccount ? "account-0" : "account-" + t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                AccountBalance balance = balance(accountId);
+                for (int i = 0; i < perThread; i++) {
+                    HoldLedger.Hold hold = ledger.tryHold(accountId, balance, AMOUNT);
+                    if (hold != null) {
+                        ledger.commit(hold, balance(accountId));
+                    }
+                    if ((i & 63) == 63) {
+                        balance = balance(accountId);
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+        return seconds;
+    }
+
+    private static AccountBalance balance(String accountId) {
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("1000000000.00"))
+                .currency("USD")
+                .lastUpdated(LocalDateTime.now())
+                .version(VERSIONS.addAndGet(2))
+                .build();
+    }
+}
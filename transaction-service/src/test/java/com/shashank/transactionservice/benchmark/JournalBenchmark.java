@@ -0,0 +1,76 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.repository.journal.JournalingTransactionRepository;
+import com.shashank.transactionservice.repository.journal.RecoveryResult;
+import com.shashank.transactionservice.repository.journal.TransactionJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures journal append latency and the time to recover a few million records on startup.
+ * <p>
+ * {@code mvn test -Dtest=JournalBenchmark -Dbenchmark.records=5000000 -DargLine=-Xmx8g}
+ */
+public class JournalBenchmark {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendLatencyAndRecoveryTime() {
+        int records = BenchmarkSupport.intProperty("benchmark.records", 2_000_000);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        long appendNanos;
+        try (TransactionJournal journal = openJournal()) {
+            journal.recover(t -> { });
+            long start = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                journal.append(createTransaction(i, base));
+            }
+            appendNanos = System.nanoTime() - start;
+        }
+        BenchmarkSupport.report("JournalBenchmark", "appended %,d records, %.2f us/append", records,
+                appendNanos / 1_000.0 / records);
+
+        try (TransactionJournal journal = openJournal()) {
+            JournalingTransactionRepository repository =
+                    new JournalingTransactionRepository(new InMemoryTransactionRepository(), journal);
+            RecoveryResult result = repository.recover();
+            assertEquals(records, result.records());
+            BenchmarkSupport.report("JournalBenchmark", "recovered %,d records from %d segments in %,d ms",
+                    result.records(), result.segments(), result.duration().toMillis());
+        }
+    }
+
+    private TransactionJournal openJournal() {
+        return new TransactionJournal(directory, 64 * 1024 * 1024, Duration.ofMillis(10), 256, false, 0);
+    }
+
+    private Transaction createTransaction(int i, LocalDateTime base) {
+        LocalDateTime createdAt = base.plusNanos(i * 1_000L);
+        return Transaction.builder()
+                .id(UUID.randomUUID().toString())
+                .accountId("account-" + (i % 100_000))
+                .amount(BigDecimal.valueOf(i % 100_000, 2))
+                .currency("USD")
+                .description("Benchmark transaction")
+                .type(TransactionType.PAYMENT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+}
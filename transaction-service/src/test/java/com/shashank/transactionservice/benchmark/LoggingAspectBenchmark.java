@@ -0,0 +1,176 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.logging.LoggingAspect;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-call cost of the {@link LoggingAspect} advice against the advice it replaced, which rendered every
+ * argument and result in full whenever debug was on. Calls go through a Spring AOP proxy with a real
+ * {@link MethodInvocationProceedingJoinPoint}, and log events go to an appender that only counts them, so
+ * the figures are the aspect's own overhead without any appender I/O. Each advice is measured on a
+ * lookup returning one transaction and a listing returning {@code benchmark.transactions} of them, with
+ * debug on and off.
+ * <p>
+ * {@code mvn test -Dtest=LoggingAspectBenchmark -Dbenchmark.iterations=200000}
+ */
+public class LoggingAspectBenchmark {
+
+    private static final Logger legacyLog = LogManager.getLogger("benchmark.LegacyLoggingAspect");
+
+    @Test
+    void perCallOverhead() {
+        int iterations = BenchmarkSupport.intProperty("benchmark.iterations", 200_000);
+        int transactions = BenchmarkSupport.intProperty("benchmark.transactions", 200);
+        LongAdder events = new LongAdder();
+        org.apache.logging.log4j.core.Logger aspectLogger =
+                silence(LogManager.getLogger(LoggingAspect.class), events);
+        org.apache.logging.log4j.core.Logger legacyLogger = silence(legacyLog, events);
+
+        Transactions target = new Transactions(transactions);
+        Transactions legacy = proxy(target, LoggingAspectBenchmark::legacyAround);
+        LoggingAspect production = new LoggingAspect();
+        Transactions sampled = proxy(target, production::logAround);
+        LoggingAspect verbose = new LoggingAspect();
+        ReflectionTestUtils.setField(verbose, "mode", LoggingAspect.Mode.VERBOSE);
+        Transactions everyCall = proxy(target, verbose::logAround);
+
+        for (Level level : new Level[]{Level.DEBUG, Level.INFO}) {
+            aspectLogger.setLevel(level);
+            legacyLogger.setLevel(level);
+            measure(level, "none (direct call)", iterations, target);
+            measure(level, "legacy", iterations, legacy);
+            measure(level, "verbose", iterations, everyCall);
+            measure(level, "production 1%", iterations, sampled);
+        }
+        BenchmarkSupport.report("LoggingAspectBenchmark", "log events=%,d", events.sum());
+    }
+
+    private static void measure(Level level, String advice, int iterations, Transactions transactions) {
+        for (boolean listing : new boolean[]{false, true}) {
+            Supplier<?> call = listing ? () -> transactions.byAccount("ACC-1") : () -> transactions.byId("TX-1");
+            long allocatedBefore = allocatedBytes();
+            double nanos = BenchmarkSupport.nanosPerOp(iterations / 4, iterations, call);
+            double bytes = (allocatedBytes() - allocatedBefore) / (iterations * 1.25);
+            BenchmarkSupport.report("LoggingAspectBenchmark",
+                    "level=%-5s advice=%-18s call=%-7s %,10.0f ns/op %,10.0f B/op", level, advice, listing ? "listing" : "lookup", nanos, bytes);
+        }
+    }
+
+    // The advice as it was before call sites were cached and rendering was sampled and capped
+    private static Object legacyAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (legacyLog.isDebugEnabled()) {
+            legacyLog.debug("Enter: {}.{}() with arguments = {}", joinPoint.getSignature().getDeclaringTypeName(),
+                    joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        }
+        try {
+            Object result = joinPoint.proceed();
+            if (legacyLog.isDebugEnabled()) {
+                legacyLog.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
+                        joinPoint.getSignature().getName(), result);
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            legacyLog.error("Illegal argument: {} in {}.{}()", Arrays.toString(joinPoint.getArgs()),
+                    joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
+            throw e;
+        }
+    }
+
+    private interface Advice {
+        Object around(ProceedingJoinPoint joinPoint) throws Throwable;
+    }
+
+    // Wraps the target the way Spring applies an @Around advice
+    private static Transactions proxy(Transactions target, Advice advice) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation ->
+                advice.around(new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation)));
+        return (Transactions) factory.getProxy();
+    }
+
+    // Sends the logger's events to an appender that counts them and nothing else
+    private static org.apache.logging.log4j.core.Logger silence(Logger logger, LongAdder events) {
+        org.apache.logging.log4j.core.Logger coreLogger = (org.apache.logging.log4j.core.Logger) logger;
+        AbstractAppender counter = new AbstractAppender("count-" + logger.getName(), null, null, true,
+                Property.EMPTY_ARRAY) {
+            @Override
+            public void append(LogEvent event) {
+                // Formatting is part of what the old advice paid on every call
+                event.getMessage().getFormattedMessage();
+                events.increment();
+            }
+        };
+        counter.start();
+        coreLogger.getAppenders().values().forEach(coreLogger::removeAppender);
+        coreLogger.addAppender(counter);
+        coreLogger.setAdditive(false);
+        return coreLogger;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    public static class Transactions {
+
+        private final TransactionResponse single;
+        private final List<TransactionResponse> list;
+
+        public Transactions() {
+            this(1);
+        }
+
+        Transactions(int size) {
+            List<TransactionResponse> transactions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                transactions.add(TransactionResponse.builder()
+                        .id("TX-" + i)
+                        .accountId("ACC-1")
+                        .amount(new BigDecimal("12.34"))
+                        .currency("USD")
+                        .description("Benchmark transaction " + i)
+                        .type(TransactionType.PAYMENT)
+                        .status(TransactionStatus.COMPLETED)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+            }
+            this.single = transactions.get(0);
+            this.list = List.copyOf(transactions);
+        }
+
+        public TransactionResponse byId(String id) {
+            return single;
+        }
+
+        public List<TransactionResponse> byAccount(String accountId) {
+            return list;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.logging.RingBufferAppender;
+import com.shashank.transactionservice.logging.StructuredJsonLayout;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.FileAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.layout.JsonLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a request thread pays per log call: the synchronous file appender with {@code JsonLayout} this
+ * service used to have, against the {@link RingBufferAppender} in front of a file appender with
+ * {@link StructuredJsonLayout} that only flushes at the end of each batch. Both write real files, and
+ * allocation is measured on the logging thread only.
+ * <p>
+ * {@code mvn test -Dtest=LoggingPipelineBenchmark -Dbenchmark.iterations=200000}
+ */
+public class LoggingPipelineBenchmark {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void perCallCost() {
+        int iterations = BenchmarkSupport.intProperty("benchmark.iterations", 200_000);
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        Configuration configuration = context.getConfiguration();
+
+        Appender legacyFile = FileAppender.newBuilder()
+                .setName("benchmark-json")
+                .withFileName(directory.resolve("legacy.log").toString())
+                .setLayout(JsonLayout.newBuilder().setCompact(true).setEventEol(true).setProperties(true)
+                        .setStacktraceAsString(true).setConfiguration(configuration).build())
+                .setConfiguration(configuration)
+                .build();
+        Appender structuredFile = FileAppender.newBuilder()
+                .setName("benchmark-structured")
+                .withFileName(directory.resolve("structured.log").toString())
+                .withImmediateFlush(false)
+                .setLayout(StructuredJsonLayout.createLayout(configuration, StandardCharsets.UTF_8,
+                        "transaction-service"))
+                .setConfiguration(configuration)
+                .build();
+        legacyFile.start();
+        structuredFile.start();
+        configuration.addAppender(structuredFile);
+        RingBufferAppender ring = RingBufferAppender.newBuilder()
+                .setName("benchmark-ring")
+                .setConfiguration(configuration)
+                .setAppenderRefs(AppenderRef.createAppenderRef("benchmark-structured", null, null))
+                .setSize(BenchmarkSupport.intProperty("benchmark.ringSize", 8192))
+                .setOverflowPolicy(RingBufferAppender.OverflowPolicy.BLOCK)
+                .build();
+        ring.start();
+
+        measure("sync JsonLayout", iterations, logger("benchmark.pipeline.sync", legacyFile));
+        measure("ring StructuredJson", iterations, logger("benchmark.pipeline.ring", ring));
+        ring.stop(5, TimeUnit.SECONDS);
+        BenchmarkSupport.report("LoggingPipelineBenchmark", "ring blocked=%,d dropped=%,d",
+                ring.getBlocked(), ring.getDropped());
+        structuredFile.stop();
+        legacyFile.stop();
+        configuration.getAppenders().remove("benchmark-structured");
+    }
+
+    private static void measure(String pipeline, int iterations, Logger logger) {
+        long allocatedBefore = allocatedBytes();
+        // Arguments are created up front, so the figures are the pipeline's and not boxing's
+        Object amount = new BigDecimal("12.34");
+        double nanos = BenchmarkSupport.nanosPerOp(iterations / 4, iterations, () -> {
+            logger.info("Created transaction {} for account {} amount {}", "TX-1", "ACC-1", amount);
+            return null;
+        });
+        double bytes = (allocatedBytes() - allocatedBefore) / (iterations * 1.25);
+        BenchmarkSupport.report("LoggingPipelineBenchmark", "pipeline=%-20s %,10.0f ns/op %,10.1f B/op",
+                pipeline, nanos, bytes);
+    }
+
+    private static Logger logger(String name, Appender appender) {
+        Logger logger = (Logger) LogManager.getLogger(name);
+        logger.getAppenders().values().forEach(logger::removeAppender);
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        return logger;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
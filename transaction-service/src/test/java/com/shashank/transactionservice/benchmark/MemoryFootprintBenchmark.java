@@ -0,0 +1,77 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.repository.TransactionRepository;
+import com.shashank.transactionservice.repository.compact.CompactTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Heap (and direct memory) retained per transaction by the heap map store versus the compact store.
+ * Descriptions carry a payment reference, as settlement files do, so most are unique; one in five is
+ * empty. {@code benchmark.descriptions} caps the number of distinct ones.
+ * <p>
+ * {@code mvn test -Dtest=MemoryFootprintBenchmark -Dbenchmark.records=2000000 -DargLine=-Xmx4g}
+ */
+public class MemoryFootprintBenchmark {
+
+    @Test
+    void bytesPerTransaction() {
+        int records = BenchmarkSupport.intProperty("benchmark.records", 1_000_000);
+        int descriptions = BenchmarkSupport.intProperty("benchmark.descriptions", records);
+        double heap = measure("heap map", records, descriptions, InMemoryTransactionRepository::new);
+        double compact = measure("compact", records, descriptions,
+                () -> new CompactTransactionRepository(false, 65_536));
+        double offHeap = measure("compact off-heap", records, descriptions,
+                () -> new CompactTransactionRepository(true, 65_536));
+        BenchmarkSupport.report("MemoryFootprintBenchmark", "compact is %.1fx denser than the heap map (%.1fx off-heap, heap only)",
+                heap / compact, heap / offHeap);
+    }
+
+    private double measure(String name, int records, int descriptions, Supplier<TransactionRepository> factory) {
+        long heapBefore = BenchmarkSupport.usedHeapBytes();
+        long directBefore = directBytes();
+        TransactionRepository repository = factory.get();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < records; i++) {
+            LocalDateTime createdAt = base.plusNanos(i * 1_000L);
+            repository.save(Transaction.builder()
+                    .id(UUID.randomUUID().toString())
+                    // fresh String instances, as they would be after JSON deserialisation
+                    .accountId(new String("account-" + (i % 100_000)))
+                    .amount(BigDecimal.valueOf(i % 1_000_000, 2))
+                    .currency(new String("USD"))
+                    .description(i % 5 == 4 ? null : "Card payment ref " + (100_000_000 + i % descriptions))
+                    .type(TransactionType.PAYMENT)
+                    .status(TransactionStatus.COMPLETED)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        long heapBytes = BenchmarkSupport.usedHeapBytes() - heapBefore;
+        long directBytes = directBytes() - directBefore;
+        double heapPerRecord = heapBytes / (double) records;
+        BenchmarkSupport.report("MemoryFootprintBenchmark", "%-16s %,d records: %.0f heap bytes/tx, %.0f direct bytes/tx",
+                name, records, heapPerRecord, directBytes / (double) records);
+        if (repository.findAll().isEmpty()) {
+            throw new IllegalStateException("repository must stay reachable until measured");
+        }
+        return heapPerRecord;
+    }
+
+    private static long directBytes() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,63 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares creation-time range reads through the timeline index with filtering a full listing, which is
+ * what clients had to do before {@code GET /api/transactions?from=&to=} existed.
+ * <p>
+ * {@code mvn test -Dtest=RangeQueryBenchmark -Dbenchmark.sizes=10000,100000,1000000,10000000 -DargLine=-Xmx12g}
+ */
+public class RangeQueryBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int RANGE_SIZE = 100;
+
+    @Test
+    void rangeLatencyTracksResultSizeNotStoreSize() {
+        int iterations = BenchmarkSupport.intProperty("benchmark.iterations", 20_000);
+        for (int size : BenchmarkSupport.sizes("benchmark.sizes", "10000,100000,1000000")) {
+            InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+            for (int i = 0; i < size; i++) {
+                repository.save(createTransaction(i));
+            }
+            // one transaction per millisecond, so the range sits in the middle of the store and holds RANGE_SIZE rows
+            LocalDateTime from = BASE.plusNanos(size / 2 * 1_000_000L);
+            LocalDateTime to = from.plusNanos(RANGE_SIZE * 1_000_000L);
+
+            double indexed = BenchmarkSupport.nanosPerOp(iterations, iterations,
+                    () -> repository.findBetween(from, to, null, RANGE_SIZE));
+            int scanIterations = Math.max(1, iterations / Math.max(1, size / 1_000));
+            double scanned = BenchmarkSupport.nanosPerOp(scanIterations, scanIterations,
+                    () -> repository.findAll().stream()
+                            .filter(t -> !t.getCreatedAt().isBefore(from) && t.getCreatedAt().isBefore(to))
+                            .toList());
+
+            assertEquals(RANGE_SIZE, repository.findBetween(from, to, null, Integer.MAX_VALUE).size());
+            BenchmarkSupport.report("RangeQueryBenchmark", "store=%,d range=%d indexed=%,.0f ns/op fullScan=%,.0f ns/op",
+                    size, RANGE_SIZE, indexed, scanned);
+        }
+    }
+
+    private static Transaction createTransaction(int i) {
+        return Transaction.builder()
+                .id("tx-" + i)
+                .accountId("account-" + (i % 1_000))
+                .amount(BigDecimal.valueOf(i % 10_000, 2))
+                .currency("USD")
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(BASE.plusNanos(i * 1_000_000L))
+                .updatedAt(BASE.plusNanos(i * 1_000_000L))
+                .build();
+    }
+}
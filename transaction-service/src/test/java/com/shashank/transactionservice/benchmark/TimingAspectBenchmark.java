@@ -0,0 +1,78 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.shashank.transactionservice.logging.TimingAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-call cost of {@link TimingAspect} recording into a Prometheus registry, against a proxy whose advice
+ * only proceeds, and the cost of recording alone. Bytes per call come from the thread's allocation counter;
+ * the proxy and its join point allocate on every call whatever the advice does, so the aspect's own share
+ * is the difference between the first two rows.
+ * <p>
+ * {@code mvn test -Dtest=TimingAspectBenchmark -Dbenchmark.iterations=1000000}
+ */
+public class TimingAspectBenchmark {
+
+    @Test
+    void perCallOverhead() {
+        int iterations = BenchmarkSupport.intProperty("benchmark.iterations", 1_000_000);
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        Target target = new Target();
+        TimingAspect aspect = new TimingAspect(meterRegistry);
+        Target timed = proxy(target, aspect::time);
+        Target untimed = proxy(target, ProceedingJoinPoint::proceed);
+        Timer timer = Timer.builder("benchmark.timer").publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+
+        measure("proxy, advice only proceeds", iterations, () -> untimed.work(1));
+        measure("proxy, TimingAspect", iterations, () -> timed.work(1));
+        measure("Timer.record alone", iterations, () -> {
+            timer.record(42, TimeUnit.NANOSECONDS);
+            return null;
+        });
+        BenchmarkSupport.report("TimingAspectBenchmark", "%s",
+                meterRegistry.get("method.duration").timer().takeSnapshot());
+    }
+
+    private static void measure(String name, int iterations, Supplier<?> call) {
+        long allocatedBefore = allocatedBytes();
+        double nanos = BenchmarkSupport.nanosPerOp(iterations / 4, iterations, call);
+        double bytes = (allocatedBytes() - allocatedBefore) / (iterations * 1.25);
+        BenchmarkSupport.report("TimingAspectBenchmark", "%-28s %,8.0f ns/op %,8.1f B/op", name, nanos, bytes);
+    }
+
+    private interface Advice {
+        Object around(ProceedingJoinPoint joinPoint) throws Throwable;
+    }
+
+    private static Target proxy(Target target, Advice advice) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation ->
+                advice.around(new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation)));
+        return (Target) factory.getProxy();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    public static class Target {
+
+        public Integer work(int value) {
+            return value;
+        }
+    }
+}
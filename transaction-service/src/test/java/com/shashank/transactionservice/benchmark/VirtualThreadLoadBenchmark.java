@@ -0,0 +1,210 @@
+package com.shashank.transactionservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shashank.transactionservice.TransactionServiceApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares transaction-service throughput and latency with request handling on Tomcat platform threads
+ * against {@code spring.threads.virtual.enabled=true}. Each level fires {@code concurrency} simultaneous
+ * {@code POST /api/transactions} requests whose balance lookup and debit go to a stub balances-service that
+ * holds every call for {@code benchmark.latencyMillis}. Every transaction must come back {@code COMPLETED}.
+ * <p>
+ * Needs a Java 21 runtime, and roughly four file descriptors per concurrent request (client, server,
+ * outbound and stub sockets), so 10k concurrency needs {@code ulimit -n} above 40000.
+ * <p>
+ * {@code mvn test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark.concurrency=1000,2000,10000 -Dbenchmark.latencyMillis=100}
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final String REQUEST_BODY =
+            "{\"accountId\":\"account-%d\",\"amount\":10.00,\"currency\":\"USD\",\"type\":\"PAYMENT\"}";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void virtualThreadsSustainHigherConcurrencyThanPlatformThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a Java 21 runtime");
+        List<Integer> levels = BenchmarkSupport.sizes("benchmark.concurrency", "1000,2000");
+        int latencyMillis = BenchmarkSupport.intProperty("benchmark.latencyMillis", 100);
+        int rounds = BenchmarkSupport.intProperty("benchmark.rounds", 3);
+        int maxConcurrency = levels.stream().mapToInt(Integer::intValue).max().orElseThrow();
+
+        HttpServer balances = stubBalances(latencyMillis);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(new VirtualThreadTaskExecutor("load-client-"))
+                .build();
+        try {
+            for (boolean virtual : new boolean[]{false, true}) {
+                ConfigurableApplicationContext context = start(virtual, balances.getAddress().getPort(), maxConcurrency);
+                try {
+                    URI uri = URI.create("http://localhost:"
+                            + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/transactions");
+                    fire(client, uri, Math.min(maxConcurrency, 500));
+                    for (int concurrency : levels) {
+                        long[] latencies = new long[concurrency * rounds];
+                        long start = System.nanoTime();
+                        for (int round = 0; round < rounds; round++) {
+                            long[] roundLatencies = fire(client, uri, concurrency);
+                            System.arraycopy(roundLatencies, 0, latencies, round * concurrency, concurrency);
+                        }
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        Arrays.sort(latencies);
+                        BenchmarkSupport.report("VirtualThreadLoadBenchmark",
+                                "threads=%-8s concurrency=%,6d latency=%dms throughput=%,8.0f req/s p50=%,6.0fms p99=%,6.0fms",
+                                virtual ? "virtual" : "platform", concurrency, latencyMillis,
+                                latencies.length / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+                    }
+                } finally {
+                    context.close();
+                }
+            }
+        } finally {
+            balances.stop(0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int balancesPort, int maxConcurrency) {
+        return new SpringApplicationBuilder(TransactionServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.max-connections=" + (maxConcurrency * 2),
+                        "server.tomcat.accept-count=" + maxConcurrency,
+                        "balances.service.url=http://localhost:" + balancesPort + "/api/balances",
+                        "balances.client.cache.enabled=false",
+                        "balances.client.batch.enabled=false",
+                        "balances.client.http.mode=pooled",
+                        "balances.client.http.read-timeout=60s",
+                        "balances.client.http.pool.acquire-timeout=60s",
+                        "balances.client.http.pool.max-total=" + maxConcurrency,
+                        "balances.client.http.pool.max-per-route=" + maxConcurrency,
+                        "otel.sdk.disabled=true",
+                        "logging.level.root=warn",
+                        "logging.level.com.shashank.transactionservice=warn")
+                .run();
+    }
+
+    /**
+     * Sends {@code concurrency} requests at once and returns each one's latency in nanoseconds.
+     */
+    private static long[] fire(HttpClient client, URI uri, int concurrency) {
+        long[] latencies = new long[concurrency];
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger failedTransactions = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMinutes(2))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(REQUEST_BODY.formatted(i % 1_000)))
+                    .build();
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latencies[slot] = System.nanoTime() - start;
+                        if (error != null || response.statusCode() != 201) {
+                            failures.incrementAndGet();
+                        } else if (response.body().contains("\"status\":\"FAILED\"")) {
+                            failedTransactions.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        assertEquals(0, failures.get(), "failed requests");
+        assertEquals(0, failedTransactions.get(), "transactions recorded FAILED");
+        return latencies;
+    }
+
+    /**
+     * Answers {@code GET /api/balances/{id}} and {@code POST /api/balances/{id}/debits} after
+     * {@code latencyMillis}. Like balances-service, each debit takes the amount off the account and bumps its
+     * version.
+     */
+    private static HttpServer stubBalances(int latencyMillis) throws IOException {
+        Map<String, StubAccount> accounts = new ConcurrentHashMap<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(new VirtualThreadTaskExecutor("balances-stub-"));
+        server.createContext("/api/balances", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath().substring("/api/balances/".length());
+            String json;
+            if ("POST".equals(exchange.getRequestMethod()) && path.endsWith("/debits")) {
+                String accountNumber = path.substring(0, path.length() - "/debits".length());
+                BigDecimal amount = MAPPER.readTree(exchange.getRequestBody()).get("amount").decimalValue();
+                json = accounts.computeIfAbsent(accountNumber, StubAccount::new).debit(amount);
+            } else {
+                json = accounts.computeIfAbsent(path, StubAccount::new).toJson();
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static final class StubAccount {
+
+        private final String accountNumber;
+
+        private BigDecimal availableBalance = new BigDecimal("100000.00");
+
+        private long version = 1;
+
+        StubAccount(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        synchronized String debit(BigDecimal amount) {
+            availableBalance = availableBalance.subtract(amount);
+            version++;
+            return toJson();
+        }
+
+        synchronized String toJson() {
+            return "{\"accountNumber\":\"" + accountNumber + "\",\"availableBalance\":" + availableBalance
+                    + ",\"currency\":\"USD\",\"version\":" + version + "}";
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,137 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimitBalanceClientTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong(Duration.ofMillis(10).toNanos());
+    private final AtomicBoolean timingOut = new AtomicBoolean();
+
+    @Test
+    void getBalance_OverLimit_RejectsWithoutCalling() throws Exception {
+        // Arrange
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient((LookupBalanceClient) accountId -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return balance(accountId);
+        }, 1, 1, 10, 1.5, 0.9, 0.2, now::get);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> client.getBalance("account-1"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Act
+            BalanceCallRejectedException rejection = assertThrows(BalanceCallRejectedException.class,
+                    () -> client.getBalance("account-2"));
+
+            // Assert
+            assertEquals(BalanceCallRejectedException.Reason.LIMIT_EXCEEDED, rejection.getReason());
+            assertEquals(1, client.getRejected());
+            assertEquals(1, client.getInFlight());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void onSample_SteadyLatencyAtLimit_GrowsLimit() {
+        // Arrange
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient((LookupBalanceClient) this::timedLookup,
+                20, 4, 200, 1.5, 0.9, 0.2, now::get);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            client.onSample(Duration.ofMillis(10).toNanos(), client.getLimit(), false);
+        }
+
+        // Assert
+        assertTrue(client.getLimit() > 40, "limit grew to " + client.getLimit());
+    }
+
+    @Test
+    void onSample_FewCallsInFlight_LeavesLimitAlone() {
+        // Arrange
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient((LookupBalanceClient) this::timedLookup,
+                20, 4, 200, 1.5, 0.9, 0.2, now::get);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            client.onSample(Duration.ofMillis(10).toNanos(), 5, false);
+        }
+
+        // Assert
+        assertEquals(20, client.getLimit());
+    }
+
+    @Test
+    void onSample_LatencyRisesAtLimit_ShrinksLimit() {
+        // Arrange
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient((LookupBalanceClient) this::timedLookup,
+                100, 4, 200, 1.5, 0.9, 0.2, now::get);
+        for (int i = 0; i < 100; i++) {
+            client.onSample(Duration.ofMillis(10).toNanos(), 100, false);
+        }
+        int fastLimit = client.getLimit();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            client.onSample(Duration.ofMillis(100).toNanos(), client.getLimit(), false);
+        }
+
+        // Assert
+        assertTrue(client.getLimit() < fastLimit / 2, "limit " + client.getLimit() + " did not shrink from " + fastLimit);
+    }
+
+    @Test
+    void getBalance_Timeouts_BackOffToMinimum() {
+        // Arrange
+        AdaptiveLimitBalanceClient client = new AdaptiveLimitBalanceClient((LookupBalanceClient) this::timedLookup,
+                20, 2, 50, 1.5, 0.5, 1.0, now::get);
+        timingOut.set(true);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        }
+
+        // Assert
+        assertEquals(2, client.getLimit());
+    }
+
+    private AccountBalance timedLookup(String accountId) {
+        now.addAndGet(latencyNanos.get());
+        if (timingOut.get()) {
+            throw new ResourceAccessException("Read timed out");
+        }
+        return balance(accountId);
+    }
+
+    private static AccountBalance balance(String accountId) {
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+}
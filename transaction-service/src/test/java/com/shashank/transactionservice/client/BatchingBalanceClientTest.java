@@ -0,0 +1,162 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchingBalanceClientTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void getBalance_ConcurrentCallers_ShareBatches() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<AccountBalance>> results = new ArrayList<>();
+
+        // Act
+        try (BatchingBalanceClient client = new BatchingBalanceClient(bulk(), Duration.ofMillis(50), 100, 2)) {
+            for (int i = 0; i < 16; i++) {
+                String accountId = "account-" + (i % 4);
+                results.add(executor.submit(() -> client.getBalance(accountId)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("account-" + (i % 4), results.get(i).get(5, TimeUnit.SECONDS).getAccountNumber());
+            }
+
+            // Assert
+            assertTrue(batches.size() < 16, "Concurrent lookups should have been batched");
+            batches.forEach(batch -> assertEquals(batch.stream().distinct().count(), batch.size()));
+            assertEquals(batches.size(), client.getBatches());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void getBalance_BatchFull_SendsBeforeMaxWait() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        try (BatchingBalanceClient client = new BatchingBalanceClient(bulk(), Duration.ofSeconds(30), 2, 1)) {
+            Future<AccountBalance> first = executor.submit(() -> client.getBalance("account-1"));
+            Future<AccountBalance> second = executor.submit(() -> client.getBalance("account-2"));
+
+            // Assert
+            assertNotNull(first.get(5, TimeUnit.SECONDS));
+            assertNotNull(second.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(List.of("account-1", "account-2")),
+                    batches.stream().map(batch -> batch.stream().sorted().toList()).toList());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void getBalance_BulkLookupFails_PropagatesToCaller() throws Exception {
+        // Arrange
+        BalanceClient failing = new LookupBalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+                throw new ResourceAccessException("Connection refused");
+            }
+        };
+
+        // Act & Assert
+        try (BatchingBalanceClient client = new BatchingBalanceClient(failing, Duration.ofMillis(1), 10, 1)) {
+            assertThrows(ResourceAccessException.class, () -> client.getBalance("account-1"));
+        }
+    }
+
+    @Test
+    void getBalance_AccountMissingFromReply_FailsWithNotFound() throws Exception {
+        // Arrange
+        BalanceClient partial = new LookupBalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+                return Map.of();
+            }
+        };
+
+        // Act & Assert
+        try (BatchingBalanceClient client = new BatchingBalanceClient(partial, Duration.ofMillis(1), 10, 1)) {
+            assertThrows(HttpClientErrorException.NotFound.class, () -> client.getBalance("account-1"));
+        }
+    }
+
+    @Test
+    void getBalance_SendsBatchInCallersContext() throws Exception {
+        // Arrange
+        ContextKey<String> key = ContextKey.named("caller");
+        List<String> seen = new CopyOnWriteArrayList<>();
+        BalanceClient recording = new LookupBalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+                seen.add(Context.current().get(key));
+                return bulk().getBalances(accountIds);
+            }
+        };
+
+        // Act
+        try (BatchingBalanceClient client = new BatchingBalanceClient(recording, Duration.ofMillis(1), 10, 1);
+             Scope ignored = Context.current().with(key, "request-1").makeCurrent()) {
+            client.getBalance("account-1");
+        }
+
+        // Assert
+        assertEquals(List.of("request-1"), seen);
+    }
+
+    private BalanceClient bulk() {
+        return new LookupBalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                throw new UnsupportedOperationException("Lookups should be batched");
+            }
+
+            @Override
+            public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+                batches.add(List.copyOf(accountIds));
+                return accountIds.stream().collect(Collectors.toMap(Function.identity(),
+                        accountId -> AccountBalance.builder()
+                                .accountNumber(accountId)
+                                .availableBalance(new BigDecimal("100.00"))
+                                .build()));
+            }
+        };
+    }
+}
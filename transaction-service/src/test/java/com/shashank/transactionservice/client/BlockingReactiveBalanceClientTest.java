@@ -0,0 +1,65 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockingReactiveBalanceClientTest {
+
+    private static final ContextKey<String> REQUEST_KEY = ContextKey.named("request");
+
+    @Test
+    void getBalance_RunsOnSchedulerInCallersContext() {
+        // Arrange
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<String> request = new AtomicReference<>();
+        BlockingReactiveBalanceClient client = new BlockingReactiveBalanceClient((LookupBalanceClient) accountId -> {
+            thread.set(Thread.currentThread().getName());
+            request.set(Context.current().get(REQUEST_KEY));
+            return AccountBalance.builder().accountNumber(accountId).availableBalance(new BigDecimal("250.00")).build();
+        }, Schedulers.boundedElastic());
+
+        // Act
+        Mono<AccountBalance> lookup;
+        try (Scope ignored = Context.current().with(REQUEST_KEY, "request-1").makeCurrent()) {
+            lookup = client.getBalance("12345678");
+        }
+        AccountBalance balance = lookup.block();
+
+        // Assert
+        assertEquals("12345678", balance.getAccountNumber());
+        assertTrue(thread.get().startsWith("boundedElastic"), thread.get());
+        assertEquals("request-1", request.get());
+    }
+
+    @Test
+    void getBalance_NoBalance_CompletesEmpty() {
+        // Arrange
+        BlockingReactiveBalanceClient client = new BlockingReactiveBalanceClient(
+                (LookupBalanceClient) accountId -> null, Schedulers.immediate());
+
+        // Act & Assert
+        assertNull(client.getBalance("12345678").block());
+    }
+
+    @Test
+    void getBalance_LookupFails_Errors() {
+        // Arrange
+        BlockingReactiveBalanceClient client = new BlockingReactiveBalanceClient((LookupBalanceClient) accountId -> {
+            throw new ResourceAccessException("Connection refused");
+        }, Schedulers.immediate());
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678").block());
+    }
+}
@@ -0,0 +1,85 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadBalanceClientTest {
+
+    private final CountDownLatch entered = new CountDownLatch(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void getBalance_AllSlotsBusy_RejectsImmediately() throws Exception {
+        // Arrange
+        BulkheadBalanceClient client = new BulkheadBalanceClient((LookupBalanceClient) this::blockingLookup, 2,
+                Duration.ZERO);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AccountBalance> first = executor.submit(() -> client.getBalance("account-1"));
+            Future<AccountBalance> second = executor.submit(() -> client.getBalance("account-2"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Act
+            BalanceCallRejectedException rejection = assertThrows(BalanceCallRejectedException.class,
+                    () -> client.getBalance("account-3"));
+            release.countDown();
+
+            // Assert
+            assertEquals(BalanceCallRejectedException.Reason.BULKHEAD_FULL, rejection.getReason());
+            assertEquals("account-1", first.get(5, TimeUnit.SECONDS).getAccountNumber());
+            assertEquals("account-2", second.get(5, TimeUnit.SECONDS).getAccountNumber());
+            assertEquals(1, client.getRejected());
+            assertEquals(2, client.getAvailable());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getBalance_SlotFreedWithinMaxWait_Proceeds() throws Exception {
+        // Arrange
+        BulkheadBalanceClient client = new BulkheadBalanceClient((LookupBalanceClient) this::blockingLookup, 1,
+                Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> client.getBalance("account-1"));
+            entered.countDown();
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Act
+            release.countDown();
+            AccountBalance balance = client.getBalance("account-2");
+
+            // Assert
+            assertEquals("account-2", balance.getAccountNumber());
+            assertEquals(0, client.getRejected());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AccountBalance blockingLookup(String accountId) {
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+}
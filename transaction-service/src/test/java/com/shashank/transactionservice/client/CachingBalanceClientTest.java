@@ -0,0 +1,127 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingBalanceClientTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void getBalance_WithinTtl_ServesFromCache() {
+        // Arrange
+        CachingBalanceClient client = new CachingBalanceClient((LookupBalanceClient) this::lookup,
+                Duration.ofSeconds(2), 10, now::get);
+        client.getBalance("12345678");
+
+        // Act
+        now.addAndGet(Duration.ofMillis(1_999).toNanos());
+        AccountBalance cached = client.getBalance("12345678");
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        client.getBalance("12345678");
+
+        // Assert
+        assertEquals("12345678", cached.getAccountNumber());
+        assertEquals(2, lookups.get());
+        assertEquals(1, client.getHits());
+        assertEquals(2, client.getMisses());
+    }
+
+    @Test
+    void getBalance_OverMaxEntries_EvictsOldestAccounts() {
+        // Arrange
+        CachingBalanceClient client = new CachingBalanceClient((LookupBalanceClient) this::lookup,
+                Duration.ofMinutes(1), 2, now::get);
+
+        // Act
+        client.getBalance("account-1");
+        client.getBalance("account-2");
+        client.getBalance("account-3");
+        client.getBalance("account-3");
+        client.getBalance("account-1");
+
+        // Assert
+        assertEquals(4, lookups.get());
+        assertEquals(2, client.getSize());
+        assertEquals(2, client.getEvictions());
+    }
+
+    @Test
+    void getBalance_FailedLookup_IsNotCached() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CachingBalanceClient client = new CachingBalanceClient((LookupBalanceClient) accountId -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            return lookup(accountId);
+        }, Duration.ofMinutes(1), 10, now::get);
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        assertNotNull(client.getBalance("12345678"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void getBalance_ConcurrentMisses_ShareOneLookup() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CachingBalanceClient client = new CachingBalanceClient((LookupBalanceClient) accountId -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lookup(accountId);
+        }, Duration.ofMinutes(1), 10, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<AccountBalance>> results = new ArrayList<>();
+        results.add(executor.submit(() -> client.getBalance("12345678")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> client.getBalance("12345678")));
+        }
+        while (client.getCoalesced() < 7) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<AccountBalance> result : results) {
+            assertEquals("12345678", result.get(5, TimeUnit.SECONDS).getAccountNumber());
+        }
+        executor.shutdown();
+        assertEquals(1, lookups.get());
+        assertEquals(7, client.getCoalesced());
+    }
+
+    private AccountBalance lookup(String accountId) {
+        lookups.incrementAndGet();
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerBalanceClientTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @Test
+    void getBalance_FailureRateReached_OpensAndRejectsWithoutCalling() {
+        // Arrange
+        CircuitBreakerBalanceClient client = breaker();
+        failing.set(true);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        }
+
+        // Act
+        BalanceCallRejectedException rejection = assertThrows(BalanceCallRejectedException.class,
+                () -> client.getBalance("12345678"));
+
+        // Assert
+        assertEquals(BalanceCallRejectedException.Reason.CIRCUIT_OPEN, rejection.getReason());
+        assertEquals(CircuitBreakerBalanceClient.State.OPEN, client.getState());
+        assertEquals(4, lookups.get());
+        assertEquals(1, client.getRejected());
+        assertEquals(1, client.getTransitions(CircuitBreakerBalanceClient.State.OPEN));
+    }
+
+    @Test
+    void getBalance_BelowMinimumCalls_StaysClosed() {
+        // Arrange
+        CircuitBreakerBalanceClient client = breaker();
+        failing.set(true);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        }
+
+        // Assert
+        assertEquals(CircuitBreakerBalanceClient.State.CLOSED, client.getState());
+    }
+
+    @Test
+    void getBalance_AfterOpenDuration_ClosesWhenTrialCallsSucceed() {
+        // Arrange
+        CircuitBreakerBalanceClient client = openBreaker();
+        failing.set(false);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Act
+        client.getBalance("12345678");
+        CircuitBreakerBalanceClient.State afterFirstTrial = client.getState();
+        client.getBalance("12345678");
+
+        // Assert
+        assertEquals(CircuitBreakerBalanceClient.State.HALF_OPEN, afterFirstTrial);
+        assertEquals(CircuitBreakerBalanceClient.State.CLOSED, client.getState());
+        assertEquals(1, client.getTransitions(CircuitBreakerBalanceClient.State.HALF_OPEN));
+        assertEquals(1, client.getTransitions(CircuitBreakerBalanceClient.State.CLOSED));
+    }
+
+    @Test
+    void getBalance_TrialCallFails_ReopensBreaker() {
+        // Arrange
+        CircuitBreakerBalanceClient client = openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Act
+        assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+
+        // Assert
+        assertEquals(CircuitBreakerBalanceClient.State.OPEN, client.getState());
+        assertThrows(BalanceCallRejectedException.class, () -> client.getBalance("12345678"));
+    }
+
+    @Test
+    void getBalance_SlowCalls_CountAsFailures() {
+        // Arrange
+        CircuitBreakerBalanceClient client = new CircuitBreakerBalanceClient((LookupBalanceClient) accountId -> {
+            now.addAndGet(Duration.ofSeconds(3).toNanos());
+            return lookup(accountId);
+        }, 0.5, 10, 4, Duration.ofSeconds(2), Duration.ofSeconds(10), 2, now::get);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            client.getBalance("12345678");
+        }
+
+        // Assert
+        assertEquals(CircuitBreakerBalanceClient.State.OPEN, client.getState());
+    }
+
+    @Test
+    void getBalance_ClientErrors_DoNotOpenBreaker() {
+        // Arrange
+        CircuitBreakerBalanceClient client = new CircuitBreakerBalanceClient((LookupBalanceClient) accountId -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        }, 0.5, 10, 4, Duration.ofSeconds(2), Duration.ofSeconds(10), 2, now::get);
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            assertThrows(HttpClientErrorException.class, () -> client.getBalance("unknown"));
+        }
+
+        // Assert
+        assertEquals(CircuitBreakerBalanceClient.State.CLOSED, client.getState());
+    }
+
+    @Test
+    void getBalance_StateChange_RecordedAsSpanEvent() {
+        // Arrange
+        List<SpanData> exported = new ArrayList<>();
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(collectingExporter(exported)))
+                .build();
+        CircuitBreakerBalanceClient client = breaker();
+        failing.set(true);
+
+        // Act
+        Span span = tracerProvider.get("test").spanBuilder("POST /api/transactions").startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            for (int i = 0; i < 4; i++) {
+                assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+            }
+        } finally {
+            span.end();
+        }
+
+        // Assert
+        assertEquals(1, exported.size());
+        List<EventData> events = exported.get(0).getEvents();
+        assertEquals(1, events.size());
+        assertEquals("balances.circuit.state_change", events.get(0).getName());
+        assertEquals("CLOSED", events.get(0).getAttributes().get(AttributeKey.stringKey("balances.circuit.from")));
+        assertEquals("OPEN", events.get(0).getAttributes().get(AttributeKey.stringKey("balances.circuit.to")));
+        tracerProvider.close();
+    }
+
+    private CircuitBreakerBalanceClient breaker() {
+        return new CircuitBreakerBalanceClient((LookupBalanceClient) this::lookup, 0.5, 10, 4, Duration.ofSeconds(2),
+                Duration.ofSeconds(10), 2, now::get);
+    }
+
+    private CircuitBreakerBalanceClient openBreaker() {
+        CircuitBreakerBalanceClient client = breaker();
+        failing.set(true);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        }
+        assertEquals(CircuitBreakerBalanceClient.State.OPEN, client.getState());
+        return client;
+    }
+
+    private AccountBalance lookup(String accountId) {
+        lookups.incrementAndGet();
+        if (failing.get()) {
+            throw new ResourceAccessException("Read timed out");
+        }
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+
+    private static SpanExporter collectingExporter(List<SpanData> exported) {
+        return new SpanExporter() {
+            @Override
+            public CompletableResultCode export(Collection<SpanData> spans) {
+                exported.addAll(spans);
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode flush() {
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode shutdown() {
+                return CompletableResultCode.ofSuccess();
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingBalanceClientTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private final CountDownLatch slowCallInterrupted = new CountDownLatch(1);
+    private HedgingBalanceClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void getBalance_BeforeEnoughSamples_DoesNotHedge() {
+        // Arrange
+        client = new HedgingBalanceClient((LookupBalanceClient) this::lookup, 0.95, Duration.ofMillis(1), 100, 1.0, 10,
+                16, now::get);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            client.getBalance("12345678");
+        }
+
+        // Assert
+        assertEquals(10, calls.get());
+        assertEquals(0, client.getHedgesSent());
+        assertTrue(Double.isNaN(client.getHedgeDelayMillis()));
+    }
+
+    @Test
+    void getBalance_SlowPrimary_HedgeWinsAndPrimaryIsCancelled() throws Exception {
+        // Arrange
+        client = new HedgingBalanceClient((LookupBalanceClient) accountId -> attempts.incrementAndGet() == 65
+                ? slowLookup(accountId) : lookup(accountId), 0.95, Duration.ofMillis(20), 100, 1.0, 10, 16, now::get);
+        warmUp(64);
+
+        // Act
+        long start = System.nanoTime();
+        AccountBalance balance = client.getBalance("12345678");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals("12345678", balance.getAccountNumber());
+        assertTrue(elapsedMillis < 5_000, "waited " + elapsedMillis + "ms for the slow primary");
+        assertEquals(1, client.getHedgesSent());
+        assertEquals(1, client.getHedgesWon());
+        assertTrue(slowCallInterrupted.await(5, TimeUnit.SECONDS), "losing attempt was not cancelled");
+    }
+
+    @Test
+    void getBalance_BudgetSpent_WaitsForPrimary() {
+        // Arrange
+        client = new HedgingBalanceClient((LookupBalanceClient) accountId -> attempts.incrementAndGet() > 64
+                ? pausedLookup(accountId) : lookup(accountId), 0.95, Duration.ofMillis(50), 100, 0.0, 1, 16, now::get);
+        warmUp(64);
+
+        // Act
+        client.getBalance("12345678");
+        client.getBalance("12345678");
+
+        // Assert
+        assertEquals(1, client.getHedgesSent());
+        assertEquals(1, client.getBudgetExhausted());
+    }
+
+    @Test
+    void getBalance_PrimaryFailsFast_ThrowsWithoutHedging() {
+        // Arrange
+        client = new HedgingBalanceClient((LookupBalanceClient) accountId -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("Connection refused");
+        }, 0.95, Duration.ofMillis(1), 100, 1.0, 10, 16, now::get);
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> client.getBalance("12345678"));
+        assertEquals(1, calls.get());
+        assertEquals(0, client.getHedgesSent());
+    }
+
+    @Test
+    void getBalance_PoolFull_LooksUpOnCallersThread() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        client = new HedgingBalanceClient((LookupBalanceClient) accountId -> {
+            if (Thread.currentThread().getName().startsWith("balance-hedge-")) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return lookup(accountId);
+        }, 0.95, Duration.ofMillis(1), 100, 1.0, 10, 2, now::get);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<AccountBalance>> blocked = List.of(
+                callers.submit(() -> client.getBalance("account-1")),
+                callers.submit(() -> client.getBalance("account-2")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        AccountBalance balance = client.getBalance("account-3");
+
+        // Assert
+        assertEquals("account-3", balance.getAccountNumber());
+        assertEquals(1, client.getPoolFull());
+        release.countDown();
+        for (Future<AccountBalance> result : blocked) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+    }
+
+    // Fills the latency window with 1ms samples so the hedge delay settles at min-delay
+    private void warmUp(int lookups) {
+        for (int i = 0; i < lookups; i++) {
+            client.getBalance("12345678");
+        }
+        assertFalse(Double.isNaN(client.getHedgeDelayMillis()));
+    }
+
+    private AccountBalance lookup(String accountId) {
+        calls.incrementAndGet();
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        return balance(accountId);
+    }
+
+    private AccountBalance slowLookup(String accountId) {
+        try {
+            Thread.sleep(30_000);
+        } catch (InterruptedException e) {
+            slowCallInterrupted.countDown();
+            throw new ResourceAccessException("Cancelled");
+        }
+        return balance(accountId);
+    }
+
+    private AccountBalance pausedLookup(String accountId) {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return balance(accountId);
+    }
+
+    private static AccountBalance balance(String accountId) {
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+}
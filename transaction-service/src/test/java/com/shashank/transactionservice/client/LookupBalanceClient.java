@@ -0,0 +1,23 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+
+import java.math.BigDecimal;
+
+/**
+ * A {@link BalanceClient} that only answers lookups, so tests can supply one as a lambda. Posting a debit or
+ * a credit to it fails.
+ */
+@FunctionalInterface
+public interface LookupBalanceClient extends BalanceClient {
+
+    @Override
+    default AccountBalance debit(String accountId, BigDecimal amount) {
+        throw new UnsupportedOperationException("Lookup-only client cannot debit " + accountId);
+    }
+
+    @Override
+    default AccountBalance credit(String accountId, BigDecimal amount) {
+        throw new UnsupportedOperationException("Lookup-only client cannot credit " + accountId);
+    }
+}
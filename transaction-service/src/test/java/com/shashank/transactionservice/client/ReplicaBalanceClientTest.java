@@ -0,0 +1,257 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.BalanceChange;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaBalanceClientTest {
+
+    private static final LocalDateTime SERVER_TIME = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void getBalance_BeforeFirstEvent_CallsDelegate() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+
+        // Act
+        client.getBalance("12345678");
+        client.getBalance("12345678");
+
+        // Assert
+        assertEquals(2, lookups.get());
+        assertEquals(2, client.getStale());
+        assertEquals(0, client.getSize());
+    }
+
+    @Test
+    void getBalance_WhileFresh_LooksUpOnceThenServesReplica() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+
+        // Act
+        client.getBalance("12345678");
+        AccountBalance replicated = client.getBalance("12345678");
+
+        // Assert
+        assertEquals(1, lookups.get());
+        assertEquals(1, client.getHits());
+        assertEquals(1, client.getMisses());
+        assertEquals(0, new BigDecimal("250.00").compareTo(replicated.getAvailableBalance()));
+        assertEquals(SERVER_TIME, replicated.getLastUpdated());
+    }
+
+    @Test
+    void getBalance_AfterHeartbeats_ReportsTimeOfLatestChange() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+        client.onEvent(event(ReplicaBalanceClient.BALANCE, change(101, "12345678", "90.00")));
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        client.onEvent(event(ReplicaBalanceClient.HEARTBEAT, BalanceChange.builder().sequence(101).build()));
+        client.onEvent(event(ReplicaBalanceClient.HEARTBEAT,
+                BalanceChange.builder().sequence(101).timestamp(SERVER_TIME.minusSeconds(5)).build()));
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        AccountBalance replicated = client.getBalance("12345678");
+
+        // Assert
+        assertEquals(0, lookups.get());
+        assertEquals(SERVER_TIME, replicated.getLastUpdated());
+    }
+
+    @Test
+    void getBalance_AfterChangeEvent_ReturnsChangedBalance() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+        client.getBalance("12345678");
+
+        // Act
+        client.onEvent(event(ReplicaBalanceClient.BALANCE, change(101, "12345678", "90.00")));
+        AccountBalance replicated = client.getBalance("12345678");
+
+        // Assert
+        assertEquals(1, lookups.get());
+        assertEquals(0, new BigDecimal("90.00").compareTo(replicated.getAvailableBalance()));
+        assertEquals(1, client.getChanges());
+    }
+
+    @Test
+    void getBalance_NoEventWithinMaxStaleness_FallsBackToDelegate() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+        client.onEvent(event(ReplicaBalanceClient.BALANCE, change(101, "12345678", "90.00")));
+
+        // Act
+        now.addAndGet(Duration.ofMillis(3_001).toNanos());
+        AccountBalance stale = client.getBalance("12345678");
+        client.onEvent(event(ReplicaBalanceClient.HEARTBEAT, marker(101)));
+        AccountBalance fresh = client.getBalance("12345678");
+
+        // Assert
+        assertEquals(0, new BigDecimal("250.00").compareTo(stale.getAvailableBalance()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(fresh.getAvailableBalance()));
+        assertEquals(1, client.getStale());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void onEvent_Reset_EmptiesReplica() {
+        // Arrange
+        ReplicaBalanceClient client = newClient();
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+        client.onEvent(event(ReplicaBalanceClient.BALANCE, change(101, "12345678", "90.00")));
+
+        // Act
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(500)));
+        AccountBalance balance = client.getBalance("12345678");
+
+        // Assert
+        assertEquals(0, new BigDecimal("250.00").compareTo(balance.getAvailableBalance()));
+        assertEquals(2, client.getResets());
+    }
+
+    @Test
+    void getBalances_SplitsBetweenReplicaAndDelegate() {
+        // Arrange
+        List<List<String>> bulkRequests = new CopyOnWriteArrayList<>();
+        ReplicaBalanceClient client = new ReplicaBalanceClient(new LookupBalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                return lookup(accountId);
+            }
+
+            @Override
+            public Map<String, AccountBalance> getBalances(Collection<String> accountIds) {
+                bulkRequests.add(List.copyOf(accountIds));
+                return LookupBalanceClient.super.getBalances(accountIds);
+            }
+        }, Duration.ofSeconds(3), 100, now::get);
+        client.onEvent(event(ReplicaBalanceClient.RESET, marker(100)));
+        client.onEvent(event(ReplicaBalanceClient.BALANCE, change(101, "account-2", "90.00")));
+
+        // Act
+        Map<String, AccountBalance> balances = client.getBalances(List.of("account-1", "account-2", "account-3"));
+
+        // Assert
+        assertEquals(List.of("account-1", "account-2", "account-3"), List.copyOf(balances.keySet()));
+        assertEquals(List.of(List.of("account-1", "account-3")), bulkRequests);
+        assertEquals(0, new BigDecimal("90.00").compareTo(balances.get("account-2").getAvailableBalance()));
+        assertEquals(3, client.getSize());
+    }
+
+    @Test
+    void subscribe_ReconnectsWithLastEventId() throws Exception {
+        // Arrange
+        List<String> lastEventIds = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/balances/changes", exchange -> {
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            lastEventIds.add(String.valueOf(lastEventId));
+            String body = lastEventId == null
+                    ? "event:reset\nid:100\ndata:{\"sequence\":100,\"timestamp\":\"2025-01-01T10:00:00\"}\n\n"
+                    + "event:balance\nid:101\ndata:{\"sequence\":101,\"accountNumber\":\"12345678\","
+                    + "\"availableBalance\":90.00,\"currentBalance\":90.00,\"currency\":\"USD\","
+                    + "\"timestamp\":\"2025-01-01T10:00:00\"}\n\n"
+                    : "event:heartbeat\ndata:{\"sequence\":101,\"timestamp\":\"2025-01-01T10:00:01\"}\n\n";
+            sendEvents(exchange, body);
+        });
+        server.start();
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/balances/changes";
+        ReplicaBalanceClient client = new ReplicaBalanceClient((LookupBalanceClient) this::lookup,
+                Duration.ofSeconds(3), 100);
+
+        // Act
+        client.subscribe(WebClient.create(), url, Duration.ofMillis(10));
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (lastEventIds.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        client.close();
+
+        // Assert
+        assertEquals("null", lastEventIds.get(0));
+        assertEquals("101", lastEventIds.get(1));
+        AccountBalance replicated = client.getBalance("12345678");
+        assertEquals(0, new BigDecimal("90.00").compareTo(replicated.getAvailableBalance()));
+        assertEquals(0, lookups.get());
+    }
+
+    private ReplicaBalanceClient newClient() {
+        return new ReplicaBalanceClient((LookupBalanceClient) this::lookup, Duration.ofSeconds(3), 100, now::get);
+    }
+
+    private AccountBalance lookup(String accountId) {
+        lookups.incrementAndGet();
+        return AccountBalance.builder()
+                .accountNumber(accountId)
+                .availableBalance(new BigDecimal("250.00"))
+                .currentBalance(new BigDecimal("250.00"))
+                .currency("USD")
+                .lastUpdated(SERVER_TIME.minusSeconds(1))
+                .build();
+    }
+
+    private static ServerSentEvent<BalanceChange> event(String type, BalanceChange change) {
+        return ServerSentEvent.<BalanceChange>builder().event(type).data(change).build();
+    }
+
+    private static BalanceChange marker(long sequence) {
+        return BalanceChange.builder().sequence(sequence).timestamp(SERVER_TIME).build();
+    }
+
+    private static BalanceChange change(long sequence, String accountNumber, String balance) {
+        return BalanceChange.builder()
+                .sequence(sequence)
+                .accountNumber(accountNumber)
+                .availableBalance(new BigDecimal(balance))
+                .currentBalance(new BigDecimal(balance))
+                .currency("USD")
+                .timestamp(SERVER_TIME)
+                .build();
+    }
+
+    private static void sendEvents(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.shashank.transactionservice.client;
+
+import com.shashank.transactionservice.model.AccountBalance;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebClientBalanceClientTest {
+
+    private static final ContextKey<String> REQUEST_KEY = ContextKey.named("request");
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/balances", exchange -> {
+            String accountNumber = exchange.getRequestURI().getPath().substring("/api/balances/".length());
+            int status = accountNumber.equals("broken") ? 500 : 200;
+            byte[] body = ("{\"accountNumber\":\"" + accountNumber + "\",\"availableBalance\":250.00,"
+                    + "\"currency\":\"USD\",\"lastUpdated\":\"2025-01-01T10:00:00\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/api/balances";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getBalance_ReturnsBalanceFromService() {
+        // Arrange
+        WebClientBalanceClient client = new WebClientBalanceClient(WebClient.create(), url);
+
+        // Act
+        AccountBalance balance = client.getBalance("12345678").block();
+
+        // Assert
+        assertNotNull(balance);
+        assertEquals("12345678", balance.getAccountNumber());
+        assertEquals(0, new BigDecimal("250.00").compareTo(balance.getAvailableBalance()));
+    }
+
+    @Test
+    void getBalance_ServiceError_FailsWithRestClientException() {
+        // Arrange
+        WebClientBalanceClient client = new WebClientBalanceClient(WebClient.create(), url);
+
+        // Act & Assert
+        assertThrows(RestClientException.class, () -> client.getBalance("broken").block());
+    }
+
+    @Test
+    void getBalance_SubscribedOutsideCallersContext_SendsWithCallersContext() {
+        // Arrange
+        AtomicReference<String> seenByFilter = new AtomicReference<>();
+        WebClient webClient = WebClient.builder()
+                .filter((request, next) -> {
+                    seenByFilter.set(Context.current().get(REQUEST_KEY));
+                    return next.exchange(request);
+                })
+                .build();
+        WebClientBalanceClient client = new WebClientBalanceClient(webClient, url);
+        Mono<AccountBalance> lookup;
+        try (Scope ignored = Context.root().with(REQUEST_KEY, "incoming-request").makeCurrent()) {
+            lookup = client.getBalance("12345678");
+        }
+
+        // Act
+        lookup.block();
+
+        // Assert
+        assertEquals("incoming-request", seenByFilter.get());
+    }
+}
@@ -0,0 +1,97 @@
+package com.shashank.transactionservice.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppConfigTest {
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/ping";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void balancesRequestFactory_PooledMode_ReusesConnectionsAndPublishesPoolMetrics() throws Exception {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AppConfig config = configure(AppConfig.HttpClientMode.POOLED);
+        ClientHttpRequestFactory factory = config.balancesRequestFactory(meterRegistry);
+        RestTemplate restTemplate = config.restTemplate(factory);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals("pong", restTemplate.getForObject(url, String.class));
+        }
+
+        // Assert
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, factory);
+        assertEquals(5, meterRegistry.get("httpcomponents.httpclient.pool.acquire").timer().count());
+        assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+        assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        assertEquals(10, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+        ((DisposableBean) factory).destroy();
+    }
+
+    @Test
+    void balancesRequestFactory_Http2Mode_UsesJdkClient() {
+        // Arrange
+        AppConfig config = configure(AppConfig.HttpClientMode.HTTP2);
+
+        // Act
+        ClientHttpRequestFactory factory = config.balancesRequestFactory(new SimpleMeterRegistry());
+
+        // Assert
+        assertInstanceOf(JdkClientHttpRequestFactory.class, factory);
+        assertEquals("pong", config.restTemplate(factory).getForObject(url, String.class));
+    }
+
+    private AppConfig configure(AppConfig.HttpClientMode mode) {
+        AppConfig config = new AppConfig();
+        ReflectionTestUtils.setField(config, "httpClientMode", mode);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "readTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "poolMaxTotal", 10);
+        ReflectionTestUtils.setField(config, "poolMaxPerRoute", 5);
+        ReflectionTestUtils.setField(config, "poolAcquireTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "poolIdleTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "poolTimeToLive", Duration.ofMinutes(5));
+        return config;
+    }
+}
@@ -0,0 +1,68 @@
+package com.shashank.transactionservice.config;
+
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.client.BlockingReactiveBalanceClient;
+import com.shashank.transactionservice.client.ReactiveBalanceClient;
+import com.shashank.transactionservice.client.WebClientBalanceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceClientConfigTest {
+
+    @Test
+    void reactiveBalanceClient_WithDecorators_GoesThroughBlockingClient() {
+        // Arrange
+        BalanceClientConfig config = new BalanceClientConfig();
+        ReflectionTestUtils.setField(config, "balancesServiceUrl", "http://localhost:1/api/balances");
+        BalanceClient plain = config.balanceClient(new RestTemplate(), WebClient.create(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(config, "cacheEnabled", true);
+        ReflectionTestUtils.setField(config, "cacheTtl", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "cacheMaxEntries", 100);
+        BalanceClient cached = config.balanceClient(new RestTemplate(), WebClient.create(), new SimpleMeterRegistry());
+
+        // Act
+        ReactiveBalanceClient direct = config.reactiveBalanceClient(plain, WebClient.create());
+        ReactiveBalanceClient protectedClient = config.reactiveBalanceClient(cached, WebClient.create());
+
+        // Assert
+        assertInstanceOf(WebClientBalanceClient.class, direct);
+        assertInstanceOf(BlockingReactiveBalanceClient.class, protectedClient);
+    }
+
+    @Test
+    void destroy_ClosesDecoratorsInsideOutermost() {
+        // Arrange
+        BalanceClientConfig config = new BalanceClientConfig();
+        ReflectionTestUtils.setField(config, "balancesServiceUrl", "http://localhost:1/api/balances");
+        ReflectionTestUtils.setField(config, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(config, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(config, "hedgeMinDelay", Duration.ofMillis(5));
+        ReflectionTestUtils.setField(config, "hedgeWindow", 100);
+        ReflectionTestUtils.setField(config, "hedgeBudgetRatio", 0.1);
+        ReflectionTestUtils.setField(config, "hedgeBudgetBurst", 10);
+        ReflectionTestUtils.setField(config, "hedgeMaxAttempts", 10);
+        ReflectionTestUtils.setField(config, "batchEnabled", true);
+        ReflectionTestUtils.setField(config, "batchMaxWait", Duration.ofMillis(2));
+        ReflectionTestUtils.setField(config, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(config, "batchConcurrency", 2);
+        ReflectionTestUtils.setField(config, "cacheEnabled", true);
+        ReflectionTestUtils.setField(config, "cacheTtl", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "cacheMaxEntries", 100);
+        BalanceClient client = config.balanceClient(new RestTemplate(), WebClient.create(), new SimpleMeterRegistry());
+
+        // Act
+        config.destroy();
+
+        // Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> client.getBalance("12345678"));
+        assertEquals("Balance client is closed", exception.getMessage());
+    }
+}
@@ -0,0 +1,69 @@
+package com.shashank.transactionservice.controller;
+
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.TransactionNotFoundException;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.service.ReactiveTransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTransactionsControllerTest {
+
+    @Mock
+    private ReactiveTransactionService transactionService;
+
+    @InjectMocks
+    private ReactiveTransactionsController transactionController;
+
+    @Test
+    void createTransaction_ReturnsCreatedResponse() {
+        // Arrange
+        TransactionRequest request = TransactionRequest.builder()
+                .accountId("12345678")
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .type(TransactionType.PAYMENT)
+                .build();
+        TransactionResponse created = TransactionResponse.builder()
+                .id("tx-1")
+                .accountId("12345678")
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        when(transactionService.createTransaction(request)).thenReturn(Mono.just(created));
+
+        // Act
+        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(request).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(created, response.getBody());
+    }
+
+    @Test
+    void getTransactionById_NotFound_PropagatesError() {
+        // Arrange
+        when(transactionService.getTransactionById("missing"))
+                .thenReturn(Mono.error(new TransactionNotFoundException("Transaction not found with id: missing")));
+
+        // Act
+        Mono<ResponseEntity<TransactionResponse>> response = transactionController.getTransactionById("missing");
+
+        // Assert
+        assertThrows(TransactionNotFoundException.class, response::block);
+    }
+}
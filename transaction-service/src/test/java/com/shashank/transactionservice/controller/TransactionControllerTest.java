@@ -1,8 +1,14 @@
 package com.shashank.transactionservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionPage;
 import com.shashank.transactionservice.dto.TransactionRequest;
 import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.GlobalExceptionHandler;
 import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.exception.InvalidBatchException;
 import com.shashank.transactionservice.exception.TransactionNotFoundException;
 
 import com.shashank.transactionservice.model.TransactionStatus;
@@ -13,19 +19,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 public class TransactionControllerTest {
@@ -33,6 +53,9 @@ public class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private TransactionsController transactionController;
 
@@ -68,7 +91,20 @@ public class TransactionControllerTest {
         when(transactionService.createTransaction(any(TransactionRequest.class))).thenReturn(sampleResponse);
 
         // Act
-        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(validRequest);
+        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(validRequest, null);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(sampleResponse, response.getBody());
+    }
+
+    @Test
+    void createTransaction_WithIdempotencyKey_UsesKeyedCreate() {
+        // Arrange
+        when(transactionService.createTransaction("retry-key", validRequest)).thenReturn(sampleResponse);
+
+        // Act
+        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(validRequest, "retry-key");
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -84,7 +120,7 @@ public class TransactionControllerTest {
 
         // Act & Assert
         Exception exception = assertThrows(InsufficientFundsException.class, () -> {
-            transactionController.createTransaction(validRequest);
+            transactionController.createTransaction(validRequest, null);
         });
         
         assertTrue(exception.getMessage().contains(errorMessage));
@@ -191,4 +227,152 @@ public class TransactionControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().isEmpty());
     }
+
+    @Test
+    void getTransactionsPage_ReturnsPageWithCursor() {
+        // Arrange
+        TransactionPage page = TransactionPage.builder()
+                .items(Collections.singletonList(sampleResponse))
+                .nextCursor("cursor-1")
+                .build();
+        when(transactionService.getTransactionsPage(null, 1)).thenReturn(page);
+
+        // Act
+        ResponseEntity<TransactionPage> response = transactionController.getTransactionsPage(1, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void createTransactions_ParsesEveryItemInOrder() throws Exception {
+        // Arrange
+        String body = "[{\"accountId\":\"12345678\",\"amount\":10.00,\"currency\":\"USD\",\"type\":\"DEPOSIT\"},"
+                + "{\"accountId\":\"87654321\",\"amount\":5,\"currency\":\"EUR\",\"type\":\"PAYMENT\"}]";
+        TransactionBatchResponse batchResponse = TransactionBatchResponse.builder().completed(2).build();
+        when(transactionService.createTransactions(any())).thenReturn(batchResponse);
+
+        // Act
+        ResponseEntity<TransactionBatchResponse> response = transactionController.createTransactions(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(batchResponse, response.getBody());
+        verify(transactionService).createTransactions(List.of(
+                new TransactionRequest("12345678", new BigDecimal("10.00"), "USD", null, TransactionType.DEPOSIT),
+                new TransactionRequest("87654321", new BigDecimal("5"), "EUR", null, TransactionType.PAYMENT)));
+    }
+
+    @Test
+    void createTransactions_NotAnArray_ThrowsException() {
+        ByteArrayInputStream body = new ByteArrayInputStream("{\"accountId\":\"12345678\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidBatchException.class, () -> transactionController.createTransactions(body));
+    }
+
+    @Test
+    void createTransactions_Truncated_ThrowsException() {
+        ByteArrayInputStream body = new ByteArrayInputStream("[{\"accountId\":\"1\"},".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidBatchException.class, () -> transactionController.createTransactions(body));
+    }
+
+    @Test
+    void getAccountSummary_ReturnsSummary() {
+        // Arrange
+        AccountSummary summary = AccountSummary.builder()
+                .accountId("12345678")
+                .transactionCount(0)
+                .aggregates(Collections.emptyList())
+                .build();
+        when(transactionService.getAccountSummary("12345678")).thenReturn(summary);
+
+        // Act
+        ResponseEntity<AccountSummary> response = transactionController.getAccountSummary("12345678");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    void getTransactionsBetween_ReturnsPageOfTransactionsInRange() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        TransactionPage page = TransactionPage.builder()
+                .items(Collections.singletonList(sampleResponse))
+                .nextCursor("cursor-2")
+                .build();
+        when(transactionService.getTransactionsBetween(from, to, "12345678", "cursor-1", 50)).thenReturn(page);
+
+        // Act
+        ResponseEntity<TransactionPage> response =
+                transactionController.getTransactionsBetween(from, to, "12345678", 50, "cursor-1");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getTransactionsBetween_WithoutLimit_AsksForLargestPage() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        TransactionPage page = TransactionPage.builder().items(Collections.emptyList()).build();
+        when(transactionService.getTransactionsBetween(from, to, null, null, Integer.MAX_VALUE)).thenReturn(page);
+
+        // Act
+        ResponseEntity<TransactionPage> response = transactionController.getTransactionsBetween(from, to, null, null, null);
+
+        // Assert
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getTransactions_RangeWithOnlyFrom_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc().perform(get("/api/transactions").param("from", "2025-01-01T00:00:00").param("limit", "50"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Range is missing its 'to' parameter"));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void getTransactions_RangeWithOnlyTo_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc().perform(get("/api/transactions").param("to", "2025-01-02T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Range is missing its 'from' parameter"));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void streamTransactionsByAccountId_WritesOneJsonDocumentPerLine() throws Exception {
+        // Arrange
+        String accountId = "12345678";
+        when(transactionService.streamTransactionsByAccountId(accountId, null))
+                .thenReturn(Stream.of(sampleResponse, sampleResponse));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = transactionController.streamTransactionsByAccountId(accountId, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertEquals(sampleResponse, objectMapper.readValue(line, TransactionResponse.class));
+        }
+    }
+
+    // Routes through the real request mappings, which the direct calls above bypass
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.standaloneSetup(transactionController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
 }
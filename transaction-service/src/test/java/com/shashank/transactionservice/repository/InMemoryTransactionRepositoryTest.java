@@ -0,0 +1,166 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTransactionRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private InMemoryTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTransactionRepository();
+    }
+
+    @Test
+    void findById_SavedTransaction_ReturnsTransaction() {
+        // Arrange
+        Transaction transaction = createTransaction("tx-1", "12345678", BASE_TIME);
+        repository.save(transaction);
+
+        // Act & Assert
+        assertEquals(transaction, repository.findById("tx-1").orElseThrow());
+        assertTrue(repository.findById("missing").isEmpty());
+    }
+
+    @Test
+    void findByAccountId_ReturnsOnlyAccountTransactionsOrderedByCreatedAt() {
+        // Arrange
+        repository.save(createTransaction("tx-3", "12345678", BASE_TIME.plusSeconds(3)));
+        repository.save(createTransaction("tx-1", "12345678", BASE_TIME.plusSeconds(1)));
+        repository.save(createTransaction("tx-x", "87654321", BASE_TIME.plusSeconds(2)));
+        repository.save(createTransaction("tx-2", "12345678", BASE_TIME.plusSeconds(2)));
+
+        // Act
+        List<Transaction> transactions = repository.findByAccountId("12345678");
+
+        // Assert
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), transactions.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void findByAccountId_SameCreatedAt_OrdersById() {
+        // Arrange
+        repository.save(createTransaction("tx-b", "12345678", BASE_TIME));
+        repository.save(createTransaction("tx-a", "12345678", BASE_TIME));
+
+        // Act
+        List<Transaction> transactions = repository.findByAccountId("12345678");
+
+        // Assert
+        assertEquals(List.of("tx-a", "tx-b"), transactions.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void save_ExistingIdWithDifferentAccount_MovesIndexEntry() {
+        // Arrange
+        repository.save(createTransaction("tx-1", "12345678", BASE_TIME));
+
+        // Act
+        repository.save(createTransaction("tx-1", "87654321", BASE_TIME.plusSeconds(1)));
+
+        // Assert
+        assertTrue(repository.findByAccountId("12345678").isEmpty());
+        assertEquals(1, repository.findByAccountId("87654321").size());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void findAfter_ReturnsNextTransactionsInOrder() {
+        // Arrange
+        repository.save(createTransaction("tx-2", "87654321", BASE_TIME.plusSeconds(2)));
+        repository.save(createTransaction("tx-1", "12345678", BASE_TIME.plusSeconds(1)));
+        repository.save(createTransaction("tx-3", "12345678", BASE_TIME.plusSeconds(3)));
+
+        // Act
+        List<Transaction> firstPage = repository.findAfter(null, 2);
+        List<Transaction> secondPage = repository.findAfter(TransactionKey.of(firstPage.get(1)), 2);
+
+        // Assert
+        assertEquals(List.of("tx-1", "tx-2"), firstPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-3"), secondPage.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void findByAccountIdAfter_SkipsUpToCursor() {
+        // Arrange
+        Transaction first = createTransaction("tx-1", "12345678", BASE_TIME.plusSeconds(1));
+        repository.save(first);
+        repository.save(createTransaction("tx-2", "12345678", BASE_TIME.plusSeconds(2)));
+
+        // Act
+        List<Transaction> transactions = repository.findByAccountIdAfter("12345678", TransactionKey.of(first), 10);
+
+        // Assert
+        assertEquals(List.of("tx-2"), transactions.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void findBetween_IncludesFromAndExcludesTo() {
+        // Arrange
+        repository.save(createTransaction("tx-1", "12345678", BASE_TIME));
+        repository.save(createTransaction("tx-2", "87654321", BASE_TIME.plusSeconds(1)));
+        repository.save(createTransaction("tx-3", "12345678", BASE_TIME.plusSeconds(1)));
+        repository.save(createTransaction("tx-4", "12345678", BASE_TIME.plusSeconds(2)));
+
+        // Act
+        List<Transaction> range = repository.findBetween(BASE_TIME.plusSeconds(1), BASE_TIME.plusSeconds(2), null, 10);
+        List<Transaction> accountRange = repository.findByAccountIdBetween("12345678", BASE_TIME, BASE_TIME.plusSeconds(2),
+                null, 10);
+
+        // Assert
+        assertEquals(List.of("tx-2", "tx-3"), range.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-1", "tx-3"), accountRange.stream().map(Transaction::getId).toList());
+        assertTrue(repository.findBetween(BASE_TIME.plusSeconds(2), BASE_TIME, null, 10).isEmpty());
+        assertTrue(repository.findByAccountIdBetween("unknown", BASE_TIME, BASE_TIME.plusSeconds(5), null, 10).isEmpty());
+    }
+
+    @Test
+    void findBetween_AfterKeyAndLimit_ReturnsNextPageOfRange() {
+        // Arrange
+        Transaction first = createTransaction("tx-1", "12345678", BASE_TIME);
+        repository.save(first);
+        repository.save(createTransaction("tx-2", "12345678", BASE_TIME.plusSeconds(1)));
+        repository.save(createTransaction("tx-3", "12345678", BASE_TIME.plusSeconds(2)));
+        repository.save(createTransaction("tx-4", "12345678", BASE_TIME.plusSeconds(3)));
+
+        // Act
+        List<Transaction> page = repository.findBetween(BASE_TIME, BASE_TIME.plusSeconds(3), TransactionKey.of(first), 1);
+        List<Transaction> pastRange = repository.findBetween(BASE_TIME, BASE_TIME.plusSeconds(1),
+                TransactionKey.of(repository.findById("tx-3").orElseThrow()), 10);
+
+        // Assert
+        assertEquals(List.of("tx-2"), page.stream().map(Transaction::getId).toList());
+        assertTrue(pastRange.isEmpty());
+    }
+
+    @Test
+    void findByAccountId_UnknownAccount_ReturnsEmptyList() {
+        assertTrue(repository.findByAccountId("unknown").isEmpty());
+    }
+
+    private Transaction createTransaction(String id, String accountId, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .id(id)
+                .accountId(accountId)
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .description("Test transaction")
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+}
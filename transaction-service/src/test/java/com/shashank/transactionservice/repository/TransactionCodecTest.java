@@ -0,0 +1,44 @@
+package com.shashank.transactionservice.repository;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionCodecTest {
+
+    @Test
+    void encodeDecode_FullTransaction_RoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 987_654_321);
+        Transaction transaction = Transaction.builder()
+                .id("4b0f0c7e-6d5c-4f8a-9d1e-1f2a3b4c5d6e")
+                .accountId("12345678")
+                .amount(new BigDecimal("1234.56"))
+                .currency("EUR")
+                .description("Groceríä")
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.FAILED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusSeconds(1))
+                .build();
+
+        assertEquals(transaction, TransactionCodec.decode(ByteBuffer.wrap(TransactionCodec.encode(transaction))));
+    }
+
+    @Test
+    void encodeDecode_HugeAmountAndNulls_RoundTrips() {
+        Transaction transaction = Transaction.builder()
+                .id("tx-1")
+                .accountId("12345678")
+                .amount(new BigDecimal("123456789012345678901234567890.123456789"))
+                .build();
+
+        assertEquals(transaction, TransactionCodec.decode(ByteBuffer.wrap(TransactionCodec.encode(transaction))));
+    }
+}
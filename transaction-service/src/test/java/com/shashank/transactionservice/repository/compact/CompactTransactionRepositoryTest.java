@@ -0,0 +1,189 @@
+package com.shashank.transactionservice.repository.compact;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.TransactionKey;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactTransactionRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_UuidAndPlainIds_RoundTripAllFields(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        Transaction uuidTransaction = createTransaction(UUID.randomUUID().toString(), "12345678", BASE_TIME);
+        Transaction plainTransaction = createTransaction("tx-plain", "12345678", BASE_TIME.plusSeconds(1));
+        plainTransaction.setDescription(null);
+        plainTransaction.setAmount(new BigDecimal("123456789012345678901234567890.12"));
+        repository.save(uuidTransaction);
+        repository.save(plainTransaction);
+
+        // Act & Assert
+        assertEquals(uuidTransaction, repository.findById(uuidTransaction.getId()).orElseThrow());
+        assertEquals(plainTransaction, repository.findById("tx-plain").orElseThrow());
+        assertTrue(repository.findById("missing").isEmpty());
+        assertTrue(repository.findById(UUID.randomUUID().toString()).isEmpty());
+        assertEquals(offHeap, repository.isOffHeap());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void save_ManyTransactions_KeepsIndexesOrdered(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        int count = 5_000;
+        for (int i = count - 1; i >= 0; i--) {
+            repository.save(createTransaction("tx-" + i, "account-" + (i % 7), BASE_TIME.plusSeconds(i)));
+        }
+
+        // Act
+        List<Transaction> all = repository.findAll();
+        List<Transaction> account = repository.findByAccountId("account-3");
+
+        // Assert
+        assertEquals(count, repository.getRecordCount());
+        assertEquals(count, all.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("tx-" + i, all.get(i).getId());
+        }
+        assertEquals((count - 3 + 6) / 7, account.size());
+        account.forEach(t -> assertEquals("account-3", t.getAccountId()));
+        assertEquals("tx-4999", repository.findById("tx-4999").orElseThrow().getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findAfter_PagesThroughTimelineAndStreams(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        for (int i = 0; i < 5; i++) {
+            repository.save(createTransaction("tx-" + i, "12345678", BASE_TIME));
+        }
+
+        // Act
+        List<Transaction> firstPage = repository.findAfter(null, 2);
+        List<Transaction> secondPage = repository.findAfter(TransactionKey.of(firstPage.get(1)), 2);
+        List<String> streamed = repository.streamByAccountIdAfter("12345678", TransactionKey.of(firstPage.get(0)))
+                .map(Transaction::getId)
+                .toList();
+
+        // Assert
+        assertEquals(List.of("tx-0", "tx-1"), firstPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-2", "tx-3"), secondPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-1", "tx-2", "tx-3", "tx-4"), streamed);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findBetween_IncludesFromAndExcludesTo(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        for (int i = 0; i < 100; i++) {
+            repository.save(createTransaction("tx-" + i, "account-" + (i % 2), BASE_TIME.plusSeconds(i / 2)));
+        }
+
+        // Act
+        List<Transaction> range = repository.findBetween(BASE_TIME.plusSeconds(10), BASE_TIME.plusSeconds(12), null, 10);
+        List<Transaction> accountRange = repository.findByAccountIdBetween("account-1", BASE_TIME.plusSeconds(10),
+                BASE_TIME.plusSeconds(12), null, 10);
+        List<Transaction> nextPage = repository.findBetween(BASE_TIME.plusSeconds(10), BASE_TIME.plusSeconds(12),
+                TransactionKey.of(range.get(1)), 1);
+
+        // Assert
+        assertEquals(List.of("tx-20", "tx-21", "tx-22", "tx-23"), range.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-21", "tx-23"), accountRange.stream().map(Transaction::getId).toList());
+        assertEquals(List.of("tx-22"), nextPage.stream().map(Transaction::getId).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void save_ExistingIdWithDifferentAccount_MovesIndexEntry(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        repository.save(createTransaction("tx-1", "12345678", BASE_TIME));
+
+        // Act
+        repository.save(createTransaction("tx-1", "87654321", BASE_TIME.plusSeconds(1)));
+
+        // Assert
+        assertTrue(repository.findByAccountId("12345678").isEmpty());
+        assertEquals(1, repository.findByAccountId("87654321").size());
+        assertEquals(1, repository.findAll().size());
+        assertEquals("87654321", repository.findById("tx-1").orElseThrow().getAccountId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteById_ManyTransactions_KeepsRemainingReachableAndReusesSlots(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        int count = 1_000;
+        for (int i = 0; i < count; i++) {
+            repository.save(createTransaction("tx-" + i, "account-" + (i % 7), BASE_TIME.plusSeconds(i)));
+        }
+        long slabBytes = repository.getSlabBytes();
+
+        // Act
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(repository.deleteById("tx-" + i).isPresent());
+        }
+        for (int i = 0; i < count; i += 2) {
+            repository.save(createTransaction("tx-new-" + i, "account-1", BASE_TIME.plusSeconds(count + i)));
+        }
+
+        // Assert
+        assertTrue(repository.deleteById("tx-0").isEmpty());
+        assertEquals(count, repository.count());
+        assertEquals(slabBytes, repository.getSlabBytes());
+        for (int i = 1; i < count; i += 2) {
+            assertEquals("tx-" + i, repository.findById("tx-" + i).orElseThrow().getId());
+            assertTrue(repository.findById("tx-" + (i - 1)).isEmpty());
+        }
+        assertEquals("tx-1", repository.findAll().get(0).getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteById_SlotReused_DoesNotKeepOldDescription(boolean offHeap) {
+        // Arrange
+        CompactTransactionRepository repository = new CompactTransactionRepository(offHeap, 16);
+        Transaction original = createTransaction("tx-1", "12345678", BASE_TIME);
+        original.setDescription("Invoice 1001");
+        repository.save(original);
+        repository.deleteById("tx-1");
+
+        // Act
+        Transaction replacement = createTransaction("tx-2", "12345678", BASE_TIME.plusSeconds(1));
+        replacement.setDescription(null);
+        repository.save(replacement);
+
+        // Assert
+        assertNull(repository.findById("tx-2").orElseThrow().getDescription());
+    }
+
+    private Transaction createTransaction(String id, String accountId, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .id(id)
+                .accountId(accountId)
+                .amount(new BigDecimal("100.25"))
+                .currency("USD")
+                .description("Test transaction")
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusNanos(5_000))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.shashank.transactionservice.repository.journal;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.repository.tiered.RetentionPolicy;
+import com.shashank.transactionservice.repository.tiered.TieredTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalingTransactionRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void checkpoint_AfterEviction_RecoveryReplaysOnlyUnarchivedTransactions() throws Exception {
+        // Arrange
+        RetentionPolicy policy = new RetentionPolicy(10, null, 100, 0, 0);
+        TieredTransactionRepository tiered = tiered(policy);
+        try (JournalingTransactionRepository repository = journaled(tiered)) {
+            repository.recover();
+            for (int i = 0; i < 200; i++) {
+                repository.save(createTransaction(i));
+            }
+            tiered.evict();
+
+            // Act
+            int deleted = repository.checkpoint(tiered::isArchivedThrough);
+            assertTrue(deleted > 0, "Journal segments of archived transactions should have been deleted");
+        }
+        RecoveryResult recovery;
+        long count;
+        try (JournalingTransactionRepository repository = journaled(tiered(policy))) {
+            recovery = repository.recover();
+            count = repository.count();
+        }
+
+        // Assert
+        assertTrue(recovery.records() < 200, "replayed " + recovery.records() + " records");
+        assertEquals(200, count);
+    }
+
+    private TieredTransactionRepository tiered(RetentionPolicy policy) {
+        return new TieredTransactionRepository(new InMemoryTransactionRepository(), directory.resolve("cold"),
+                policy, 2);
+    }
+
+    private JournalingTransactionRepository journaled(TieredTransactionRepository tiered) {
+        return new JournalingTransactionRepository(tiered, new TransactionJournal(directory.resolve("journal"),
+                4 * 1024, Duration.ofSeconds(10), 1_000, false, 2));
+    }
+
+    private static Transaction createTransaction(int index) {
+        return Transaction.builder()
+                .id(String.format("tx-%03d", index))
+                .accountId("account-" + (index % 3))
+                .amount(new BigDecimal("10.50"))
+                .currency("USD")
+                .description("Transaction " + index)
+                .type(TransactionType.PAYMENT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(START.plusMinutes(index))
+                .updatedAt(START.plusMinutes(index))
+                .build();
+    }
+}
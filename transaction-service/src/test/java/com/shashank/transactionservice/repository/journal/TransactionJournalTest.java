@@ -0,0 +1,187 @@
+package com.shashank.transactionservice.repository.journal;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionJournalTest {
+
+    private static final int SEGMENT_SIZE = 4 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recover_AfterReopen_ReplaysAllAppendedTransactions() {
+        // Arrange
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> fail("New journal should be empty"));
+            for (int i = 0; i < 100; i++) {
+                journal.append(createTransaction("tx-" + i));
+            }
+        }
+
+        // Act
+        Map<String, Transaction> recovered = new ConcurrentHashMap<>();
+        RecoveryResult result;
+        try (TransactionJournal journal = openJournal(false)) {
+            result = journal.recover(t -> recovered.put(t.getId(), t));
+        }
+
+        // Assert
+        assertEquals(100, result.records());
+        assertTrue(result.segments() > 1, "Small segments should have rolled over");
+        assertEquals(0, result.corruptSegments());
+        assertEquals(createTransaction("tx-42"), recovered.get("tx-42"));
+    }
+
+    @Test
+    void append_AfterRecovery_ContinuesAfterLastRecord() {
+        // Arrange
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> { });
+            journal.append(createTransaction("tx-1"));
+        }
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> { });
+            journal.append(createTransaction("tx-2"));
+        }
+
+        // Act
+        Map<String, Transaction> recovered = new ConcurrentHashMap<>();
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> recovered.put(t.getId(), t));
+        }
+
+        // Assert
+        assertEquals(2, recovered.size());
+        assertTrue(recovered.containsKey("tx-1"));
+        assertTrue(recovered.containsKey("tx-2"));
+    }
+
+    @Test
+    void recover_CorruptedRecord_StopsAtLastIntactRecord() throws Exception {
+        // Arrange
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> { });
+            journal.append(createTransaction("tx-1"));
+            journal.append(createTransaction("tx-2"));
+        }
+        Path segment = onlySegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // flip a byte in the second record's payload
+            int firstLength = file.readInt();
+            long secondPayload = JournalSegment.HEADER_BYTES + firstLength + JournalSegment.HEADER_BYTES + 2;
+            file.seek(secondPayload);
+            int original = file.read();
+            file.seek(secondPayload);
+            file.write(original ^ 0xFF);
+        }
+
+        // Act
+        Map<String, Transaction> recovered = new ConcurrentHashMap<>();
+        RecoveryResult result;
+        try (TransactionJournal journal = openJournal(false)) {
+            result = journal.recover(t -> recovered.put(t.getId(), t));
+            journal.append(createTransaction("tx-3"));
+        }
+        Map<String, Transaction> afterRewrite = new ConcurrentHashMap<>();
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> afterRewrite.put(t.getId(), t));
+        }
+
+        // Assert
+        assertEquals(1, result.records());
+        assertEquals(1, result.corruptSegments());
+        assertEquals(List.of("tx-1"), List.copyOf(recovered.keySet()));
+        assertEquals(2, afterRewrite.size());
+        assertTrue(afterRewrite.containsKey("tx-3"));
+    }
+
+    @Test
+    void append_SyncWrites_ReturnsOnlyOnceDurable() {
+        try (TransactionJournal journal = openJournal(true)) {
+            journal.recover(t -> { });
+
+            journal.append(createTransaction("tx-1"));
+
+            assertEquals(1, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void append_BeforeRecover_ThrowsException() {
+        try (TransactionJournal journal = openJournal(false)) {
+            assertThrows(IllegalStateException.class, () -> journal.append(createTransaction("tx-1")));
+        }
+    }
+
+    @Test
+    void truncate_ArchivedSegments_AreNotReplayed() {
+        // Arrange
+        int deleted;
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> { });
+            for (int i = 0; i < 100; i++) {
+                journal.append(createTransaction(String.format("tx-%03d", i)));
+            }
+
+            // Act
+            deleted = journal.truncate(key -> key.id().compareTo("tx-050") < 0);
+            assertEquals(deleted, journal.getTruncatedSegments());
+        }
+        Map<String, Transaction> recovered = new ConcurrentHashMap<>();
+        try (TransactionJournal journal = openJournal(false)) {
+            journal.recover(t -> recovered.put(t.getId(), t));
+        }
+
+        // Assert
+        assertTrue(deleted > 0, "Segments below tx-050 should have been deleted");
+        assertFalse(recovered.containsKey("tx-000"));
+        for (int i = 50; i < 100; i++) {
+            assertTrue(recovered.containsKey(String.format("tx-%03d", i)));
+        }
+    }
+
+    private TransactionJournal openJournal(boolean syncWrites) {
+        return new TransactionJournal(directory, SEGMENT_SIZE, Duration.ofSeconds(10), 1_000, syncWrites, 4);
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private Transaction createTransaction(String id) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_789);
+        return Transaction.builder()
+                .id(id)
+                .accountId("12345678")
+                .amount(new BigDecimal("100.25"))
+                .currency("USD")
+                .description("Test transaction")
+                .type(TransactionType.PAYMENT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+}
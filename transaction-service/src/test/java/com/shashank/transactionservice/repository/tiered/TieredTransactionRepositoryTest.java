@@ -0,0 +1,185 @@
+package com.shashank.transactionservice.repository.tiered;
+
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import com.shashank.transactionservice.repository.TransactionKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredTransactionRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evict_OverHotMaxCount_ArchivesOldestTransactions() {
+        // Arrange
+        TieredTransactionRepository repository = open(new RetentionPolicy(40, null, 25, 0, 0));
+        saveTransactions(repository, 100);
+
+        // Act
+        long evicted = repository.evict();
+
+        // Assert
+        assertEquals(60, evicted);
+        assertEquals(40, repository.getHotCount());
+        assertEquals(60, repository.getColdCount());
+        assertEquals(3, repository.getSegmentCount());
+        assertEquals(100, repository.count());
+        assertTrue(repository.getSegmentBytes() > 0);
+    }
+
+    @Test
+    void evict_OverHotMaxAge_ArchivesExpiredTransactions() {
+        // Arrange
+        Clock clock = Clock.fixed(START.plusMinutes(100).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        TieredTransactionRepository repository = new TieredTransactionRepository(new InMemoryTransactionRepository(),
+                directory, new RetentionPolicy(0, Duration.ofMinutes(30), 1000, 0, 0), 2, clock);
+        saveTransactions(repository, 100);
+
+        // Act
+        long evicted = repository.evict();
+
+        // Assert
+        assertEquals(70, evicted);
+        assertEquals(30, repository.getHotCount());
+    }
+
+    @Test
+    void findById_AfterEviction_ReadsFromEitherTier() {
+        // Arrange
+        TieredTransactionRepository repository = open(new RetentionPolicy(10, null, 25, 0, 0));
+        saveTransactions(repository, 50);
+        repository.evict();
+
+        // Act & Assert
+        assertEquals(createTransaction(3), repository.findById("tx-003").orElseThrow());
+        assertEquals(createTransaction(45), repository.findById("tx-045").orElseThrow());
+        assertTrue(repository.findById("missing").isEmpty());
+        assertEquals(1, repository.getHotHits());
+        assertEquals(1, repository.getColdHits());
+        assertEquals(1, repository.getMisses());
+    }
+
+    @Test
+    void streamAfter_AcrossTiers_ReturnsTransactionsInKeyOrder() {
+        // Arrange
+        TieredTransactionRepository repository = open(new RetentionPolicy(20, null, 15, 0, 0));
+        saveTransactions(repository, 60);
+        repository.evict();
+        TransactionKey after = TransactionKey.of(createTransaction(9));
+
+        // Act
+        List<Transaction> all = repository.findAll();
+        List<Transaction> page = repository.findAfter(after, 5);
+        List<Transaction> account = repository.findByAccountId("account-2");
+
+        // Assert
+        assertEquals(60, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(String.format("tx-%03d", i), all.get(i).getId());
+        }
+        assertEquals(List.of("tx-010", "tx-011", "tx-012", "tx-013", "tx-014"),
+                page.stream().map(Transaction::getId).toList());
+        assertEquals(20, account.size());
+        assertTrue(account.stream().allMatch(t -> t.getAccountId().equals("account-2")));
+    }
+
+    @Test
+    void save_ReplayOfArchivedTransaction_IsNotReadmittedToHotTier() {
+        // Arrange
+        TieredTransactionRepository repository = open(new RetentionPolicy(10, null, 100, 0, 0));
+        saveTransactions(repository, 30);
+        repository.evict();
+
+        // Act
+        repository.save(createTransaction(5));
+
+        // Assert
+        assertEquals(10, repository.getHotCount());
+        assertEquals(30, repository.count());
+    }
+
+    @Test
+    void isArchivedThrough_KeysUpToOldestUnarchivedTransaction() {
+        // Arrange
+        TieredTransactionRepository repository = open(new RetentionPolicy(10, null, 100, 0, 0));
+        saveTransactions(repository, 30);
+        repository.evict();
+        Transaction late = Transaction.builder()
+                .id("tx-late")
+                .accountId("account-0")
+                .amount(new BigDecimal("1.00"))
+                .currency("USD")
+                .type(TransactionType.PAYMENT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(START.plusMinutes(5))
+                .updatedAt(START.plusMinutes(5))
+                .build();
+
+        // Act
+        boolean archivedBefore = repository.isArchivedThrough(TransactionKey.of(createTransaction(19)));
+        repository.save(late);
+        boolean archivedAfterLateSave = repository.isArchivedThrough(TransactionKey.of(createTransaction(19)));
+
+        // Assert
+        assertTrue(archivedBefore);
+        assertFalse(repository.isArchivedThrough(TransactionKey.of(createTransaction(20))));
+        assertFalse(archivedAfterLateSave);
+        assertTrue(repository.isArchivedThrough(TransactionKey.of(createTransaction(4))));
+    }
+
+    @Test
+    void open_ExistingDirectory_ServesPreviouslyArchivedSegments() {
+        // Arrange
+        TieredTransactionRepository first = open(new RetentionPolicy(1, null, 100, 0, 0));
+        saveTransactions(first, 20);
+        first.evict();
+
+        // Act
+        TieredTransactionRepository reopened = open(new RetentionPolicy(1, null, 100, 0, 0));
+
+        // Assert
+        assertEquals(19, reopened.getColdCount());
+        assertEquals(createTransaction(7), reopened.findById("tx-007").orElseThrow());
+        assertEquals(19, reopened.findAll().size());
+    }
+
+    private TieredTransactionRepository open(RetentionPolicy policy) {
+        return new TieredTransactionRepository(new InMemoryTransactionRepository(), directory, policy, 2);
+    }
+
+    private static void saveTransactions(TieredTransactionRepository repository, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            repository.save(createTransaction(i));
+        }
+    }
+
+    private static Transaction createTransaction(int index) {
+        return Transaction.builder()
+                .id(String.format("tx-%03d", index))
+                .accountId("account-" + (index % 3))
+                .amount(new BigDecimal("10.50").add(BigDecimal.valueOf(index)))
+                .currency("USD")
+                .description("Transaction " + index)
+                .type(TransactionType.PAYMENT)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(START.plusMinutes(index))
+                .updatedAt(START.plusMinutes(index))
+                .build();
+    }
+}
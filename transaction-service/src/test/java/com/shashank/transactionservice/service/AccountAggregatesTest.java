@@ -0,0 +1,97 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.dto.AccountAggregate;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.model.Transaction;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountAggregatesTest {
+
+    private final AccountAggregates aggregates = new AccountAggregates();
+
+    @Test
+    void summarize_GroupsByTypeStatusAndCurrency() {
+        // Arrange
+        aggregates.record(createTransaction("12345678", "10.25", "USD", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        aggregates.record(createTransaction("12345678", "5.5", "USD", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        aggregates.record(createTransaction("12345678", "7.00", "EUR", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        aggregates.record(createTransaction("12345678", "99.99", "USD", TransactionType.PAYMENT, TransactionStatus.FAILED));
+        aggregates.record(createTransaction("87654321", "1.00", "USD", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+
+        // Act
+        AccountSummary summary = aggregates.summarize("12345678");
+
+        // Assert
+        assertEquals(4, summary.getTransactionCount());
+        List<AccountAggregate> lines = summary.getAggregates();
+        assertEquals(3, lines.size());
+        assertEquals(new AccountAggregate(TransactionType.PAYMENT, TransactionStatus.FAILED, "USD", 1,
+                new BigDecimal("99.99")), lines.get(0));
+        assertEquals(new AccountAggregate(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, "EUR", 1,
+                new BigDecimal("7.00")), lines.get(1));
+        assertEquals(new AccountAggregate(TransactionType.DEPOSIT, TransactionStatus.COMPLETED, "USD", 2,
+                new BigDecimal("15.75")), lines.get(2));
+    }
+
+    @Test
+    void summarize_FineScaleAndLargeAmounts_StayExact() {
+        // Arrange
+        aggregates.record(createTransaction("12345678", "0.000001", "BTC", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        aggregates.record(createTransaction("12345678", "123456789012345.5", "BTC", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+        aggregates.record(createTransaction("12345678", "1.25", "BTC", TransactionType.DEPOSIT, TransactionStatus.COMPLETED));
+
+        // Act
+        AccountSummary summary = aggregates.summarize("12345678");
+
+        // Assert
+        assertEquals(new BigDecimal("123456789012346.750001"), summary.getAggregates().get(0).getTotalAmount());
+    }
+
+    @Test
+    void record_ConcurrentWriters_CountsEveryTransaction() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 4_000; i++) {
+            executor.execute(() -> aggregates.record(
+                    createTransaction("12345678", "0.01", "USD", TransactionType.DEPOSIT, TransactionStatus.COMPLETED)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        AccountSummary summary = aggregates.summarize("12345678");
+        assertEquals(4_000, summary.getTransactionCount());
+        assertEquals(new BigDecimal("40.00"), summary.getAggregates().get(0).getTotalAmount());
+    }
+
+    @Test
+    void summarize_UnknownAccount_ReturnsEmptySummary() {
+        AccountSummary summary = aggregates.summarize("unknown");
+        assertEquals(0, summary.getTransactionCount());
+        assertTrue(summary.getAggregates().isEmpty());
+    }
+
+    private Transaction createTransaction(String accountId, String amount, String currency, TransactionType type,
+                                          TransactionStatus status) {
+        return Transaction.builder()
+                .id(accountId + "-" + amount)
+                .accountId(accountId)
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .type(type)
+                .status(status)
+                .build();
+    }
+}
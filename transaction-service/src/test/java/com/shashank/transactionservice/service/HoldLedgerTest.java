@@ -0,0 +1,270 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoldLedgerTest {
+
+    private static final String ACCOUNT_ID = "12345678";
+
+    private final TestClock clock = new TestClock();
+
+    @Test
+    void tryHold_OutstandingHoldsCoverBalance_RefusesFurtherDebit() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        AccountBalance balance = balance("100.00", 2L);
+        ledger.commit(ledger.tryHold(ACCOUNT_ID, balance, new BigDecimal("60.00")), balance("40.00", 4L));
+
+        // Act
+        HoldLedger.Hold refused = ledger.tryHold(ACCOUNT_ID, balance, new BigDecimal("50.00"));
+        HoldLedger.Hold granted = ledger.tryHold(ACCOUNT_ID, balance, new BigDecimal("40.00"));
+
+        // Assert
+        assertNull(refused);
+        assertNotNull(granted);
+        assertEquals(new BigDecimal("0.00"), ledger.remaining(ACCOUNT_ID, balance));
+        assertEquals(2, ledger.getOutstanding());
+    }
+
+    @Test
+    void tryHold_OtherAccountsHolds_AreNotCounted() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(1, Duration.ofMinutes(5), clock);
+        ledger.tryHold("other", balance("100.00", 2L), new BigDecimal("100.00"));
+
+        // Act
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, balance("100.00", 2L), new BigDecimal("100.00"));
+
+        // Assert
+        assertNotNull(hold);
+    }
+
+    @Test
+    void release_UnrecordedDebit_FreesItsAmount() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        AccountBalance balance = balance("100.00", 2L);
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, balance, new BigDecimal("100.00"));
+
+        // Act
+        ledger.release(hold);
+
+        // Assert
+        assertNotNull(ledger.tryHold(ACCOUNT_ID, balance, new BigDecimal("100.00")));
+    }
+
+    @Test
+    void tryHold_BalanceIncludingDebit_SettlesHold() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        ledger.commit(ledger.tryHold(ACCOUNT_ID, balance("100.00", 2L), new BigDecimal("100.00")),
+                balance("0.00", 4L));
+
+        // Act
+        HoldLedger.Hold stale = ledger.tryHold(ACCOUNT_ID, balance("100.00", 2L), new BigDecimal("1.00"));
+        HoldLedger.Hold fresh = ledger.tryHold(ACCOUNT_ID, balance("100.00", 6L), new BigDecimal("1.00"));
+
+        // Assert
+        assertNull(stale);
+        assertNotNull(fresh);
+        assertEquals(1, ledger.getOutstanding());
+    }
+
+    @Test
+    void tryHold_BalanceUpdatedLaterWithoutDebit_KeepsHold() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        LocalDateTime fetchedBefore = clock.now();
+        ledger.commit(ledger.tryHold(ACCOUNT_ID, balance("100.00", fetchedBefore, 2L), new BigDecimal("100.00")),
+                balance("0.00", fetchedBefore, 6L));
+        clock.advance(Duration.ofSeconds(1));
+
+        // Act
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, balance("100.00", clock.now(), 4L), new BigDecimal("1.00"));
+
+        // Assert
+        assertNull(hold);
+        assertEquals(1, ledger.getOutstanding());
+    }
+
+    @Test
+    void tryHold_UncommittedHold_IsNotSettledByNewerBalance() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        ledger.tryHold(ACCOUNT_ID, balance("100.00", 2L), new BigDecimal("100.00"));
+        clock.advance(Duration.ofSeconds(1));
+
+        // Act
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, balance("100.00", 4L), new BigDecimal("1.00"));
+
+        // Assert
+        assertNull(hold);
+    }
+
+    @Test
+    void tryHold_AfterMaxAge_DropsHold() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+        ledger.commit(ledger.tryHold(ACCOUNT_ID, balance("100.00", (Long) null), new BigDecimal("100.00")),
+                balance("0.00", (Long) null));
+
+        // Act
+        clock.advance(Duration.ofMinutes(5).plusSeconds(1));
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, balance("100.00", (Long) null), new BigDecimal("100.00"));
+
+        // Assert
+        assertNotNull(hold);
+        assertEquals(1, ledger.getOutstanding());
+    }
+
+    @Test
+    void tryHold_WithoutAvailableBalance_IsGranted() {
+        // Arrange
+        HoldLedger ledger = new HoldLedger(16, Duration.ofMinutes(5), clock);
+
+        // Act
+        HoldLedger.Hold hold = ledger.tryHold(ACCOUNT_ID, null, new BigDecimal("100.00"));
+
+        // Assert
+        assertNotNull(hold);
+        assertNull(ledger.remaining(ACCOUNT_ID, null));
+    }
+
+    @Test
+    void createTransaction_ConcurrentWithdrawalsOnOneAccount_NeverOverdraw() throws Exception {
+        // Arrange
+        int threads = 16;
+        int perThread = 50;
+        AccountBalance balance = balance("1000.00", 2L);
+        AtomicLong version = new AtomicLong(2);
+        BalanceClient balanceClient = new BalanceClient() {
+            @Override
+            public AccountBalance getBalance(String accountId) {
+                return balance;
+            }
+
+            // Balances-service takes every debit; only the holds keep the account from being overdrawn
+            @Override
+            public AccountBalance debit(String accountId, BigDecimal amount) {
+                return balance("0.00", version.addAndGet(2));
+            }
+
+            @Override
+            public AccountBalance credit(String accountId, BigDecimal amount) {
+                throw new UnsupportedOperationException("No credit expected");
+            }
+        };
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        TransactionServiceImpl service = new TransactionServiceImpl(repository, balanceClient, null,
+                new IdempotencyStore(Duration.ofMinutes(10), 10), new HoldLedger(16, Duration.ofMinutes(5)));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        service.createTransaction(withdrawal("7.00"));
+                    } catch (InsufficientFundsException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        BigDecimal debited = service.getAllTransactions().stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
+                .map(TransactionResponse::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(new BigDecimal("994.00"), debited);
+        assertEquals(threads * perThread - 142, refused.get());
+    }
+
+    private static TransactionRequest withdrawal(String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountId(ACCOUNT_ID);
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("USD");
+        request.setType(TransactionType.WITHDRAWAL);
+        return request;
+    }
+
+    private static AccountBalance balance(String available, Long version) {
+        return balance(available, null, version);
+    }
+
+    private static AccountBalance balance(String available, LocalDateTime lastUpdated, Long version) {
+        return AccountBalance.builder()
+                .accountNumber(ACCOUNT_ID)
+                .availableBalance(new BigDecimal(available))
+                .currency("USD")
+                .lastUpdated(lastUpdated)
+                .version(version)
+                .build();
+    }
+
+    private static final class TestClock extends Clock {
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        LocalDateTime now() {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.IdempotencyKeyConflictException;
+import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.exception.InvalidIdempotencyKeyException;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final TransactionRequest request = request("100.00");
+
+    @Test
+    void execute_RepeatedKey_ReplaysOriginalResponse() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        TransactionResponse original = store.execute("key-1", request, this::create);
+
+        // Act
+        TransactionResponse repeat = store.execute("key-1", request("100.00"), this::create);
+
+        // Assert
+        assertSame(original, repeat);
+        assertEquals(1, executions.get());
+        assertEquals(1, store.getReplayed());
+    }
+
+    @Test
+    void execute_AfterTtl_RunsAgain() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        store.execute("key-1", request, this::create);
+
+        // Act
+        now.addAndGet(Duration.ofMinutes(10).toNanos());
+        store.execute("key-1", request, this::create);
+
+        // Assert
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_SlowRequest_TtlStartsWhenItCompletes() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        store.execute("key-1", request, () -> {
+            now.addAndGet(Duration.ofMinutes(15).toNanos());
+            return create();
+        });
+
+        // Act
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        store.execute("key-1", request, this::create);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(1, store.getReplayed());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_WaitsForInFlightRequest() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TransactionResponse> first = executor.submit(() -> store.execute("key-1", request, () -> {
+                started.countDown();
+                await(release);
+                return create();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            Future<TransactionResponse> duplicate = executor.submit(() -> store.execute("key-1", request, this::create));
+            while (store.getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_Conflicts() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        store.execute("key-1", request, this::create);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("key-1", request("200.00"), this::create));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_InsufficientFunds_ReplaysFailure() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        assertThrows(InsufficientFundsException.class, () -> store.execute("key-1", request, () -> {
+            executions.incrementAndGet();
+            throw new InsufficientFundsException("Insufficient funds for transaction");
+        }));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> store.execute("key-1", request, this::create));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_TransientFailure_AllowsRetry() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        assertThrows(ResourceAccessException.class, () -> store.execute("key-1", request, () -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        // Act
+        TransactionResponse response = store.execute("key-1", request, this::create);
+
+        // Assert
+        assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ErrorThrown_FailsWaitersAndAllowsRetry() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TransactionResponse> first = executor.submit(() -> store.execute("key-1", request, () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<TransactionResponse> duplicate = executor.submit(
+                    () -> store.execute("key-1", request, this::create));
+            while (store.getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // Act
+            release.countDown();
+
+            // Assert
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+            ExecutionException waiter = assertThrows(ExecutionException.class,
+                    () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, waiter.getCause());
+            assertEquals(0, store.getSize());
+            assertEquals(TransactionStatus.COMPLETED, store.execute("key-1", request, this::create).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_OverMaxEntries_DropsOldestKeys() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 2, now::get);
+
+        // Act
+        store.execute("key-1", request, this::create);
+        store.execute("key-2", request, this::create);
+        store.execute("key-3", request, this::create);
+        store.execute("key-1", request, this::create);
+
+        // Assert
+        assertEquals(4, executions.get());
+        assertEquals(2, store.getSize());
+    }
+
+    @Test
+    void execute_OverMaxEntries_KeepsKeysInFlight() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 1, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<TransactionResponse> first = executor.submit(() -> store.execute("key-1", request, () -> {
+            started.countDown();
+            await(release);
+            return create();
+        }));
+        started.await();
+
+        // Act
+        store.execute("key-2", request, this::create);
+        store.execute("key-3", request, this::create);
+        Future<TransactionResponse> retry = executor.submit(() -> store.execute("key-1", request, this::create));
+        release.countDown();
+
+        // Assert
+        assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(3, executions.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_OverlongKey_Rejected() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 10, now::get);
+
+        // Act & Assert
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> store.execute("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), request, this::create));
+    }
+
+    private TransactionResponse create() {
+        return TransactionResponse.builder()
+                .id("tx-" + executions.incrementAndGet())
+                .status(TransactionStatus.COMPLETED)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static TransactionRequest request(String amount) {
+        return TransactionRequest.builder()
+                .accountId("12345678")
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .type(TransactionType.PAYMENT)
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.shashank.transactionservice.service;
+
+import com.shashank.transactionservice.client.BalanceClient;
+import com.shashank.transactionservice.client.ReactiveBalanceClient;
+import com.shashank.transactionservice.dto.TransactionRequest;
+import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.model.AccountBalance;
+import com.shashank.transactionservice.model.TransactionStatus;
+import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTransactionServiceImplTest {
+
+    private static final String ACCOUNT_ID = "12345678";
+
+    @Mock
+    private ReactiveBalanceClient balanceClient;
+
+    @Mock
+    private BalanceClient debitClient;
+
+    private InMemoryTransactionRepository transactionRepository;
+
+    private TransactionService transactionService;
+
+    private ReactiveTransactionServiceImpl reactiveTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = new InMemoryTransactionRepository();
+        transactionService = new TransactionServiceImpl(transactionRepository, debitClient, null,
+                new IdempotencyStore(Duration.ofMinutes(10), 10), new HoldLedger(16, Duration.ofMinutes(5)));
+        reactiveTransactionService = new ReactiveTransactionServiceImpl(transactionService, balanceClient,
+                Schedulers.immediate());
+    }
+
+    @Test
+    void createTransaction_PaymentWithSufficientFunds_CompletesTransaction() {
+        // Arrange
+        when(balanceClient.getBalance(ACCOUNT_ID)).thenReturn(Mono.just(balance("1000.00")));
+
+        // Act
+        TransactionResponse response = reactiveTransactionService
+                .createTransaction(request("500.00", TransactionType.PAYMENT)).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+        assertEquals(1, transactionRepository.count());
+        verify(debitClient).debit(ACCOUNT_ID, new BigDecimal("500.00"));
+    }
+
+    @Test
+    void createTransaction_PaymentWithInsufficientFunds_RecordsFailureAndErrors() {
+        // Arrange
+        when(balanceClient.getBalance(ACCOUNT_ID)).thenReturn(Mono.just(balance("100.00")));
+
+        // Act
+        Mono<TransactionResponse> response = reactiveTransactionService
+                .createTransaction(request("500.00", TransactionType.PAYMENT));
+
+        // Assert
+        assertThrows(InsufficientFundsException.class, response::block);
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void createTransaction_UnknownAccount_CompletesTransaction() {
+        // Arrange
+        when(balanceClient.getBalance(ACCOUNT_ID)).thenReturn(Mono.empty());
+
+        // Act
+        TransactionResponse response = reactiveTransactionService
+                .createTransaction(request("500.00", TransactionType.WITHDRAWAL)).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+    }
+
+    @Test
+    void createTransaction_BalanceServiceFails_RecordsNothing() {
+        // Arrange
+        when(balanceClient.getBalance(ACCOUNT_ID))
+                .thenReturn(Mono.error(new ResourceAccessException("Connection refused")));
+
+        // Act
+        Mono<TransactionResponse> response = reactiveTransactionService
+                .createTransaction(request("500.00", TransactionType.PAYMENT));
+
+        // Assert
+        assertThrows(ResourceAccessException.class, response::block);
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void createTransaction_RecordsOnSchedulerInCallersTrace() {
+        // Arrange
+        ReactiveTransactionServiceImpl service = new ReactiveTransactionServiceImpl(transactionService, balanceClient,
+                Schedulers.boundedElastic());
+        when(balanceClient.getBalance(ACCOUNT_ID))
+                .thenReturn(Mono.just(balance("1000.00")).publishOn(Schedulers.parallel()));
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<String> traceId = new AtomicReference<>();
+        when(debitClient.debit(ACCOUNT_ID, new BigDecimal("500.00"))).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            traceId.set(Span.current().getSpanContext().getTraceId());
+            return null;
+        });
+        Span caller = Span.wrap(SpanContext.create("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331",
+                TraceFlags.getSampled(), TraceState.getDefault()));
+
+        // Act
+        Mono<TransactionResponse> created;
+        try (Scope ignored = caller.makeCurrent()) {
+            created = service.createTransaction(request("500.00", TransactionType.PAYMENT));
+        }
+        TransactionResponse response = created.block();
+
+        // Assert
+        assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+        assertTrue(thread.get().startsWith("boundedElastic"), thread.get());
+        assertEquals(caller.getSpanContext().getTraceId(), traceId.get());
+    }
+
+    @Test
+    void createTransaction_Deposit_DoesNotCheckBalance() {
+        // Act
+        TransactionResponse response = reactiveTransactionService
+                .createTransaction(request("500.00", TransactionType.DEPOSIT)).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+        verifyNoInteractions(balanceClient);
+    }
+
+    @Test
+    void getTransactionsByAccountId_StreamsAccountTransactions() {
+        // Arrange
+        reactiveTransactionService.createTransaction(request("10.00", TransactionType.DEPOSIT)).block();
+        reactiveTransactionService.createTransaction(request("20.00", TransactionType.DEPOSIT)).block();
+
+        // Act
+        List<TransactionResponse> responses = reactiveTransactionService.getTransactionsByAccountId(ACCOUNT_ID)
+                .collectList().block();
+
+        // Assert
+        assertNotNull(responses);
+        assertEquals(2, responses.size());
+        assertEquals(2, reactiveTransactionService.getAccountSummary(ACCOUNT_ID).block().getTransactionCount());
+    }
+
+    private static TransactionRequest request(String amount, TransactionType type) {
+        return TransactionRequest.builder()
+                .accountId(ACCOUNT_ID)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .type(type)
+                .build();
+    }
+
+    private static AccountBalance balance(String availableBalance) {
+        return AccountBalance.builder()
+                .accountNumber(ACCOUNT_ID)
+                .availableBalance(new BigDecimal(availableBalance))
+                .currency("USD")
+                .build();
+    }
+}
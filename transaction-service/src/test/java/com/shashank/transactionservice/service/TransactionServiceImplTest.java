@@ -1,31 +1,51 @@
 package com.shashank.transactionservice.service;
 
+import com.shashank.transactionservice.client.RestBalanceClient;
+import com.shashank.transactionservice.dto.AccountSummary;
+import com.shashank.transactionservice.dto.TransactionBatchItem;
+import com.shashank.transactionservice.dto.TransactionBatchResponse;
+import com.shashank.transactionservice.dto.TransactionPage;
 import com.shashank.transactionservice.dto.TransactionRequest;
 import com.shashank.transactionservice.dto.TransactionResponse;
+import com.shashank.transactionservice.exception.AccountNotFoundException;
 import com.shashank.transactionservice.exception.InsufficientFundsException;
+import com.shashank.transactionservice.exception.InvalidCursorException;
+import com.shashank.transactionservice.exception.InvalidRangeException;
 import com.shashank.transactionservice.exception.TransactionNotFoundException;
 import com.shashank.transactionservice.model.AccountBalance;
 import com.shashank.transactionservice.model.TransactionStatus;
 import com.shashank.transactionservice.model.TransactionType;
+import com.shashank.transactionservice.repository.InMemoryTransactionRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +54,12 @@ public class TransactionServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Spy
+    private InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     private TransactionServiceImpl transactionService;
 
     @Captor
@@ -45,7 +70,9 @@ public class TransactionServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(transactionService, "balancesServiceUrl", BALANCE_SERVICE_URL);
+        transactionService = new TransactionServiceImpl(transactionRepository,
+                new RestBalanceClient(restTemplate, BALANCE_SERVICE_URL), validator,
+                new IdempotencyStore(Duration.ofMinutes(10), 10), new HoldLedger(16, Duration.ofMinutes(5)));
     }
 
     @Test
@@ -71,6 +98,8 @@ public class TransactionServiceImplTest {
         
         verify(restTemplate).getForObject(urlCaptor.capture(), eq(AccountBalance.class));
         assertEquals(BALANCE_SERVICE_URL + "/" + ACCOUNT_ID, urlCaptor.getValue());
+        verify(restTemplate).postForObject(BALANCE_SERVICE_URL + "/" + ACCOUNT_ID + "/debits",
+                Map.of("amount", transactionAmount), AccountBalance.class);
     }
 
     @Test
@@ -116,6 +145,87 @@ public class TransactionServiceImplTest {
         assertTrue(exception.getMessage().contains("Transaction amount: 1500.00"));
     }
 
+    @Test
+    void createTransaction_DebitRefusedByBalancesService_RecordsFailureAndThrows() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("500.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00")));
+        when(restTemplate.postForObject(anyString(), any(), eq(AccountBalance.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> transactionService.createTransaction(request));
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void createTransaction_DebitToUnknownAccount_RecordsNothingAndReleasesHold() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("1000.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00")));
+        when(restTemplate.postForObject(anyString(), any(), eq(AccountBalance.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .thenReturn(null);
+
+        // Act
+        AccountNotFoundException exception =
+                assertThrows(AccountNotFoundException.class, () -> transactionService.createTransaction(request));
+        assertEquals(0, transactionRepository.count());
+        TransactionResponse retried = transactionService.createTransaction(request);
+
+        // Assert
+        assertTrue(exception.getMessage().contains(ACCOUNT_ID));
+        assertEquals(TransactionStatus.COMPLETED, retried.getStatus());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void createTransaction_UnknownAccount_ThrowsAccountNotFound() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> transactionService.createTransaction(request));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void createTransaction_DebitNotPosted_RecordsNothingAndReleasesHold() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("1000.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00")));
+        when(restTemplate.postForObject(anyString(), any(), eq(AccountBalance.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(null);
+
+        // Act
+        assertThrows(ResourceAccessException.class, () -> transactionService.createTransaction(request));
+        TransactionResponse retried = transactionService.createTransaction(request);
+
+        // Assert
+        assertEquals(TransactionStatus.COMPLETED, retried.getStatus());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void createTransaction_DebitNotRecorded_CreditsItBack() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("500.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00")));
+        doThrow(new IllegalStateException("Journal unavailable")).when(transactionRepository).save(any());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> transactionService.createTransaction(request));
+        verify(restTemplate).postForObject(BALANCE_SERVICE_URL + "/" + ACCOUNT_ID + "/credits",
+                Map.of("amount", new BigDecimal("500.00")), AccountBalance.class);
+    }
+
     @Test
     void createTransaction_Deposit_DoesNotCheckBalance() {
         // Arrange
@@ -152,6 +262,35 @@ public class TransactionServiceImplTest {
         assertEquals(TransactionType.REFUND, response.getType());
     }
 
+    @Test
+    void createTransaction_WithPrefetchedBalance_AppliesItWithoutLookup() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("1500.00"), TransactionType.PAYMENT);
+        AccountBalance balance = createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> transactionService.createTransaction(request, balance));
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findAll().get(0).getStatus());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void createTransaction_RepeatedIdempotencyKey_ReturnsOriginalWithoutLookup() {
+        // Arrange
+        TransactionRequest request = createTransactionRequest(ACCOUNT_ID, new BigDecimal("500.00"), TransactionType.PAYMENT);
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("1000.00")));
+        TransactionResponse original = transactionService.createTransaction("retry-key", request);
+
+        // Act
+        TransactionResponse repeat = transactionService.createTransaction("retry-key", request);
+
+        // Assert
+        assertEquals(original.getId(), repeat.getId());
+        assertEquals(1, transactionRepository.count());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(AccountBalance.class));
+    }
+
     @Test
     void getTransactionById_ExistingTransaction_ReturnsTransaction() {
         // Arrange
@@ -237,6 +376,211 @@ public class TransactionServiceImplTest {
         assertTrue(transactions.isEmpty());
     }
 
+    @Test
+    void createTransactions_LooksUpEachAccountOnceAndTracksRemainingFunds() {
+        // Arrange
+        when(restTemplate.getForObject(BALANCE_SERVICE_URL + "/" + ACCOUNT_ID, AccountBalance.class))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("100.00")));
+        List<TransactionRequest> requests = List.of(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("60.00"), TransactionType.PAYMENT),
+                createTransactionRequest("87654321", new BigDecimal("10.00"), TransactionType.DEPOSIT),
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("50.00"), TransactionType.WITHDRAWAL),
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("40.00"), TransactionType.PAYMENT));
+
+        // Act
+        TransactionBatchResponse response = transactionService.createTransactions(requests);
+
+        // Assert
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(AccountBalance.class));
+        assertEquals(3, response.getCompleted());
+        assertEquals(1, response.getFailed());
+        assertEquals(0, response.getRejected());
+        assertEquals(List.of(TransactionBatchItem.Status.COMPLETED, TransactionBatchItem.Status.COMPLETED,
+                        TransactionBatchItem.Status.FAILED, TransactionBatchItem.Status.COMPLETED),
+                response.getItems().stream().map(TransactionBatchItem::getStatus).toList());
+        assertEquals(2, response.getItems().get(2).getIndex());
+        assertEquals(TransactionStatus.FAILED, response.getItems().get(2).getTransaction().getStatus());
+        assertEquals(4, transactionService.getAllTransactions().size());
+    }
+
+    @Test
+    void createTransactions_InvalidItemsAndUnavailableBalance_AreRejected() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        TransactionRequest invalid = createTransactionRequest(ACCOUNT_ID, new BigDecimal("-1.00"), TransactionType.DEPOSIT);
+        List<TransactionRequest> requests = List.of(
+                invalid,
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.PAYMENT),
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.DEPOSIT));
+
+        // Act
+        TransactionBatchResponse response = transactionService.createTransactions(requests);
+
+        // Assert
+        assertEquals(1, response.getCompleted());
+        assertEquals(2, response.getRejected());
+        assertEquals("Amount must be positive", response.getItems().get(0).getError());
+        assertTrue(response.getItems().get(1).getError().contains("unavailable"));
+        assertNull(response.getItems().get(1).getTransaction());
+        assertEquals(1, transactionService.getAllTransactions().size());
+    }
+
+    @Test
+    void createTransactions_UnknownAccount_RejectsItsDebits() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        List<TransactionRequest> requests = List.of(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.PAYMENT),
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.DEPOSIT));
+
+        // Act
+        TransactionBatchResponse response = transactionService.createTransactions(requests);
+
+        // Assert
+        assertEquals(TransactionBatchItem.Status.REJECTED, response.getItems().get(0).getStatus());
+        assertEquals("Account not found with id: " + ACCOUNT_ID, response.getItems().get(0).getError());
+        assertEquals(TransactionBatchItem.Status.COMPLETED, response.getItems().get(1).getStatus());
+    }
+
+    @Test
+    void getAccountSummary_IncludesCompletedAndFailedTransactions() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(AccountBalance.class)))
+                .thenReturn(createAccountBalance(ACCOUNT_ID, new BigDecimal("50.00")));
+        transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("100.00"), TransactionType.DEPOSIT));
+        transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("25.50"), TransactionType.DEPOSIT));
+        assertThrows(InsufficientFundsException.class, () -> transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("75.00"), TransactionType.PAYMENT)));
+
+        // Act
+        AccountSummary summary = transactionService.getAccountSummary(ACCOUNT_ID);
+
+        // Assert
+        assertEquals(3, summary.getTransactionCount());
+        assertEquals(2, summary.getAggregates().size());
+        assertEquals(TransactionStatus.FAILED, summary.getAggregates().get(0).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, summary.getAggregates().get(1).getStatus());
+        assertEquals(new BigDecimal("125.50"), summary.getAggregates().get(1).getTotalAmount());
+    }
+
+    @Test
+    void getTransactionsBetween_ReturnsTransactionsCreatedInRange() {
+        // Arrange
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("100.00"), TransactionType.DEPOSIT));
+        transactionService.createTransaction(
+                createTransactionRequest("87654321", new BigDecimal("200.00"), TransactionType.DEPOSIT));
+        LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+        // Act
+        TransactionPage all = transactionService.getTransactionsBetween(before, after, null, null, 10);
+        TransactionPage account = transactionService.getTransactionsBetween(before, after, ACCOUNT_ID, null, 10);
+        TransactionPage none = transactionService.getTransactionsBetween(after, after.plusHours(1), null, null, 10);
+
+        // Assert
+        assertEquals(2, all.getItems().size());
+        assertNull(all.getNextCursor());
+        assertEquals(1, account.getItems().size());
+        assertEquals(ACCOUNT_ID, account.getItems().get(0).getAccountId());
+        assertTrue(none.getItems().isEmpty());
+    }
+
+    @Test
+    void getTransactionsBetween_WalksRangeWithCursor() {
+        // Arrange
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(
+                    createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.DEPOSIT));
+        }
+        LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+        // Act
+        List<String> seen = new ArrayList<>();
+        TransactionPage page = transactionService.getTransactionsBetween(before, after, ACCOUNT_ID, null, 2);
+        seen.addAll(page.getItems().stream().map(TransactionResponse::getId).toList());
+        while (page.getNextCursor() != null) {
+            page = transactionService.getTransactionsBetween(before, after, ACCOUNT_ID, page.getNextCursor(), 2);
+            seen.addAll(page.getItems().stream().map(TransactionResponse::getId).toList());
+        }
+
+        // Assert
+        assertEquals(transactionService.getAllTransactions().stream().map(TransactionResponse::getId).toList(), seen);
+        assertEquals(5, seen.size());
+    }
+
+    @Test
+    void getTransactionsBetween_FromAfterTo_ThrowsException() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(InvalidRangeException.class,
+                () -> transactionService.getTransactionsBetween(now, now.minusDays(1), null, null, 10));
+    }
+
+    @Test
+    void getTransactionsPage_WalksAllTransactionsWithCursor() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(
+                    createTransactionRequest(ACCOUNT_ID, new BigDecimal("10.00"), TransactionType.DEPOSIT));
+        }
+
+        // Act
+        List<String> seen = new ArrayList<>();
+        TransactionPage page = transactionService.getTransactionsPage(null, 2);
+        seen.addAll(page.getItems().stream().map(TransactionResponse::getId).toList());
+        while (page.getNextCursor() != null) {
+            page = transactionService.getTransactionsPage(page.getNextCursor(), 2);
+            seen.addAll(page.getItems().stream().map(TransactionResponse::getId).toList());
+        }
+
+        // Assert
+        assertEquals(transactionService.getAllTransactions().stream().map(TransactionResponse::getId).toList(), seen);
+        assertEquals(5, seen.size());
+    }
+
+    @Test
+    void getTransactionsByAccountIdPage_LastPage_HasNoCursor() {
+        // Arrange
+        transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("100.00"), TransactionType.DEPOSIT));
+        transactionService.createTransaction(
+                createTransactionRequest("87654321", new BigDecimal("200.00"), TransactionType.DEPOSIT));
+
+        // Act
+        TransactionPage page = transactionService.getTransactionsByAccountIdPage(ACCOUNT_ID, null, 10);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(ACCOUNT_ID, page.getItems().get(0).getAccountId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTransactionsPage_InvalidCursor_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> transactionService.getTransactionsPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void streamTransactionsByAccountId_ReturnsMatchingTransactions() {
+        // Arrange
+        transactionService.createTransaction(
+                createTransactionRequest(ACCOUNT_ID, new BigDecimal("100.00"), TransactionType.DEPOSIT));
+        transactionService.createTransaction(
+                createTransactionRequest("87654321", new BigDecimal("200.00"), TransactionType.DEPOSIT));
+
+        // Act
+        List<TransactionResponse> transactions = transactionService.streamTransactionsByAccountId(ACCOUNT_ID, null).toList();
+
+        // Assert
+        assertEquals(1, transactions.size());
+        assertEquals(ACCOUNT_ID, transactions.get(0).getAccountId());
+    }
+
     private TransactionRequest createTransactionRequest(String accountId, BigDecimal amount, TransactionType type) {
         return TransactionRequest.builder()
                 .accountId(accountId)
@@ -0,0 +1,242 @@
+package com.shashank.transactionservice.tracing;
+
+import com.shashank.transactionservice.exception.InsufficientFundsException;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveTraceSamplerTest {
+
+    private static final AttributeKey<Long> STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+
+    private long now = 1_000_000_000L;
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+
+    @Test
+    void shouldSample_RootSpans_AreRateLimitedPerEndpoint() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(1, 2);
+        Tracer tracer = tracer(sampler);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            root(tracer, "/api/transactions/TX-" + i).end();
+        }
+        root(tracer, "/api/transactions").end();
+        now += TimeUnit.SECONDS.toNanos(1);
+        root(tracer, "/api/transactions/TX-9").end();
+
+        // Assert
+        assertEquals(4, exported.size());
+        assertEquals(4, sampler.getSampledByRate());
+        assertEquals(3, sampler.getDeferred());
+        assertEquals(3, sampler.getDiscarded());
+        assertEquals(2, sampler.getEndpoints());
+        assertTrue(exported.stream().allMatch(span -> span.getSpanContext().isSampled()));
+    }
+
+    @Test
+    void onEnd_TraceRecordingKeptException_IsExportedWhole() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(0, 1);
+        Tracer tracer = tracer(sampler);
+        Span root = root(tracer, "/api/transactions");
+
+        // Act
+        try (Scope ignored = root.makeCurrent()) {
+            tracer.spanBuilder("check balance").startSpan().end();
+            Span service = tracer.spanBuilder("createTransaction").startSpan();
+            service.recordException(new InsufficientFundsException("Insufficient funds"));
+            service.end();
+        }
+        root.end();
+        root(tracer, "/api/transactions").end();
+
+        // Assert
+        assertEquals(3, exported.size());
+        assertTrue(exported.stream().allMatch(span -> span.getSpanContext().isSampled()));
+        assertTrue(exported.stream().allMatch(span -> span.getTraceId().equals(root.getSpanContext().getTraceId())));
+        assertEquals(1, sampler.getKeptException());
+        assertEquals(1, sampler.getDiscarded());
+        assertEquals(0, sampler.getPendingTraces());
+    }
+
+    @Test
+    void onEnd_ServerErrorResponse_IsKept() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(0, 1);
+        Tracer tracer = tracer(sampler);
+
+        // Act
+        Span root = root(tracer, "/api/transactions");
+        root.setAttribute(STATUS_CODE, 503L);
+        root.end();
+        Span rejected = root(tracer, "/api/transactions");
+        rejected.setAttribute(STATUS_CODE, 400L);
+        rejected.end();
+
+        // Assert
+        assertEquals(1, exported.size());
+        assertEquals(1, sampler.getKeptServerError());
+        assertEquals(1, sampler.getDiscarded());
+    }
+
+    @Test
+    void onEnd_RootSlowerThanEndpointPercentile_IsKept() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(0, 1);
+        Tracer tracer = tracer(sampler);
+        for (int i = 0; i < 100; i++) {
+            Span root = root(tracer, "/api/transactions");
+            now += TimeUnit.MILLISECONDS.toNanos(10 + i % 5);
+            root.end();
+        }
+
+        // Act
+        Span usual = root(tracer, "/api/transactions");
+        now += TimeUnit.MILLISECONDS.toNanos(12);
+        usual.end();
+        Span slow = root(tracer, "/api/transactions");
+        now += TimeUnit.MILLISECONDS.toNanos(80);
+        slow.end();
+
+        // Assert
+        assertEquals(1, exported.size());
+        assertEquals(slow.getSpanContext().getSpanId(), exported.get(0).getSpanId());
+        assertEquals(1, sampler.getKeptSlow());
+        assertEquals(101, sampler.getDiscarded());
+    }
+
+    @Test
+    void onEnd_TraceWithSpanPickedAsExemplar_IsExportedWhole() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(0, 1);
+        Tracer tracer = tracer(sampler);
+        ExemplarSpanContext exemplars = new ExemplarSpanContext();
+        Span root = root(tracer, "/api/transactions");
+
+        // Act
+        try (Scope ignored = root.makeCurrent()) {
+            Span service = tracer.spanBuilder("createTransaction").startSpan();
+            try (Scope inner = service.makeCurrent()) {
+                exemplars.markCurrentSpanAsExemplar();
+            }
+            service.end();
+        }
+        root.end();
+
+        // Assert
+        assertEquals(2, exported.size());
+        assertEquals(1, sampler.getKeptExemplar());
+        assertEquals(0, sampler.getDiscarded());
+    }
+
+    @Test
+    void onEnd_TraceKeptForSeveralReasons_IsCountedUnderFirst() {
+        // Arrange
+        AdaptiveTraceSampler sampler = sampler(0, 1);
+        Tracer tracer = tracer(sampler);
+        Span root = root(tracer, "/api/transactions");
+
+        // Act
+        try (Scope ignored = root.makeCurrent()) {
+            tracer.spanBuilder("check balance").startSpan()
+                    .setAttribute(AdaptiveTraceSampler.EXEMPLAR, AdaptiveTraceSampler.EXEMPLAR_VALUE)
+                    .end();
+            Span service = tracer.spanBuilder("createTransaction").startSpan();
+            service.recordException(new InsufficientFundsException("Insufficient funds"));
+            service.end();
+        }
+        root.end();
+
+        // Assert
+        assertEquals(3, exported.size());
+        assertEquals(1, sampler.getKeptException());
+        assertEquals(0, sampler.getKeptExemplar());
+    }
+
+    @Test
+    void endpointKey_FoldsSegmentsWithDigits() {
+        // Act & Assert
+        assertEquals("GET /api/transactions/account/{id}",
+                AdaptiveTraceSampler.endpointKey("GET", "GET", "/api/transactions/account/ACC-42"));
+        assertEquals("POST /api/transactions", AdaptiveTraceSampler.endpointKey("POST", "POST", "/api/transactions"));
+        assertEquals("balance-feed", AdaptiveTraceSampler.endpointKey("balance-feed", null, null));
+    }
+
+    private AdaptiveTraceSampler sampler(double tracesPerSecond, int burst) {
+        return new AdaptiveTraceSampler(tracesPerSecond, burst, 0.99, Duration.ofMillis(1), 100, 10, 100,
+                Duration.ofSeconds(30),
+                List.of("com.shashank.transactionservice.exception.InsufficientFundsException"), () -> now);
+    }
+
+    private Tracer tracer(AdaptiveTraceSampler sampler) {
+        SpanExporter exporter = new SpanExporter() {
+            @Override
+            public CompletableResultCode export(Collection<SpanData> spans) {
+                exported.addAll(spans);
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode flush() {
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode shutdown() {
+                return CompletableResultCode.ofSuccess();
+            }
+        };
+        tracerProvider = SdkTracerProvider.builder()
+                .setClock(new Clock() {
+                    @Override
+                    public long now() {
+                        return now;
+                    }
+
+                    @Override
+                    public long nanoTime() {
+                        return now;
+                    }
+                })
+                .setSampler(sampler)
+                .addSpanProcessor(sampler.wrap(SimpleSpanProcessor.create(exporter)))
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    private static Span root(Tracer tracer, String path) {
+        return tracer.spanBuilder("GET")
+                .setNoParent()
+                .setAttribute("http.request.method", "GET")
+                .setAttribute(URL_PATH, path)
+                .startSpan();
+    }
+}
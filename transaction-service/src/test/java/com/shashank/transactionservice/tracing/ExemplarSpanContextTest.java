@@ -0,0 +1,79 @@
+package com.shashank.transactionservice.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExemplarSpanContextTest {
+
+    private final ExemplarSpanContext exemplars = new ExemplarSpanContext();
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        // Samples nothing up front, so every span is recorded unsampled
+        AdaptiveTraceSampler sampler = new AdaptiveTraceSampler(0, 1, 0.99, Duration.ofMillis(100), 100, 10, 100,
+                Duration.ofSeconds(30), List.of());
+        tracerProvider = SdkTracerProvider.builder().setSampler(sampler).build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void isCurrentSpanSampled_UnsampledSpanStillRecording_IsOffered() {
+        // Arrange
+        Span span = tracer.spanBuilder("GET").startSpan();
+
+        // Act & Assert
+        try (Scope ignored = span.makeCurrent()) {
+            assertFalse(span.getSpanContext().isSampled());
+            assertTrue(exemplars.isCurrentSpanSampled());
+            assertEquals(span.getSpanContext().getTraceId(), exemplars.getCurrentTraceId());
+            assertEquals(span.getSpanContext().getSpanId(), exemplars.getCurrentSpanId());
+        }
+        span.end();
+    }
+
+    @Test
+    void isCurrentSpanSampled_EndedOrMissingSpan_IsNotOffered() {
+        // Arrange
+        Span span = tracer.spanBuilder("GET").startSpan();
+        span.end();
+
+        // Act & Assert
+        try (Scope ignored = span.makeCurrent()) {
+            assertFalse(exemplars.isCurrentSpanSampled());
+        }
+        assertFalse(exemplars.isCurrentSpanSampled());
+    }
+
+    @Test
+    void markCurrentSpanAsExemplar_SetsExemplarAttribute() {
+        // Arrange
+        Span span = tracer.spanBuilder("GET").startSpan();
+
+        // Act
+        try (Scope ignored = span.makeCurrent()) {
+            exemplars.markCurrentSpanAsExemplar();
+        }
+
+        // Assert
+        assertEquals("true", ((ReadableSpan) span).getAttribute(AdaptiveTraceSampler.EXEMPLAR));
+        span.end();
+    }
+}